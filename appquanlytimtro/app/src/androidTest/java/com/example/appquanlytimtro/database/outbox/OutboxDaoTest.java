@@ -0,0 +1,165 @@
+package com.example.appquanlytimtro.database.outbox;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.appquanlytimtro.database.AppDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra logic gộp thao tác của OutboxDao.enqueue() trên cơ sở dữ liệu Room trong bộ nhớ, để các truy vấn
+ * tìm/xóa/cập nhật thao tác đang chờ chạy đúng SQL thật.
+ */
+@RunWith(AndroidJUnit4.class)
+public class OutboxDaoTest {
+
+    private static final String USER = "user-1";
+    private static final List<Long> NONE_IN_FLIGHT = Collections.emptyList();
+
+    private AppDatabase database;
+    private OutboxDao dao;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        dao = database.outboxDao();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void latestLikeStateReplacesPendingOne() {
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_ROOM_LIKE, "room-1", "true"), NONE_IN_FLIGHT));
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_ROOM_LIKE, "room-1", "false"), NONE_IN_FLIGHT));
+        assertEquals(1, rows(USER).size());
+        assertEquals("false", rows(USER).get(0).value);
+
+        assertFalse(dao.enqueue(op(OutboxEntity.TYPE_ROOM_LIKE, "room-1", "false"), NONE_IN_FLIGHT));
+        assertEquals(1, rows(USER).size());
+    }
+
+    @Test
+    public void likeBeingSentIsNotReplaced() {
+        dao.enqueue(op(OutboxEntity.TYPE_ROOM_LIKE, "room-1", "true"), NONE_IN_FLIGHT);
+        List<Long> inFlight = ids(rows(USER));
+
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_ROOM_LIKE, "room-1", "false"), inFlight));
+        List<OutboxEntity> rows = rows(USER);
+        assertEquals(2, rows.size());
+        assertEquals("true", rows.get(0).value);
+        assertEquals("false", rows.get(1).value);
+    }
+
+    @Test
+    public void repeatedBookingStatusIsDroppedButTransitionsAreKept() {
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_BOOKING_STATUS, "booking-1", "confirmed"), NONE_IN_FLIGHT));
+        assertFalse(dao.enqueue(op(OutboxEntity.TYPE_BOOKING_STATUS, "booking-1", "confirmed"), NONE_IN_FLIGHT));
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_BOOKING_STATUS, "booking-1", "cancelled"), NONE_IN_FLIGHT));
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_BOOKING_STATUS, "booking-1", "confirmed"), NONE_IN_FLIGHT));
+
+        List<String> values = new ArrayList<>();
+        for (OutboxEntity row : rows(USER)) {
+            values.add(row.value);
+        }
+        assertEquals(List.of("confirmed", "cancelled", "confirmed"), values);
+    }
+
+    @Test
+    public void deleteRoomDropsPendingLikesAndDuplicates() {
+        dao.enqueue(op(OutboxEntity.TYPE_ROOM_LIKE, "room-1", "true"), NONE_IN_FLIGHT);
+        dao.enqueue(op(OutboxEntity.TYPE_ROOM_LIKE, "room-2", "true"), NONE_IN_FLIGHT);
+
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_DELETE_ROOM, "room-1", null), NONE_IN_FLIGHT));
+        assertFalse(dao.enqueue(op(OutboxEntity.TYPE_DELETE_ROOM, "room-1", null), NONE_IN_FLIGHT));
+
+        List<OutboxEntity> rows = rows(USER);
+        assertEquals(2, rows.size());
+        assertEquals("room-2", rows.get(0).targetId);
+        assertEquals(OutboxEntity.TYPE_DELETE_ROOM, rows.get(1).type);
+    }
+
+    @Test
+    public void readAllAbsorbsPendingSingleReads() {
+        dao.enqueue(op(OutboxEntity.TYPE_NOTIFICATION_READ, "n-1", null), NONE_IN_FLIGHT);
+        dao.enqueue(op(OutboxEntity.TYPE_NOTIFICATION_READ, "n-2", null), NONE_IN_FLIGHT);
+
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_NOTIFICATION_READ_ALL, USER, null), NONE_IN_FLIGHT));
+        assertEquals(1, rows(USER).size());
+        assertEquals(0, dao.countPending(USER, OutboxEntity.TYPE_NOTIFICATION_READ));
+
+        // Đã có lần đọc tất cả đang chờ và không còn gì để gộp: hàng đợi không đổi
+        assertFalse(dao.enqueue(op(OutboxEntity.TYPE_NOTIFICATION_READ_ALL, USER, null), NONE_IN_FLIGHT));
+
+        dao.enqueue(op(OutboxEntity.TYPE_NOTIFICATION_READ, "n-3", null), NONE_IN_FLIGHT);
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_NOTIFICATION_READ_ALL, USER, null), NONE_IN_FLIGHT));
+        assertEquals(1, rows(USER).size());
+    }
+
+    @Test
+    public void idempotentOperationsAreQueuedOnce() {
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_CONFIRM_PAYMENT, "payment-1", null), NONE_IN_FLIGHT));
+        assertFalse(dao.enqueue(op(OutboxEntity.TYPE_CONFIRM_PAYMENT, "payment-1", null), NONE_IN_FLIGHT));
+        assertTrue(dao.enqueue(op(OutboxEntity.TYPE_CONFIRM_PAYMENT, "payment-2", null), NONE_IN_FLIGHT));
+        assertEquals(2, rows(USER).size());
+    }
+
+    @Test
+    public void operationsOfOtherUsersAreNotMerged() {
+        dao.enqueue(op(OutboxEntity.TYPE_ROOM_LIKE, "room-1", "true"), NONE_IN_FLIGHT);
+        dao.enqueue(new OutboxEntity("user-2", OutboxEntity.TYPE_ROOM_LIKE, "room-1", "true"), NONE_IN_FLIGHT);
+        assertEquals(1, rows(USER).size());
+        assertEquals(1, rows("user-2").size());
+
+        dao.deleteForUser(USER);
+        assertTrue(rows(USER).isEmpty());
+        assertEquals(1, rows("user-2").size());
+    }
+
+    @Test
+    public void incrementAttemptsOnlyTouchesGivenIds() {
+        dao.enqueue(op(OutboxEntity.TYPE_CONFIRM_PAYMENT, "payment-1", null), NONE_IN_FLIGHT);
+        dao.enqueue(op(OutboxEntity.TYPE_CONFIRM_PAYMENT, "payment-2", null), NONE_IN_FLIGHT);
+        List<OutboxEntity> rows = rows(USER);
+
+        dao.incrementAttempts(List.of(rows.get(0).id));
+        dao.deleteByIds(List.of(rows.get(1).id));
+
+        rows = rows(USER);
+        assertEquals(1, rows.size());
+        assertEquals(1, rows.get(0).attempts);
+    }
+
+    private List<OutboxEntity> rows(String userId) {
+        return dao.getPending(userId, Integer.MAX_VALUE);
+    }
+
+    private static OutboxEntity op(String type, String targetId, String value) {
+        return new OutboxEntity(USER, type, targetId, value);
+    }
+
+    private static List<Long> ids(List<OutboxEntity> rows) {
+        List<Long> ids = new ArrayList<>();
+        for (OutboxEntity row : rows) {
+            ids.add(row.id);
+        }
+        return ids;
+    }
+}
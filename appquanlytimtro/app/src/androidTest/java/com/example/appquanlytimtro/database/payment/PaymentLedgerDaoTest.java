@@ -0,0 +1,231 @@
+package com.example.appquanlytimtro.database.payment;
+
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.appquanlytimtro.database.AppDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra tổng cộng dồn của PaymentLedgerDao trên cơ sở dữ liệu Room trong bộ nhớ: sau mỗi lần applyChanges()
+ * (cộng/trừ theo từng dòng), ledger_totals phải bằng kết quả tính lại toàn bộ từ ledger_entries.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PaymentLedgerDaoTest {
+
+    private static final List<String> NONE = Collections.emptyList();
+    private static final List<LedgerEntryEntity> NO_ENTRIES = Collections.emptyList();
+    private static final String[] PAYMENT_STATUSES = {"pending", "processing", "completed", "failed"};
+    private static final String[] BOOKING_STATUSES = {"pending", "confirmed", "deposit_paid", "active"};
+    private static final String[] LANDLORDS = {"landlord-1", "landlord-2", "landlord-3"};
+    private static final String[] MONTHS = {"2024-01", "2024-02", "2024-03"};
+
+    private AppDatabase database;
+    private PaymentLedgerDao dao;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        dao = database.paymentLedgerDao();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void statusChangeMovesAmountBetweenTotals() {
+        dao.applyChanges(List.of(payment("p1", "pending", "landlord-1", "2024-01", 500)), NONE, NONE);
+        dao.applyChanges(List.of(payment("p2", "pending", "landlord-1", "2024-01", 300)), NONE, NONE);
+        dao.applyChanges(List.of(payment("p1", "completed", "landlord-1", "2024-01", 500)), NONE, NONE);
+
+        Map<String, LedgerTotalEntity> totals = totals();
+        LedgerTotalEntity pending = totals.get(key("payment", "pending", "confirmed", "landlord-1", "2024-01"));
+        LedgerTotalEntity completed = totals.get(key("payment", "completed", "confirmed", "landlord-1", "2024-01"));
+        assertEquals(300, pending.amount, 0);
+        assertEquals(1, pending.count);
+        assertEquals(500, completed.amount, 0);
+        assertEquals(1, completed.count);
+        assertTotalsMatchRecompute();
+    }
+
+    @Test
+    public void removingLastEntryDropsItsTotal() {
+        dao.applyChanges(List.of(payment("p1", "pending", "landlord-1", "2024-01", 500)), NONE, NONE);
+        dao.applyChanges(List.of(booking("b1", "landlord-1", "2024-01", 1000)), NONE, NONE);
+
+        dao.applyChanges(NO_ENTRIES, List.of("p1"), List.of("b1"));
+
+        assertTrue(totals().isEmpty());
+        assertEquals(0, entryCount());
+    }
+
+    @Test
+    public void deletingUnknownIdsChangesNothing() {
+        dao.applyChanges(List.of(payment("p1", "completed", "landlord-1", "2024-01", 500)), NONE, NONE);
+
+        // "p1" trong danh sách booking bị bỏ không được xóa thanh toán cùng ID
+        dao.applyChanges(NO_ENTRIES, List.of("missing"), List.of("p1"));
+
+        assertEquals(1, entryCount());
+        assertTotalsMatchRecompute();
+    }
+
+    @Test
+    public void replaceAllRecomputesTotals() {
+        dao.applyChanges(List.of(payment("old", "completed", "landlord-1", "2024-01", 999)), NONE, NONE);
+
+        dao.replaceAll(List.of(
+                payment("p1", "completed", "landlord-1", "2024-01", 100),
+                payment("p2", "completed", "landlord-1", "2024-01", 200),
+                booking("b1", "landlord-2", "2024-02", 50)));
+
+        LedgerTotalEntity completed = totals().get(key("payment", "completed", "confirmed", "landlord-1", "2024-01"));
+        assertEquals(300, completed.amount, 0);
+        assertEquals(2, completed.count);
+        assertTotalsMatchRecompute();
+    }
+
+    @Test
+    public void replaceLandlordPaymentsKeepsOtherLandlords() {
+        dao.applyChanges(List.of(
+                payment("p1", "completed", "landlord-1", "2024-01", 100),
+                payment("p2", "completed", "landlord-2", "2024-01", 200)), NONE, NONE);
+
+        dao.replaceLandlordPayments("landlord-1", List.of(payment("p3", "pending", "landlord-1", "2024-02", 50)));
+
+        assertEquals(2, entryCount());
+        assertEquals(200, totals().get(key("payment", "completed", "confirmed", "landlord-2", "2024-01")).amount, 0);
+        assertTotalsMatchRecompute();
+    }
+
+    @Test
+    public void incrementalTotalsMatchFullRecomputeAfterRandomChanges() {
+        Random random = new Random(42);
+        for (int step = 0; step < 500; step++) {
+            List<LedgerEntryEntity> changed = new ArrayList<>();
+            List<String> deletedPayments = new ArrayList<>();
+            List<String> removedBookings = new ArrayList<>();
+            int operations = 1 + random.nextInt(4);
+            for (int i = 0; i < operations; i++) {
+                String id = String.valueOf(random.nextInt(40));
+                switch (random.nextInt(5)) {
+                    case 0:
+                        deletedPayments.add("p" + id);
+                        break;
+                    case 1:
+                        removedBookings.add("b" + id);
+                        break;
+                    case 2:
+                        changed.add(booking("b" + id, pick(random, LANDLORDS), pick(random, MONTHS),
+                                amount(random)));
+                        break;
+                    default:
+                        LedgerEntryEntity entry = payment("p" + id, pick(random, PAYMENT_STATUSES),
+                                pick(random, LANDLORDS), pick(random, MONTHS), amount(random));
+                        entry.bookingStatus = pick(random, BOOKING_STATUSES);
+                        changed.add(entry);
+                        break;
+                }
+            }
+            dao.applyChanges(changed, deletedPayments, removedBookings);
+            assertTotalsMatchRecompute();
+        }
+    }
+
+    private void assertTotalsMatchRecompute() {
+        Map<String, LedgerTotalEntity> expected = new TreeMap<>();
+        for (LedgerTotalEntity total : dao.sumEntries()) {
+            expected.put(key(total), total);
+        }
+        Map<String, LedgerTotalEntity> actual = totals();
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, LedgerTotalEntity> entry : expected.entrySet()) {
+            LedgerTotalEntity total = actual.get(entry.getKey());
+            assertEquals(entry.getKey(), entry.getValue().count, total.count);
+            assertEquals(entry.getKey(), entry.getValue().amount, total.amount, 1e-6);
+        }
+    }
+
+    // Đọc thẳng bảng ledger_totals vì DAO không có truy vấn trả về toàn bộ bảng
+    private Map<String, LedgerTotalEntity> totals() {
+        Map<String, LedgerTotalEntity> totals = new TreeMap<>();
+        try (Cursor cursor = database.query("SELECT * FROM ledger_totals", null)) {
+            while (cursor.moveToNext()) {
+                LedgerTotalEntity total = new LedgerTotalEntity();
+                total.kind = cursor.getString(cursor.getColumnIndexOrThrow("kind"));
+                total.status = cursor.getString(cursor.getColumnIndexOrThrow("status"));
+                total.bookingStatus = cursor.getString(cursor.getColumnIndexOrThrow("bookingStatus"));
+                total.landlordId = cursor.getString(cursor.getColumnIndexOrThrow("landlordId"));
+                total.month = cursor.getString(cursor.getColumnIndexOrThrow("month"));
+                total.amount = cursor.getDouble(cursor.getColumnIndexOrThrow("amount"));
+                total.count = cursor.getInt(cursor.getColumnIndexOrThrow("count"));
+                totals.put(key(total), total);
+            }
+        }
+        return totals;
+    }
+
+    private int entryCount() {
+        try (Cursor cursor = database.query("SELECT COUNT(*) FROM ledger_entries", null)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+
+    private static String key(LedgerTotalEntity total) {
+        return key(total.kind, total.status, total.bookingStatus, total.landlordId, total.month);
+    }
+
+    private static String key(String... parts) {
+        return String.join("|", parts);
+    }
+
+    private static LedgerEntryEntity payment(String id, String status, String landlordId, String month, double amount) {
+        LedgerEntryEntity entry = new LedgerEntryEntity();
+        entry.kind = LedgerEntryEntity.KIND_PAYMENT;
+        entry.id = id;
+        entry.status = status;
+        entry.bookingStatus = "confirmed";
+        entry.landlordId = landlordId;
+        entry.month = month;
+        entry.amount = amount;
+        entry.createdAt = month + "-15T00:00:00.000Z";
+        return entry;
+    }
+
+    private static LedgerEntryEntity booking(String id, String landlordId, String month, double amount) {
+        LedgerEntryEntity entry = payment(id, "pending", landlordId, month, amount);
+        entry.kind = LedgerEntryEntity.KIND_BOOKING;
+        return entry;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Số tiền lẻ để lộ sai số cộng trừ số thực nếu có
+    private static double amount(Random random) {
+        return random.nextInt(10_000_000) / 100.0;
+    }
+}
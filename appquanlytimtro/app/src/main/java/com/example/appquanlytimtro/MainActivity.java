@@ -2,9 +2,12 @@
 // Mục đích file: File này dùng để quản lý màn hình chính và điều hướng giữa các fragment
 // function: 
 // - onCreate(): Khởi tạo activity và setup các component
+// - onStart()/onStop(): Đăng ký/hủy nhận thao tác bị server từ chối để báo người dùng
 // - initViews(): Khởi tạo các view components
 // - setupToolbar(): Thiết lập toolbar với menu
 // - setupBottomNavigation(): Thiết lập bottom navigation
+// - observeNotificationBadge(): Theo dõi bộ đếm thông báo chưa đọc local và đồng bộ thông báo mới
+// - updateNotificationBadge(): Hiển thị số chưa đọc trên tab Hồ sơ (nơi mở hộp thư thông báo)
 // - loadUserData(): Tải thông tin user hiện tại
 // - setupFragments(): Thiết lập các fragment
 // - showFragment(): Hiển thị fragment được chọn
@@ -16,7 +19,7 @@
 // - onBookingsClick(): Xử lý click vào đặt phòng
 // - onPaymentsClick(): Xử lý click vào thanh toán
 // - onRoomsClick(): Xử lý click vào phòng trọ
-// - logout(): Thực hiện đăng xuất
+// - logout(): Thực hiện đăng xuất (xóa dữ liệu local của tài khoản qua SessionDataCleaner)
 // - navigateToLogin(): Chuyển đến màn hình đăng nhập
 package com.example.appquanlytimtro;
 
@@ -32,16 +35,21 @@ import com.google.android.material.appbar.MaterialToolbar;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.LiveData;
 
 import com.example.appquanlytimtro.auth.LoginActivity;
+import com.example.appquanlytimtro.database.SessionDataCleaner;
+import com.example.appquanlytimtro.database.notification.NotificationInbox;
+import com.example.appquanlytimtro.database.outbox.Outbox;
+import com.example.appquanlytimtro.debug.NetworkMetricsActivity;
 import com.example.appquanlytimtro.bookings.BookingListActivity;
 import com.example.appquanlytimtro.payments.PaymentListActivity;
 import com.example.appquanlytimtro.rooms.RoomListActivity;
 import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.example.appquanlytimtro.utils.Constants;
+import com.google.android.material.badge.BadgeDrawable;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
-import com.google.gson.Gson;
 import com.example.appquanlytimtro.profile.ProfileFragment;
 import com.example.appquanlytimtro.admin.AdminUsersFragment;
 import com.example.appquanlytimtro.admin.AdminRoomsFragment;
@@ -56,9 +64,15 @@ import com.example.appquanlytimtro.admin.AdminPaymentManagementFragment;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final int MENU_NETWORK_METRICS = 1001;
+
     private RetrofitClient retrofitClient;
     private User currentUser;
     private BottomNavigationView bottomNavigationView;
+    private LiveData<Integer> unreadCount;
+    private int unreadNotifications;
+    private final Outbox.Listener outboxListener = (operation, message) -> Toast.makeText(this,
+            message != null ? message : "Không thể gửi thao tác lên server, vui lòng thử lại", Toast.LENGTH_LONG).show();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -80,6 +94,18 @@ public class MainActivity extends AppCompatActivity {
         }, 100);
     }
     
+    @Override
+    protected void onStart() {
+        super.onStart();
+        Outbox.getInstance(this).addListener(outboxListener);
+    }
+
+    @Override
+    protected void onStop() {
+        Outbox.getInstance(this).removeListener(outboxListener);
+        super.onStop();
+    }
+    
     @Override
     protected void onResume() {
         super.onResume();
@@ -91,6 +117,9 @@ public class MainActivity extends AppCompatActivity {
         
         if (currentUser == null) {
             loadUserData();
+        } else if (currentUser.getId() != null) {
+            // Chỉ tải thông báo mới hơn mốc đã thấy; badge tự cập nhật theo bộ đếm local
+            NotificationInbox.getInstance(this).sync(currentUser.getId(), null);
         }
     }
     
@@ -118,29 +147,18 @@ public class MainActivity extends AppCompatActivity {
     
     
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
+        currentUser = retrofitClient.getCurrentUser();
         
-        if (userJson != null && !userJson.isEmpty()) {
-            try {
-                Gson gson = new Gson();
-                currentUser = gson.fromJson(userJson, User.class);
-                
-                
-                if (currentUser != null && currentUser.getRole() != null) {
-                    initBottomMenuByRole(currentUser.getRole());
-                    
-                    loadDefaultFragment();
-                    
-                    if (Constants.ROLE_TENANT.equals(currentUser.getRole())) {
-                        bottomNavigationView.setSelectedItemId(R.id.nav_home);
-                    } else {
-                        bottomNavigationView.setSelectedItemId(R.id.nav_dashboard);
-                    }
-                } else {
-                    navigateToLogin();
-                }
-            } catch (Exception e) {
-                navigateToLogin();
+        if (currentUser != null && currentUser.getRole() != null) {
+            initBottomMenuByRole(currentUser.getRole());
+            observeNotificationBadge();
+            
+            loadDefaultFragment();
+            
+            if (Constants.ROLE_TENANT.equals(currentUser.getRole())) {
+                bottomNavigationView.setSelectedItemId(R.id.nav_home);
+            } else {
+                bottomNavigationView.setSelectedItemId(R.id.nav_dashboard);
             }
         } else {
             navigateToLogin();
@@ -247,6 +265,34 @@ public class MainActivity extends AppCompatActivity {
             bottomNavigationView.getMenu().clear();
             getMenuInflater().inflate(R.menu.menu_admin, bottomNavigationView.getMenu());
         }
+        // Menu vừa được tạo lại
+        updateNotificationBadge();
+    }
+
+    private void observeNotificationBadge() {
+        if (unreadCount != null || currentUser == null || currentUser.getId() == null) {
+            return;
+        }
+        NotificationInbox inbox = NotificationInbox.getInstance(this);
+        unreadCount = inbox.observeUnreadCount(currentUser.getId());
+        unreadCount.observe(this, count -> {
+            unreadNotifications = count != null ? count : 0;
+            updateNotificationBadge();
+        });
+        inbox.sync(currentUser.getId(), null);
+    }
+
+    private void updateNotificationBadge() {
+        if (bottomNavigationView == null || bottomNavigationView.getMenu().findItem(R.id.nav_profile) == null) {
+            return;
+        }
+        if (unreadNotifications > 0) {
+            BadgeDrawable badge = bottomNavigationView.getOrCreateBadge(R.id.nav_profile);
+            badge.setNumber(unreadNotifications);
+            badge.setVisible(true);
+        } else {
+            bottomNavigationView.removeBadge(R.id.nav_profile);
+        }
     }
 
     private void switchFragment(Fragment fragment) {
@@ -268,6 +314,10 @@ public class MainActivity extends AppCompatActivity {
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.main_menu, menu);
+        // Màn hình số liệu mạng chỉ có ở bản debug
+        if (BuildConfig.DEBUG) {
+            menu.add(Menu.NONE, MENU_NETWORK_METRICS, Menu.NONE, "Số liệu mạng");
+        }
         return true;
     }
     
@@ -280,10 +330,16 @@ public class MainActivity extends AppCompatActivity {
             return true;
         }
         
+        if (id == MENU_NETWORK_METRICS) {
+            startActivity(new Intent(this, NetworkMetricsActivity.class));
+            return true;
+        }
+        
         return super.onOptionsItemSelected(item);
     }
     
     public void logout() {
+        SessionDataCleaner.clear(this);
         retrofitClient.logout();
         navigateToLogin();
     }
@@ -0,0 +1,27 @@
+//class: Application của ứng dụng
+// Mục đích file: File này dùng để khởi tạo những việc cần chạy một lần khi tiến trình app bắt đầu
+// function:
+// - onCreate(): Làm nóng kết nối tới backend trên thread nền, đăng ký cache bộ nhớ với onTrimMemory và gửi tiếp các thao tác còn trong outbox (outbox được tạo trên thread nền)
+package com.example.appquanlytimtro;
+
+import android.app.Application;
+
+import com.example.appquanlytimtro.cache.CacheManager;
+import com.example.appquanlytimtro.database.outbox.Outbox;
+import com.example.appquanlytimtro.network.ConnectionWarmer;
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+public class QuanLyTimTroApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        ConnectionWarmer.warmUp(this);
+        CacheManager.getInstance().install(this);
+        // Outbox tạo AppDatabase và RetrofitClient: dựng trên thread nền (sau bước làm nóng đã gửi trước) để main thread không phải chờ; start() chạy trên main thread
+        AppExecutors.diskIO().execute(() -> {
+            Outbox outbox = Outbox.getInstance(this);
+            AppExecutors.postToMain(outbox::start);
+        });
+    }
+}
@@ -1,10 +1,10 @@
 //adapter:cầu nối giữa dữ liệu và giao diện hiển thị
 // Mục đích file: File này dùng để quản lý và hiển thị danh sách các đặt phòng cho quản trị viên trong ứng dụng
 // function: 
-// - AdminBookingAdapter(): Khởi tạo adapter với danh sách booking và listener
+// - AdminBookingAdapter(): Khởi tạo adapter với listener (danh sách được đưa vào qua submitList, so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của booking
 // - onCreateViewHolder(): Tạo ViewHolder mới cho item booking
 // - onBindViewHolder(): Gắn dữ liệu booking vào ViewHolder
-// - getItemCount(): Trả về số lượng booking trong danh sách
 // - AdminBookingViewHolder(): Khởi tạo ViewHolder và tìm các view con
 // - bind(): Hiển thị thông tin booking và thiết lập sự kiện click
 // - setupActionButtons(): Thiết lập hiển thị các nút hành động theo trạng thái booking
@@ -22,6 +22,7 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.appquanlytimtro.R;
@@ -31,12 +32,10 @@ import com.google.android.material.chip.Chip;
 
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
-import java.util.List;
 import java.util.Locale;
 
-public class AdminBookingAdapter extends RecyclerView.Adapter<AdminBookingAdapter.AdminBookingViewHolder> {
+public class AdminBookingAdapter extends ListAdapter<Booking, AdminBookingAdapter.AdminBookingViewHolder> {
 
-    private List<Booking> bookings;
     private OnBookingActionListener listener;
 
     public interface OnBookingActionListener {
@@ -46,9 +45,15 @@ public class AdminBookingAdapter extends RecyclerView.Adapter<AdminBookingAdapte
         void onRejectBooking(Booking booking);
     }
 
-    public AdminBookingAdapter(List<Booking> bookings, OnBookingActionListener listener) {
-        this.bookings = bookings;
+    public AdminBookingAdapter(OnBookingActionListener listener) {
+        super(BookingAdapter.DIFF);
         this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     @NonNull
@@ -61,15 +66,10 @@ public class AdminBookingAdapter extends RecyclerView.Adapter<AdminBookingAdapte
 
     @Override
     public void onBindViewHolder(@NonNull AdminBookingViewHolder holder, int position) {
-        Booking booking = bookings.get(position);
+        Booking booking = getItem(position);
         holder.bind(booking, listener);
     }
 
-    @Override
-    public int getItemCount() {
-        return bookings.size();
-    }
-
     static class AdminBookingViewHolder extends RecyclerView.ViewHolder {
         private TextView tvRoomTitle;
         private TextView tvTenantName;
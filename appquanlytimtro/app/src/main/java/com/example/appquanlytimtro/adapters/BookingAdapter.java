@@ -1,12 +1,14 @@
 //adapter: cầu nối giữa dữ liệu và giao diện hiển thị
 // Mục đích file: File này dùng để hiển thị danh sách các đặt phòng cho người dùng trong ứng dụng quản lý tìm trọ
 // function: 
-// - BookingAdapter(): Khởi tạo adapter với danh sách booking và listener
+// - BookingAdapter(): Khởi tạo adapter với listener (danh sách hiển thị được so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của booking
 // - onCreateViewHolder(): Tạo ViewHolder mới cho item booking
 // - onBindViewHolder(): Gắn dữ liệu booking vào ViewHolder
-// - getItemCount(): Trả về số lượng booking đã lọc
-// - updateBookings(): Cập nhật danh sách booking mới
+// - updateBookings(): Cập nhật danh sách booking mới (giữ bộ lọc trạng thái hiện tại)
 // - filterByStatus(): Lọc booking theo trạng thái
+// - notifyBookingChanged(): Hiển thị lại booking vừa được sửa tại chỗ và lọc lại
+// - applyFilter(): Đưa danh sách đã lọc vào ListAdapter
 // - BookingViewHolder(): Khởi tạo ViewHolder và tìm các view con
 // - bind(): Hiển thị thông tin booking và thiết lập sự kiện click
 // - setupActionButtons(): Thiết lập các nút hành động dựa trên trạng thái
@@ -22,11 +24,14 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.utils.ImageUtils;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
@@ -36,11 +41,37 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
-public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingViewHolder> {
+public class BookingAdapter extends ListAdapter<Booking, BookingAdapter.BookingViewHolder> {
 
-    private List<Booking> bookings;
-    private List<Booking> filteredBookings;
+    // Dùng chung cho các adapter booking; updatedAt đổi khi server sửa booking, status đổi cả khi sửa tạm trên máy (outbox)
+    static final DiffUtil.ItemCallback<Booking> DIFF = new DiffUtil.ItemCallback<Booking>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Booking oldItem, @NonNull Booking newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Booking oldItem, @NonNull Booking newItem) {
+            return Objects.equals(oldItem.getUpdatedAt(), newItem.getUpdatedAt())
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus())
+                    && Objects.equals(roomTitle(oldItem), roomTitle(newItem))
+                    && Objects.equals(fullName(oldItem.getTenant()), fullName(newItem.getTenant()))
+                    && Objects.equals(fullName(oldItem.getLandlord()), fullName(newItem.getLandlord()));
+        }
+    };
+
+    private static String roomTitle(Booking booking) {
+        return booking.getRoom() != null ? booking.getRoom().getTitle() : null;
+    }
+
+    private static String fullName(User user) {
+        return user != null ? user.getFullName() : null;
+    }
+
+    private List<Booking> bookings = new ArrayList<>();
+    private String statusFilter;
     private OnBookingClickListener listener;
 
     public interface OnBookingClickListener {
@@ -49,10 +80,15 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
         void onPaymentClick(Booking booking);
     }
 
-    public BookingAdapter(List<Booking> bookings, OnBookingClickListener listener) {
-        this.bookings = bookings;
-        this.filteredBookings = new ArrayList<>(bookings);
+    public BookingAdapter(OnBookingClickListener listener) {
+        super(DIFF);
         this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     @NonNull
@@ -65,39 +101,41 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
 
     @Override
     public void onBindViewHolder(@NonNull BookingViewHolder holder, int position) {
-        Booking booking = filteredBookings.get(position);
+        Booking booking = getItem(position);
         holder.bind(booking, listener);
     }
 
-    @Override
-    public int getItemCount() {
-        return filteredBookings.size();
-    }
-
     public void updateBookings(List<Booking> newBookings) {
-        
-        List<Booking> bookingsCopy = new ArrayList<>(newBookings);
-        
-        this.bookings.clear();
-        this.bookings.addAll(bookingsCopy);
-        this.filteredBookings.clear();
-        this.filteredBookings.addAll(bookingsCopy);
-        
-        notifyDataSetChanged();
+        this.bookings = new ArrayList<>(newBookings);
+        applyFilter();
     }
 
     public void filterByStatus(String status) {
-        filteredBookings.clear();
-        if (status == null) {
-            filteredBookings.addAll(bookings);
-        } else {
-            for (Booking booking : bookings) {
-                if (status.equals(booking.getStatus())) {
-                    filteredBookings.add(booking);
-                }
+        this.statusFilter = status;
+        applyFilter();
+    }
+
+    public void notifyBookingChanged(Booking booking) {
+        // Sửa tại chỗ thì object cũ và mới là một nên DiffUtil không thấy khác biệt: tự bind lại dòng đó
+        int position = getCurrentList().indexOf(booking);
+        if (position != -1) {
+            notifyItemChanged(position);
+        }
+        applyFilter();
+    }
+
+    private void applyFilter() {
+        if (statusFilter == null) {
+            submitList(new ArrayList<>(bookings));
+            return;
+        }
+        List<Booking> filtered = new ArrayList<>();
+        for (Booking booking : bookings) {
+            if (statusFilter.equals(booking.getStatus())) {
+                filtered.add(booking);
             }
         }
-        notifyDataSetChanged();
+        submitList(filtered);
     }
 
     static class BookingViewHolder extends RecyclerView.ViewHolder {
@@ -1,15 +1,13 @@
 //adapter: cầu nối giữa dữ liệu và giao diện hiển thị
 // Mục đích file: File này dùng để quản lý danh sách booking cho chủ trọ
 // function: 
-// - LandlordBookingAdapter(): Khởi tạo adapter với danh sách booking và listener
+// - LandlordBookingAdapter(): Khởi tạo adapter với listener
+// - submitBookings(): Đưa danh sách booking vào adapter (dựng BookingRowModel và so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của booking
 // - onCreateViewHolder(): Tạo ViewHolder cho item booking
-// - onBindViewHolder(): Bind dữ liệu booking vào ViewHolder
-// - getItemCount(): Trả về số lượng booking
-// - LandlordBookingViewHolder(): Khởi tạo ViewHolder và tìm các view con
-// - bind(): Hiển thị thông tin booking và thiết lập sự kiện click
-// - setupActionButtons(): Thiết lập các nút hành động dựa trên trạng thái booking
-// - getStatusText(): Chuyển đổi mã trạng thái thành text hiển thị
-// - getStatusColor(): Lấy màu sắc tương ứng với trạng thái
+// - onBindViewHolder(): Bind dòng booking vào ViewHolder
+// - LandlordBookingViewHolder(): Khởi tạo ViewHolder, tìm các view con và thiết lập sự kiện click một lần
+// - bind(): Gán các chuỗi/màu đã tính sẵn và hiện các nút hành động theo trạng thái
 package com.example.appquanlytimtro.adapters;
 
 import android.view.LayoutInflater;
@@ -18,22 +16,23 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.presentation.BookingRowModel;
+import com.example.appquanlytimtro.presentation.RowModelSubmitter;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
 
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
 import java.util.List;
-import java.util.Locale;
 
-public class LandlordBookingAdapter extends RecyclerView.Adapter<LandlordBookingAdapter.LandlordBookingViewHolder> {
+public class LandlordBookingAdapter extends ListAdapter<BookingRowModel, LandlordBookingAdapter.LandlordBookingViewHolder> {
 
-    private List<Booking> bookings;
     private OnBookingActionListener listener;
+    private final RowModelSubmitter<Booking, BookingRowModel> submitter =
+            new RowModelSubmitter<>(this, BookingRowModel::fromBookings);
 
     public interface OnBookingActionListener {
         void onConfirmBooking(Booking booking);
@@ -44,9 +43,19 @@ public class LandlordBookingAdapter extends RecyclerView.Adapter<LandlordBooking
         void onMarkPaid(Booking booking);
     }
 
-    public LandlordBookingAdapter(List<Booking> bookings, OnBookingActionListener listener) {
-        this.bookings = bookings;
+    public LandlordBookingAdapter(OnBookingActionListener listener) {
+        super(BookingRowModel.DIFF);
         this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    public void submitBookings(List<Booking> bookings) {
+        submitter.submit(bookings);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     @NonNull
@@ -59,16 +68,10 @@ public class LandlordBookingAdapter extends RecyclerView.Adapter<LandlordBooking
 
     @Override
     public void onBindViewHolder(@NonNull LandlordBookingViewHolder holder, int position) {
-        Booking booking = bookings.get(position);
-        holder.bind(booking, listener);
+        holder.bind(getItem(position));
     }
 
-    @Override
-    public int getItemCount() {
-        return bookings.size();
-    }
-
-    static class LandlordBookingViewHolder extends RecyclerView.ViewHolder {
+    class LandlordBookingViewHolder extends RecyclerView.ViewHolder {
         private TextView tvRoomTitle;
         private TextView tvTenantName;
         private TextView tvCheckInDate;
@@ -98,141 +101,78 @@ public class LandlordBookingAdapter extends RecyclerView.Adapter<LandlordBooking
             btnAccept = itemView.findViewById(R.id.btnAccept);
             btnReject = itemView.findViewById(R.id.btnReject);
             btnMarkPaid = itemView.findViewById(R.id.btnMarkPaid);
-        }
-
-        public void bind(Booking booking, OnBookingActionListener listener) {
-            // Room info
-            if (booking.getRoom() != null) {
-                tvRoomTitle.setText(booking.getRoom().getTitle());
-            }
-
-            // Tenant info
-            if (booking.getTenant() != null) {
-                tvTenantName.setText("Khách thuê: " + booking.getTenant().getFullName());
-            }
-
-            // Booking details
-            if (booking.getBookingDetails() != null) {
-                SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-                tvCheckInDate.setText(sdf.format(booking.getBookingDetails().getCheckInDate()));
-                tvCheckOutDate.setText(sdf.format(booking.getBookingDetails().getCheckOutDate()));
-                tvDuration.setText(booking.getBookingDetails().getDuration() + " tháng");
-            }
-
-            // Pricing
-            if (booking.getPricing() != null) {
-                NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
-                tvTotalAmount.setText(formatter.format(booking.getPricing().getTotalAmount()) + " VNĐ");
-            }
-
-            // Status
-            chipStatus.setText(getStatusText(booking.getStatus()));
-            chipStatus.setChipBackgroundColorResource(getStatusColor(booking.getStatus()));
-
-            // Action buttons based on status
-            setupActionButtons(booking, listener);
-        }
 
-        private void setupActionButtons(Booking booking, OnBookingActionListener listener) {
-            String status = booking.getStatus();
-            
-            // Reset button visibility
+            btnAccept.setText("Chấp nhận");
+            btnReject.setText("Từ chối");
+            btnMarkPaid.setText("Đã thanh toán");
+            btnCancel.setText("Hủy");
             btnConfirm.setVisibility(View.GONE);
-            btnCancel.setVisibility(View.GONE);
-            btnAccept.setVisibility(View.GONE);
-            btnReject.setVisibility(View.GONE);
-            btnMarkPaid.setVisibility(View.GONE);
             btnViewDetails.setVisibility(View.VISIBLE);
 
-            switch (status) {
-                case "pending":
-                    // Show accept/reject buttons for pending bookings
-                    btnAccept.setVisibility(View.VISIBLE);
-                    btnReject.setVisibility(View.VISIBLE);
-                    btnAccept.setText("Chấp nhận");
-                    btnReject.setText("Từ chối");
-                    break;
-                case "confirmed":
-                    // Show mark paid button for confirmed bookings
-                    btnMarkPaid.setVisibility(View.VISIBLE);
-                    btnMarkPaid.setText("Đã thanh toán");
-                    btnCancel.setVisibility(View.VISIBLE);
-                    btnCancel.setText("Hủy");
-                    break;
-                case "deposit_paid":
-                    // Show cancel button for deposit paid bookings
-                    btnCancel.setVisibility(View.VISIBLE);
-                    btnCancel.setText("Hủy");
-                    break;
-                case "active":
-                case "completed":
-                    // No action buttons for these statuses
-                    break;
-                case "cancelled":
-                    // No action buttons for cancelled bookings
-                    break;
-            }
-
-            // Set click listeners
+            // Gắn sự kiện một lần, lấy booking theo vị trí lúc bấm
             btnConfirm.setOnClickListener(v -> {
-                if (listener != null) {
+                Booking booking = currentBooking();
+                if (listener != null && booking != null) {
                     listener.onConfirmBooking(booking);
                 }
             });
 
             btnCancel.setOnClickListener(v -> {
-                if (listener != null) {
+                Booking booking = currentBooking();
+                if (listener != null && booking != null) {
                     listener.onCancelBooking(booking);
                 }
             });
 
             btnViewDetails.setOnClickListener(v -> {
-                if (listener != null) {
+                Booking booking = currentBooking();
+                if (listener != null && booking != null) {
                     listener.onViewBookingDetails(booking);
                 }
             });
 
             btnAccept.setOnClickListener(v -> {
-                if (listener != null) {
+                Booking booking = currentBooking();
+                if (listener != null && booking != null) {
                     listener.onAcceptBooking(booking);
                 }
             });
 
             btnReject.setOnClickListener(v -> {
-                if (listener != null) {
+                Booking booking = currentBooking();
+                if (listener != null && booking != null) {
                     listener.onRejectBooking(booking);
                 }
             });
 
             btnMarkPaid.setOnClickListener(v -> {
-                if (listener != null) {
+                Booking booking = currentBooking();
+                if (listener != null && booking != null) {
                     listener.onMarkPaid(booking);
                 }
             });
         }
 
-        private String getStatusText(String status) {
-            switch (status) {
-                case "pending": return "Chờ xác nhận";
-                case "confirmed": return "Đã xác nhận";
-                case "deposit_paid": return "Đã thanh toán";
-                case "active": return "Đang hoạt động";
-                case "completed": return "Đã hoàn thành";
-                case "cancelled": return "Đã hủy";
-                default: return status;
-            }
+        private Booking currentBooking() {
+            int position = getAdapterPosition();
+            return position != RecyclerView.NO_POSITION ? getItem(position).getBooking() : null;
         }
 
-        private int getStatusColor(String status) {
-            switch (status) {
-                case "pending": return R.color.warning;
-                case "confirmed": return R.color.info;
-                case "deposit_paid": return R.color.success;
-                case "active": return R.color.primary;
-                case "completed": return R.color.success;
-                case "cancelled": return R.color.error;
-                default: return R.color.on_surface_variant;
-            }
+        public void bind(BookingRowModel row) {
+            tvRoomTitle.setText(row.getRoomTitle());
+            tvTenantName.setText(row.getTenantName());
+            tvCheckInDate.setText(row.getCheckInDate());
+            tvCheckOutDate.setText(row.getCheckOutDate());
+            tvDuration.setText(row.getDuration());
+            tvTotalAmount.setText(row.getTotalAmount());
+
+            chipStatus.setText(row.getStatusText());
+            chipStatus.setChipBackgroundColorResource(row.getStatusColor());
+
+            btnAccept.setVisibility(row.showAccept() ? View.VISIBLE : View.GONE);
+            btnReject.setVisibility(row.showReject() ? View.VISIBLE : View.GONE);
+            btnMarkPaid.setVisibility(row.showMarkPaid() ? View.VISIBLE : View.GONE);
+            btnCancel.setVisibility(row.showCancel() ? View.VISIBLE : View.GONE);
         }
     }
 }
\ No newline at end of file
@@ -1,11 +1,10 @@
 //adapter: cầu nối giữa dữ liệu và giao diện hiển thị
 // Mục đích file: File này dùng để quản lý danh sách phòng cho chủ trọ
 // function: 
-// - LandlordRoomAdapter(): Khởi tạo adapter với danh sách phòng và listener
+// - LandlordRoomAdapter(): Khởi tạo adapter với listener (danh sách được đưa vào qua submitList, so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của phòng
 // - onCreateViewHolder(): Tạo ViewHolder cho item phòng
 // - onBindViewHolder(): Bind dữ liệu phòng vào ViewHolder
-// - getItemCount(): Trả về số lượng phòng
-// - updateRooms(): Cập nhật danh sách phòng mới
 // - RoomViewHolder(): Khởi tạo ViewHolder và tìm các view con
 // - bind(): Hiển thị thông tin phòng và xử lý sự kiện
 // - getStatusText(): Chuyển đổi mã trạng thái thành text hiển thị
@@ -20,31 +19,66 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.appquanlytimtro.R;
-import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.RoomSummary;
 import com.example.appquanlytimtro.utils.ImageUtils;
 import com.google.android.material.chip.Chip;
 
 import java.text.NumberFormat;
-import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
-public class LandlordRoomAdapter extends RecyclerView.Adapter<LandlordRoomAdapter.RoomViewHolder> {
+public class LandlordRoomAdapter extends ListAdapter<RoomSummary, LandlordRoomAdapter.RoomViewHolder> {
+    
+    // Chỉ so sánh các trường được hiển thị trên item
+    private static final DiffUtil.ItemCallback<RoomSummary> DIFF = new DiffUtil.ItemCallback<RoomSummary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull RoomSummary oldItem, @NonNull RoomSummary newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull RoomSummary oldItem, @NonNull RoomSummary newItem) {
+            return Objects.equals(oldItem.getUpdatedAt(), newItem.getUpdatedAt())
+                    && Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus())
+                    && Objects.equals(oldItem.getRoomType(), newItem.getRoomType())
+                    && oldItem.getViews() == newItem.getViews()
+                    && oldItem.getArea() == newItem.getArea()
+                    && monthlyPrice(oldItem) == monthlyPrice(newItem)
+                    && Objects.equals(firstImage(oldItem), firstImage(newItem));
+        }
+    };
+
+    private static double monthlyPrice(RoomSummary room) {
+        return room.getPrice() != null ? room.getPrice().getMonthly() : 0;
+    }
+
+    private static String firstImage(RoomSummary room) {
+        return room.getImages() != null && !room.getImages().isEmpty() ? room.getImages().get(0).getUrl() : null;
+    }
     
-    private List<Room> rooms;
     private OnRoomActionListener listener;
     
     public interface OnRoomActionListener {
-        void onEditRoom(Room room);
-        void onDeleteRoom(Room room);
+        void onEditRoom(RoomSummary room);
+        void onDeleteRoom(RoomSummary room);
     }
     
-    public LandlordRoomAdapter(List<Room> rooms, OnRoomActionListener listener) {
-        this.rooms = rooms;
+    public LandlordRoomAdapter(OnRoomActionListener listener) {
+        super(DIFF);
         this.listener = listener;
+        setHasStableIds(true);
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
     
     @NonNull
@@ -57,21 +91,10 @@ public class LandlordRoomAdapter extends RecyclerView.Adapter<LandlordRoomAdapte
     
     @Override
     public void onBindViewHolder(@NonNull RoomViewHolder holder, int position) {
-        Room room = rooms.get(position);
+        RoomSummary room = getItem(position);
         holder.bind(room);
     }
     
-    @Override
-    public int getItemCount() {
-        return rooms.size();
-    }
-    
-    public void updateRooms(List<Room> newRooms) {
-        this.rooms.clear();
-        this.rooms.addAll(newRooms);
-        notifyDataSetChanged();
-    }
-    
     class RoomViewHolder extends RecyclerView.ViewHolder {
         private ImageView ivRoomImage;
         private TextView tvTitle, tvAddress, tvPrice, tvArea, tvViews;
@@ -96,7 +119,7 @@ public class LandlordRoomAdapter extends RecyclerView.Adapter<LandlordRoomAdapte
                 if (listener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        listener.onEditRoom(rooms.get(position));
+                        listener.onEditRoom(getItem(position));
                     }
                 }
             });
@@ -105,13 +128,13 @@ public class LandlordRoomAdapter extends RecyclerView.Adapter<LandlordRoomAdapte
                 if (listener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        listener.onDeleteRoom(rooms.get(position));
+                        listener.onDeleteRoom(getItem(position));
                     }
                 }
             });
         }
         
-        public void bind(Room room) {
+        public void bind(RoomSummary room) {
             tvTitle.setText(room.getTitle());
             
             if (room.getAddress() != null) {
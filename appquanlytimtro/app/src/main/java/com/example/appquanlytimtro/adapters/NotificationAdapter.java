@@ -0,0 +1,117 @@
+//adapter: cầu nối giữa dữ liệu và giao diện hiển thị
+// Mục đích file: File này dùng để hiển thị danh sách thông báo (thông báo chưa đọc có chấm và tiêu đề đậm)
+// function:
+// - NotificationAdapter(): Khởi tạo adapter với listener (danh sách được đưa vào qua submitList, so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của thông báo
+// - onCreateViewHolder(): Tạo ViewHolder cho thông báo
+// - onBindViewHolder(): Bind dữ liệu thông báo vào ViewHolder
+// - NotificationViewHolder(): Khởi tạo ViewHolder và tìm các view con
+// - bind(): Hiển thị thông tin thông báo và xử lý sự kiện
+package com.example.appquanlytimtro.adapters;
+
+import android.graphics.Typeface;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.models.Notification;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+
+public class NotificationAdapter extends ListAdapter<Notification, NotificationAdapter.NotificationViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Notification> DIFF = new DiffUtil.ItemCallback<Notification>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Notification oldItem, @NonNull Notification newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Notification oldItem, @NonNull Notification newItem) {
+            // Đánh dấu đã đọc chỉ đổi trạng thái nên so cả isRead() ngoài updatedAt
+            return oldItem.isRead() == newItem.isRead()
+                    && Objects.equals(oldItem.getUpdatedAt(), newItem.getUpdatedAt())
+                    && Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getMessage(), newItem.getMessage())
+                    && Objects.equals(oldItem.getCreatedAt(), newItem.getCreatedAt());
+        }
+    };
+
+    private OnNotificationClickListener listener;
+
+    public interface OnNotificationClickListener {
+        void onNotificationClick(Notification notification);
+    }
+
+    public NotificationAdapter(OnNotificationClickListener listener) {
+        super(DIFF);
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
+    }
+
+    @NonNull
+    @Override
+    public NotificationViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_notification, parent, false);
+        return new NotificationViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    public class NotificationViewHolder extends RecyclerView.ViewHolder {
+        private View viewUnread;
+        private TextView tvTitle;
+        private TextView tvMessage;
+        private TextView tvTime;
+
+        public NotificationViewHolder(@NonNull View itemView) {
+            super(itemView);
+            viewUnread = itemView.findViewById(R.id.viewUnread);
+            tvTitle = itemView.findViewById(R.id.tvNotificationTitle);
+            tvMessage = itemView.findViewById(R.id.tvNotificationMessage);
+            tvTime = itemView.findViewById(R.id.tvNotificationTime);
+
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onNotificationClick(getItem(position));
+                }
+            });
+        }
+
+        public void bind(Notification notification) {
+            boolean unread = !notification.isRead();
+            viewUnread.setVisibility(unread ? View.VISIBLE : View.INVISIBLE);
+            tvTitle.setText(notification.getTitle());
+            tvTitle.setTypeface(null, unread ? Typeface.BOLD : Typeface.NORMAL);
+            tvMessage.setText(notification.getMessage());
+
+            try {
+                SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.getDefault());
+                inputFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+                SimpleDateFormat outputFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
+                Date date = inputFormat.parse(notification.getCreatedAt());
+                tvTime.setText(outputFormat.format(date));
+            } catch (Exception e) {
+                tvTime.setText(notification.getCreatedAt());
+            }
+        }
+    }
+}
@@ -1,10 +1,10 @@
 //adapter: cầu nối giữa dữ liệu và giao diện hiển thị
 // Mục đích file: File này dùng để hiển thị danh sách thanh toán
 // function: 
-// - PaymentAdapter(): Khởi tạo adapter với danh sách thanh toán và listener
+// - PaymentAdapter(): Khởi tạo adapter với listener (danh sách được đưa vào qua submitList, so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của thanh toán
 // - onCreateViewHolder(): Tạo ViewHolder cho item thanh toán
 // - onBindViewHolder(): Bind dữ liệu thanh toán vào ViewHolder
-// - getItemCount(): Trả về số lượng thanh toán
 // - PaymentViewHolder(): Khởi tạo ViewHolder và tìm các view con
 // - bind(): Hiển thị thông tin thanh toán và xử lý sự kiện
 // - getTypeText(): Chuyển đổi mã loại thanh toán thành text hiển thị
@@ -20,6 +20,8 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.appquanlytimtro.R;
@@ -29,12 +31,29 @@ import com.example.appquanlytimtro.utils.Constants;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
-public class PaymentAdapter extends RecyclerView.Adapter<PaymentAdapter.PaymentViewHolder> {
+public class PaymentAdapter extends ListAdapter<Payment, PaymentAdapter.PaymentViewHolder> {
+    
+    // Dùng chung với PaymentsListAdapter
+    public static final DiffUtil.ItemCallback<Payment> DIFF = new DiffUtil.ItemCallback<Payment>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Payment oldItem, @NonNull Payment newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+        
+        @Override
+        public boolean areContentsTheSame(@NonNull Payment oldItem, @NonNull Payment newItem) {
+            return Objects.equals(oldItem.getUpdatedAt(), newItem.getUpdatedAt())
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus())
+                    && Objects.equals(oldItem.getType(), newItem.getType())
+                    && oldItem.getAmount() == newItem.getAmount()
+                    && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && Objects.equals(oldItem.getCreatedAt(), newItem.getCreatedAt());
+        }
+    };
     
-    private List<Payment> payments;
     private OnPaymentClickListener listener;
     private String userRole;
     
@@ -43,10 +62,16 @@ public class PaymentAdapter extends RecyclerView.Adapter<PaymentAdapter.PaymentV
         void onPaymentAction(Payment payment, String action);
     }
     
-    public PaymentAdapter(List<Payment> payments, OnPaymentClickListener listener, String userRole) {
-        this.payments = payments;
+    public PaymentAdapter(OnPaymentClickListener listener, String userRole) {
+        super(DIFF);
         this.listener = listener;
         this.userRole = userRole;
+        setHasStableIds(true);
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
     
     @NonNull
@@ -58,15 +83,10 @@ public class PaymentAdapter extends RecyclerView.Adapter<PaymentAdapter.PaymentV
     
     @Override
     public void onBindViewHolder(@NonNull PaymentViewHolder holder, int position) {
-        Payment payment = payments.get(position);
+        Payment payment = getItem(position);
         holder.bind(payment);
     }
     
-    @Override
-    public int getItemCount() {
-        return payments.size();
-    }
-    
     class PaymentViewHolder extends RecyclerView.ViewHolder {
         private TextView tvAmount, tvType, tvStatus, tvDate, tvDescription;
         
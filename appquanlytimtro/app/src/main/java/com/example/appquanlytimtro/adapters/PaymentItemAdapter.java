@@ -1,12 +1,13 @@
 //adapter: cầu nối giữa dữ liệu và giao diện hiển thị
 // Mục đích file: File này dùng để hiển thị danh sách item thanh toán
 // function: 
-// - PaymentItemAdapter(): Khởi tạo adapter với danh sách item thanh toán và listener
+// - PaymentItemAdapter(): Khởi tạo adapter với listener
+// - submitItems(): Đưa danh sách item vào adapter (dựng PaymentRowModel và so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của thanh toán/booking
 // - onCreateViewHolder(): Tạo ViewHolder cho item thanh toán
-// - onBindViewHolder(): Bind dữ liệu item thanh toán vào ViewHolder
-// - getItemCount(): Trả về số lượng item thanh toán
+// - onBindViewHolder(): Bind dòng thanh toán vào ViewHolder
 // - PaymentItemViewHolder(): Khởi tạo ViewHolder và tìm các view con
-// - bind(): Hiển thị thông tin item thanh toán và xử lý sự kiện
+// - bind(): Gán các chuỗi/màu đã tính sẵn của dòng thanh toán vào view
 package com.example.appquanlytimtro.adapters;
 
 import android.view.LayoutInflater;
@@ -14,27 +15,37 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.models.PaymentItem;
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import com.example.appquanlytimtro.presentation.PaymentRowModel;
+import com.example.appquanlytimtro.presentation.RowModelSubmitter;
 import java.util.List;
-import java.util.Locale;
 
-public class PaymentItemAdapter extends RecyclerView.Adapter<PaymentItemAdapter.PaymentItemViewHolder> {
+public class PaymentItemAdapter extends ListAdapter<PaymentRowModel, PaymentItemAdapter.PaymentItemViewHolder> {
     
-    private List<PaymentItem> paymentItems;
     private OnPaymentItemClickListener listener;
+    private final RowModelSubmitter<PaymentItem, PaymentRowModel> submitter =
+            new RowModelSubmitter<>(this, PaymentRowModel::fromItems);
     
     public interface OnPaymentItemClickListener {
         void onPaymentItemClick(PaymentItem paymentItem);
     }
     
-    public PaymentItemAdapter(List<PaymentItem> paymentItems, OnPaymentItemClickListener listener) {
-        this.paymentItems = paymentItems;
+    public PaymentItemAdapter(OnPaymentItemClickListener listener) {
+        super(PaymentRowModel.DIFF);
         this.listener = listener;
+        setHasStableIds(true);
+    }
+    
+    public void submitItems(List<PaymentItem> items) {
+        submitter.submit(items);
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
     
     @NonNull
@@ -47,13 +58,7 @@ public class PaymentItemAdapter extends RecyclerView.Adapter<PaymentItemAdapter.
     
     @Override
     public void onBindViewHolder(@NonNull PaymentItemViewHolder holder, int position) {
-        PaymentItem item = paymentItems.get(position);
-        holder.bind(item);
-    }
-    
-    @Override
-    public int getItemCount() {
-        return paymentItems.size();
+        holder.bind(getItem(position));
     }
     
     public class PaymentItemViewHolder extends RecyclerView.ViewHolder {
@@ -74,62 +79,21 @@ public class PaymentItemAdapter extends RecyclerView.Adapter<PaymentItemAdapter.
             tvDescription = itemView.findViewById(R.id.tvDescription);
             
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onPaymentItemClick(paymentItems.get(getAdapterPosition()));
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onPaymentItemClick(getItem(position).getItem());
                 }
             });
         }
         
-            public void bind(PaymentItem item) {
-            NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
-            tvAmount.setText(formatter.format(item.getAmount()) + " VNĐ");
-            
-            chipStatus.setText(item.getStatusText());
-            if (item.isBooking()) {
-                chipStatus.setChipBackgroundColorResource(R.color.warning);
-            } else {
-                switch (item.getStatus()) {
-                    case "completed":
-                        chipStatus.setChipBackgroundColorResource(R.color.success);
-                        break;
-                    case "pending":
-                        chipStatus.setChipBackgroundColorResource(R.color.warning);
-                        break;
-                    case "failed":
-                        chipStatus.setChipBackgroundColorResource(R.color.error);
-                        break;
-                    default:
-                        chipStatus.setChipBackgroundColorResource(R.color.text_hint);
-                        break;
-                }
-            }
-            
-            tvPaymentMethod.setText(item.getPaymentMethodText());
-            
-            try {
-                SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.getDefault());
-                SimpleDateFormat outputFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
-                Date date = inputFormat.parse(item.getInitiatedAt());
-                tvDate.setText(outputFormat.format(date));
-            } catch (Exception e) {
-                tvDate.setText(item.getInitiatedAt());
-            }
-            
-            tvType.setText(item.isBooking() ? "Đặt phòng" : "Thanh toán");
-            
-            String description = "";
-            if (item.isBooking()) {
-                description = "Đặt phòng chưa thanh toán";
-                if (item.getPayer() != null) {
-                    description += " - " + item.getPayer().getFullName();
-                }
-            } else {
-                description = "Thanh toán " + item.getType();
-                if (item.getPayer() != null && item.getRecipient() != null) {
-                    description += " - " + item.getPayer().getFullName() + " → " + item.getRecipient().getFullName();
-                }
-            }
-            tvDescription.setText(description);
+        public void bind(PaymentRowModel row) {
+            tvAmount.setText(row.getAmount());
+            chipStatus.setText(row.getStatusText());
+            chipStatus.setChipBackgroundColorResource(row.getStatusColor());
+            tvPaymentMethod.setText(row.getPaymentMethod());
+            tvDate.setText(row.getDate());
+            tvType.setText(row.getType());
+            tvDescription.setText(row.getDescription());
         }
     }
 }
@@ -1,16 +1,13 @@
 //adapter: cầu nối giữa dữ liệu và giao diện hiển thị
 // Mục đích file: File này dùng để hiển thị danh sách phòng cho người dùng
 // function: 
-// - RoomAdapter(): Khởi tạo adapter với danh sách phòng và listener
+// - RoomAdapter(): Khởi tạo adapter với listener
+// - submitRooms(): Đưa danh sách phòng vào adapter (dựng RoomCardModel và so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của phòng
 // - onCreateViewHolder(): Tạo ViewHolder cho item phòng
-// - onBindViewHolder(): Bind dữ liệu phòng vào ViewHolder
-// - getItemCount(): Trả về số lượng phòng
-// - updateRooms(): Cập nhật danh sách phòng mới
+// - onBindViewHolder(): Bind thẻ phòng vào ViewHolder
 // - RoomViewHolder(): Khởi tạo ViewHolder và tìm các view con
-// - bind(): Hiển thị thông tin phòng và xử lý sự kiện
-// - getRoomTypeText(): Chuyển đổi mã loại phòng thành text hiển thị
-// - getStatusText(): Chuyển đổi mã trạng thái thành text hiển thị
-// - getStatusColor(): Lấy màu sắc tương ứng với trạng thái
+// - bind(): Gán các chuỗi/màu đã tính sẵn của thẻ phòng vào view
 package com.example.appquanlytimtro.adapters;
 
 import android.view.LayoutInflater;
@@ -20,40 +17,49 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.appquanlytimtro.R;
-import com.example.appquanlytimtro.models.Room;
-import com.example.appquanlytimtro.utils.ImageUtils;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.presentation.RoomCardModel;
+import com.example.appquanlytimtro.presentation.RowModelSubmitter;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
 
-import java.text.NumberFormat;
 import java.util.List;
-import java.util.Locale;
 
-public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder> {
+public class RoomAdapter extends ListAdapter<RoomCardModel, RoomAdapter.RoomViewHolder> {
     
-    private List<Room> rooms;
     private OnRoomClickListener listener;
     private boolean showDeleteButton;
+    private final RowModelSubmitter<RoomSummary, RoomCardModel> submitter =
+            new RowModelSubmitter<>(this, RoomCardModel::fromRooms);
     
     public interface OnRoomClickListener {
-        void onRoomClick(Room room);
-        void onRoomDelete(Room room);
+        void onRoomClick(RoomSummary room);
+        void onRoomDelete(RoomSummary room);
     }
     
-    public RoomAdapter(List<Room> rooms, OnRoomClickListener listener) {
-        this.rooms = rooms;
-        this.listener = listener;
-        this.showDeleteButton = false;
+    public RoomAdapter(OnRoomClickListener listener) {
+        this(listener, false);
     }
 
-    public RoomAdapter(List<Room> rooms, OnRoomClickListener listener, boolean showDeleteButton) {
-        this.rooms = rooms;
+    public RoomAdapter(OnRoomClickListener listener, boolean showDeleteButton) {
+        super(RoomCardModel.DIFF);
         this.listener = listener;
         this.showDeleteButton = showDeleteButton;
+        setHasStableIds(true);
+    }
+    
+    public void submitRooms(List<RoomSummary> rooms) {
+        submitter.submit(rooms);
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
     
     @NonNull
@@ -66,19 +72,7 @@ public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder
     
     @Override
     public void onBindViewHolder(@NonNull RoomViewHolder holder, int position) {
-        Room room = rooms.get(position);
-        holder.bind(room);
-    }
-    
-    @Override
-    public int getItemCount() {
-        return rooms.size();
-    }
-    
-    public void updateRooms(List<Room> newRooms) {
-        this.rooms.clear();
-        this.rooms.addAll(newRooms);
-        notifyDataSetChanged();
+        holder.bind(getItem(position));
     }
     
     class RoomViewHolder extends RecyclerView.ViewHolder {
@@ -103,7 +97,7 @@ public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder
                 if (listener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        listener.onRoomClick(rooms.get(position));
+                        listener.onRoomClick(getItem(position).getRoom());
                     }
                 }
             });
@@ -112,104 +106,34 @@ public class RoomAdapter extends RecyclerView.Adapter<RoomAdapter.RoomViewHolder
                 if (listener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        listener.onRoomDelete(rooms.get(position));
+                        listener.onRoomDelete(getItem(position).getRoom());
                     }
                 }
             });
         }
         
-        public void bind(Room room) {
+        public void bind(RoomCardModel card) {
             btnDelete.setVisibility(showDeleteButton ? View.VISIBLE : View.GONE);
             
-            tvTitle.setText(room.getTitle());
+            tvTitle.setText(card.getTitle());
+            tvAddress.setText(card.getAddress());
+            tvPrice.setText(card.getPrice());
+            tvArea.setText(card.getArea());
+            tvViews.setText(card.getViews());
+            chipRoomType.setText(card.getRoomType());
+            chipStatus.setText(card.getStatusText());
+            chipStatus.setChipBackgroundColorResource(card.getStatusColor());
             
-            if (room.getAddress() != null) {
-                String address = "";
-                if (room.getAddress().getStreet() != null && !room.getAddress().getStreet().isEmpty()) {
-                    address += room.getAddress().getStreet() + ", ";
-                }
-                if (room.getAddress().getWard() != null && !room.getAddress().getWard().isEmpty()) {
-                    address += room.getAddress().getWard() + ", ";
-                }
-                if (room.getAddress().getDistrict() != null && !room.getAddress().getDistrict().isEmpty()) {
-                    address += room.getAddress().getDistrict() + ", ";
-                }
-                if (room.getAddress().getCity() != null && !room.getAddress().getCity().isEmpty()) {
-                    address += room.getAddress().getCity();
-                }
-                if (address.endsWith(", ")) {
-                    address = address.substring(0, address.length() - 2);
-                }
-                tvAddress.setText(address);
-            }
-            
-            if (room.getPrice() != null) {
-                NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
-                String price = formatter.format(room.getPrice().getMonthly()) + " VNĐ/tháng";
-                tvPrice.setText(price);
-            }
-            
-            tvArea.setText(String.format("%.0f m²", room.getArea()));
-            
-            tvViews.setText(room.getViews() + " lượt xem");
-            
-            if (room.getRoomType() != null) {
-                String roomTypeText = getRoomTypeText(room.getRoomType());
-                chipRoomType.setText(roomTypeText);
-            }
-            
-            String status = room.getStatus();
-            if (status == null) status = "active";
-            
-            switch (status.toLowerCase()) {
-                case "active":
-                    chipStatus.setText("Còn trống");
-                    chipStatus.setChipBackgroundColorResource(R.color.success);
-                    break;
-                case "rented":
-                    chipStatus.setText("Đã cho thuê");
-                    chipStatus.setChipBackgroundColorResource(R.color.info);
-                    break;
-                case "maintenance":
-                    chipStatus.setText("Bảo trì");
-                    chipStatus.setChipBackgroundColorResource(R.color.warning);
-                    break;
-                default:
-                    chipStatus.setText("Không xác định");
-                    chipStatus.setChipBackgroundColorResource(R.color.surface_variant);
-                    break;
-            }
-            
-            if (room.getImages() != null && !room.getImages().isEmpty()) {
-                String imageUrl = ImageUtils.resolveImageUrl(room.getImages().get(0).getUrl());
-                if (imageUrl != null) {
-                    Glide.with(itemView.getContext())
-                            .load(imageUrl)
-                            .placeholder(R.drawable.ic_room_placeholder)
-                            .error(R.drawable.ic_room_placeholder)
-                            .centerCrop()
-                            .into(ivRoomImage);
-                } else {
-                    ivRoomImage.setImageResource(R.drawable.ic_room_placeholder);
-                }
+            if (card.getImageUrl() != null) {
+                Glide.with(itemView.getContext())
+                        .load(card.getImageUrl())
+                        .placeholder(R.drawable.ic_room_placeholder)
+                        .error(R.drawable.ic_room_placeholder)
+                        .centerCrop()
+                        .into(ivRoomImage);
             } else {
                 ivRoomImage.setImageResource(R.drawable.ic_room_placeholder);
             }
         }
-        
-        private String getRoomTypeText(String roomType) {
-            switch (roomType) {
-                case "studio":
-                    return "Studio";
-                case "1bedroom":
-                    return "1 phòng ngủ";
-                case "2bedroom":
-                    return "2 phòng ngủ";
-                case "3bedroom":
-                    return "3 phòng ngủ";
-                default:
-                    return roomType;
-            }
-        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+//class: ID ổn định cho item của RecyclerView
+// Mục đích file: File này dùng để đổi _id của model (ObjectId) thành số long cho getItemId(), để RecyclerView giữ đúng view của từng item khi danh sách thay đổi
+// function:
+// - of(): Đổi _id thành long (NO_ID nếu không có _id)
+package com.example.appquanlytimtro.adapters;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+public final class StableIds {
+
+    private StableIds() {}
+
+    public static long of(String id) {
+        if (id == null) {
+            return RecyclerView.NO_ID;
+        }
+        // ObjectId 24 ký tự hex: 16 ký tự cuối (phần ngẫu nhiên + bộ đếm) đã phân biệt được các document
+        if (id.length() == 24) {
+            try {
+                return (Long.parseLong(id.substring(8, 16), 16) << 32) | Long.parseLong(id.substring(16), 16);
+            } catch (NumberFormatException ignored) {
+                // Không phải hex: dùng hash bên dưới
+            }
+        }
+        return id.hashCode();
+    }
+}
@@ -16,6 +16,7 @@ import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.json.GsonProvider;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 
@@ -375,12 +376,12 @@ public class AddEditUserActivity extends AppCompatActivity {
             if (response.errorBody() != null) {
                 errorBodyString = response.errorBody().string();
             } else if (response.body() != null) {
-                Gson gson = new Gson();
+                Gson gson = GsonProvider.get();
                 errorBodyString = gson.toJson(response.body());
             }
             
             if (errorBodyString != null) {
-                Gson gson = new Gson();
+                Gson gson = GsonProvider.get();
                 JsonObject errorJson = gson.fromJson(errorBodyString, JsonObject.class);
                 
                 if (errorJson.has("errors") && errorJson.get("errors").isJsonArray()) {
@@ -6,8 +6,14 @@
 // - setupRecyclerView(): Thiết lập RecyclerView và adapter
 // - setupSwipeRefresh(): Thiết lập chức năng pull-to-refresh
 // - setupFilterChips(): Thiết lập các chip lọc theo trạng thái
-// - loadBookings(): Tải danh sách booking từ API
-// - filterBookings(): Lọc booking theo trạng thái
+// - onViewCreated(): Theo dõi bảng booking local và kết quả gửi của outbox
+// - onDestroyView(): Bỏ theo dõi outbox
+// - loadBookings(): Đồng bộ booking với API ở nền (lần đầu tải toàn bộ, sau đó chỉ tải phần thay đổi)
+// - filterBookings(): Lọc booking theo trạng thái (truy vấn có index trên bảng local)
+// - observeBookings(): Theo dõi danh sách booking local theo bộ lọc hiện tại
+// - observeStatusCounts(): Hiển thị số booking theo trạng thái trên chip
+// - setChipCount(): Gắn số đếm vào nhãn chip
+// - showBookings(): Hiển thị danh sách booking đã lọc
 // - updateEmptyView(): Cập nhật trạng thái empty view
 // - showLoading(): Hiển thị/ẩn loading indicator
 // - showError(): Hiển thị thông báo lỗi
@@ -16,7 +22,7 @@
 // - onAcceptBooking(): Xử lý chấp nhận booking
 // - onRejectBooking(): Xử lý từ chối booking
 // - checkBookingStatus(): Kiểm tra trạng thái booking trước khi thực hiện hành động
-// - updateBookingStatus(): Cập nhật trạng thái booking
+// - updateBookingStatus(): Cập nhật trạng thái booking qua outbox (hiển thị ngay, gửi ở nền)
 // - deleteBooking(): Xóa booking
 package com.example.appquanlytimtro.admin;
 
@@ -32,16 +38,22 @@ import com.google.android.material.chip.Chip;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.AdminBookingAdapter;
+import com.example.appquanlytimtro.database.booking.BookingStore;
+import com.example.appquanlytimtro.database.outbox.Outbox;
+import com.example.appquanlytimtro.database.outbox.OutboxEntity;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.BookingDelta;
+import com.example.appquanlytimtro.models.BookingPage;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
-import com.google.gson.Gson;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -55,9 +67,18 @@ public class AdminBookingManagementFragment extends Fragment implements AdminBoo
 
     private RetrofitClient retrofitClient;
     private List<Booking> bookings;
-    private List<Booking> allBookings; // Store all bookings for filtering
     private AdminBookingAdapter bookingAdapter;
     private String currentFilter = null; // Current filter status
+    // Bảng booking local: lọc/đếm bằng truy vấn, API chỉ đồng bộ ở nền
+    private BookingStore bookingStore;
+    private final BookingStore.Scope bookingScope = BookingStore.Scope.admin();
+    private LiveData<List<Booking>> visibleBookings;
+    // Server từ chối thao tác thì bảng local đã bị xóa, tải lại từ API
+    private final Outbox.Listener outboxListener = (operation, message) -> {
+        if (OutboxEntity.TYPE_BOOKING_STATUS.equals(operation.type) && getView() != null) {
+            loadBookings();
+        }
+    };
     
     // Views
     private RecyclerView recyclerView;
@@ -70,6 +91,7 @@ public class AdminBookingManagementFragment extends Fragment implements AdminBoo
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         retrofitClient = RetrofitClient.getInstance(requireContext());
+        bookingStore = BookingStore.getInstance(requireContext());
     }
 
     @Nullable
@@ -82,11 +104,24 @@ public class AdminBookingManagementFragment extends Fragment implements AdminBoo
         setupSwipeRefresh();
         setupFilterChips();
         
-        loadBookings();
-        
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        observeBookings();
+        observeStatusCounts();
+        Outbox.getInstance(requireContext()).addListener(outboxListener);
+        loadBookings();
+    }
+
+    @Override
+    public void onDestroyView() {
+        Outbox.getInstance(requireContext()).removeListener(outboxListener);
+        super.onDestroyView();
+    }
+
     private void initViews(View view) {
         recyclerView = view.findViewById(R.id.recyclerViewBookings);
         swipeRefreshLayout = view.findViewById(R.id.swipeRefreshLayout);
@@ -105,8 +140,7 @@ public class AdminBookingManagementFragment extends Fragment implements AdminBoo
 
     private void setupRecyclerView() {
         bookings = new ArrayList<>();
-        allBookings = new ArrayList<>();
-        bookingAdapter = new AdminBookingAdapter(bookings, this);
+        bookingAdapter = new AdminBookingAdapter(this);
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         recyclerView.setAdapter(bookingAdapter);
     }
@@ -144,65 +178,80 @@ public class AdminBookingManagementFragment extends Fragment implements AdminBoo
         chipCancelled.setChecked("cancelled".equals(status));
         
         // Filter bookings
-        bookings.clear();
-        if (status == null) {
-            bookings.addAll(allBookings);
-        } else {
-            for (Booking booking : allBookings) {
-                if (status.equals(booking.getStatus())) {
-                    bookings.add(booking);
-                }
+        observeBookings();
+    }
+
+    // Mỗi bộ lọc là một truy vấn có index, không phụ thuộc số lượng booking
+    private void observeBookings() {
+        if (visibleBookings != null) {
+            visibleBookings.removeObservers(getViewLifecycleOwner());
+        }
+        visibleBookings = bookingStore.observe(bookingScope, currentFilter);
+        visibleBookings.observe(getViewLifecycleOwner(), this::showBookings);
+    }
+
+    private void observeStatusCounts() {
+        bookingStore.observeStatusCounts(bookingScope).observe(getViewLifecycleOwner(), counts -> {
+            int total = 0;
+            for (Integer count : counts.values()) {
+                total += count;
             }
+            setChipCount(chipAll, total);
+            setChipCount(chipPending, counts.get("pending"));
+            setChipCount(chipConfirmed, counts.get("confirmed"));
+            setChipCount(chipPaid, counts.get("deposit_paid"));
+            setChipCount(chipActive, counts.get("active"));
+            setChipCount(chipCompleted, counts.get("completed"));
+            setChipCount(chipCancelled, counts.get("cancelled"));
+        });
+    }
+
+    private static void setChipCount(Chip chip, Integer count) {
+        // Giữ nhãn gốc trong tag để không nối số nhiều lần
+        if (chip.getTag() == null) {
+            chip.setTag(chip.getText().toString());
         }
-        
-        bookingAdapter.notifyDataSetChanged();
+        chip.setText(chip.getTag() + " (" + (count != null ? count : 0) + ")");
+    }
+
+    private void showBookings(List<Booking> filtered) {
+        bookings.clear();
+        bookings.addAll(filtered);
+        bookingAdapter.submitList(new ArrayList<>(bookings));
         updateEmptyView();
     }
 
     private void loadBookings() {
-        showLoading(true);
+        // Đã có dữ liệu local thì hiển thị ngay, chỉ đồng bộ ở nền
+        showLoading(bookings.isEmpty());
         
         String token = "Bearer " + retrofitClient.getToken();
-        java.util.Map<String, String> params = new java.util.HashMap<>();
-        retrofitClient.getApiService().getBookings(token, params).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        bookingStore.sync(bookingScope, new BookingStore.SyncSource() {
             @Override
-            public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
+            public Call<ApiResponse<BookingPage>> loadAll(Map<String, String> params) {
+                return retrofitClient.getApiBatch().add(retrofitClient.getApiService().getBookings(token, params));
+            }
+
+            @Override
+            public Call<ApiResponse<BookingDelta>> loadChanges(String updatedSince) {
+                return retrofitClient.getApiBatch().add(retrofitClient.getApiService().getBookingChanges(token, updatedSince));
+            }
+        }, new BookingStore.SyncCallback() {
+            @Override
+            public void onSynced() {
+                if (getContext() == null) return;
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<Map<String, Object>> apiResponse = response.body();
-                    
-                    if (apiResponse.isSuccess() && apiResponse.getData() != null) {
-                        Map<String, Object> data = apiResponse.getData();
-                        List<?> bookingsData = (List<?>) data.get("bookings");
-                        
-                        if (bookingsData != null) {
-                            allBookings.clear();
-                            Gson gson = new Gson();
-                            for (Object bookingObj : bookingsData) {
-                                if (bookingObj instanceof Map) {
-                                    Booking booking = gson.fromJson(gson.toJson(bookingObj), Booking.class);
-                                    allBookings.add(booking);
-                                }
-                            }
-                            
-                            // Apply current filter
-                            filterBookings(currentFilter);
-                        }
-                    } else {
-                        showError(apiResponse.getMessage());
-                    }
-                } else {
-                    showError("Không thể tải danh sách đặt phòng");
-                }
+                updateEmptyView();
             }
             
             @Override
-            public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
+            public void onError(String message) {
+                if (getContext() == null) return;
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
-                showError("Lỗi kết nối. Vui lòng thử lại.");
+                updateEmptyView();
+                showError(message != null ? message : "Không thể tải danh sách đặt phòng");
             }
         });
     }
@@ -269,7 +318,7 @@ public class AdminBookingManagementFragment extends Fragment implements AdminBoo
         showLoading(true);
         
         String token = "Bearer " + retrofitClient.getToken();
-        retrofitClient.getApiService().getBookingStatus(token, bookingId).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getBookingStatus(token, bookingId), new Callback<ApiResponse<Map<String, Object>>>() {
             @Override
             public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
                 showLoading(false);
@@ -327,37 +376,10 @@ public class AdminBookingManagementFragment extends Fragment implements AdminBoo
     }
 
     private void updateBookingStatus(String bookingId, String newStatus) {
-        showLoading(true);
-        
-        String token = "Bearer " + retrofitClient.getToken();
-        java.util.Map<String, String> statusUpdate = new java.util.HashMap<>();
-        statusUpdate.put("status", newStatus);
-        
-        retrofitClient.getApiService().updateBookingStatus(token, bookingId, statusUpdate).enqueue(new Callback<ApiResponse<Booking>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<Booking>> call, Response<ApiResponse<Booking>> response) {
-                showLoading(false);
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<Booking> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        String message = newStatus.equals("confirmed") ? "Chấp nhận đặt phòng thành công" : "Từ chối đặt phòng thành công";
-                        showError(message);
-                        loadBookings(); // Reload list
-                    } else {
-                        showError(apiResponse.getMessage());
-                    }
-                } else {
-                    showError("Không thể cập nhật trạng thái đặt phòng");
-                }
-            }
-            
-            @Override
-            public void onFailure(Call<ApiResponse<Booking>> call, Throwable t) {
-                showLoading(false);
-                showError("Lỗi kết nối: " + t.getMessage());
-            }
-        });
+        // Ghi vào outbox: danh sách local đổi ngay, request được gửi ở nền
+        Outbox.getInstance(requireContext()).updateBookingStatus(bookingId, newStatus);
+        String message = newStatus.equals("confirmed") ? "Chấp nhận đặt phòng thành công" : "Từ chối đặt phòng thành công";
+        showError(message);
     }
 
     private void deleteBooking(String bookingId) {
@@ -389,4 +411,4 @@ public class AdminBookingManagementFragment extends Fragment implements AdminBoo
             }
         });
     }
-}
\ No newline at end of file
+}
@@ -5,7 +5,9 @@
 // - initViews(): Khởi tạo các view components
 // - setupClickListeners(): Thiết lập các sự kiện click
 // - loadUserData(): Tải thông tin user hiện tại
-// - loadDashboardData(): Tải dữ liệu thống kê dashboard từ API
+// - loadDashboardData(): Hiển thị bản chụp đã lưu rồi tải dữ liệu thống kê mới từ API (lưu lại làm bản chụp)
+// - showSnapshot(): Hiển thị số liệu của lần tải thành công gần nhất kèm thời điểm cập nhật
+// - onRefreshFailed(): Giữ bản chụp nếu có, nếu không thì hiển thị 0
 // - updateDashboardData(): Cập nhật dữ liệu dashboard lên UI
 // - loadDefaultData(): Tải dữ liệu mặc định khi không có dữ liệu từ API
 package com.example.appquanlytimtro.admin;
@@ -23,9 +25,12 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.database.dashboard.DashboardSnapshots;
+import com.example.appquanlytimtro.models.DashboardStats;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.example.appquanlytimtro.models.User;
-import com.google.gson.Gson;
+import com.example.appquanlytimtro.utils.StartupTrace;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -37,10 +42,13 @@ public class AdminDashboardFragment extends Fragment {
     private TextView tvTotalLandlords;
     private TextView tvTotalRooms;
     private TextView tvTotalRevenue;
+    private TextView tvLastUpdated;
     private MaterialCardView cardLogout;
     
     private RetrofitClient retrofitClient;
     private User currentUser;
+    private boolean refreshed;
+    private long snapshotSavedAt;
 
     @Nullable
     @Override
@@ -62,6 +70,7 @@ public class AdminDashboardFragment extends Fragment {
         tvTotalLandlords = view.findViewById(R.id.tvTotalLandlords);
         tvTotalRooms = view.findViewById(R.id.tvTotalRooms);
         tvTotalRevenue = view.findViewById(R.id.tvTotalRevenue);
+        tvLastUpdated = view.findViewById(R.id.tvLastUpdated);
         cardLogout = view.findViewById(R.id.cardLogout);
     }
 
@@ -83,98 +92,70 @@ public class AdminDashboardFragment extends Fragment {
     }
 
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            Gson gson = new Gson();
-            currentUser = gson.fromJson(userJson, User.class);
-        }
+        currentUser = retrofitClient.getCurrentUser();
     }
 
     private void loadDashboardData() {
         if (currentUser == null) return;
         
+        // View có thể được tạo lại khi quay về tab này
+        refreshed = false;
+        snapshotSavedAt = 0;
+        showSnapshot();
         String token = "Bearer " + retrofitClient.getToken();
         
-        retrofitClient.getApiService().getStatisticsOverview(token).enqueue(new Callback<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiBatch().add(retrofitClient.getApiService().getStatisticsOverview(token)), new Callback<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>>() {
             @Override
             public void onResponse(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Response<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> response) {
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    java.util.Map<String, Object> data = response.body().getData();
-                    updateDashboardData(data);
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                        && response.body().getData() != null && response.body().getData().get("stats") instanceof java.util.Map) {
+                    DashboardStats stats = DashboardStats.fromStats((java.util.Map<String, Object>) response.body().getData().get("stats"));
+                    refreshed = true;
+                    updateDashboardData(stats);
+                    tvLastUpdated.setText(DashboardSnapshots.lastUpdatedText(System.currentTimeMillis()));
+                    DashboardSnapshots.getInstance(requireContext()).save(DashboardSnapshots.ROLE_ADMIN, currentUser.getId(), stats);
                 } else {
-                    loadDefaultData();
+                    onRefreshFailed();
                 }
+                StartupTrace.reportFirstContent(getActivity(), "AdminDashboard");
             }
 
             @Override
             public void onFailure(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Throwable t) {
-                loadDefaultData();
+                onRefreshFailed();
+                StartupTrace.reportFirstContent(getActivity(), "AdminDashboard");
             }
         });
     }
     
-    private void updateDashboardData(java.util.Map<String, Object> data) {
-        Object statsObj = data.get("stats");
-        if (statsObj instanceof java.util.Map) {
-            java.util.Map<String, Object> stats = (java.util.Map<String, Object>) statsObj;
-            
-            Object usersObj = stats.get("users");
-            int totalUsers = 0;
-            int totalLandlords = 0;
-            if (usersObj instanceof java.util.List) {
-                java.util.List<?> usersList = (java.util.List<?>) usersObj;
-                for (Object userObj : usersList) {
-                    if (userObj instanceof java.util.Map) {
-                        java.util.Map<String, Object> user = (java.util.Map<String, Object>) userObj;
-                        Object role = user.get("_id");
-                        Object count = user.get("count");
-                        if (count instanceof Number) {
-                            totalUsers += ((Number) count).intValue();
-                            if ("landlord".equals(role)) {
-                                totalLandlords = ((Number) count).intValue();
-                            }
-                        }
-                    }
-                }
-            }
-            
-            if (tvTotalUsers != null) {
-                tvTotalUsers.setText(String.valueOf(totalUsers));
-            }
-            
-            if (tvTotalLandlords != null) {
-                tvTotalLandlords.setText(String.valueOf(totalLandlords));
-            }
-            
-            Object roomsObj = stats.get("rooms");
-            if (roomsObj instanceof java.util.Map) {
-                java.util.Map<String, Object> rooms = (java.util.Map<String, Object>) roomsObj;
-                Object totalRooms = rooms.get("totalRooms");
-                if (tvTotalRooms != null) {
-                    if (totalRooms != null) {
-                        int roomCount = (int) Math.round(((Number) totalRooms).doubleValue());
-                        tvTotalRooms.setText(String.valueOf(roomCount));
-                    } else {
-                        tvTotalRooms.setText("0");
-                    }
-                }
-            }
-            
-            Object paymentsObj = stats.get("payments");
-            if (paymentsObj instanceof java.util.Map) {
-                java.util.Map<String, Object> payments = (java.util.Map<String, Object>) paymentsObj;
-                Object totalAmount = payments.get("totalAmount");
-                if (tvTotalRevenue != null) {
-                    if (totalAmount != null) {
-                        tvTotalRevenue.setText(totalAmount.toString() + " VNĐ");
-                    } else {
-                        tvTotalRevenue.setText("0 VNĐ");
-                    }
-                }
-            }
+    private void showSnapshot() {
+        DashboardSnapshots.getInstance(requireContext()).load(DashboardSnapshots.ROLE_ADMIN, currentUser.getId(), (stats, savedAt) -> {
+            // API đã trả về trước khi đọc xong bản chụp thì giữ số liệu mới
+            if (!isAdded() || refreshed) return;
+            snapshotSavedAt = savedAt;
+            updateDashboardData(stats);
+            tvLastUpdated.setText(DashboardSnapshots.lastUpdatedText(savedAt) + " · đang làm mới...");
+            StartupTrace.reportFirstContent(getActivity(), "AdminDashboard");
+        });
+    }
+    
+    private void onRefreshFailed() {
+        if (snapshotSavedAt > 0) {
+            // Giữ số liệu cũ thay vì về 0
+            tvLastUpdated.setText(DashboardSnapshots.lastUpdatedText(snapshotSavedAt) + " · không thể làm mới");
+        } else {
+            loadDefaultData();
+            tvLastUpdated.setText("Không thể tải số liệu");
         }
     }
     
+    private void updateDashboardData(DashboardStats stats) {
+        tvTotalUsers.setText(String.valueOf(stats.getTotalUsers()));
+        tvTotalLandlords.setText(String.valueOf(stats.getTotalLandlords()));
+        tvTotalRooms.setText(String.valueOf(stats.getTotalRooms()));
+        tvTotalRevenue.setText(String.format(java.util.Locale.getDefault(), "%.0f VNĐ", stats.getTotalPaid()));
+    }
+    
     private void loadDefaultData() {
         tvTotalUsers.setText("0");
         tvTotalLandlords.setText("0");
@@ -2,18 +2,23 @@
 // Mục đích file: File này dùng để quản lý tất cả các thanh toán trong hệ thống cho admin
 // function: 
 // - onCreateView(): Khởi tạo view và setup các component
+// - onViewCreated(): Theo dõi sổ thanh toán local và kết quả gửi của outbox
+// - onDestroyView(): Bỏ theo dõi outbox
 // - loadUserData(): Tải thông tin user hiện tại
 // - initViews(): Khởi tạo các view components
 // - setupRecyclerView(): Thiết lập RecyclerView và adapter
 // - handlePaymentAction(): Xử lý các hành động thanh toán
-// - confirmPayment(): Xác nhận thanh toán
+// - confirmPayment(): Xác nhận thanh toán qua outbox (hiển thị ngay, gửi ở nền)
 // - cancelPayment(): Hủy thanh toán
 // - refundPayment(): Hoàn tiền
 // - setupSwipeRefresh(): Thiết lập chức năng pull-to-refresh
-// - loadPayments(): Tải danh sách thanh toán từ API
+// - observeLedger(): Theo dõi danh sách và tổng kết (tổng cộng dồn, đúng cho toàn bộ thanh toán) từ sổ local
+// - loadPayments(): Đồng bộ sổ thanh toán với API ở nền (lần đầu tải mọi trang, sau đó chỉ tải phần thay đổi)
 // - setupFilterChips(): Thiết lập các chip lọc
 // - applyFilter(): Áp dụng bộ lọc
-// - calculateSummary(): Tính toán tổng kết
+// - filterItems(): Lọc danh sách PaymentItem theo bộ lọc
+// - showPaymentItems(): Hiển thị danh sách đã lọc
+// - showSummary(): Hiển thị tổng kết
 // - showLoading(): Hiển thị/ẩn loading indicator
 // - showEmptyState(): Hiển thị/ẩn trạng thái empty
 package com.example.appquanlytimtro.admin;
@@ -38,19 +43,22 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.PaymentItemAdapter;
-import com.example.appquanlytimtro.models.Payment;
+import com.example.appquanlytimtro.database.outbox.Outbox;
+import com.example.appquanlytimtro.database.outbox.OutboxEntity;
+import com.example.appquanlytimtro.database.payment.PaymentLedger;
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.models.PaymentDelta;
 import com.example.appquanlytimtro.models.PaymentItem;
-import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.PaymentPage;
 import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.network.RetrofitClient;
-import com.google.gson.Gson;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class AdminPaymentManagementFragment extends Fragment {
 
@@ -67,6 +75,14 @@ public class AdminPaymentManagementFragment extends Fragment {
     private RetrofitClient retrofitClient;
     private User currentUser;
     private String currentFilter = "all"; // all, pending, completed, failed
+    private PaymentLedger paymentLedger;
+    private final PaymentLedger.Scope ledgerScope = PaymentLedger.Scope.admin();
+    // Server từ chối xác nhận thì sổ local đã bị xóa, tải lại từ API
+    private final Outbox.Listener outboxListener = (operation, message) -> {
+        if (OutboxEntity.TYPE_CONFIRM_PAYMENT.equals(operation.type) && getView() != null) {
+            loadPayments();
+        }
+    };
 
     @Nullable
     @Override
@@ -74,22 +90,32 @@ public class AdminPaymentManagementFragment extends Fragment {
         View view = inflater.inflate(R.layout.activity_payment_list, container, false);
         
         retrofitClient = RetrofitClient.getInstance(getContext());
+        paymentLedger = PaymentLedger.getInstance(requireContext());
         loadUserData();
         
         initViews(view);
         setupRecyclerView();
         setupSwipeRefresh();
-        loadPayments();
         
         return view;
     }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        observeLedger();
+        Outbox.getInstance(requireContext()).addListener(outboxListener);
+        loadPayments();
+    }
+
+    @Override
+    public void onDestroyView() {
+        Outbox.getInstance(requireContext()).removeListener(outboxListener);
+        super.onDestroyView();
+    }
     
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            Gson gson = new Gson();
-            currentUser = gson.fromJson(userJson, User.class);
-        }
+        currentUser = retrofitClient.getCurrentUser();
     }
     
     private void initViews(View view) {
@@ -112,7 +138,7 @@ public class AdminPaymentManagementFragment extends Fragment {
     
     private void setupRecyclerView() {
         paymentItems = new ArrayList<>();
-        paymentItemAdapter = new PaymentItemAdapter(paymentItems, new PaymentItemAdapter.OnPaymentItemClickListener() {
+        paymentItemAdapter = new PaymentItemAdapter(new PaymentItemAdapter.OnPaymentItemClickListener() {
             @Override
             public void onPaymentItemClick(PaymentItem paymentItem) {
                 // Handle payment item click
@@ -146,24 +172,9 @@ public class AdminPaymentManagementFragment extends Fragment {
     }
     
     private void confirmPayment(PaymentItem paymentItem) {
-        String token = "Bearer " + retrofitClient.getToken();
-        
-        retrofitClient.getApiService().confirmPayment(token, paymentItem.getId()).enqueue(new Callback<com.example.appquanlytimtro.models.ApiResponse<Payment>>() {
-            @Override
-            public void onResponse(Call<com.example.appquanlytimtro.models.ApiResponse<Payment>> call, Response<com.example.appquanlytimtro.models.ApiResponse<Payment>> response) {
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    Toast.makeText(getContext(), "Xác nhận thanh toán thành công", Toast.LENGTH_SHORT).show();
-                    loadPayments(); // Reload data
-                } else {
-                    Toast.makeText(getContext(), "Lỗi xác nhận thanh toán", Toast.LENGTH_SHORT).show();
-                }
-            }
-            
-            @Override
-            public void onFailure(Call<com.example.appquanlytimtro.models.ApiResponse<Payment>> call, Throwable t) {
-                Toast.makeText(getContext(), "Lỗi kết nối", Toast.LENGTH_SHORT).show();
-            }
-        });
+        // Ghi vào outbox: sổ local và tổng kết đổi ngay, request được gửi ở nền
+        Outbox.getInstance(requireContext()).confirmPayment(paymentItem.getId());
+        Toast.makeText(getContext(), "Xác nhận thanh toán thành công", Toast.LENGTH_SHORT).show();
     }
     
     private void cancelPayment(PaymentItem paymentItem) {
@@ -180,106 +191,53 @@ public class AdminPaymentManagementFragment extends Fragment {
         swipeRefreshLayout.setOnRefreshListener(this::loadPayments);
     }
     
+    private void observeLedger() {
+        paymentLedger.observeItems().observe(getViewLifecycleOwner(), items -> {
+            // Lưu tất cả items để filter
+            allPaymentItems = items;
+            applyFilter(currentFilter);
+        });
+        // Tổng kết đọc từ bảng cộng dồn, không quét lại danh sách
+        paymentLedger.observeSummary(ledgerScope).observe(getViewLifecycleOwner(),
+                summary -> showSummary(summary.paid, summary.pending));
+    }
+
     private void loadPayments() {
-        showLoading(true);
+        // Đã có dữ liệu local thì hiển thị ngay, chỉ đồng bộ ở nền
+        showLoading(paymentItems.isEmpty());
         
         String token = "Bearer " + retrofitClient.getToken();
-        // Admin có thể xem tất cả payments trong hệ thống
-        java.util.Map<String, String> params = new java.util.HashMap<>();
-        params.put("limit", "100"); // Lấy tối đa 100 payments
-        params.put("page", "1");
-        params.put("sort", "createdAt"); // Sắp xếp theo ngày tạo
-        params.put("order", "desc"); // Mới nhất trước
-        
-        
-        retrofitClient.getApiService().getPayments(token, params).enqueue(new Callback<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>>() {
+        paymentLedger.sync(ledgerScope, new PaymentLedger.SyncSource() {
+            @Override
+            public Call<ApiResponse<PaymentPage>> loadPage(Map<String, String> params) {
+                // Admin có thể xem tất cả payments trong hệ thống
+                return retrofitClient.getApiBatch().add(retrofitClient.getApiService().getPayments(token, params));
+            }
+
             @Override
-            public void onResponse(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Response<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> response) {
+            public Call<ApiResponse<PaymentDelta>> loadChanges(String updatedSince) {
+                return retrofitClient.getApiBatch().add(retrofitClient.getApiService().getPaymentChanges(token, updatedSince));
+            }
+        }, new PaymentLedger.SyncCallback() {
+            @Override
+            public void onSynced() {
+                if (getContext() == null) return;
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
-                
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    
-                    if (response.body().isSuccess()) {
-                        java.util.Map<String, Object> data = response.body().getData();
-                    
-                    if (data != null) {
-                        try {
-                            com.google.gson.Gson gson = new com.google.gson.Gson();
-                            
-                            // Parse payments
-                            List<Payment> paymentList = null;
-                            if (data.containsKey("payments")) {
-                                String paymentsJson = gson.toJson(data.get("payments"));
-                                paymentList = gson.fromJson(paymentsJson, new com.google.gson.reflect.TypeToken<List<Payment>>(){}.getType());
-                            }
-                            
-                            // Parse unpaid bookings
-                            List<Booking> unpaidBookingList = null;
-                            if (data.containsKey("unpaidBookings")) {
-                                String bookingsJson = gson.toJson(data.get("unpaidBookings"));
-                                unpaidBookingList = gson.fromJson(bookingsJson, new com.google.gson.reflect.TypeToken<List<Booking>>(){}.getType());
-                            }
-                            
-                            
-                            // Tạo PaymentItem list từ payments và bookings
-                            List<PaymentItem> allItems = new ArrayList<>();
-                            
-                            // Thêm payments
-                            if (paymentList != null) {
-                                for (Payment payment : paymentList) {
-                                    allItems.add(new PaymentItem(payment));
-                                }
-                            }
-                            
-                            // Thêm unpaid bookings
-                            if (unpaidBookingList != null) {
-                                for (Booking booking : unpaidBookingList) {
-                                    allItems.add(new PaymentItem(booking));
-                                }
-                            }
-                            
-                            // Lưu tất cả items để filter
-                            allPaymentItems.clear();
-                            allPaymentItems.addAll(allItems);
-                            
-                            // Apply current filter
-                            applyFilter(currentFilter);
-                            
-                            // Calculate summary
-                            calculateSummary(allItems);
-                            
-                            // Show/hide empty state
-                            if (paymentItems.isEmpty()) {
-                                showEmptyState(true);
-                            } else {
-                                showEmptyState(false);
-                            }
-                            
-                        } catch (Exception e) {
-                            Toast.makeText(getContext(), "Lỗi xử lý dữ liệu thanh toán", Toast.LENGTH_SHORT).show();
-                            showEmptyState(true);
-                        }
-                    } else {
-                        showEmptyState(true);
-                    }
-                    } else {
-                        Toast.makeText(getContext(), "Lỗi API: " + response.body().getMessage(), Toast.LENGTH_SHORT).show();
-                        showEmptyState(true);
-                    }
-                } else {
-                    Toast.makeText(getContext(), "Lỗi tải dữ liệu thanh toán (Code: " + response.code() + ")", Toast.LENGTH_SHORT).show();
-                    showEmptyState(true);
-                }
+                showEmptyState(paymentItems.isEmpty());
             }
             
             @Override
-            public void onFailure(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Throwable t) {
+            public void onError(String message) {
+                if (getContext() == null) return;
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
-                Toast.makeText(getContext(), "Lỗi kết nối mạng", Toast.LENGTH_SHORT).show();
-                showEmptyState(true);
+                if (message != null) {
+                    Toast.makeText(getContext(), "Lỗi API: " + message, Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(getContext(), "Lỗi tải dữ liệu thanh toán", Toast.LENGTH_SHORT).show();
+                }
+                showEmptyState(paymentItems.isEmpty());
             }
         });
     }
@@ -320,77 +278,56 @@ public class AdminPaymentManagementFragment extends Fragment {
     }
     
     private void applyFilter(String filter) {
-        paymentItems.clear();
-        
         if (allPaymentItems == null) return;
+        showPaymentItems(filterItems(allPaymentItems, filter));
+    }
+    
+    private static List<PaymentItem> filterItems(List<PaymentItem> source, String filter) {
+        List<PaymentItem> result = new ArrayList<>();
         
         switch (filter) {
             case "all":
-                paymentItems.addAll(allPaymentItems);
+                result.addAll(source);
                 break;
             case "pending":
-                for (PaymentItem item : allPaymentItems) {
+                for (PaymentItem item : source) {
                     if (item.isBooking() || "pending".equals(item.getStatus())) {
-                        paymentItems.add(item);
+                        result.add(item);
                     }
                 }
                 break;
             case "completed":
-                for (PaymentItem item : allPaymentItems) {
+                for (PaymentItem item : source) {
                     if (item.isPayment() && "completed".equals(item.getStatus())) {
-                        paymentItems.add(item);
+                        result.add(item);
                     }
                 }
                 break;
             case "failed":
-                for (PaymentItem item : allPaymentItems) {
+                for (PaymentItem item : source) {
                     if (item.isPayment() && "failed".equals(item.getStatus())) {
-                        paymentItems.add(item);
+                        result.add(item);
                     }
                 }
                 break;
         }
         
-        paymentItemAdapter.notifyDataSetChanged();
+        return Collections.unmodifiableList(result);
+    }
+    
+    private void showPaymentItems(List<PaymentItem> items) {
+        paymentItems.clear();
+        paymentItems.addAll(items);
+        paymentItemAdapter.submitItems(paymentItems);
         
         // Show/hide empty state
-        if (paymentItems.isEmpty()) {
-            showEmptyState(true);
-        } else {
-            showEmptyState(false);
-        }
-        
+        showEmptyState(paymentItems.isEmpty());
     }
     
-    
-    private void calculateSummary(List<PaymentItem> paymentItemList) {
-        double paidAmount = 0;
-        double pendingAmount = 0;
-        int totalItems = paymentItemList.size();
-        int completedCount = 0;
-        int pendingCount = 0;
-        
-        for (PaymentItem item : paymentItemList) {
-            if (item.isBooking()) {
-                // Booking chưa thanh toán
-                pendingAmount += item.getAmount();
-                pendingCount++;
-            } else if (item.isPayment()) {
-                // Payment đã thanh toán
-                if ("completed".equals(item.getStatus())) {
-                    paidAmount += item.getAmount();
-                    completedCount++;
-                } else if ("pending".equals(item.getStatus())) {
-                    pendingAmount += item.getAmount();
-                    pendingCount++;
-                }
-            }
-        }
-        
+    private void showSummary(double paidAmount, double pendingAmount) {
         // Admin xem tổng quan toàn hệ thống
         tvTotalPaid.setText(String.format("%.0f VNĐ", paidAmount));
         tvPendingAmount.setText(String.format("%.0f VNĐ", pendingAmount));
-        
     }
     
     private void showLoading(boolean show) {
@@ -412,4 +349,4 @@ public class AdminPaymentManagementFragment extends Fragment {
             recyclerView.setVisibility(View.VISIBLE);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,16 @@
 //fragment: màn hình quản lý phòng cho admin
 // Mục đích file: File này dùng để quản lý tất cả các phòng trong hệ thống cho admin
 // function: 
-// - onCreateView(): Khởi tạo view và setup các component
+// - onCreateView(): Khởi tạo view, setup các component và theo dõi kết quả gửi của outbox
+// - onDestroyView(): Bỏ theo dõi outbox
 // - setupRecyclerView(): Thiết lập RecyclerView và adapter
 // - setupSwipeRefresh(): Thiết lập chức năng pull-to-refresh
 // - loadRooms(): Tải danh sách phòng từ API
+// - updateRoomCounts(): Cập nhật số phòng và số phòng đang hoạt động
 // - showLoading(): Hiển thị/ẩn loading indicator
 // - onRoomClick(): Xử lý click vào phòng
+// - onRoomDelete(): Hỏi xác nhận trước khi xóa phòng
+// - deleteRoom(): Xóa phòng qua outbox (bỏ khỏi danh sách ngay, gửi ở nền)
 package com.example.appquanlytimtro.admin;
 
 import android.os.Bundle;
@@ -27,8 +31,12 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.RoomAdapter;
+import com.example.appquanlytimtro.database.outbox.Outbox;
+import com.example.appquanlytimtro.database.outbox.OutboxEntity;
 import com.example.appquanlytimtro.models.ApiResponse;
-import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.RoomSummaryPage;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 
 import java.util.ArrayList;
@@ -47,8 +55,14 @@ public class AdminRoomsFragment extends Fragment implements RoomAdapter.OnRoomCl
     private ProgressBar progressBar;
     private TextView tvTotalRooms, tvOccupiedRooms;
     private RoomAdapter adapter;
-    private final List<Room> rooms = new ArrayList<>();
+    private final List<RoomSummary> rooms = new ArrayList<>();
     private RetrofitClient retrofitClient;
+    // Server từ chối xóa thì tải lại để phòng hiện lại trong danh sách
+    private final Outbox.Listener outboxListener = (operation, message) -> {
+        if (OutboxEntity.TYPE_DELETE_ROOM.equals(operation.type) && getView() != null) {
+            loadRooms();
+        }
+    };
 
     @Nullable
     @Override
@@ -65,14 +79,21 @@ public class AdminRoomsFragment extends Fragment implements RoomAdapter.OnRoomCl
 
         setupRecyclerView();
         setupSwipeRefresh();
+        Outbox.getInstance(requireContext()).addListener(outboxListener);
         loadRooms();
 
         return view;
     }
 
+    @Override
+    public void onDestroyView() {
+        Outbox.getInstance(requireContext()).removeListener(outboxListener);
+        super.onDestroyView();
+    }
+
     private void setupRecyclerView() {
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new RoomAdapter(rooms, this, true);
+        adapter = new RoomAdapter(this, true);
         recyclerView.setAdapter(adapter);
     }
 
@@ -93,45 +114,27 @@ public class AdminRoomsFragment extends Fragment implements RoomAdapter.OnRoomCl
         params.put("page", "1");
         params.put("limit", "100");
 
-        retrofitClient.getApiService().getRooms(params)
-                .enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getRoomSummaries(params),
+                new Callback<ApiResponse<RoomSummaryPage>>() {
                     @Override
-                    public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
+                    public void onResponse(Call<ApiResponse<RoomSummaryPage>> call, Response<ApiResponse<RoomSummaryPage>> response) {
                         showLoading(false);
                         swipeRefreshLayout.setRefreshing(false);
 
-                        if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                            com.google.gson.Gson gson = new com.google.gson.Gson();
-                            Object listObj = response.body().getData().get("rooms");
-
-                            if (listObj instanceof List<?>) {
-                                rooms.clear();
-                                int totalRooms = 0;
-                                int occupiedRooms = 0;
-
-                                for (Object o : (List<?>) listObj) {
-                                    String json = gson.toJson(o);
-                                    Room room = gson.fromJson(json, Room.class);
-                                    rooms.add(room);
-
-                                    totalRooms++;
-                                    if ("active".equals(room.getStatus())) {
-                                        occupiedRooms++;
-                                    }
-                                }
+                        if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                                && response.body().getData() != null) {
+                            rooms.clear();
+                            rooms.addAll(response.body().getData().getItems());
+                            updateRoomCounts();
 
-                                tvTotalRooms.setText(String.valueOf(totalRooms));
-                                tvOccupiedRooms.setText(String.valueOf(occupiedRooms));
-
-                                adapter.notifyDataSetChanged();
-                            }
+                            adapter.submitRooms(rooms);
                         } else {
                             Toast.makeText(getContext(), "Lỗi tải danh sách phòng", Toast.LENGTH_SHORT).show();
                         }
                     }
 
                     @Override
-                    public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
+                    public void onFailure(Call<ApiResponse<RoomSummaryPage>> call, Throwable t) {
                         showLoading(false);
                         swipeRefreshLayout.setRefreshing(false);
                         Toast.makeText(getContext(), "Lỗi kết nối mạng", Toast.LENGTH_SHORT).show();
@@ -139,17 +142,28 @@ public class AdminRoomsFragment extends Fragment implements RoomAdapter.OnRoomCl
                 });
     }
 
+    private void updateRoomCounts() {
+        int occupiedRooms = 0;
+        for (RoomSummary room : rooms) {
+            if ("active".equals(room.getStatus())) {
+                occupiedRooms++;
+            }
+        }
+        tvTotalRooms.setText(String.valueOf(rooms.size()));
+        tvOccupiedRooms.setText(String.valueOf(occupiedRooms));
+    }
+
     private void showLoading(boolean show) {
         progressBar.setVisibility(show ? View.VISIBLE : View.GONE);
         recyclerView.setVisibility(show ? View.GONE : View.VISIBLE);
     }
 
     @Override
-    public void onRoomClick(Room room) {
+    public void onRoomClick(RoomSummary room) {
     }
 
     @Override
-    public void onRoomDelete(Room room) {
+    public void onRoomDelete(RoomSummary room) {
         new AlertDialog.Builder(requireContext())
                 .setTitle("Xóa phòng trọ")
                 .setMessage("Bạn có chắc chắn muốn xóa phòng " + room.getTitle() + "?")
@@ -158,31 +172,15 @@ public class AdminRoomsFragment extends Fragment implements RoomAdapter.OnRoomCl
                 .show();
     }
 
-    private void deleteRoom(Room room) {
-        showLoading(true);
-        String token = "Bearer " + retrofitClient.getToken();
-        retrofitClient.getApiService().deleteRoom(token, room.getId())
-                .enqueue(new Callback<ApiResponse<Void>>() {
-                    @Override
-                    public void onResponse(Call<ApiResponse<Void>> call, Response<ApiResponse<Void>> response) {
-                        showLoading(false);
-                        if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                            Toast.makeText(getContext(), "Xóa phòng thành công", Toast.LENGTH_SHORT).show();
-                            loadRooms();
-                        } else {
-                            String errorMsg = "Lỗi xóa phòng";
-                            if (response.body() != null && response.body().getMessage() != null) {
-                                errorMsg = response.body().getMessage();
-                            }
-                            Toast.makeText(getContext(), errorMsg, Toast.LENGTH_LONG).show();
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(Call<ApiResponse<Void>> call, Throwable t) {
-                        showLoading(false);
-                        Toast.makeText(getContext(), "Lỗi kết nối mạng", Toast.LENGTH_SHORT).show();
-                    }
-                });
+    private void deleteRoom(RoomSummary room) {
+        // Ghi vào outbox và bỏ phòng khỏi danh sách ngay, request được gửi ở nền
+        Outbox.getInstance(requireContext()).deleteRoom(room.getId());
+        int position = rooms.indexOf(room);
+        if (position >= 0) {
+            rooms.remove(position);
+            adapter.submitRooms(rooms);
+            updateRoomCounts();
+        }
+        Toast.makeText(getContext(), "Xóa phòng thành công", Toast.LENGTH_SHORT).show();
     }
 }
@@ -28,6 +28,8 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.models.UserPage;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.google.android.material.button.MaterialButton;
 
@@ -66,7 +68,7 @@ public class AdminUsersFragment extends Fragment implements UsersAdapter.OnUserC
         setupAddButton();
         
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new UsersAdapter(users);
+        adapter = new UsersAdapter();
         adapter.setOnUserClickListener(this);
         recyclerView.setAdapter(adapter);
         loadUsers();
@@ -97,45 +99,40 @@ public class AdminUsersFragment extends Fragment implements UsersAdapter.OnUserC
         Map<String, String> params = new HashMap<>();
         params.put("page", "1");
         params.put("limit", "50");
-        client.getApiService().getUsers("Bearer " + client.getToken(), params).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, client.getApiBatch().add(client.getApiService().getUsers("Bearer " + client.getToken(), params)), new Callback<ApiResponse<UserPage>>() {
             @Override
-            public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
+            public void onResponse(Call<ApiResponse<UserPage>> call, Response<ApiResponse<UserPage>> response) {
                 showLoading(false);
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    com.google.gson.Gson gson = new com.google.gson.Gson();
-                    Object listObj = response.body().getData().get("users");
-                    if (listObj instanceof List<?>) {
-                        users.clear();
-                        int totalUsers = 0;
-                        int totalLandlords = 0;
-                        int totalTenants = 0;
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                        && response.body().getData() != null) {
+                    users.clear();
+                    int totalUsers = 0;
+                    int totalLandlords = 0;
+                    int totalTenants = 0;
+                    
+                    for (User u : response.body().getData().getItems()) {
+                        users.add(u);
                         
-                        for (Object o : (List<?>) listObj) {
-                            String json = gson.toJson(o);
-                            User u = gson.fromJson(json, User.class);
-                            users.add(u);
-                            
-                            totalUsers++;
-                            if ("landlord".equals(u.getRole())) {
-                                totalLandlords++;
-                            } else if ("tenant".equals(u.getRole())) {
-                                totalTenants++;
-                            }
+                        totalUsers++;
+                        if ("landlord".equals(u.getRole())) {
+                            totalLandlords++;
+                        } else if ("tenant".equals(u.getRole())) {
+                            totalTenants++;
                         }
-                        
-                        tvTotalUsers.setText(String.valueOf(totalUsers));
-                        tvTotalLandlords.setText(String.valueOf(totalLandlords));
-                        tvTotalTenants.setText(String.valueOf(totalTenants));
-                        
-                        adapter.notifyDataSetChanged();
                     }
+                    
+                    tvTotalUsers.setText(String.valueOf(totalUsers));
+                    tvTotalLandlords.setText(String.valueOf(totalLandlords));
+                    tvTotalTenants.setText(String.valueOf(totalTenants));
+                    
+                    adapter.submitList(new ArrayList<>(users));
                 } else {
                     Toast.makeText(getContext(), R.string.load_failed, Toast.LENGTH_LONG).show();
                 }
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
+            public void onFailure(Call<ApiResponse<UserPage>> call, Throwable t) {
                 showLoading(false);
                 Toast.makeText(getContext(), R.string.network_error, Toast.LENGTH_LONG).show();
             }
@@ -1,10 +1,10 @@
 //adapter: cầu nối giữa dữ liệu và giao diện hiển thị
 // Mục đích file: File này dùng để hiển thị danh sách người dùng cho admin
 // function: 
-// - UsersAdapter(): Khởi tạo adapter với danh sách người dùng
+// - UsersAdapter(): Khởi tạo adapter (danh sách được đưa vào qua submitList, so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của người dùng
 // - onCreateViewHolder(): Tạo ViewHolder cho item người dùng
 // - onBindViewHolder(): Bind dữ liệu người dùng vào ViewHolder
-// - getItemCount(): Trả về số lượng người dùng
 // - setOnUserClickListener(): Thiết lập listener cho click event
 // - UserViewHolder(): Khởi tạo ViewHolder và tìm các view con
 // - bind(): Hiển thị thông tin người dùng và xử lý sự kiện
@@ -19,20 +19,40 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.adapters.StableIds;
 import com.example.appquanlytimtro.models.User;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.chip.Chip;
 
-import java.util.List;
+import java.util.Objects;
 
-public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHolder> {
+public class UsersAdapter extends ListAdapter<User, UsersAdapter.UserViewHolder> {
+
+    // Chỉ so sánh các trường được hiển thị trên item
+    private static final DiffUtil.ItemCallback<User> DIFF = new DiffUtil.ItemCallback<User>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return Objects.equals(oldItem.getUpdatedAt(), newItem.getUpdatedAt())
+                    && Objects.equals(oldItem.getFullName(), newItem.getFullName())
+                    && Objects.equals(oldItem.getEmail(), newItem.getEmail())
+                    && Objects.equals(oldItem.getPhone(), newItem.getPhone())
+                    && Objects.equals(oldItem.getRole(), newItem.getRole())
+                    && Objects.equals(oldItem.getAvatar(), newItem.getAvatar());
+        }
+    };
 
-    private List<User> users;
     private OnUserClickListener listener;
 
     public interface OnUserClickListener {
@@ -41,8 +61,14 @@ public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHold
         void onUserDelete(User user);
     }
 
-    public UsersAdapter(List<User> users) {
-        this.users = users;
+    public UsersAdapter() {
+        super(DIFF);
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     public void setOnUserClickListener(OnUserClickListener listener) {
@@ -58,15 +84,10 @@ public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHold
 
     @Override
     public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
-        User user = users.get(position);
+        User user = getItem(position);
         holder.bind(user);
     }
 
-    @Override
-    public int getItemCount() {
-        return users.size();
-    }
-
     class UserViewHolder extends RecyclerView.ViewHolder {
         private MaterialCardView cardView;
         private ImageView ivAvatar;
@@ -31,8 +31,8 @@ import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.LoginRequest;
 import com.example.appquanlytimtro.models.LoginResponse;
+import com.example.appquanlytimtro.network.ConnectionWarmer;
 import com.example.appquanlytimtro.network.RetrofitClient;
-import com.google.gson.Gson;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -51,6 +51,8 @@ public class LoginActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_login);
+        // Mở sẵn kết nối trong lúc người dùng nhập thông tin đăng nhập
+        ConnectionWarmer.warmUp(this);
         
         initViews();
         setupClickListeners();
@@ -95,10 +97,7 @@ public class LoginActivity extends AppCompatActivity {
                             LoginResponse loginResponse = apiResponse.getData();
                             
                             // Save token and user data
-                            retrofitClient.saveToken(loginResponse.getToken());
-                            Gson gson = new Gson();
-                            String userJson = gson.toJson(loginResponse.getUser());
-                            retrofitClient.saveUserData(userJson);
+                            retrofitClient.saveSession(loginResponse.getToken(), loginResponse.getUser());
                             
                             
                             Toast.makeText(LoginActivity.this, "Đăng nhập thành công!", Toast.LENGTH_SHORT).show();
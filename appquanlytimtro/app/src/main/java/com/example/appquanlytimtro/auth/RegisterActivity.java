@@ -36,6 +36,7 @@ import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.RegisterRequest;
 import com.example.appquanlytimtro.models.RegisterResponse;
 import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.json.GsonProvider;
 import com.google.gson.Gson;
 
 import retrofit2.Call;
@@ -112,9 +113,7 @@ public class RegisterActivity extends AppCompatActivity {
                         if (apiResponse.isSuccess() && apiResponse.getData() != null) {
                             RegisterResponse registerResponse = apiResponse.getData();
                             
-                            retrofitClient.saveToken(registerResponse.getToken());
-                            Gson gson = new Gson();
-                            retrofitClient.saveUserData(gson.toJson(registerResponse.getUser()));
+                            retrofitClient.saveSession(registerResponse.getToken(), registerResponse.getUser());
                             
                             Toast.makeText(RegisterActivity.this, "Đăng ký thành công!", Toast.LENGTH_SHORT).show();
                             navigateToMain();
@@ -130,7 +129,7 @@ public class RegisterActivity extends AppCompatActivity {
                         if (response.errorBody() != null) {
                             try {
                                 String errorBody = response.errorBody().string();
-                                Gson gson = new Gson();
+                                Gson gson = GsonProvider.get();
                                 ApiResponse<?> errorResponse = gson.fromJson(errorBody, ApiResponse.class);
                                 if (errorResponse != null && errorResponse.getMessage() != null) {
                                     errorMessage = errorResponse.getMessage();
@@ -41,7 +41,9 @@ import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Booking;
 import com.example.appquanlytimtro.models.Room;
 import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.json.GsonProvider;
 import com.example.appquanlytimtro.payments.PaymentActivity;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
@@ -226,17 +228,13 @@ public class BookRoomActivity extends AppCompatActivity {
     }
 
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            Gson gson = new Gson();
-            currentUser = gson.fromJson(userJson, User.class);
-        }
+        currentUser = retrofitClient.getCurrentUser();
     }
 
     private void loadRoomDetails() {
         showLoading(true);
 
-        retrofitClient.getApiService().getRoom(roomId).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getRoom(roomId), new Callback<ApiResponse<Map<String, Object>>>() {
             @Override
             public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
                 showLoading(false);
@@ -247,7 +245,7 @@ public class BookRoomActivity extends AppCompatActivity {
                     if (apiResponse.isSuccess() && apiResponse.getData() != null) {
                         Map<String, Object> data = apiResponse.getData();
                         if (data.containsKey("room")) {
-                            Gson gson = new Gson();
+                            Gson gson = GsonProvider.get();
                             String roomJson = gson.toJson(data.get("room"));
                             room = gson.fromJson(roomJson, Room.class);
                             displayRoomInfo();
@@ -29,6 +29,7 @@ import androidx.appcompat.widget.Toolbar;
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.google.android.material.chip.Chip;
 import com.google.gson.Gson;
@@ -117,7 +118,7 @@ public class BookingDetailActivity extends AppCompatActivity {
         showLoading(true);
         
         String token = "Bearer " + retrofitClient.getToken();
-        retrofitClient.getApiService().getBooking(token, bookingId).enqueue(new Callback<ApiResponse<Booking>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getBooking(token, bookingId), new Callback<ApiResponse<Booking>>() {
             @Override
             public void onResponse(Call<ApiResponse<Booking>> call, Response<ApiResponse<Booking>> response) {
                 showLoading(false);
@@ -13,7 +13,7 @@
 // - onBookingClick(): Xử lý click vào booking để xem chi tiết
 // - onBookingStatusChange(): Xử lý thay đổi trạng thái booking
 // - onPaymentClick(): Xử lý click thanh toán
-// - updateBookingStatus(): Cập nhật trạng thái booking
+// - updateBookingStatus(): Cập nhật trạng thái booking qua outbox (hiển thị ngay, gửi ở nền)
 // - onCreateOptionsMenu(): Tạo menu options
 // - onOptionsItemSelected(): Xử lý click vào menu item
 // - showFilterDialog(): Hiển thị dialog lọc theo trạng thái
@@ -35,11 +35,13 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.BookingAdapter;
+import com.example.appquanlytimtro.database.outbox.Outbox;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.BookingPage;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.example.appquanlytimtro.payments.PaymentActivity;
-import com.google.gson.Gson;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -93,7 +95,7 @@ public class BookingListActivity extends AppCompatActivity implements BookingAda
 
     private void setupRecyclerView() {
         bookings = new ArrayList<>();
-        bookingAdapter = new BookingAdapter(bookings, this);
+        bookingAdapter = new BookingAdapter(this);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setAdapter(bookingAdapter);
     }
@@ -113,43 +115,24 @@ public class BookingListActivity extends AppCompatActivity implements BookingAda
         
         String token = "Bearer " + retrofitClient.getToken();
         java.util.Map<String, String> params = new java.util.HashMap<>();
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            com.google.gson.Gson gson = new com.google.gson.Gson();
-            com.example.appquanlytimtro.models.User currentUser = gson.fromJson(userJson, com.example.appquanlytimtro.models.User.class);
-            if (currentUser != null) {
-                params.put("tenantId", currentUser.getId());
-            }
+        com.example.appquanlytimtro.models.User currentUser = retrofitClient.getCurrentUser();
+        if (currentUser != null) {
+            params.put("tenantId", currentUser.getId());
         }
-        retrofitClient.getApiService().getBookings(token, params).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getBookings(token, params), new Callback<ApiResponse<BookingPage>>() {
             @Override
-            public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
+            public void onResponse(Call<ApiResponse<BookingPage>> call, Response<ApiResponse<BookingPage>> response) {
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
                 
                 if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<Map<String, Object>> apiResponse = response.body();
+                    ApiResponse<BookingPage> apiResponse = response.body();
                     
                     if (apiResponse.isSuccess() && apiResponse.getData() != null) {
-                        Map<String, Object> data = apiResponse.getData();
-                        List<?> bookingsData = (List<?>) data.get("bookings");
-                        
-                        
-                        if (bookingsData != null) {
-                            bookings.clear();
-                            Gson gson = new Gson();
-                            for (Object bookingObj : bookingsData) {
-                                if (bookingObj instanceof Map) {
-                                    try {
-                                        Booking booking = gson.fromJson(gson.toJson(bookingObj), Booking.class);
-                                        bookings.add(booking);
-                                    } catch (Exception e) {
-                                    }
-                                }
-                            }
-                            bookingAdapter.updateBookings(bookings);
-                            updateEmptyView();
-                        }
+                        bookings.clear();
+                        bookings.addAll(apiResponse.getData().getItems());
+                        bookingAdapter.updateBookings(bookings);
+                        updateEmptyView();
                     } else {
                         showError(apiResponse.getMessage());
                     }
@@ -159,7 +142,7 @@ public class BookingListActivity extends AppCompatActivity implements BookingAda
             }
             
             @Override
-            public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
+            public void onFailure(Call<ApiResponse<BookingPage>> call, Throwable t) {
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
                 showError("Lỗi kết nối. Vui lòng thử lại.");
@@ -236,32 +219,16 @@ public class BookingListActivity extends AppCompatActivity implements BookingAda
     }
 
     private void updateBookingStatus(String bookingId, String newStatus) {
-        showLoading(true);
-        
-        String token = "Bearer " + retrofitClient.getToken();
-        retrofitClient.getApiService().updateBooking(token, bookingId, new Booking()).enqueue(new Callback<ApiResponse<Booking>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<Booking>> call, Response<ApiResponse<Booking>> response) {
-                showLoading(false);
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<Booking> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        loadBookings();
-                    } else {
-                        showError(apiResponse.getMessage());
-                    }
-                } else {
-                    showError("Không thể cập nhật trạng thái");
-                }
+        // Ghi vào outbox và đổi trạng thái trong danh sách ngay, request được gửi ở nền
+        Outbox.getInstance(this).updateBookingStatus(bookingId, newStatus);
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (bookingId.equals(booking.getId())) {
+                booking.setStatus(newStatus);
+                bookingAdapter.notifyBookingChanged(booking);
+                break;
             }
-            
-            @Override
-            public void onFailure(Call<ApiResponse<Booking>> call, Throwable t) {
-                showLoading(false);
-                showError("Lỗi kết nối: " + t.getMessage());
-            }
-        });
+        }
     }
 
     @Override
@@ -320,4 +287,4 @@ public class BookingListActivity extends AppCompatActivity implements BookingAda
             default: return null;
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
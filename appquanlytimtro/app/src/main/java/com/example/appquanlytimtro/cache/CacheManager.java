@@ -0,0 +1,131 @@
+//class: quản lý các cache dữ liệu trong bộ nhớ
+// Mục đích file: File này dùng để giữ các namespace cache (phòng, booking, thanh toán) với giới hạn byte và TTL riêng, thu nhỏ chúng khi hệ thống báo thiếu bộ nhớ (onTrimMemory) và tổng hợp tỉ lệ hit/miss cho màn hình debug
+// function:
+// - getInstance(): Lấy instance dùng chung
+// - install(): Đăng ký nhận onTrimMemory/onLowMemory của ứng dụng (gọi một lần từ Application)
+// - rooms(): Cache phòng theo ID (màn hình chi tiết phòng), ghim phòng của chính chủ trọ
+// - bookings(): Cache booking đã đọc từ bảng local, ghim booking đang hiệu lực
+// - payments(): Cache thanh toán/booking chưa thanh toán đã đọc từ sổ thanh toán local
+// - onTrimMemory(): Bỏ bớt theo mức thiếu bộ nhớ hệ thống báo
+// - trimAll(): Thu nhỏ mọi namespace về một tỉ lệ giới hạn
+// - clearAll(): Bỏ toàn bộ cache (kể cả bản ghim)
+// - formatReport(): Tạo báo cáo số liệu của từng namespace
+// - resetStats(): Xóa số liệu đếm của mọi namespace
+package com.example.appquanlytimtro.cache;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+
+import androidx.annotation.NonNull;
+
+import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.Room;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class CacheManager implements ComponentCallbacks2 {
+
+    private static final long MINUTE_MS = 60_000L;
+
+    private static volatile CacheManager instance;
+
+    // Phòng đổi thường xuyên hơn (trạng thái, giá) nên TTL ngắn hơn booking/thanh toán
+    private final EntityCache<Room> rooms = new EntityCache<>("rooms", 1024 * 1024, 10 * MINUTE_MS);
+    private final EntityCache<Booking> bookings = new EntityCache<>("bookings", 2 * 1024 * 1024, 30 * MINUTE_MS);
+    private final EntityCache<Object> payments = new EntityCache<>("payments", 1024 * 1024, 30 * MINUTE_MS);
+    private final List<EntityCache<?>> caches = Arrays.asList(rooms, bookings, payments);
+
+    private boolean installed;
+
+    private CacheManager() {
+    }
+
+    public static CacheManager getInstance() {
+        if (instance == null) {
+            synchronized (CacheManager.class) {
+                if (instance == null) {
+                    instance = new CacheManager();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public synchronized void install(Application application) {
+        if (installed) {
+            return;
+        }
+        application.registerComponentCallbacks(this);
+        installed = true;
+    }
+
+    public EntityCache<Room> rooms() {
+        return rooms;
+    }
+
+    public EntityCache<Booking> bookings() {
+        return bookings;
+    }
+
+    public EntityCache<Object> payments() {
+        return payments;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_COMPLETE) {
+            // Tiến trình sắp bị kill: dữ liệu vẫn còn trong Room, đọc lại khi cần
+            clearAll();
+        } else if (level >= TRIM_MEMORY_MODERATE) {
+            trimAll(0f);
+        } else if (level >= TRIM_MEMORY_BACKGROUND) {
+            trimAll(0.25f);
+        } else if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            // App vừa vào nền: chỉ bỏ bản đã hết hạn
+            trimAll(1f);
+        } else if (level >= TRIM_MEMORY_RUNNING_CRITICAL) {
+            trimAll(0f);
+        } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            trimAll(0.25f);
+        } else if (level >= TRIM_MEMORY_RUNNING_MODERATE) {
+            trimAll(0.5f);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        trimAll(0f);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+
+    public void trimAll(float fraction) {
+        for (EntityCache<?> cache : caches) {
+            cache.trimTo(fraction);
+        }
+    }
+
+    public void clearAll() {
+        for (EntityCache<?> cache : caches) {
+            cache.clear();
+        }
+    }
+
+    public String formatReport() {
+        StringBuilder report = new StringBuilder("Cache trong bộ nhớ\n");
+        for (EntityCache<?> cache : caches) {
+            report.append(cache.stats().format());
+        }
+        return report.toString();
+    }
+
+    public void resetStats() {
+        for (EntityCache<?> cache : caches) {
+            cache.resetStats();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+//class: số liệu của một namespace cache tại một thời điểm
+// Mục đích file: File này dùng để báo cáo số object, số byte (tổng và phần ghim), hit/miss và số bản bị bỏ bớt/hết hạn của một EntityCache cho màn hình debug
+// function:
+// - CacheStats(): Tạo bản chụp số liệu
+// - hitRate(): Tỉ lệ hit trên tổng số lần đọc (0 nếu chưa đọc lần nào)
+// - missRate(): Tỉ lệ miss trên tổng số lần đọc
+// - format(): Tạo dòng báo cáo dạng text
+package com.example.appquanlytimtro.cache;
+
+import java.util.Locale;
+
+public final class CacheStats {
+    public final String name;
+    public final int entries;
+    public final int pinnedKeys;
+    public final long bytes;
+    public final long pinnedBytes;
+    public final long maxBytes;
+    public final long hits;
+    public final long misses;
+    public final long evictions;
+    public final long expirations;
+
+    CacheStats(String name, int entries, int pinnedKeys, long bytes, long pinnedBytes, long maxBytes,
+               long hits, long misses, long evictions, long expirations) {
+        this.name = name;
+        this.entries = entries;
+        this.pinnedKeys = pinnedKeys;
+        this.bytes = bytes;
+        this.pinnedBytes = pinnedBytes;
+        this.maxBytes = maxBytes;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    public double hitRate() {
+        long reads = hits + misses;
+        return reads == 0 ? 0 : (double) hits / reads;
+    }
+
+    public double missRate() {
+        long reads = hits + misses;
+        return reads == 0 ? 0 : (double) misses / reads;
+    }
+
+    public String format() {
+        return String.format(Locale.US,
+                "%s%n  entries=%d pinned=%d size=%dKB (pinned %dKB) / %dKB%n"
+                        + "  hit=%d miss=%d hitRate=%.1f%% missRate=%.1f%% evicted=%d expired=%d%n",
+                name, entries, pinnedKeys, bytes / 1024, pinnedBytes / 1024, maxBytes / 1024,
+                hits, misses, hitRate() * 100, missRate() * 100, evictions, expirations);
+    }
+}
@@ -0,0 +1,218 @@
+//class: cache dữ liệu trong bộ nhớ của một namespace (phòng, booking, thanh toán...)
+// Mục đích file: File này dùng để giữ object đã tải/đã decode theo ID trong giới hạn số byte ước lượng và thời gian sống (TTL); vượt giới hạn thì bỏ bản ít dùng gần đây nhất (LRU), trừ các bản được ghim (phòng của chính người dùng, booking đang hiệu lực)
+// function:
+// - getName(): Lấy tên namespace
+// - get(): Lấy object còn hạn (null nếu không có/đã hết hạn), có tính hit/miss
+// - put(): Thêm/thay object với số byte ước lượng rồi bỏ bớt nếu vượt giới hạn
+// - remove(): Bỏ một object (vd: khi server xóa hoặc sửa)
+// - clear(): Bỏ toàn bộ object (kể cả bản ghim)
+// - pin()/unpin(): Ghim/bỏ ghim một ID (ghim được cả khi object chưa có trong cache)
+// - setPinned(): Thay toàn bộ danh sách ID được ghim
+// - trimTo(): Thu nhỏ phần không ghim về một tỉ lệ của giới hạn (CacheManager gọi khi hệ thống thiếu bộ nhớ)
+// - stats(): Lấy số liệu hit/miss/bỏ bớt hiện tại
+// - resetStats(): Xóa số liệu đếm
+// - estimateBytes(): Ước lượng số byte của object từ độ dài JSON của nó
+package com.example.appquanlytimtro.cache;
+
+import android.os.SystemClock;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+public final class EntityCache<V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final long bytes;
+        final long expiresAt;
+
+        Entry(V value, long bytes, long expiresAt) {
+            this.value = value;
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final long maxBytes;
+    private final long ttlMs;
+    // Đồng hồ tính TTL (ms), mặc định SystemClock.elapsedRealtime; test truyền đồng hồ giả
+    private final LongSupplier clock;
+
+    // accessOrder = true: phần tử đầu là phần tử lâu không dùng nhất
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> pinned = new HashSet<>();
+    private long bytes;
+    private long pinnedBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    EntityCache(String name, long maxBytes, long ttlMs) {
+        this(name, maxBytes, ttlMs, SystemClock::elapsedRealtime);
+    }
+
+    EntityCache(String name, long maxBytes, long ttlMs, LongSupplier clock) {
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized V get(String key) {
+        Entry<V> entry = key != null ? entries.get(key) : null;
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            removeEntry(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public synchronized void put(String key, V value, long sizeBytes) {
+        if (key == null || value == null) {
+            return;
+        }
+        long size = Math.max(sizeBytes, 1);
+        // Một object lớn hơn cả giới hạn thì không giữ, tránh đẩy hết các bản khác ra ngoài
+        if (size > maxBytes && !pinned.contains(key)) {
+            removeEntry(key);
+            return;
+        }
+        removeEntry(key);
+        entries.put(key, new Entry<>(value, size, clock.getAsLong() + ttlMs));
+        bytes += size;
+        if (pinned.contains(key)) {
+            pinnedBytes += size;
+        }
+        evictTo(maxBytes);
+    }
+
+    public synchronized void remove(String key) {
+        removeEntry(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+        pinnedBytes = 0;
+    }
+
+    public synchronized void pin(String key) {
+        if (key != null && pinned.add(key)) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                pinnedBytes += entry.bytes;
+            }
+        }
+    }
+
+    public synchronized void unpin(String key) {
+        if (key != null && pinned.remove(key)) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                pinnedBytes -= entry.bytes;
+                // Bản vừa bỏ ghim có thể làm phần không ghim vượt giới hạn
+                evictTo(maxBytes);
+            }
+        }
+    }
+
+    public synchronized void setPinned(Collection<String> keys) {
+        pinned.clear();
+        pinnedBytes = 0;
+        for (String key : keys) {
+            if (key != null && pinned.add(key)) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null) {
+                    pinnedBytes += entry.bytes;
+                }
+            }
+        }
+        evictTo(maxBytes);
+    }
+
+    // fraction = 0 bỏ mọi bản không ghim; bản ghim chỉ mất khi hết hạn hoặc clear()
+    synchronized void trimTo(float fraction) {
+        removeExpired();
+        evictTo((long) (maxBytes * fraction));
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(name, entries.size(), pinned.size(), bytes, pinnedBytes, maxBytes,
+                hits, misses, evictions, expirations);
+    }
+
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        expirations = 0;
+    }
+
+    // Chuỗi Java 2 byte mỗi ký tự; object đã decode có kích thước cùng cỡ với JSON của nó
+    public static long estimateBytes(String json) {
+        return json != null ? json.length() * 2L : 0;
+    }
+
+    // Chỉ tính phần không ghim vào giới hạn, bỏ từ bản lâu không dùng nhất
+    private void evictTo(long limit) {
+        if (bytes - pinnedBytes <= limit) {
+            return;
+        }
+        Iterator<Map.Entry<String, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (bytes - pinnedBytes > limit && iterator.hasNext()) {
+            Map.Entry<String, Entry<V>> candidate = iterator.next();
+            if (pinned.contains(candidate.getKey())) {
+                continue;
+            }
+            bytes -= candidate.getValue().bytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private void removeExpired() {
+        long now = clock.getAsLong();
+        Iterator<Map.Entry<String, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry<V>> candidate = iterator.next();
+            Entry<V> entry = candidate.getValue();
+            if (entry.expiresAt <= now) {
+                bytes -= entry.bytes;
+                if (pinned.contains(candidate.getKey())) {
+                    pinnedBytes -= entry.bytes;
+                }
+                iterator.remove();
+                expirations++;
+            }
+        }
+    }
+
+    private void removeEntry(String key) {
+        Entry<V> old = entries.remove(key);
+        if (old != null) {
+            bytes -= old.bytes;
+            if (pinned.contains(key)) {
+                pinnedBytes -= old.bytes;
+            }
+        }
+    }
+}
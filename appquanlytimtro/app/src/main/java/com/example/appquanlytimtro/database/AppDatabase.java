@@ -0,0 +1,89 @@
+//class: cơ sở dữ liệu local của ứng dụng (androidx.room)
+// Mục đích file: File này dùng để khai báo các bảng lưu trên máy và cung cấp một instance dùng chung cho toàn ứng dụng
+// function:
+// - getInstance(): Lấy instance cơ sở dữ liệu (tạo lần đầu khi cần)
+// - roomCatalogDao(): DAO của danh mục phòng offline (kèm tìm kiếm toàn văn)
+// - bookingDao(): DAO của bảng booking local
+// - paymentLedgerDao(): DAO của sổ thanh toán local
+// - outboxDao(): DAO của hàng đợi thao tác ghi
+// - notificationDao(): DAO của hộp thư thông báo và bộ đếm chưa đọc
+// - dashboardSnapshotDao(): DAO bản chụp dashboard theo vai trò/người dùng
+// - syncStateDao(): DAO trạng thái đồng bộ delta
+package com.example.appquanlytimtro.database;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+import com.example.appquanlytimtro.database.booking.BookingDao;
+import com.example.appquanlytimtro.database.booking.BookingEntity;
+import com.example.appquanlytimtro.database.catalog.CatalogEntryEntity;
+import com.example.appquanlytimtro.database.catalog.CatalogImageEntity;
+import com.example.appquanlytimtro.database.catalog.CatalogPageKeyEntity;
+import com.example.appquanlytimtro.database.catalog.CatalogRoomEntity;
+import com.example.appquanlytimtro.database.catalog.CatalogRoomFts;
+import com.example.appquanlytimtro.database.catalog.RoomCatalogDao;
+import com.example.appquanlytimtro.database.dashboard.DashboardSnapshotDao;
+import com.example.appquanlytimtro.database.dashboard.DashboardSnapshotEntity;
+import com.example.appquanlytimtro.database.notification.NotificationCounterEntity;
+import com.example.appquanlytimtro.database.notification.NotificationDao;
+import com.example.appquanlytimtro.database.notification.NotificationEntity;
+import com.example.appquanlytimtro.database.outbox.OutboxDao;
+import com.example.appquanlytimtro.database.outbox.OutboxEntity;
+import com.example.appquanlytimtro.database.payment.LedgerEntryEntity;
+import com.example.appquanlytimtro.database.payment.LedgerTotalEntity;
+import com.example.appquanlytimtro.database.payment.PaymentLedgerDao;
+
+@Database(
+        entities = {
+                CatalogRoomEntity.class,
+                CatalogRoomFts.class,
+                CatalogImageEntity.class,
+                CatalogEntryEntity.class,
+                CatalogPageKeyEntity.class,
+                BookingEntity.class,
+                LedgerEntryEntity.class,
+                LedgerTotalEntity.class,
+                OutboxEntity.class,
+                NotificationEntity.class,
+                NotificationCounterEntity.class,
+                DashboardSnapshotEntity.class,
+                SyncStateEntity.class
+        },
+        version = 1,
+        exportSchema = true)
+public abstract class AppDatabase extends RoomDatabase {
+
+    private static final String DATABASE_NAME = "quanlytimtro.db";
+
+    private static volatile AppDatabase instance;
+
+    public abstract RoomCatalogDao roomCatalogDao();
+
+    public abstract BookingDao bookingDao();
+
+    public abstract PaymentLedgerDao paymentLedgerDao();
+
+    public abstract OutboxDao outboxDao();
+
+    public abstract NotificationDao notificationDao();
+
+    public abstract DashboardSnapshotDao dashboardSnapshotDao();
+
+    public abstract SyncStateDao syncStateDao();
+
+    public static AppDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AppDatabase.class) {
+                if (instance == null) {
+                    // Outbox có thao tác chưa gửi lên server: lần đổi schema sau phải thêm Migration, không xóa database
+                    instance = Room.databaseBuilder(context.getApplicationContext(), AppDatabase.class, DATABASE_NAME)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,29 @@
+//class: xóa dữ liệu của tài khoản khi đăng xuất
+// Mục đích file: File này dùng để mọi nơi đăng xuất (màn hình chính, hồ sơ) cùng xóa dữ liệu của tài khoản cũ: thao tác outbox chưa gửi, các bảng local và cache trong bộ nhớ, để tài khoản đăng nhập sau không thấy dữ liệu cũ
+// function:
+// - clear(): Xóa dữ liệu của phiên hiện tại (gọi trước khi xóa token)
+package com.example.appquanlytimtro.database;
+
+import android.content.Context;
+
+import com.example.appquanlytimtro.cache.CacheManager;
+import com.example.appquanlytimtro.database.catalog.RoomCatalogMediator;
+import com.example.appquanlytimtro.database.outbox.Outbox;
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+public final class SessionDataCleaner {
+
+    private SessionDataCleaner() {}
+
+    public static void clear(Context context) {
+        Context appContext = context.getApplicationContext();
+        // Outbox cần biết người dùng hiện tại nên phải chạy trước khi phiên bị xóa
+        Outbox.getInstance(appContext).onLogout();
+        // Trang danh mục đang tải của phiên cũ không được ghi lại sau khi xóa bảng
+        RoomCatalogMediator.getInstance(appContext).reset();
+        CacheManager.getInstance().clearAll();
+        AppDatabase database = AppDatabase.getInstance(appContext);
+        // Chạy sau các thao tác ghi đang chờ trên cùng executor; Room không cho gọi trên main thread
+        AppExecutors.diskIO().execute(database::clearAllTables);
+    }
+}
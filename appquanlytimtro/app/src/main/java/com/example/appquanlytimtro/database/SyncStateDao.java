@@ -0,0 +1,29 @@
+//dao: đọc/ghi trạng thái đồng bộ
+// Mục đích file: File này dùng để lấy và cập nhật watermark của các danh sách đồng bộ delta
+// function:
+// - getWatermark(): Lấy watermark của một danh sách (null: chưa đồng bộ)
+// - save(): Lưu trạng thái đồng bộ
+// - delete(): Xóa trạng thái để lần sau tải lại toàn bộ
+// - deleteByPrefix(): Xóa trạng thái của mọi danh sách cùng tiền tố
+package com.example.appquanlytimtro.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface SyncStateDao {
+
+    @Query("SELECT watermark FROM sync_state WHERE `key` = :key")
+    String getWatermark(String key);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void save(SyncStateEntity state);
+
+    @Query("DELETE FROM sync_state WHERE `key` = :key")
+    void delete(String key);
+
+    @Query("DELETE FROM sync_state WHERE `key` LIKE :prefix || '%'")
+    void deleteByPrefix(String prefix);
+}
@@ -0,0 +1,28 @@
+//entity: trạng thái đồng bộ của từng bảng local
+// Mục đích file: File này dùng để lưu watermark updatedAt của mỗi danh sách đồng bộ delta (vd: bookings:admin, bookings:landlord:<id>)
+// function:
+// - SyncStateEntity(): Constructor mặc định (Room dùng)
+// - SyncStateEntity(key, watermark): Tạo trạng thái đồng bộ
+package com.example.appquanlytimtro.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "sync_state")
+public class SyncStateEntity {
+    @PrimaryKey
+    @NonNull
+    public String key = "";
+
+    public String watermark;
+
+    public SyncStateEntity() {}
+
+    @Ignore
+    public SyncStateEntity(@NonNull String key, String watermark) {
+        this.key = key;
+        this.watermark = watermark;
+    }
+}
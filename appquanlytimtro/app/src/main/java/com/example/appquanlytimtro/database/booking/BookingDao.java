@@ -0,0 +1,76 @@
+//dao: truy vấn bảng booking local
+// Mục đích file: File này dùng để lọc, đếm, sắp xếp booking bằng truy vấn có index và ghi kết quả đồng bộ trong một transaction
+// function:
+// - observeAll()/observeByStatus(): Theo dõi booking của admin (tất cả hoặc theo trạng thái), mới tạo trước
+// - observeByLandlord()/observeByLandlordAndStatus(): Theo dõi booking của một chủ trọ
+// - observeStatusCounts()/observeLandlordStatusCounts(): Theo dõi số booking theo trạng thái
+// - replaceAll()/replaceForLandlord(): Thay toàn bộ booking sau lần tải đầy đủ
+// - applyChanges(): Ghi booking thay đổi và xóa booking đã bị xóa
+// - find(): Lấy một booking theo ID
+package com.example.appquanlytimtro.database.booking;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class BookingDao {
+
+    @Query("SELECT * FROM bookings ORDER BY createdAt DESC")
+    public abstract LiveData<List<BookingEntity>> observeAll();
+
+    @Query("SELECT * FROM bookings WHERE status = :status ORDER BY createdAt DESC")
+    public abstract LiveData<List<BookingEntity>> observeByStatus(String status);
+
+    @Query("SELECT * FROM bookings WHERE landlordId = :landlordId ORDER BY createdAt DESC")
+    public abstract LiveData<List<BookingEntity>> observeByLandlord(String landlordId);
+
+    @Query("SELECT * FROM bookings WHERE landlordId = :landlordId AND status = :status ORDER BY createdAt DESC")
+    public abstract LiveData<List<BookingEntity>> observeByLandlordAndStatus(String landlordId, String status);
+
+    @Query("SELECT status, COUNT(*) AS count FROM bookings GROUP BY status")
+    public abstract LiveData<List<StatusCount>> observeStatusCounts();
+
+    @Query("SELECT status, COUNT(*) AS count FROM bookings WHERE landlordId = :landlordId GROUP BY status")
+    public abstract LiveData<List<StatusCount>> observeLandlordStatusCounts(String landlordId);
+
+    @Query("SELECT * FROM bookings WHERE id = :id")
+    public abstract BookingEntity find(String id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void upsert(List<BookingEntity> bookings);
+
+    @Query("DELETE FROM bookings WHERE id IN (:ids)")
+    abstract void deleteByIds(List<String> ids);
+
+    @Query("DELETE FROM bookings")
+    abstract void deleteAll();
+
+    @Query("DELETE FROM bookings WHERE landlordId = :landlordId")
+    abstract void deleteForLandlord(String landlordId);
+
+    @Transaction
+    public void replaceAll(List<BookingEntity> bookings) {
+        deleteAll();
+        upsert(bookings);
+    }
+
+    @Transaction
+    public void replaceForLandlord(String landlordId, List<BookingEntity> bookings) {
+        deleteForLandlord(landlordId);
+        upsert(bookings);
+    }
+
+    @Transaction
+    public void applyChanges(List<BookingEntity> changed, List<String> deletedIds) {
+        if (!deletedIds.isEmpty()) {
+            deleteByIds(deletedIds);
+        }
+        upsert(changed);
+    }
+}
@@ -0,0 +1,68 @@
+//entity: bảng booking local
+// Mục đích file: File này dùng để lưu booking theo ID với các cột được đánh index (trạng thái, phòng, người thuê, chủ trọ, ngày nhận phòng) để lọc/đếm/sắp xếp bằng truy vấn; toàn bộ booking được giữ ở cột payload (JSON) để hiển thị
+// function:
+// - BookingEntity(): Constructor mặc định (Room dùng)
+// - from(): Tạo entity từ Booking
+// - toBooking(): Đọc lại Booking từ payload
+package com.example.appquanlytimtro.database.booking;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.appquanlytimtro.models.Booking;
+import com.google.gson.Gson;
+
+@Entity(tableName = "bookings",
+        indices = {
+                @Index(value = {"status", "createdAt"}),
+                @Index(value = {"landlordId", "status", "createdAt"}),
+                @Index("tenantId"),
+                @Index("roomId"),
+                @Index("checkInDate")
+        })
+public class BookingEntity {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+
+    public String status;
+
+    public String roomId;
+
+    public String tenantId;
+
+    public String landlordId;
+
+    // Mili giây, null nếu booking chưa có ngày nhận phòng
+    public Long checkInDate;
+
+    public String createdAt;
+
+    public String updatedAt;
+
+    public String payload;
+
+    public BookingEntity() {}
+
+    public static BookingEntity from(Booking booking, Gson gson) {
+        BookingEntity entity = new BookingEntity();
+        entity.id = booking.getId();
+        entity.status = booking.getStatus();
+        entity.roomId = booking.getRoom() != null ? booking.getRoom().getId() : null;
+        entity.tenantId = booking.getTenant() != null ? booking.getTenant().getId() : null;
+        entity.landlordId = booking.getLandlord() != null ? booking.getLandlord().getId() : null;
+        if (booking.getBookingDetails() != null && booking.getBookingDetails().getCheckInDate() != null) {
+            entity.checkInDate = booking.getBookingDetails().getCheckInDate().getTime();
+        }
+        entity.createdAt = booking.getCreatedAt();
+        entity.updatedAt = booking.getUpdatedAt();
+        entity.payload = gson.toJson(booking);
+        return entity;
+    }
+
+    public Booking toBooking(Gson gson) {
+        return gson.fromJson(payload, Booking.class);
+    }
+}
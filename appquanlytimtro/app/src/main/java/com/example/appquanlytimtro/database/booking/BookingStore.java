@@ -0,0 +1,323 @@
+//class: kho booking local đồng bộ với API
+// Mục đích file: File này dùng để các màn hình quản lý booking đọc/lọc/đếm từ bảng local (hiển thị ngay, không cần mạng) trong khi đồng bộ nền chỉ tải phần thay đổi theo watermark updatedAt
+// function:
+// - getInstance(): Lấy instance dùng chung
+// - observe(): Theo dõi booking của một danh sách theo trạng thái (null: tất cả)
+// - observeStatusCounts(): Theo dõi số booking theo trạng thái
+// - sync(): Đồng bộ với API (lần đầu tải toàn bộ qua từng trang, sau đó tải phần thay đổi)
+// - applyLocalStatus(): Đổi trạng thái booking trên bảng local trước khi server xác nhận (Outbox)
+// - invalidate(): Bỏ watermark để lần đồng bộ sau tải lại toàn bộ (khi server từ chối thay đổi local)
+// - Scope: Danh sách đồng bộ (admin: tất cả, chủ trọ: booking của mình)
+// - SyncSource: Tạo request API cho lần tải toàn bộ và lần tải thay đổi
+// - SyncCallback: Nhận kết quả đồng bộ (main thread)
+package com.example.appquanlytimtro.database.booking;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.Transformations;
+
+import com.example.appquanlytimtro.cache.CacheManager;
+import com.example.appquanlytimtro.cache.EntityCache;
+import com.example.appquanlytimtro.database.AppDatabase;
+import com.example.appquanlytimtro.database.SyncStateDao;
+import com.example.appquanlytimtro.database.SyncStateEntity;
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.BookingDelta;
+import com.example.appquanlytimtro.models.BookingPage;
+import com.example.appquanlytimtro.network.json.GsonProvider;
+import com.example.appquanlytimtro.utils.AppExecutors;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public final class BookingStore {
+
+    // Lần tải đầy đủ đi qua từng trang cỡ này (bộ đếm theo trạng thái cần đủ mọi booking); giới hạn số trang để không tải vô hạn khi phân trang lỗi
+    public static final int FULL_LOAD_PAGE_SIZE = 100;
+    public static final int FULL_LOAD_MAX_PAGES = 50;
+
+    private static final String STATE_PREFIX = "bookings:";
+    // Booking đang hiệu lực: người dùng mở lại thường xuyên nên không bị bỏ khỏi cache
+    private static final Set<String> ACTIVE_STATUSES =
+            new HashSet<>(Arrays.asList("confirmed", "deposit_paid", "active"));
+
+    public static final class Scope {
+        final String key;
+        final String landlordId;
+
+        private Scope(String key, String landlordId) {
+            this.key = key;
+            this.landlordId = landlordId;
+        }
+
+        public static Scope admin() {
+            return new Scope(STATE_PREFIX + "admin", null);
+        }
+
+        public static Scope landlord(String landlordId) {
+            return new Scope(STATE_PREFIX + "landlord:" + landlordId, landlordId);
+        }
+    }
+
+    public interface SyncSource {
+        Call<ApiResponse<BookingPage>> loadAll(Map<String, String> params);
+
+        Call<ApiResponse<BookingDelta>> loadChanges(String updatedSince);
+    }
+
+    public interface SyncCallback {
+        void onSynced();
+
+        void onError(String message);
+    }
+
+    private static volatile BookingStore instance;
+
+    private final BookingDao dao;
+    private final SyncStateDao syncState;
+    private final Gson gson = GsonProvider.storage();
+    // Booking đã đọc từ payload, tránh parse lại JSON mỗi lần đổi chip lọc; giới hạn theo byte, booking đang hiệu lực được ghim
+    private final EntityCache<Booking> decoded = CacheManager.getInstance().bookings();
+
+    private BookingStore(AppDatabase database) {
+        this.dao = database.bookingDao();
+        this.syncState = database.syncStateDao();
+    }
+
+    public static BookingStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (BookingStore.class) {
+                if (instance == null) {
+                    instance = new BookingStore(AppDatabase.getInstance(context));
+                }
+            }
+        }
+        return instance;
+    }
+
+    public LiveData<List<Booking>> observe(Scope scope, String status) {
+        LiveData<List<BookingEntity>> source;
+        if (scope.landlordId == null) {
+            source = status == null ? dao.observeAll() : dao.observeByStatus(status);
+        } else {
+            source = status == null
+                    ? dao.observeByLandlord(scope.landlordId)
+                    : dao.observeByLandlordAndStatus(scope.landlordId, status);
+        }
+        return decode(source);
+    }
+
+    public LiveData<Map<String, Integer>> observeStatusCounts(Scope scope) {
+        LiveData<List<StatusCount>> source = scope.landlordId == null
+                ? dao.observeStatusCounts()
+                : dao.observeLandlordStatusCounts(scope.landlordId);
+        return Transformations.map(source, counts -> {
+            Map<String, Integer> result = new HashMap<>();
+            for (StatusCount count : counts) {
+                result.put(count.status, count.count);
+            }
+            return result;
+        });
+    }
+
+    public void sync(Scope scope, SyncSource source, SyncCallback callback) {
+        AppExecutors.diskIO().execute(() -> {
+            String since = syncState.getWatermark(scope.key);
+            AppExecutors.postToMain(() -> {
+                if (since == null) {
+                    loadAll(scope, source, callback);
+                } else {
+                    loadChanges(scope, source, since, callback);
+                }
+            });
+        });
+    }
+
+    public void applyLocalStatus(String bookingId, String status) {
+        AppExecutors.diskIO().execute(() -> {
+            BookingEntity entity = dao.find(bookingId);
+            if (entity == null) {
+                return;
+            }
+            // Đọc bản mới thay vì sửa object đang hiển thị; updatedAt giữ nguyên để lần đồng bộ sau ghi đè bằng bản của server
+            Booking booking = entity.toBooking(gson);
+            booking.setStatus(status);
+            BookingEntity updated = BookingEntity.from(booking, gson);
+            dao.applyChanges(Collections.singletonList(updated), Collections.<String>emptyList());
+            remember(updated, booking);
+        });
+    }
+
+    public void invalidate() {
+        AppExecutors.diskIO().execute(() -> syncState.deleteByPrefix(STATE_PREFIX));
+    }
+
+    private void loadAll(Scope scope, SyncSource source, SyncCallback callback) {
+        loadPage(scope, source, 1, new ArrayList<>(), callback);
+    }
+
+    // Tải lần lượt từng trang (cũ trước để booking mới tạo trong lúc tải rơi vào trang sau), ghi một lần khi xong
+    private void loadPage(Scope scope, SyncSource source, int page, List<Booking> bookings, SyncCallback callback) {
+        Map<String, String> params = new HashMap<>();
+        params.put("limit", String.valueOf(FULL_LOAD_PAGE_SIZE));
+        params.put("page", String.valueOf(page));
+        params.put("sortBy", "createdAt");
+        params.put("sortOrder", "asc");
+        source.loadAll(params).enqueue(new Callback<ApiResponse<BookingPage>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<BookingPage>> call, Response<ApiResponse<BookingPage>> response) {
+                ApiResponse<BookingPage> apiResponse = response.body();
+                if (!response.isSuccessful() || apiResponse == null || !apiResponse.isSuccess()) {
+                    callback.onError(apiResponse != null ? apiResponse.getMessage() : null);
+                    return;
+                }
+                BookingPage data = apiResponse.getData();
+                if (data != null) {
+                    bookings.addAll(data.getItems());
+                }
+                if (data != null && data.hasNext() && page < FULL_LOAD_MAX_PAGES) {
+                    loadPage(scope, source, page + 1, bookings, callback);
+                    return;
+                }
+                AppExecutors.diskIO().execute(() -> {
+                    List<BookingEntity> entities = toEntities(bookings);
+                    if (scope.landlordId == null) {
+                        dao.replaceAll(entities);
+                        // Bảng đã bị thay toàn bộ, watermark của các danh sách khác không còn đúng
+                        syncState.deleteByPrefix(STATE_PREFIX);
+                    } else {
+                        dao.replaceForLandlord(scope.landlordId, entities);
+                    }
+                    saveWatermark(scope, null, entities);
+                    AppExecutors.postToMain(callback::onSynced);
+                });
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<BookingPage>> call, Throwable t) {
+                callback.onError("Lỗi kết nối. Vui lòng thử lại.");
+            }
+        });
+    }
+
+    private void loadChanges(Scope scope, SyncSource source, String since, SyncCallback callback) {
+        source.loadChanges(since).enqueue(new Callback<ApiResponse<BookingDelta>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<BookingDelta>> call, Response<ApiResponse<BookingDelta>> response) {
+                ApiResponse<BookingDelta> apiResponse = response.body();
+                if (!response.isSuccessful() || apiResponse == null || !apiResponse.isSuccess()
+                        || apiResponse.getData() == null) {
+                    callback.onError(apiResponse != null ? apiResponse.getMessage() : null);
+                    return;
+                }
+                BookingDelta delta = apiResponse.getData();
+                if (delta.isResync()) {
+                    // Quá nhiều thay đổi hoặc watermark quá cũ: tải lại toàn bộ
+                    loadAll(scope, source, callback);
+                    return;
+                }
+                AppExecutors.diskIO().execute(() -> {
+                    List<BookingEntity> entities = toEntities(delta.getItems());
+                    for (String id : delta.getDeleted()) {
+                        decoded.unpin(id);
+                        decoded.remove(id);
+                    }
+                    dao.applyChanges(entities, delta.getDeleted());
+                    saveWatermark(scope, since, entities);
+                    AppExecutors.postToMain(callback::onSynced);
+                });
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<BookingDelta>> call, Throwable t) {
+                callback.onError("Lỗi kết nối. Vui lòng thử lại.");
+            }
+        });
+    }
+
+    // Thời gian ISO-8601 UTC từ backend nên so sánh chuỗi là đủ
+    private void saveWatermark(Scope scope, String since, List<BookingEntity> entities) {
+        String watermark = since;
+        for (BookingEntity entity : entities) {
+            if (entity.updatedAt != null && (watermark == null || entity.updatedAt.compareTo(watermark) > 0)) {
+                watermark = entity.updatedAt;
+            }
+        }
+        if (watermark != null) {
+            syncState.save(new SyncStateEntity(scope.key, watermark));
+        }
+    }
+
+    private List<BookingEntity> toEntities(List<Booking> bookings) {
+        List<BookingEntity> entities = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            if (booking == null || booking.getId() == null || booking.getStatus() == null) {
+                continue;
+            }
+            BookingEntity entity = BookingEntity.from(booking, gson);
+            entities.add(entity);
+            remember(entity, booking);
+        }
+        return entities;
+    }
+
+    // Đọc payload trên thread nền; kết quả cũ về muộn bị bỏ qua. Màn hình nhận bản sao, không nhận object trong cache dùng chung
+    private LiveData<List<Booking>> decode(LiveData<List<BookingEntity>> source) {
+        MediatorLiveData<List<Booking>> result = new MediatorLiveData<>();
+        AtomicInteger version = new AtomicInteger();
+        result.addSource(source, entities -> {
+            int current = version.incrementAndGet();
+            AppExecutors.diskIO().execute(() -> {
+                List<Booking> bookings = new ArrayList<>(entities.size());
+                for (BookingEntity entity : entities) {
+                    bookings.add(toBooking(entity));
+                }
+                if (current == version.get()) {
+                    result.postValue(bookings);
+                }
+            });
+        });
+        return result;
+    }
+
+    private Booking toBooking(BookingEntity entity) {
+        Booking cached = decoded.get(entity.id);
+        if (cached != null && (cached.getUpdatedAt() == null ? entity.updatedAt == null
+                : cached.getUpdatedAt().equals(entity.updatedAt))) {
+            return copyOf(cached);
+        }
+        Booking booking = entity.toBooking(gson);
+        remember(entity, booking);
+        return copyOf(booking);
+    }
+
+    // Chép qua cây JSON, không phải đọc lại chuỗi payload
+    private Booking copyOf(Booking booking) {
+        return gson.fromJson(gson.toJsonTree(booking, Booking.class), Booking.class);
+    }
+
+    // Ghim trước khi put để booking đang hiệu lực không bị tính vào giới hạn và không bị đẩy ra
+    private void remember(BookingEntity entity, Booking booking) {
+        if (ACTIVE_STATUSES.contains(entity.status)) {
+            decoded.pin(entity.id);
+        } else {
+            decoded.unpin(entity.id);
+        }
+        decoded.put(entity.id, booking, EntityCache.estimateBytes(entity.payload));
+    }
+}
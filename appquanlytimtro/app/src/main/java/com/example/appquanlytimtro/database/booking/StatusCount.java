@@ -0,0 +1,9 @@
+//class: số booking theo từng trạng thái
+// Mục đích file: File này dùng để nhận kết quả truy vấn GROUP BY status cho số đếm trên chip lọc
+package com.example.appquanlytimtro.database.booking;
+
+public class StatusCount {
+    public String status;
+
+    public int count;
+}
@@ -0,0 +1,33 @@
+//entity: vị trí của phòng trong từng danh sách
+// Mục đích file: File này dùng để giữ thứ tự phòng theo từng danh sách (tất cả, còn trống, phòng của tôi) mà không lưu trùng thông tin phòng
+// function:
+// - CatalogEntryEntity(): Constructor mặc định (Room dùng)
+// - CatalogEntryEntity(scope, roomId, position): Tạo entry cho một phòng
+package com.example.appquanlytimtro.database.catalog;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+
+@Entity(tableName = "catalog_entries",
+        primaryKeys = {"scope", "roomId"},
+        indices = {@Index(value = {"scope", "position"}), @Index("roomId")})
+public class CatalogEntryEntity {
+    @NonNull
+    public String scope = "";
+
+    @NonNull
+    public String roomId = "";
+
+    public int position;
+
+    public CatalogEntryEntity() {}
+
+    @Ignore
+    public CatalogEntryEntity(@NonNull String scope, @NonNull String roomId, int position) {
+        this.scope = scope;
+        this.roomId = roomId;
+        this.position = position;
+    }
+}
@@ -0,0 +1,44 @@
+//entity: bảng ảnh của phòng trong danh mục offline
+// Mục đích file: File này dùng để lưu ảnh hiển thị trên thẻ phòng; ảnh tự xóa theo phòng (ON DELETE CASCADE)
+// function:
+// - CatalogImageEntity(): Constructor mặc định (Room dùng)
+// - from(): Tạo entity từ ảnh của RoomSummary
+package com.example.appquanlytimtro.database.catalog;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+
+import com.example.appquanlytimtro.models.Room;
+
+@Entity(tableName = "catalog_room_images",
+        primaryKeys = {"roomId", "position"},
+        foreignKeys = @ForeignKey(
+                entity = CatalogRoomEntity.class,
+                parentColumns = "id",
+                childColumns = "roomId",
+                onDelete = ForeignKey.CASCADE))
+public class CatalogImageEntity {
+    @NonNull
+    public String roomId = "";
+
+    public int position;
+
+    public String url;
+
+    public String caption;
+
+    public boolean primary;
+
+    public CatalogImageEntity() {}
+
+    public static CatalogImageEntity from(String roomId, int position, Room.RoomImage image) {
+        CatalogImageEntity entity = new CatalogImageEntity();
+        entity.roomId = roomId;
+        entity.position = position;
+        entity.url = image.getUrl();
+        entity.caption = image.getCaption();
+        entity.primary = image.isPrimary();
+        return entity;
+    }
+}
@@ -0,0 +1,34 @@
+//entity: khóa trang kế tiếp của từng danh sách
+// Mục đích file: File này dùng để nhớ trang API cần tải tiếp (giống remote key của RemoteMediator) và lần làm mới gần nhất
+// function:
+// - CatalogPageKeyEntity(): Constructor mặc định (Room dùng)
+// - CatalogPageKeyEntity(scope, nextPage, refreshedAt): Tạo khóa trang
+package com.example.appquanlytimtro.database.catalog;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "catalog_page_keys")
+public class CatalogPageKeyEntity {
+    // Không còn trang để tải
+    public static final int END = 0;
+
+    @PrimaryKey
+    @NonNull
+    public String scope = "";
+
+    public int nextPage;
+
+    public long refreshedAt;
+
+    public CatalogPageKeyEntity() {}
+
+    @Ignore
+    public CatalogPageKeyEntity(@NonNull String scope, int nextPage, long refreshedAt) {
+        this.scope = scope;
+        this.nextPage = nextPage;
+        this.refreshedAt = refreshedAt;
+    }
+}
@@ -0,0 +1,73 @@
+//class: phòng trong danh mục offline kèm ảnh
+// Mục đích file: File này dùng để đọc phòng cùng danh sách ảnh trong một truy vấn và chuyển về RoomSummary cho adapter
+// function:
+// - toSummary(): Chuyển về RoomSummary
+// - toSummaries(): Chuyển cả danh sách về RoomSummary
+package com.example.appquanlytimtro.database.catalog;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+
+import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class CatalogRoom {
+    @Embedded
+    public CatalogRoomEntity room;
+
+    @Relation(parentColumn = "id", entityColumn = "roomId")
+    public List<CatalogImageEntity> images;
+
+    public RoomSummary toSummary() {
+        RoomSummary summary = new RoomSummary();
+        summary.setId(room.id);
+        summary.setTitle(room.title);
+        summary.setRoomType(room.roomType);
+        summary.setArea(room.area);
+        summary.setStatus(room.status);
+        summary.setViews(room.views);
+        summary.setUpdatedAt(room.updatedAt);
+
+        Room.Price price = new Room.Price();
+        price.setMonthly(room.monthlyPrice);
+        summary.setPrice(price);
+
+        if (room.address != null) {
+            User.Address address = new User.Address();
+            address.setStreet(room.address.street);
+            address.setWard(room.address.ward);
+            address.setDistrict(room.address.district);
+            address.setCity(room.address.city);
+            summary.setAddress(address);
+        }
+
+        List<Room.RoomImage> roomImages = new ArrayList<>();
+        if (images != null) {
+            List<CatalogImageEntity> sorted = new ArrayList<>(images);
+            Collections.sort(sorted, Comparator.comparingInt(image -> image.position));
+            for (CatalogImageEntity image : sorted) {
+                Room.RoomImage roomImage = new Room.RoomImage();
+                roomImage.setUrl(image.url);
+                roomImage.setCaption(image.caption);
+                roomImage.setPrimary(image.primary);
+                roomImages.add(roomImage);
+            }
+        }
+        summary.setImages(roomImages);
+        return summary;
+    }
+
+    public static List<RoomSummary> toSummaries(List<CatalogRoom> rooms) {
+        List<RoomSummary> result = new ArrayList<>(rooms.size());
+        for (CatalogRoom room : rooms) {
+            result.add(room.toSummary());
+        }
+        return result;
+    }
+}
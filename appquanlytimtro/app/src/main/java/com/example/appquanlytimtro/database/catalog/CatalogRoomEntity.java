@@ -0,0 +1,88 @@
+//entity: bảng phòng trong danh mục offline
+// Mục đích file: File này dùng để lưu thông tin rút gọn của phòng (giống RoomSummary) để danh sách phòng hiển thị ngay khi mở, kể cả khi không có mạng; các cột search* là văn bản đã bỏ dấu làm nội dung cho bảng tìm kiếm CatalogRoomFts
+// function:
+// - CatalogRoomEntity(): Constructor mặc định (Room dùng)
+// - from(): Tạo entity từ RoomSummary
+// - Address: Địa chỉ phòng (lưu chung bảng với tiền tố address_)
+package com.example.appquanlytimtro.database.catalog;
+
+import androidx.annotation.NonNull;
+import androidx.room.Embedded;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.User;
+
+@Entity(tableName = "catalog_rooms")
+public class CatalogRoomEntity {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+
+    public String title;
+
+    public String roomType;
+
+    public double area;
+
+    public double monthlyPrice;
+
+    public String status;
+
+    public int views;
+
+    public String updatedAt;
+
+    @Embedded(prefix = "address_")
+    public Address address;
+
+    // Nội dung chỉ mục tìm kiếm (đã bỏ dấu, chỉ dùng cho CatalogRoomFts)
+    public String searchTitle;
+
+    public String searchAddress;
+
+    public String searchAmenities;
+
+    public String searchDescription;
+
+    public CatalogRoomEntity() {}
+
+    public static CatalogRoomEntity from(RoomSummary room) {
+        CatalogRoomEntity entity = new CatalogRoomEntity();
+        entity.id = room.getId();
+        entity.title = room.getTitle();
+        entity.roomType = room.getRoomType();
+        entity.area = room.getArea();
+        entity.monthlyPrice = room.getPrice() != null ? room.getPrice().getMonthly() : 0;
+        entity.status = room.getStatus();
+        entity.views = room.getViews();
+        entity.updatedAt = room.getUpdatedAt();
+        User.Address address = room.getAddress();
+        if (address != null) {
+            entity.address = new Address();
+            entity.address.street = address.getStreet();
+            entity.address.ward = address.getWard();
+            entity.address.district = address.getDistrict();
+            entity.address.city = address.getCity();
+            entity.searchAddress = SearchText.join(address.getStreet(), address.getWard(),
+                    address.getDistrict(), address.getCity());
+        }
+        entity.searchTitle = SearchText.fold(room.getTitle());
+        entity.searchAmenities = SearchText.amenities(room.getAmenities());
+        entity.searchDescription = SearchText.fold(room.getDescription());
+        return entity;
+    }
+
+    public static class Address {
+        public String street;
+
+        public String ward;
+
+        public String district;
+
+        public String city;
+
+        public Address() {}
+    }
+}
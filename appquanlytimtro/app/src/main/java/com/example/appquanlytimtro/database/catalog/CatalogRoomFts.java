@@ -0,0 +1,33 @@
+//entity: bảng tìm kiếm toàn văn (FTS4) trên danh mục phòng offline
+// Mục đích file: File này dùng để khai báo chỉ mục FTS lấy nội dung từ các cột search* của catalog_rooms (external content: Room tự tạo trigger giữ chỉ mục khớp với bảng khi thêm/sửa/xóa phòng), có chỉ mục tiền tố để tìm ngay khi đang gõ
+// function:
+// - CatalogRoomFts(): Constructor mặc định (Room dùng)
+package com.example.appquanlytimtro.database.catalog;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.room.PrimaryKey;
+
+// Thứ tự cột quyết định thứ tự trọng số trong RoomCatalogSearch.COLUMN_WEIGHTS
+@Fts4(contentEntity = CatalogRoomEntity.class,
+        tokenizer = FtsOptions.TOKENIZER_UNICODE61,
+        prefix = {2, 3})
+@Entity(tableName = "catalog_rooms_fts")
+public class CatalogRoomFts {
+    // Trùng rowid của catalog_rooms
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    public long rowid;
+
+    public String searchTitle;
+
+    public String searchAddress;
+
+    public String searchAmenities;
+
+    public String searchDescription;
+
+    public CatalogRoomFts() {}
+}
@@ -0,0 +1,12 @@
+//class: một phòng khớp truy vấn tìm kiếm FTS
+// Mục đích file: File này dùng để nhận ID phòng cùng dữ liệu matchinfo() của SQLite để RoomCatalogSearch tính điểm xếp hạng
+// function:
+// - (chỉ có field, Room tự gán giá trị)
+package com.example.appquanlytimtro.database.catalog;
+
+public class CatalogSearchHit {
+    public String roomId;
+
+    // matchinfo(catalog_rooms_fts, 'pcnalx'): các số nguyên 32 bit theo byte order của máy
+    public byte[] matchInfo;
+}
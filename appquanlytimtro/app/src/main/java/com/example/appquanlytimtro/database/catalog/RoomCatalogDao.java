@@ -0,0 +1,143 @@
+//dao: truy vấn danh mục phòng offline
+// Mục đích file: File này dùng để đọc danh sách phòng theo thứ tự của từng danh sách và ghi từng trang tải từ API trong một transaction
+// function:
+// - observe(): Theo dõi danh sách phòng của một scope (tự cập nhật khi bảng thay đổi)
+// - getPageKey(): Lấy khóa trang kế tiếp của scope
+// - savePage(): Ghi một trang phòng (làm mới thì thay toàn bộ danh sách của scope)
+// - removeRoom(): Bỏ một phòng khỏi mọi danh sách (xóa phòng trước khi server xác nhận)
+// - search(): Tìm phòng khớp biểu thức MATCH của bảng FTS (kèm matchinfo để xếp hạng) theo bộ lọc
+// - filter(): Lọc phòng theo bộ lọc khi không có từ khóa
+// - findRooms(): Đọc phòng kèm ảnh theo danh sách ID
+package com.example.appquanlytimtro.database.catalog;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.RoomSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Dao
+public abstract class RoomCatalogDao {
+
+    @Transaction
+    @Query("SELECT catalog_rooms.* FROM catalog_entries "
+            + "INNER JOIN catalog_rooms ON catalog_rooms.id = catalog_entries.roomId "
+            + "WHERE catalog_entries.scope = :scope ORDER BY catalog_entries.position")
+    public abstract LiveData<List<CatalogRoom>> observe(String scope);
+
+    // scope/status/roomType null nghĩa là không lọc theo điều kiện đó
+    @Query("SELECT catalog_rooms.id AS roomId, matchinfo(catalog_rooms_fts, 'pcnalx') AS matchInfo "
+            + "FROM catalog_rooms_fts INNER JOIN catalog_rooms ON catalog_rooms.rowid = catalog_rooms_fts.rowid "
+            + "WHERE catalog_rooms_fts MATCH :match "
+            + "AND (:scope IS NULL OR catalog_rooms.id IN (SELECT roomId FROM catalog_entries WHERE scope = :scope)) "
+            + "AND (:status IS NULL OR catalog_rooms.status = :status) "
+            + "AND (:roomType IS NULL OR catalog_rooms.roomType = :roomType) "
+            + "AND catalog_rooms.monthlyPrice BETWEEN :minPrice AND :maxPrice")
+    public abstract List<CatalogSearchHit> search(String match, String scope, String status, String roomType,
+                                                  double minPrice, double maxPrice);
+
+    @Query("SELECT id FROM catalog_rooms "
+            + "WHERE (:scope IS NULL OR id IN (SELECT roomId FROM catalog_entries WHERE scope = :scope)) "
+            + "AND (:status IS NULL OR status = :status) "
+            + "AND (:roomType IS NULL OR roomType = :roomType) "
+            + "AND monthlyPrice BETWEEN :minPrice AND :maxPrice "
+            + "ORDER BY updatedAt DESC LIMIT :limit")
+    public abstract List<String> filter(String scope, String status, String roomType,
+                                        double minPrice, double maxPrice, int limit);
+
+    @Transaction
+    @Query("SELECT * FROM catalog_rooms WHERE id IN (:roomIds)")
+    public abstract List<CatalogRoom> findRooms(List<String> roomIds);
+
+    @Query("SELECT * FROM catalog_page_keys WHERE scope = :scope")
+    public abstract CatalogPageKeyEntity getPageKey(String scope);
+
+    @Query("SELECT COALESCE(MAX(position) + 1, 0) FROM catalog_entries WHERE scope = :scope")
+    abstract int nextPosition(String scope);
+
+    @Query("DELETE FROM catalog_entries WHERE scope = :scope")
+    abstract void deleteEntries(String scope);
+
+    @Query("DELETE FROM catalog_room_images WHERE roomId IN (:roomIds)")
+    abstract void deleteImages(List<String> roomIds);
+
+    @Query("DELETE FROM catalog_entries WHERE roomId = :roomId")
+    abstract void deleteRoomEntries(String roomId);
+
+    // Phòng không còn thuộc danh sách nào
+    @Query("DELETE FROM catalog_rooms WHERE id NOT IN (SELECT roomId FROM catalog_entries)")
+    abstract void deleteOrphanRooms();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertRooms(List<CatalogRoomEntity> rooms);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertImages(List<CatalogImageEntity> images);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertEntries(List<CatalogEntryEntity> entries);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertPageKey(CatalogPageKeyEntity key);
+
+    @Transaction
+    public void savePage(String scope, List<RoomSummary> page, boolean refresh, int nextPage) {
+        if (refresh) {
+            deleteEntries(scope);
+        }
+        int position = nextPosition(scope);
+
+        List<CatalogRoomEntity> rooms = new ArrayList<>(page.size());
+        List<CatalogImageEntity> images = new ArrayList<>();
+        List<CatalogEntryEntity> entries = new ArrayList<>(page.size());
+        List<String> roomIds = new ArrayList<>(page.size());
+        for (RoomSummary summary : page) {
+            if (summary == null || summary.getId() == null) {
+                continue;
+            }
+            rooms.add(CatalogRoomEntity.from(summary));
+            roomIds.add(summary.getId());
+            entries.add(new CatalogEntryEntity(scope, summary.getId(), position++));
+            if (summary.getImages() != null) {
+                int index = 0;
+                for (Room.RoomImage image : summary.getImages()) {
+                    if (image != null && image.getUrl() != null) {
+                        images.add(CatalogImageEntity.from(summary.getId(), index++, image));
+                    }
+                }
+            }
+        }
+
+        if (!roomIds.isEmpty()) {
+            deleteImages(roomIds);
+        }
+        insertRooms(rooms);
+        insertImages(images);
+        insertEntries(entries);
+        insertPageKey(new CatalogPageKeyEntity(scope, nextPage,
+                refresh ? System.currentTimeMillis() : refreshedAt(scope)));
+        if (refresh) {
+            deleteOrphanRooms();
+        }
+    }
+
+    @Transaction
+    public void removeRoom(String roomId) {
+        deleteRoomEntries(roomId);
+        deleteImages(Collections.singletonList(roomId));
+        deleteOrphanRooms();
+    }
+
+    private long refreshedAt(String scope) {
+        CatalogPageKeyEntity key = getPageKey(scope);
+        return key != null ? key.refreshedAt : 0;
+    }
+}
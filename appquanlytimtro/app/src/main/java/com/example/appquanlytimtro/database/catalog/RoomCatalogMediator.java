@@ -0,0 +1,172 @@
+//class: đồng bộ danh mục phòng giữa API và cơ sở dữ liệu local
+// Mục đích file: File này dùng để tải từng trang phòng từ API vào cơ sở dữ liệu (làm mới/tải thêm theo khóa trang, giống RemoteMediator); giao diện chỉ đọc từ cơ sở dữ liệu nên hiển thị ngay khi mở và vẫn xem được khi mất mạng
+// function:
+// - getInstance(): Lấy instance dùng chung
+// - observe(): Theo dõi danh sách phòng đã lưu của một scope
+// - refresh(): Tải lại trang đầu và thay danh sách đã lưu
+// - loadMore(): Tải trang kế tiếp theo khóa trang đã lưu
+// - reset(): Bỏ mọi trang đang tải (khi đăng xuất), kết quả về sau không được ghi
+// - PageSource.load(): Tạo request API cho một trang
+// - LoadCallback: Nhận kết quả tải (main thread); trang bị bỏ vì đã làm mới/đăng xuất thì báo onSuperseded() thay cho kết quả
+package com.example.appquanlytimtro.database.catalog;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+
+import com.example.appquanlytimtro.database.AppDatabase;
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.RoomSummaryPage;
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public final class RoomCatalogMediator {
+
+    public static final int PAGE_SIZE = 20;
+
+    public interface PageSource {
+        // Trả null nếu không tạo được request (vd: chưa đăng nhập)
+        Call<ApiResponse<RoomSummaryPage>> load(int page, int limit);
+    }
+
+    public interface LoadCallback {
+        void onLoaded(boolean endReached);
+
+        void onError(String message);
+
+        // Trang tải xong nhưng không được ghi vì thế hệ đã đổi; chỉ cần tắt trạng thái đang tải
+        void onSuperseded();
+    }
+
+    private static volatile RoomCatalogMediator instance;
+
+    private final RoomCatalogDao dao;
+    // Mỗi lần làm mới tăng thế hệ, trang tải thêm của thế hệ cũ bị bỏ
+    private final Map<String, Integer> generations = new ConcurrentHashMap<>();
+    private final Set<String> appending = ConcurrentHashMap.newKeySet();
+
+    private RoomCatalogMediator(RoomCatalogDao dao) {
+        this.dao = dao;
+    }
+
+    public static RoomCatalogMediator getInstance(Context context) {
+        if (instance == null) {
+            synchronized (RoomCatalogMediator.class) {
+                if (instance == null) {
+                    instance = new RoomCatalogMediator(AppDatabase.getInstance(context).roomCatalogDao());
+                }
+            }
+        }
+        return instance;
+    }
+
+    public LiveData<List<RoomSummary>> observe(String scope) {
+        return Transformations.map(dao.observe(scope), CatalogRoom::toSummaries);
+    }
+
+    public void refresh(String scope, PageSource source, LoadCallback callback) {
+        int generation = generations.merge(scope, 1, Integer::sum);
+        appending.remove(scope);
+        load(scope, source, 1, generation, callback);
+    }
+
+    public void loadMore(String scope, PageSource source, LoadCallback callback) {
+        if (!appending.add(scope)) {
+            return;
+        }
+        int generation = generation(scope);
+        AppExecutors.background().execute(() -> {
+            CatalogPageKeyEntity key = dao.getPageKey(scope);
+            AppExecutors.postToMain(() -> {
+                if (key == null || key.nextPage == CatalogPageKeyEntity.END) {
+                    appending.remove(scope);
+                    // Chưa làm mới lần nào thì refresh() sẽ báo kết quả
+                    if (key != null) {
+                        callback.onLoaded(true);
+                    }
+                    return;
+                }
+                load(scope, source, key.nextPage, generation, callback);
+            });
+        });
+    }
+
+    public void reset() {
+        synchronized (this) {
+            generations.replaceAll((scope, generation) -> generation + 1);
+        }
+        appending.clear();
+    }
+
+    private int generation(String scope) {
+        Integer generation = generations.get(scope);
+        return generation != null ? generation : 0;
+    }
+
+    private void load(String scope, PageSource source, int page, int generation, LoadCallback callback) {
+        boolean refresh = page == 1;
+        Call<ApiResponse<RoomSummaryPage>> call = source.load(page, PAGE_SIZE);
+        if (call == null) {
+            finish(scope, refresh);
+            callback.onError("Không thể lấy thông tin người dùng");
+            return;
+        }
+        call.enqueue(new Callback<ApiResponse<RoomSummaryPage>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<RoomSummaryPage>> call, Response<ApiResponse<RoomSummaryPage>> response) {
+                ApiResponse<RoomSummaryPage> apiResponse = response.body();
+                if (!response.isSuccessful() || apiResponse == null) {
+                    finish(scope, refresh);
+                    callback.onError("Không thể tải danh sách phòng trọ");
+                    return;
+                }
+                if (!apiResponse.isSuccess() || apiResponse.getData() == null) {
+                    finish(scope, refresh);
+                    callback.onError(apiResponse.getMessage());
+                    return;
+                }
+                RoomSummaryPage data = apiResponse.getData();
+                int nextPage = data.hasNext() ? page + 1 : CatalogPageKeyEntity.END;
+                AppExecutors.background().execute(() -> {
+                    boolean saved;
+                    synchronized (RoomCatalogMediator.this) {
+                        saved = generation == generation(scope);
+                        if (saved) {
+                            dao.savePage(scope, data.getItems(), refresh, nextPage);
+                        }
+                    }
+                    AppExecutors.postToMain(() -> {
+                        finish(scope, refresh);
+                        if (saved) {
+                            callback.onLoaded(nextPage == CatalogPageKeyEntity.END);
+                        } else {
+                            callback.onSuperseded();
+                        }
+                    });
+                });
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<RoomSummaryPage>> call, Throwable t) {
+                finish(scope, refresh);
+                callback.onError("Lỗi kết nối. Vui lòng thử lại.");
+            }
+        });
+    }
+
+    private void finish(String scope, boolean refresh) {
+        if (!refresh) {
+            appending.remove(scope);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+//class: tìm kiếm toàn văn trên danh mục phòng offline
+// Mục đích file: File này dùng để tìm phòng đã lưu trên máy ngay khi người dùng gõ (bảng FTS4 có chỉ mục tiền tố, xếp hạng BM25 tính từ matchinfo), không chờ API; kết quả server về sau được gộp vào bằng merge()
+// function:
+// - getInstance(): Lấy instance dùng chung
+// - search(): Tìm phòng ở nền, chỉ chạy truy vấn mới nhất nếu người dùng gõ nhanh hơn tốc độ tìm
+// - merge(): Gộp kết quả local với kết quả server (giữ thứ tự local, thêm phòng chỉ server có)
+// - run(): Chạy một truy vấn (MATCH + lọc, hoặc chỉ lọc khi không có từ khóa)
+// - rank(): Sắp xếp kết quả theo điểm BM25
+// - score(): Tính điểm BM25 của một phòng từ matchinfo 'pcnalx'
+// - Query: Từ khóa và bộ lọc của một lần tìm
+// - SearchCallback: Nhận kết quả (main thread)
+package com.example.appquanlytimtro.database.catalog;
+
+import android.content.Context;
+
+import com.example.appquanlytimtro.database.AppDatabase;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class RoomCatalogSearch {
+
+    public static final int MAX_RESULTS = 50;
+
+    // Trọng số theo thứ tự cột của CatalogRoomFts: tiêu đề, địa chỉ, tiện ích, mô tả
+    private static final double[] COLUMN_WEIGHTS = {3.0, 2.0, 1.5, 1.0};
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+
+    public static final class Query {
+        final String text;
+        String scope;
+        String status;
+        String roomType;
+        String address;
+        double minPrice = 0;
+        double maxPrice = Double.MAX_VALUE;
+
+        public Query(String text) {
+            this.text = text;
+        }
+
+        // Chỉ tìm trong một danh sách của danh mục (vd: "available")
+        public Query inScope(String scope) {
+            this.scope = scope;
+            return this;
+        }
+
+        public Query withStatus(String status) {
+            this.status = status;
+            return this;
+        }
+
+        public Query withRoomType(String roomType) {
+            this.roomType = roomType;
+            return this;
+        }
+
+        // Thành phố/quận: mỗi từ phải khớp cột địa chỉ
+        public Query inArea(String address) {
+            this.address = address;
+            return this;
+        }
+
+        public Query priceBetween(double minPrice, double maxPrice) {
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            return this;
+        }
+    }
+
+    public interface SearchCallback {
+        void onResults(List<RoomSummary> rooms);
+    }
+
+    private static final class Request {
+        final Query query;
+        final SearchCallback callback;
+
+        Request(Query query, SearchCallback callback) {
+            this.query = query;
+            this.callback = callback;
+        }
+    }
+
+    private static volatile RoomCatalogSearch instance;
+
+    private final RoomCatalogDao dao;
+    // Chỉ giữ truy vấn mới nhất; truy vấn cũ chưa kịp chạy bị bỏ (không gọi callback)
+    private final AtomicReference<Request> pending = new AtomicReference<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private RoomCatalogSearch(RoomCatalogDao dao) {
+        this.dao = dao;
+    }
+
+    public static RoomCatalogSearch getInstance(Context context) {
+        if (instance == null) {
+            synchronized (RoomCatalogSearch.class) {
+                if (instance == null) {
+                    instance = new RoomCatalogSearch(AppDatabase.getInstance(context).roomCatalogDao());
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void search(Query query, SearchCallback callback) {
+        pending.set(new Request(query, callback));
+        if (running.compareAndSet(false, true)) {
+            try {
+                AppExecutors.background().execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        do {
+            Request request;
+            while ((request = pending.getAndSet(null)) != null) {
+                List<RoomSummary> rooms = run(request.query);
+                SearchCallback callback = request.callback;
+                AppExecutors.postToMain(() -> callback.onResults(rooms));
+            }
+            running.set(false);
+            // Truy vấn đến đúng lúc vừa thoát vòng lặp
+        } while (pending.get() != null && running.compareAndSet(false, true));
+    }
+
+    public static List<RoomSummary> merge(List<RoomSummary> local, List<RoomSummary> remote) {
+        if (remote == null || remote.isEmpty()) {
+            return local;
+        }
+        Map<String, RoomSummary> remoteById = new LinkedHashMap<>();
+        for (RoomSummary room : remote) {
+            if (room != null && room.getId() != null) {
+                remoteById.put(room.getId(), room);
+            }
+        }
+        List<RoomSummary> merged = new ArrayList<>(local.size() + remoteById.size());
+        for (RoomSummary room : local) {
+            // Bản của server mới hơn bản đã lưu
+            RoomSummary fresh = remoteById.remove(room.getId());
+            merged.add(fresh != null ? fresh : room);
+        }
+        merged.addAll(remoteById.values());
+        return Collections.unmodifiableList(merged);
+    }
+
+    private List<RoomSummary> run(Query query) {
+        String match = SearchText.matchExpression(query.text, null);
+        if (query.address != null) {
+            String area = SearchText.matchExpression(query.address, "searchAddress");
+            match = match.isEmpty() ? area : match + " " + area;
+        }
+
+        List<String> roomIds;
+        if (match.isEmpty()) {
+            roomIds = dao.filter(query.scope, query.status, query.roomType,
+                    query.minPrice, query.maxPrice, MAX_RESULTS);
+        } else {
+            roomIds = rank(dao.search(match, query.scope, query.status, query.roomType,
+                    query.minPrice, query.maxPrice));
+        }
+        if (roomIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, RoomSummary> byId = new HashMap<>();
+        for (CatalogRoom room : dao.findRooms(roomIds)) {
+            byId.put(room.room.id, room.toSummary());
+        }
+        List<RoomSummary> result = new ArrayList<>(roomIds.size());
+        for (String roomId : roomIds) {
+            RoomSummary room = byId.get(roomId);
+            if (room != null) {
+                result.add(room);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static List<String> rank(List<CatalogSearchHit> hits) {
+        int count = hits.size();
+        double[] scores = new double[count];
+        List<Integer> order = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(hits.get(i).matchInfo);
+            order.add(i);
+        }
+        Collections.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        int limit = Math.min(count, MAX_RESULTS);
+        List<String> roomIds = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            roomIds.add(hits.get(order.get(i)).roomId);
+        }
+        return roomIds;
+    }
+
+    // Theo hàm bm25 mẫu trong tài liệu FTS4 của SQLite
+    private static double score(byte[] matchInfo) {
+        if (matchInfo == null) {
+            return 0;
+        }
+        IntBuffer info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = info.get(0);
+        int columns = info.get(1);
+        int rows = info.get(2);
+        int averageBase = 3;
+        int lengthBase = 3 + columns;
+        int hitsBase = 3 + 2 * columns;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int hitIndex = hitsBase + 3 * (phrase * columns + column);
+                int hits = info.get(hitIndex);
+                if (hits == 0) {
+                    continue;
+                }
+                int rowsWithHits = info.get(hitIndex + 2);
+                double idf = Math.log((rows - rowsWithHits + 0.5) / (rowsWithHits + 0.5));
+                if (idf <= 0) {
+                    // Từ rất phổ biến vẫn phải cộng điểm dương
+                    idf = 1e-6;
+                }
+                int averageLength = Math.max(1, info.get(averageBase + column));
+                int length = info.get(lengthBase + column);
+                double weight = column < COLUMN_WEIGHTS.length ? COLUMN_WEIGHTS[column] : 1.0;
+                score += weight * idf * (hits * (BM25_K1 + 1))
+                        / (hits + BM25_K1 * (1 - BM25_B + BM25_B * length / averageLength));
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,114 @@
+//class: chuẩn hóa văn bản cho chỉ mục tìm kiếm phòng
+// Mục đích file: File này dùng để bỏ dấu tiếng Việt (kể cả đ → d) cho cả nội dung được đánh chỉ mục và từ khóa người dùng gõ, để "da nang" tìm thấy "Đà Nẵng"; đồng thời tạo biểu thức MATCH của FTS từ từ khóa
+// function:
+// - fold(): Bỏ dấu và chuyển về chữ thường
+// - join(): Nối các phần văn bản (bỏ phần rỗng) rồi bỏ dấu
+// - amenities(): Văn bản tìm kiếm của danh sách tiện ích (mã + tên tiếng Việt)
+// - matchExpression(): Tạo biểu thức MATCH (mỗi từ khóa là một tiền tố, các từ đều phải khớp)
+package com.example.appquanlytimtro.database.catalog;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+final class SearchText {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Quá nhiều từ khóa thì truy vấn chậm mà không thu hẹp thêm kết quả
+    private static final int MAX_TERMS = 8;
+
+    // Tên hiển thị của các mã tiện ích (enum amenities của backend/models/Room.js)
+    private static final Map<String, String> AMENITY_LABELS = new HashMap<>();
+
+    static {
+        AMENITY_LABELS.put("wifi", "WiFi");
+        AMENITY_LABELS.put("air_conditioner", "Điều hòa");
+        AMENITY_LABELS.put("refrigerator", "Tủ lạnh");
+        AMENITY_LABELS.put("washing_machine", "Máy giặt");
+        AMENITY_LABELS.put("television", "Tivi");
+        AMENITY_LABELS.put("bed", "Giường");
+        AMENITY_LABELS.put("wardrobe", "Tủ quần áo");
+        AMENITY_LABELS.put("desk", "Bàn làm việc");
+        AMENITY_LABELS.put("chair", "Ghế");
+        AMENITY_LABELS.put("fan", "Quạt");
+        AMENITY_LABELS.put("hot_water", "Nước nóng");
+        AMENITY_LABELS.put("kitchen", "Bếp");
+        AMENITY_LABELS.put("bathroom", "Phòng tắm");
+        AMENITY_LABELS.put("balcony", "Ban công");
+        AMENITY_LABELS.put("parking", "Chỗ đỗ xe");
+        AMENITY_LABELS.put("elevator", "Thang máy");
+        AMENITY_LABELS.put("security", "An ninh");
+        AMENITY_LABELS.put("gym", "Phòng gym");
+        AMENITY_LABELS.put("swimming_pool", "Hồ bơi");
+        AMENITY_LABELS.put("garden", "Sân vườn");
+    }
+
+    private SearchText() {}
+
+    static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        // đ không phải chữ d có dấu nên NFD không tách được
+        return stripped.replace('đ', 'd').replace('Đ', 'd').toLowerCase(Locale.ROOT);
+    }
+
+    static String join(String... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isEmpty()) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(part);
+            }
+        }
+        return fold(builder.toString());
+    }
+
+    static String amenities(List<String> amenities) {
+        if (amenities == null || amenities.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String amenity : amenities) {
+            if (amenity == null) {
+                continue;
+            }
+            String label = AMENITY_LABELS.get(amenity);
+            builder.append(amenity.replace('_', ' ')).append(' ');
+            if (label != null) {
+                builder.append(label).append(' ');
+            }
+        }
+        return fold(builder.toString().trim());
+    }
+
+    // column: giới hạn từ khóa trong một cột của bảng FTS, null nếu tìm trên mọi cột
+    static String matchExpression(String text, String column) {
+        StringBuilder builder = new StringBuilder();
+        int terms = 0;
+        for (String term : SEPARATORS.split(fold(text))) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            if (column != null) {
+                builder.append(column).append(':');
+            }
+            // Chỉ còn chữ và số nên không thể tạo cú pháp MATCH lạ
+            builder.append(term).append('*');
+            if (++terms == MAX_TERMS) {
+                break;
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,25 @@
+//dao: đọc/ghi bản chụp dashboard
+// Mục đích file: File này dùng để lấy và thay bản chụp dashboard của một vai trò/người dùng
+// function:
+// - find(): Lấy bản chụp theo key (null: chưa có)
+// - save(): Lưu/thay bản chụp
+// - deleteOtherUsers(): Xóa bản chụp của tài khoản khác
+package com.example.appquanlytimtro.database.dashboard;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface DashboardSnapshotDao {
+
+    @Query("SELECT * FROM dashboard_snapshots WHERE `key` = :key")
+    DashboardSnapshotEntity find(String key);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void save(DashboardSnapshotEntity snapshot);
+
+    @Query("DELETE FROM dashboard_snapshots WHERE userId != :userId")
+    void deleteOtherUsers(String userId);
+}
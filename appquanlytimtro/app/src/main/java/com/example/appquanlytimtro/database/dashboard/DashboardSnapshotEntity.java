@@ -0,0 +1,44 @@
+//entity: bản chụp dashboard lần tải thành công gần nhất
+// Mục đích file: File này dùng để lưu số liệu dashboard theo vai trò và người dùng (key = role:userId) cùng thời điểm lưu, để mở app là hiển thị được ngay không cần chờ API
+// function:
+// - DashboardSnapshotEntity(): Constructor mặc định (Room dùng)
+// - from(): Tạo entity từ DashboardStats
+// - toStats(): Đọc lại DashboardStats từ payload
+package com.example.appquanlytimtro.database.dashboard;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.example.appquanlytimtro.models.DashboardStats;
+import com.google.gson.Gson;
+
+@Entity(tableName = "dashboard_snapshots")
+public class DashboardSnapshotEntity {
+    @PrimaryKey
+    @NonNull
+    public String key = "";
+
+    @NonNull
+    public String userId = "";
+
+    // System.currentTimeMillis() lúc lưu, dùng cho dòng "Cập nhật lúc ..."
+    public long savedAt;
+
+    // DashboardStats dạng JSON
+    public String payload;
+
+    public static DashboardSnapshotEntity from(String key, String userId, DashboardStats stats, long savedAt, Gson gson) {
+        DashboardSnapshotEntity entity = new DashboardSnapshotEntity();
+        entity.key = key;
+        entity.userId = userId;
+        entity.savedAt = savedAt;
+        entity.payload = gson.toJson(stats);
+        return entity;
+    }
+
+    public DashboardStats toStats(Gson gson) {
+        DashboardStats stats = payload != null ? gson.fromJson(payload, DashboardStats.class) : null;
+        return stats != null ? stats : new DashboardStats();
+    }
+}
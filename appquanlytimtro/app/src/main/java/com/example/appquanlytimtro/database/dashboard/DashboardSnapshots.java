@@ -0,0 +1,92 @@
+//class: kho bản chụp dashboard (stale-while-revalidate)
+// Mục đích file: File này dùng để dashboard admin/chủ trọ/người thuê hiển thị ngay số liệu của lần tải thành công gần nhất khi mở app, trong lúc vẫn gọi API ở nền để làm mới; lần tải thành công nào cũng ghi đè bản chụp
+// function:
+// - getInstance(): Lấy instance dùng chung
+// - load(): Đọc bản chụp của vai trò/người dùng trên thread nền, trả về main thread nếu có
+// - save(): Lưu số liệu vừa tải làm bản chụp mới (xóa bản chụp của tài khoản khác)
+// - lastUpdatedText(): Tạo dòng "Cập nhật lúc ..." từ thời điểm lưu
+// - Listener: Nhận bản chụp đã lưu (main thread)
+package com.example.appquanlytimtro.database.dashboard;
+
+import android.content.Context;
+
+import com.example.appquanlytimtro.database.AppDatabase;
+import com.example.appquanlytimtro.models.DashboardStats;
+import com.example.appquanlytimtro.network.json.GsonProvider;
+import com.example.appquanlytimtro.utils.AppExecutors;
+import com.google.gson.Gson;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+public final class DashboardSnapshots {
+
+    public static final String ROLE_ADMIN = "admin";
+    public static final String ROLE_LANDLORD = "landlord";
+    public static final String ROLE_TENANT = "tenant";
+
+    public interface Listener {
+        void onSnapshot(DashboardStats stats, long savedAt);
+    }
+
+    private static volatile DashboardSnapshots instance;
+
+    private final DashboardSnapshotDao dao;
+    private final Gson gson = GsonProvider.storage();
+
+    private DashboardSnapshots(AppDatabase database) {
+        this.dao = database.dashboardSnapshotDao();
+    }
+
+    public static DashboardSnapshots getInstance(Context context) {
+        if (instance == null) {
+            synchronized (DashboardSnapshots.class) {
+                if (instance == null) {
+                    instance = new DashboardSnapshots(AppDatabase.getInstance(context));
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void load(String role, String userId, Listener listener) {
+        if (userId == null) {
+            return;
+        }
+        AppExecutors.diskIO().execute(() -> {
+            DashboardSnapshotEntity snapshot = dao.find(key(role, userId));
+            if (snapshot == null) {
+                return;
+            }
+            DashboardStats stats = snapshot.toStats(gson);
+            AppExecutors.postToMain(() -> listener.onSnapshot(stats, snapshot.savedAt));
+        });
+    }
+
+    public void save(String role, String userId, DashboardStats stats) {
+        if (userId == null || stats == null) {
+            return;
+        }
+        long savedAt = System.currentTimeMillis();
+        AppExecutors.diskIO().execute(() -> {
+            dao.deleteOtherUsers(userId);
+            dao.save(DashboardSnapshotEntity.from(key(role, userId), userId, stats, savedAt, gson));
+        });
+    }
+
+    public static String lastUpdatedText(long savedAt) {
+        Calendar saved = Calendar.getInstance();
+        saved.setTimeInMillis(savedAt);
+        Calendar now = Calendar.getInstance();
+        boolean today = saved.get(Calendar.YEAR) == now.get(Calendar.YEAR)
+                && saved.get(Calendar.DAY_OF_YEAR) == now.get(Calendar.DAY_OF_YEAR);
+        String pattern = today ? "HH:mm" : "HH:mm dd/MM/yyyy";
+        return "Cập nhật lúc " + new SimpleDateFormat(pattern, Locale.getDefault()).format(new Date(savedAt));
+    }
+
+    private static String key(String role, String userId) {
+        return role + ":" + userId;
+    }
+}
@@ -0,0 +1,29 @@
+//entity: bộ đếm thông báo chưa đọc của từng người dùng
+// Mục đích file: File này dùng để giữ số chưa đọc cho badge mà không phải đếm lại hộp thư; được gán theo số của server mỗi lần đồng bộ và trừ đi ngay khi người dùng đọc thông báo trên máy
+// function:
+// - NotificationCounterEntity(): Constructor mặc định (Room dùng)
+// - NotificationCounterEntity(userId, unread): Tạo bộ đếm
+package com.example.appquanlytimtro.database.notification;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "notification_counters")
+public class NotificationCounterEntity {
+    @PrimaryKey
+    @NonNull
+    public String userId = "";
+
+    // Tổng số chưa đọc của cả hộp thư trên server, không chỉ các thông báo đã tải về máy
+    public int unread;
+
+    public NotificationCounterEntity() {}
+
+    @Ignore
+    public NotificationCounterEntity(@NonNull String userId, int unread) {
+        this.userId = userId;
+        this.unread = unread;
+    }
+}
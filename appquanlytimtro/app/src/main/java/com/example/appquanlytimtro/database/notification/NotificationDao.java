@@ -0,0 +1,129 @@
+//dao: truy vấn hộp thư thông báo local và bộ đếm chưa đọc
+// Mục đích file: File này dùng để đọc hộp thư theo trang (mới nhất trước), ghi các thông báo mới tải về và giữ bộ đếm chưa đọc khớp với thay đổi trong cùng transaction
+// function:
+// - observePage(): Theo dõi các thông báo mới nhất của người dùng (tối đa limit dòng)
+// - observeUnreadCount(): Theo dõi bộ đếm chưa đọc (null nếu chưa đồng bộ lần nào)
+// - latestId()/oldestId(): ID mới nhất/cũ nhất đã lưu (mốc đồng bộ và con trỏ trang cũ hơn)
+// - countStored(): Số thông báo đã lưu của người dùng
+// - replaceAll(): Thay toàn bộ hộp thư sau lần tải đầu
+// - applyPage(): Ghi thông báo mới hoặc trang cũ hơn, giữ trạng thái đã đọc chưa gửi lên server
+// - markRead(): Đánh dấu một thông báo đã đọc và trừ bộ đếm (trả về false nếu đã đọc trước đó)
+// - markAllRead(): Đánh dấu tất cả đã đọc và đưa bộ đếm về 0
+// - deleteOtherUsers(): Xóa hộp thư của tài khoản khác
+package com.example.appquanlytimtro.database.notification;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class NotificationDao {
+
+    @Query("SELECT * FROM notifications WHERE userId = :userId ORDER BY id DESC LIMIT :limit")
+    public abstract LiveData<List<NotificationEntity>> observePage(String userId, int limit);
+
+    @Query("SELECT unread FROM notification_counters WHERE userId = :userId")
+    public abstract LiveData<Integer> observeUnreadCount(String userId);
+
+    @Query("SELECT MAX(id) FROM notifications WHERE userId = :userId")
+    public abstract String latestId(String userId);
+
+    @Query("SELECT MIN(id) FROM notifications WHERE userId = :userId")
+    public abstract String oldestId(String userId);
+
+    @Query("SELECT COUNT(*) FROM notifications WHERE userId = :userId")
+    public abstract int countStored(String userId);
+
+    @Query("SELECT * FROM notifications WHERE id = :id")
+    abstract NotificationEntity find(String id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insert(NotificationEntity notification);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertAll(List<NotificationEntity> notifications);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void saveCounter(NotificationCounterEntity counter);
+
+    @Query("UPDATE notification_counters SET unread = MAX(unread + :delta, 0) WHERE userId = :userId")
+    abstract int addToCounter(String userId, int delta);
+
+    @Query("UPDATE notifications SET status = 'read' WHERE id = :id AND userId = :userId AND status = 'unread'")
+    abstract int setRead(String userId, String id);
+
+    @Query("UPDATE notifications SET status = 'read' WHERE userId = :userId AND status = 'unread'")
+    abstract void setAllRead(String userId);
+
+    @Query("DELETE FROM notifications WHERE userId = :userId")
+    abstract void deleteAll(String userId);
+
+    // Chỉ giữ keep thông báo mới nhất để bảng không lớn dần theo thời gian
+    @Query("DELETE FROM notifications WHERE userId = :userId AND id NOT IN"
+            + " (SELECT id FROM notifications WHERE userId = :userId ORDER BY id DESC LIMIT :keep)")
+    abstract void trim(String userId, int keep);
+
+    @Query("DELETE FROM notifications WHERE userId != :userId")
+    abstract void deleteOtherUserNotifications(String userId);
+
+    @Query("DELETE FROM notification_counters WHERE userId != :userId")
+    abstract void deleteOtherUserCounters(String userId);
+
+    @Transaction
+    public void replaceAll(String userId, List<NotificationEntity> notifications, int unread, int keep) {
+        deleteAll(userId);
+        insertAll(notifications);
+        saveCounter(new NotificationCounterEntity(userId, Math.max(unread, 0)));
+        trim(userId, keep);
+    }
+
+    // unread: số chưa đọc đã trừ các lần đọc chưa gửi; null thì bộ đếm chỉ cộng thêm thông báo chưa đọc mới
+    @Transaction
+    public void applyPage(String userId, List<NotificationEntity> notifications, Integer unread, int keep) {
+        int added = 0;
+        for (NotificationEntity notification : notifications) {
+            NotificationEntity old = find(notification.id);
+            if (old == null) {
+                if (notification.isUnread()) {
+                    added++;
+                }
+            } else if (!old.isUnread() && notification.isUnread()) {
+                // Đã đọc trên máy nhưng Outbox chưa gửi xong
+                notification.status = old.status;
+            }
+            insert(notification);
+        }
+        if (unread != null) {
+            saveCounter(new NotificationCounterEntity(userId, Math.max(unread, 0)));
+        } else if (added > 0 && addToCounter(userId, added) == 0) {
+            saveCounter(new NotificationCounterEntity(userId, added));
+        }
+        trim(userId, keep);
+    }
+
+    @Transaction
+    public boolean markRead(String userId, String id) {
+        if (setRead(userId, id) == 0) {
+            return false;
+        }
+        addToCounter(userId, -1);
+        return true;
+    }
+
+    @Transaction
+    public void markAllRead(String userId) {
+        setAllRead(userId);
+        saveCounter(new NotificationCounterEntity(userId, 0));
+    }
+
+    @Transaction
+    public void deleteOtherUsers(String userId) {
+        deleteOtherUserNotifications(userId);
+        deleteOtherUserCounters(userId);
+    }
+}
@@ -0,0 +1,90 @@
+//entity: bảng thông báo local
+// Mục đích file: File này dùng để lưu hộp thư thông báo của người dùng trên máy; ID là ObjectId (24 ký tự hex, tăng theo thời gian tạo) nên sắp xếp theo id cũng là mới nhất trước và ID lớn nhất là mốc đồng bộ tăng dần
+// function:
+// - NotificationEntity(): Constructor mặc định (Room dùng)
+// - from(): Tạo entity từ Notification
+// - isUnread(): Kiểm tra thông báo chưa đọc
+// - toNotification(): Đọc lại Notification để hiển thị
+package com.example.appquanlytimtro.database.notification;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.appquanlytimtro.models.Notification;
+
+@Entity(tableName = "notifications",
+        indices = {@Index(value = {"userId", "id"})})
+public class NotificationEntity {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+
+    @NonNull
+    public String userId = "";
+
+    public String type;
+
+    public String title;
+
+    public String message;
+
+    // unread/read/archived như backend
+    public String status;
+
+    public String createdAt;
+
+    public String bookingId;
+
+    public String roomId;
+
+    public String paymentId;
+
+    public double amount;
+
+    public NotificationEntity() {}
+
+    public static NotificationEntity from(Notification notification, String userId) {
+        NotificationEntity entity = new NotificationEntity();
+        entity.id = notification.getId();
+        entity.userId = userId;
+        entity.type = notification.getType();
+        entity.title = notification.getTitle();
+        entity.message = notification.getMessage();
+        entity.status = notification.getStatus() != null ? notification.getStatus() : Notification.STATUS_UNREAD;
+        entity.createdAt = notification.getCreatedAt();
+        Notification.NotificationData data = notification.getData();
+        if (data != null) {
+            entity.bookingId = data.getBookingId();
+            entity.roomId = data.getRoomId();
+            entity.paymentId = data.getPaymentId();
+            entity.amount = data.getAmount();
+        }
+        return entity;
+    }
+
+    public boolean isUnread() {
+        return Notification.STATUS_UNREAD.equals(status);
+    }
+
+    public Notification toNotification() {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setRecipientId(userId);
+        notification.setType(type);
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setStatus(status);
+        notification.setCreatedAt(createdAt);
+        if (bookingId != null || roomId != null || paymentId != null || amount != 0) {
+            Notification.NotificationData data = new Notification.NotificationData();
+            data.setBookingId(bookingId);
+            data.setRoomId(roomId);
+            data.setPaymentId(paymentId);
+            data.setAmount(amount);
+            notification.setData(data);
+        }
+        return notification;
+    }
+}
@@ -0,0 +1,302 @@
+//class: hộp thư thông báo local đồng bộ với API
+// Mục đích file: File này dùng để màn hình thông báo đọc danh sách theo trang từ bảng local và badge đọc số chưa đọc từ bộ đếm local; mỗi lần đồng bộ chỉ tải các thông báo mới hơn ID mới nhất đã thấy, đọc thông báo thì trừ bộ đếm ngay và gửi lên server qua Outbox
+// function:
+// - getInstance(): Lấy instance dùng chung
+// - observeNotifications(): Theo dõi tối đa limit thông báo mới nhất (màn hình tăng limit khi cuộn)
+// - observeUnreadCount(): Theo dõi số chưa đọc cho badge
+// - sync(): Đồng bộ (lần đầu tải trang mới nhất, sau đó chỉ tải thông báo mới hơn mốc đã thấy)
+// - loadOlder(): Tải thêm một trang cũ hơn thông báo cũ nhất đã lưu
+// - applyLocalRead()/applyLocalReadAll(): Đánh dấu đã đọc trên máy trước khi server xác nhận (Outbox gọi)
+// - invalidate(): Bỏ mốc đồng bộ để lần sau tải lại hộp thư (khi server từ chối đánh dấu đã đọc)
+// - SyncCallback: Nhận kết quả đồng bộ (main thread)
+// - LoadCallback: Nhận kết quả tải trang cũ hơn (main thread)
+package com.example.appquanlytimtro.database.notification;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.example.appquanlytimtro.database.AppDatabase;
+import com.example.appquanlytimtro.database.SyncStateDao;
+import com.example.appquanlytimtro.database.SyncStateEntity;
+import com.example.appquanlytimtro.database.outbox.OutboxDao;
+import com.example.appquanlytimtro.database.outbox.OutboxEntity;
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.models.Notification;
+import com.example.appquanlytimtro.models.NotificationPage;
+import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public final class NotificationInbox {
+
+    public static final int PAGE_SIZE = 20;
+    // Đồng bộ tăng dần tải tối đa số trang này mỗi lần, phần còn lại để lần sau (mốc vẫn đúng vì tải cũ trước)
+    public static final int SYNC_PAGE_SIZE = 100;
+    public static final int SYNC_MAX_PAGES = 5;
+    // Chỉ giữ chừng này thông báo mới nhất trên máy
+    public static final int MAX_STORED = 500;
+
+    private static final String STATE_PREFIX = "notifications:";
+
+    public interface SyncCallback {
+        void onSynced();
+
+        void onError(String message);
+    }
+
+    public interface LoadCallback {
+        void onLoaded(boolean hasMore);
+
+        void onError(String message);
+    }
+
+    private static volatile NotificationInbox instance;
+
+    private final NotificationDao dao;
+    private final OutboxDao outboxDao;
+    private final SyncStateDao syncState;
+    private final RetrofitClient retrofitClient;
+    // Các màn hình gọi sync() cùng lúc (badge và hộp thư) dùng chung một lần đồng bộ; chỉ dùng trên main thread
+    private final List<SyncCallback> waiting = new ArrayList<>();
+    private boolean syncing;
+
+    private NotificationInbox(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        this.dao = database.notificationDao();
+        this.outboxDao = database.outboxDao();
+        this.syncState = database.syncStateDao();
+        this.retrofitClient = RetrofitClient.getInstance(context);
+    }
+
+    public static NotificationInbox getInstance(Context context) {
+        if (instance == null) {
+            synchronized (NotificationInbox.class) {
+                if (instance == null) {
+                    instance = new NotificationInbox(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    public LiveData<List<Notification>> observeNotifications(String userId, int limit) {
+        MediatorLiveData<List<Notification>> result = new MediatorLiveData<>();
+        result.addSource(dao.observePage(userId, limit), entities -> {
+            List<Notification> notifications = new ArrayList<>(entities.size());
+            for (NotificationEntity entity : entities) {
+                notifications.add(entity.toNotification());
+            }
+            result.setValue(notifications);
+        });
+        return result;
+    }
+
+    public LiveData<Integer> observeUnreadCount(String userId) {
+        return dao.observeUnreadCount(userId);
+    }
+
+    // Gọi trên main thread
+    public void sync(String userId, SyncCallback callback) {
+        if (callback != null) {
+            waiting.add(callback);
+        }
+        if (syncing) {
+            return;
+        }
+        syncing = true;
+        SyncCallback done = new SyncCallback() {
+            @Override
+            public void onSynced() {
+                for (SyncCallback waiter : drainWaiting()) {
+                    waiter.onSynced();
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                for (SyncCallback waiter : drainWaiting()) {
+                    waiter.onError(message);
+                }
+            }
+        };
+        AppExecutors.diskIO().execute(() -> {
+            dao.deleteOtherUsers(userId);
+            String lastSeenId = syncState.getWatermark(STATE_PREFIX + userId);
+            if (lastSeenId == null) {
+                loadLatest(userId, done);
+            } else {
+                loadNewer(userId, lastSeenId, 1, done);
+            }
+        });
+    }
+
+    public void loadOlder(String userId, LoadCallback callback) {
+        AppExecutors.diskIO().execute(() -> {
+            String oldestId = dao.oldestId(userId);
+            if (oldestId == null || dao.countStored(userId) >= MAX_STORED) {
+                AppExecutors.postToMain(() -> callback.onLoaded(false));
+                return;
+            }
+            Map<String, String> params = new HashMap<>();
+            params.put("limit", String.valueOf(PAGE_SIZE));
+            params.put("beforeId", oldestId);
+            fetch(params, new PageHandler() {
+                @Override
+                void onPage(NotificationPage page) {
+                    dao.applyPage(userId, toEntities(page, userId), unreadFrom(page, userId), MAX_STORED);
+                    boolean hasMore = page.hasNext();
+                    AppExecutors.postToMain(() -> callback.onLoaded(hasMore));
+                }
+
+                @Override
+                void onError(String message) {
+                    callback.onError(message);
+                }
+            });
+        });
+    }
+
+    public void applyLocalRead(String userId, String notificationId) {
+        AppExecutors.diskIO().execute(() -> dao.markRead(userId, notificationId));
+    }
+
+    public void applyLocalReadAll(String userId) {
+        AppExecutors.diskIO().execute(() -> dao.markAllRead(userId));
+    }
+
+    public void invalidate() {
+        AppExecutors.diskIO().execute(() -> syncState.deleteByPrefix(STATE_PREFIX));
+    }
+
+    private void loadLatest(String userId, SyncCallback callback) {
+        Map<String, String> params = new HashMap<>();
+        params.put("limit", String.valueOf(PAGE_SIZE));
+        fetch(params, new PageHandler() {
+            @Override
+            void onPage(NotificationPage page) {
+                List<NotificationEntity> entities = toEntities(page, userId);
+                Integer unread = unreadFrom(page, userId);
+                if (unread == null) {
+                    // Đã bấm đọc tất cả nhưng Outbox chưa gửi: hiển thị như server đã nhận
+                    for (NotificationEntity entity : entities) {
+                        entity.status = Notification.STATUS_READ;
+                    }
+                    unread = 0;
+                }
+                dao.replaceAll(userId, entities, unread, MAX_STORED);
+                // Trang đầu xếp mới nhất trước
+                if (!entities.isEmpty()) {
+                    syncState.save(new SyncStateEntity(STATE_PREFIX + userId, entities.get(0).id));
+                }
+                AppExecutors.postToMain(callback::onSynced);
+            }
+
+            @Override
+            void onError(String message) {
+                callback.onError(message);
+            }
+        });
+    }
+
+    private void loadNewer(String userId, String lastSeenId, int pageCount, SyncCallback callback) {
+        Map<String, String> params = new HashMap<>();
+        params.put("limit", String.valueOf(SYNC_PAGE_SIZE));
+        params.put("afterId", lastSeenId);
+        fetch(params, new PageHandler() {
+            @Override
+            void onPage(NotificationPage page) {
+                List<NotificationEntity> entities = toEntities(page, userId);
+                dao.applyPage(userId, entities, unreadFrom(page, userId), MAX_STORED);
+                if (entities.isEmpty()) {
+                    AppExecutors.postToMain(callback::onSynced);
+                    return;
+                }
+                // Trang tăng dần xếp cũ trước
+                String newest = entities.get(entities.size() - 1).id;
+                syncState.save(new SyncStateEntity(STATE_PREFIX + userId, newest));
+                if (page.hasNext() && pageCount < SYNC_MAX_PAGES) {
+                    loadNewer(userId, newest, pageCount + 1, callback);
+                } else {
+                    AppExecutors.postToMain(callback::onSynced);
+                }
+            }
+
+            @Override
+            void onError(String message) {
+                callback.onError(message);
+            }
+        });
+    }
+
+    // Số chưa đọc của server trừ các lần đọc còn trong Outbox; null khi đang chờ gửi lần đọc tất cả
+    private Integer unreadFrom(NotificationPage page, String userId) {
+        if (outboxDao.countPending(userId, OutboxEntity.TYPE_NOTIFICATION_READ_ALL) > 0) {
+            return null;
+        }
+        Integer serverUnread = page.getUnreadCount();
+        if (serverUnread == null) {
+            return null;
+        }
+        return serverUnread - outboxDao.countPending(userId, OutboxEntity.TYPE_NOTIFICATION_READ);
+    }
+
+    private static List<NotificationEntity> toEntities(NotificationPage page, String userId) {
+        List<NotificationEntity> entities = new ArrayList<>(page.getItems().size());
+        for (Notification notification : page.getItems()) {
+            if (notification != null && notification.getId() != null) {
+                entities.add(NotificationEntity.from(notification, userId));
+            }
+        }
+        return entities;
+    }
+
+    private abstract static class PageHandler {
+        // Chạy trên thread nền
+        abstract void onPage(NotificationPage page);
+
+        // Chạy trên main thread
+        abstract void onError(String message);
+    }
+
+    private void fetch(Map<String, String> params, PageHandler handler) {
+        String token = "Bearer " + retrofitClient.getToken();
+        retrofitClient.getApiService().getNotifications(token, params)
+                .enqueue(new Callback<ApiResponse<NotificationPage>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<NotificationPage>> call,
+                                           Response<ApiResponse<NotificationPage>> response) {
+                        ApiResponse<NotificationPage> apiResponse = response.body();
+                        if (!response.isSuccessful() || apiResponse == null || !apiResponse.isSuccess()
+                                || apiResponse.getData() == null) {
+                            handler.onError(apiResponse != null ? apiResponse.getMessage() : null);
+                            return;
+                        }
+                        NotificationPage page = apiResponse.getData();
+                        AppExecutors.diskIO().execute(() -> handler.onPage(page));
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<NotificationPage>> call, Throwable t) {
+                        handler.onError("Lỗi kết nối. Vui lòng thử lại.");
+                    }
+                });
+    }
+
+    // Main thread
+    private List<SyncCallback> drainWaiting() {
+        List<SyncCallback> callbacks = new ArrayList<>(waiting);
+        waiting.clear();
+        syncing = false;
+        return callbacks;
+    }
+}
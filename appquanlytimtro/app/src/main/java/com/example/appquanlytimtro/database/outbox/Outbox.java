@@ -0,0 +1,501 @@
+//class: hàng đợi thao tác ghi bền vững (outbox)
+// Mục đích file: File này dùng để ghi nhận thao tác của người dùng ngay trên máy (cập nhật dữ liệu local trước, không chờ server), gộp các thao tác thừa rồi gửi theo lô qua POST /api/batch (backend chưa có batch thì gửi lần lượt từng request); lỗi mạng hoặc lỗi tạm thời thì gửi lại với thời gian chờ tăng dần
+// function:
+// - getInstance(): Lấy instance dùng chung
+// - start(): Theo dõi kết nối mạng và gửi các thao tác còn lại từ lần chạy trước
+// - updateBookingStatus(): Đổi trạng thái booking
+// - confirmPayment(): Xác nhận thanh toán
+// - setRoomLiked(): Thích/bỏ thích phòng (lưu trạng thái đích, gửi lại không làm đảo trạng thái)
+// - markNotificationRead(): Đánh dấu thông báo đã đọc (các lần đánh dấu được gộp vào một request)
+// - markAllNotificationsRead(): Đánh dấu tất cả thông báo đã đọc
+// - deleteRoom(): Xóa phòng
+// - onLogout(): Bỏ các thao tác chưa gửi của tài khoản đang đăng xuất (chỉ gọi khi người dùng chủ động đăng xuất)
+// - addListener()/removeListener(): Nhận thông báo khi server từ chối một thao tác (main thread)
+// - flush(): Gửi một lô thao tác đang chờ
+// - sendEach(): Gửi lần lượt từng request con khi backend không hỗ trợ batch
+// - group(): Gom thao tác thành request con (mọi lần đọc thông báo thành một request)
+// - handleResults(): Xóa thao tác đã xong/bị từ chối, giữ lại thao tác cần thử lại
+// - Listener: Nhận thao tác bị từ chối cùng thông báo lỗi của server (null nếu bỏ sau nhiều lần lỗi tạm thời); màn hình tự hiển thị thông báo
+package com.example.appquanlytimtro.database.outbox;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.appquanlytimtro.cache.CacheManager;
+import com.example.appquanlytimtro.database.AppDatabase;
+import com.example.appquanlytimtro.database.booking.BookingStore;
+import com.example.appquanlytimtro.database.notification.NotificationInbox;
+import com.example.appquanlytimtro.database.payment.PaymentLedger;
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.network.ApiService;
+import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.batch.ApiBatch;
+import com.example.appquanlytimtro.network.batch.BatchRequest;
+import com.example.appquanlytimtro.network.batch.BatchResponse;
+import com.example.appquanlytimtro.utils.AppExecutors;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public final class Outbox {
+
+    // Chờ một chút trước khi gửi để gộp các thao tác liên tiếp (vd: bấm thích hai lần)
+    public static final long FLUSH_DELAY_MS = 500;
+    // Khớp với MAX_READ_IDS của backend/routes/notifications.js
+    public static final int MAX_READ_IDS = 100;
+    // Lỗi tạm thời quá số lần này thì bỏ thao tác và báo người dùng
+    public static final int MAX_ATTEMPTS = 5;
+
+    private static final long BASE_RETRY_MS = 2000;
+    private static final long MAX_RETRY_MS = 5 * 60 * 1000;
+    private static final int PENDING_SCAN_LIMIT = 200;
+
+    public interface Listener {
+        void onRejected(OutboxEntity operation, String message);
+    }
+
+    private static volatile Outbox instance;
+
+    private final Context appContext;
+    private final AppDatabase database;
+    private final OutboxDao dao;
+    private final RetrofitClient retrofitClient;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushTask = this::flush;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Thao tác đã gửi nhưng chưa có kết quả, không được gộp với thao tác mới
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Backend cũ chưa có /api/batch: gửi lần lượt từng request cho tới khi mở lại ứng dụng
+    private volatile boolean batchSupported = true;
+
+    // Chỉ dùng trên main thread
+    private boolean started;
+    private boolean flushing;
+    private int failures;
+
+    private Outbox(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.database = AppDatabase.getInstance(appContext);
+        this.dao = database.outboxDao();
+        this.retrofitClient = RetrofitClient.getInstance(appContext);
+    }
+
+    public static Outbox getInstance(Context context) {
+        if (instance == null) {
+            synchronized (Outbox.class) {
+                if (instance == null) {
+                    instance = new Outbox(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        ConnectivityManager connectivity = (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivity != null) {
+            connectivity.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(Network network) {
+                    // Có mạng lại: gửi ngay, không chờ hết thời gian backoff
+                    AppExecutors.postToMain(() -> {
+                        failures = 0;
+                        schedule(0);
+                    });
+                }
+            });
+        }
+        schedule(0);
+    }
+
+    public void updateBookingStatus(String bookingId, String status) {
+        BookingStore.getInstance(appContext).applyLocalStatus(bookingId, status);
+        enqueue(OutboxEntity.TYPE_BOOKING_STATUS, bookingId, status);
+    }
+
+    public void confirmPayment(String paymentId) {
+        PaymentLedger.getInstance(appContext).applyLocalStatus(paymentId, "completed");
+        enqueue(OutboxEntity.TYPE_CONFIRM_PAYMENT, paymentId, null);
+    }
+
+    public void setRoomLiked(String roomId, boolean liked) {
+        enqueue(OutboxEntity.TYPE_ROOM_LIKE, roomId, String.valueOf(liked));
+    }
+
+    public void markNotificationRead(String notificationId) {
+        String userId = currentUserId();
+        if (userId != null) {
+            NotificationInbox.getInstance(appContext).applyLocalRead(userId, notificationId);
+        }
+        enqueue(OutboxEntity.TYPE_NOTIFICATION_READ, notificationId, null);
+    }
+
+    public void markAllNotificationsRead() {
+        String userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        NotificationInbox.getInstance(appContext).applyLocalReadAll(userId);
+        enqueue(OutboxEntity.TYPE_NOTIFICATION_READ_ALL, userId, null);
+    }
+
+    public void deleteRoom(String roomId) {
+        AppExecutors.diskIO().execute(() -> database.roomCatalogDao().removeRoom(roomId));
+        CacheManager.getInstance().rooms().unpin(roomId);
+        CacheManager.getInstance().rooms().remove(roomId);
+        enqueue(OutboxEntity.TYPE_DELETE_ROOM, roomId, null);
+    }
+
+    // Gọi trước khi xóa phiên; hết hạn token hay đổi tài khoản không qua đây nên hàng đợi của tài khoản khác vẫn được giữ
+    public void onLogout() {
+        String userId = currentUserId();
+        handler.removeCallbacks(flushTask);
+        failures = 0;
+        if (userId != null) {
+            AppExecutors.diskIO().execute(() -> dao.deleteForUser(userId));
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void enqueue(String type, String targetId, String value) {
+        String userId = currentUserId();
+        if (userId == null || targetId == null) {
+            return;
+        }
+        OutboxEntity operation = new OutboxEntity(userId, type, targetId, value);
+        AppExecutors.diskIO().execute(() -> {
+            if (dao.enqueue(operation, new ArrayList<>(inFlight))) {
+                AppExecutors.postToMain(() -> {
+                    // Đang chờ backoff thì để lần gửi lại mang theo thao tác mới
+                    if (failures == 0) {
+                        schedule(FLUSH_DELAY_MS);
+                    }
+                });
+            }
+        });
+    }
+
+    private void schedule(long delayMs) {
+        handler.removeCallbacks(flushTask);
+        handler.postDelayed(flushTask, delayMs);
+    }
+
+    private void flush() {
+        String userId = currentUserId();
+        if (flushing || userId == null) {
+            return;
+        }
+        flushing = true;
+        String token = "Bearer " + retrofitClient.getToken();
+        ApiService apiService = retrofitClient.getApiService();
+        AppExecutors.diskIO().execute(() -> {
+            List<Group> groups = group(dao.getPending(userId, PENDING_SCAN_LIMIT), apiService, token);
+            if (groups.isEmpty()) {
+                AppExecutors.postToMain(() -> {
+                    flushing = false;
+                    failures = 0;
+                });
+                return;
+            }
+            for (Group group : groups) {
+                for (OutboxEntity operation : group.operations) {
+                    inFlight.add(operation.id);
+                }
+            }
+            if (!batchSupported) {
+                sendEachInBackground(groups);
+                return;
+            }
+            BatchRequest body = new BatchRequest();
+            for (int i = 0; i < groups.size(); i++) {
+                Request request = groups.get(i).call.request();
+                body.add(String.valueOf(i), request.method(), ApiBatch.relativeUrl(request.url()),
+                        toJson(request.body()));
+            }
+            apiService.batch(body).enqueue(new Callback<ApiResponse<BatchResponse>>() {
+                @Override
+                public void onResponse(Call<ApiResponse<BatchResponse>> call, Response<ApiResponse<BatchResponse>> response) {
+                    ApiResponse<BatchResponse> apiResponse = response.body();
+                    Map<String, BatchResponse.Result> results = new HashMap<>();
+                    if (response.isSuccessful() && apiResponse != null && apiResponse.getData() != null) {
+                        for (BatchResponse.Result result : apiResponse.getData().getResponses()) {
+                            results.put(result.getId(), result);
+                        }
+                    } else if (response.code() == 401) {
+                        // Phiên đăng nhập hết hạn: giữ nguyên hàng đợi, không tính vào số lần thử
+                        finish(true);
+                        return;
+                    } else if (response.code() == 404 || response.code() == 405) {
+                        batchSupported = false;
+                        sendEachInBackground(groups);
+                        return;
+                    }
+                    AppExecutors.diskIO().execute(() -> handleResults(groups, results, false));
+                }
+
+                @Override
+                public void onFailure(Call<ApiResponse<BatchResponse>> call, Throwable t) {
+                    // Lỗi mạng không tính vào số lần thử, chờ backoff hoặc có mạng lại
+                    finish(true);
+                }
+            });
+        });
+    }
+
+    // Giữ thứ tự tạo; mọi lần đọc thông báo gộp vào request đọc đầu tiên
+    private static List<Group> group(List<OutboxEntity> pending, ApiService apiService, String token) {
+        List<Group> groups = new ArrayList<>();
+        List<OutboxEntity> reads = null;
+        for (OutboxEntity operation : pending) {
+            if (OutboxEntity.TYPE_NOTIFICATION_READ.equals(operation.type)) {
+                if (reads == null) {
+                    if (groups.size() >= ApiBatch.MAX_REQUESTS) {
+                        continue;
+                    }
+                    reads = new ArrayList<>();
+                    groups.add(new Group(reads, null));
+                }
+                if (reads.size() < MAX_READ_IDS) {
+                    reads.add(operation);
+                }
+                continue;
+            }
+            if (groups.size() >= ApiBatch.MAX_REQUESTS) {
+                continue;
+            }
+            groups.add(new Group(Collections.singletonList(operation), callFor(operation, apiService, token)));
+        }
+        for (int i = 0; i < groups.size(); i++) {
+            if (groups.get(i).call == null) {
+                List<String> ids = new ArrayList<>();
+                for (OutboxEntity operation : groups.get(i).operations) {
+                    ids.add(operation.targetId);
+                }
+                groups.set(i, new Group(groups.get(i).operations,
+                        apiService.markNotificationsAsRead(token, Collections.singletonMap("ids", ids))));
+            }
+        }
+        return groups;
+    }
+
+    private void sendEachInBackground(List<Group> groups) {
+        try {
+            AppExecutors.background().execute(() -> sendEach(groups));
+        } catch (RejectedExecutionException e) {
+            // Pool nền đang đầy: để lần thử sau
+            AppExecutors.postToMain(() -> finish(true));
+        }
+    }
+
+    // Chạy trên thread nền; gửi tuần tự để giữ thứ tự như khi chạy trong batch
+    private void sendEach(List<Group> groups) {
+        Map<String, BatchResponse.Result> results = new HashMap<>();
+        List<Group> sent = new ArrayList<>();
+        boolean networkError = false;
+        for (int i = 0; i < groups.size(); i++) {
+            Response<?> response;
+            try {
+                response = groups.get(i).call.clone().execute();
+            } catch (IOException e) {
+                // Mất mạng giữa chừng: các thao tác chưa gửi giữ nguyên, không tính vào số lần thử
+                networkError = true;
+                break;
+            }
+            String id = String.valueOf(i);
+            results.put(id, new BatchResponse.Result(id, response.code(), errorJson(response.errorBody())));
+            sent.add(groups.get(i));
+        }
+        List<Group> handled = sent;
+        boolean retryLater = networkError;
+        AppExecutors.diskIO().execute(() -> handleResults(handled, results, retryLater));
+    }
+
+    // Chỉ dùng để lấy method/url/body của request; request thật được gửi trong batch hoặc qua sendEach()
+    private static Call<?> callFor(OutboxEntity operation, ApiService apiService, String token) {
+        switch (operation.type) {
+            case OutboxEntity.TYPE_BOOKING_STATUS:
+                return apiService.updateBookingStatus(token, operation.targetId,
+                        Collections.singletonMap("status", operation.value));
+            case OutboxEntity.TYPE_CONFIRM_PAYMENT:
+                return apiService.confirmPayment(token, operation.targetId);
+            case OutboxEntity.TYPE_ROOM_LIKE:
+                // Outbox có thể gửi lại một thao tác server đã nhận nên không dùng route đảo trạng thái
+                return apiService.setRoomLike(token, operation.targetId,
+                        Collections.singletonMap("liked", Boolean.parseBoolean(operation.value)));
+            case OutboxEntity.TYPE_DELETE_ROOM:
+                return apiService.deleteRoom(token, operation.targetId);
+            case OutboxEntity.TYPE_NOTIFICATION_READ_ALL:
+                return apiService.markAllNotificationsAsRead(token);
+            default:
+                throw new IllegalArgumentException("Unknown outbox operation: " + operation.type);
+        }
+    }
+
+    // Chạy trên thread nền; chỉ số của results ứng với vị trí trong groups
+    private void handleResults(List<Group> groups, Map<String, BatchResponse.Result> results, boolean networkError) {
+        List<Long> done = new ArrayList<>();
+        List<Long> retry = new ArrayList<>();
+        boolean unauthorized = false;
+        List<OutboxEntity> rejected = new ArrayList<>();
+        Map<OutboxEntity, String> messages = new HashMap<>();
+        for (int i = 0; i < groups.size(); i++) {
+            BatchResponse.Result result = results.get(String.valueOf(i));
+            int status = result != null ? result.getStatus() : 0;
+            for (OutboxEntity operation : groups.get(i).operations) {
+                if ((status >= 200 && status < 300)
+                        || (status == 404 && OutboxEntity.TYPE_DELETE_ROOM.equals(operation.type))) {
+                    done.add(operation.id);
+                } else if (status == 401) {
+                    unauthorized = true;
+                } else if (status == 0 || status == 408 || status == 429 || status >= 500) {
+                    if (operation.attempts + 1 >= MAX_ATTEMPTS) {
+                        rejected.add(operation);
+                        messages.put(operation, null);
+                    } else {
+                        retry.add(operation.id);
+                    }
+                } else {
+                    rejected.add(operation);
+                    messages.put(operation, messageOf(result));
+                }
+            }
+        }
+        List<Long> removed = new ArrayList<>(done);
+        for (OutboxEntity operation : rejected) {
+            removed.add(operation.id);
+            invalidate(operation);
+        }
+        if (!removed.isEmpty()) {
+            dao.deleteByIds(removed);
+        }
+        if (!retry.isEmpty()) {
+            dao.incrementAttempts(retry);
+        }
+        boolean retryLater = networkError || unauthorized || !retry.isEmpty();
+        AppExecutors.postToMain(() -> {
+            for (OutboxEntity operation : rejected) {
+                notifyRejected(operation, messages.get(operation));
+            }
+            finish(retryLater);
+        });
+    }
+
+    // Main thread
+    private void finish(boolean retryLater) {
+        inFlight.clear();
+        flushing = false;
+        if (retryLater) {
+            failures++;
+            schedule(Math.min(BASE_RETRY_MS << Math.min(failures - 1, 16), MAX_RETRY_MS));
+        } else {
+            failures = 0;
+            // Kiểm tra còn thao tác chờ (lô vừa gửi có thể chưa hết hàng đợi)
+            schedule(0);
+        }
+    }
+
+    // Server không nhận thay đổi: bỏ watermark để lần đồng bộ sau lấy lại dữ liệu thật
+    private void invalidate(OutboxEntity operation) {
+        if (OutboxEntity.TYPE_BOOKING_STATUS.equals(operation.type)) {
+            BookingStore.getInstance(appContext).invalidate();
+        } else if (OutboxEntity.TYPE_CONFIRM_PAYMENT.equals(operation.type)) {
+            PaymentLedger.getInstance(appContext).invalidate();
+        } else if (OutboxEntity.TYPE_NOTIFICATION_READ.equals(operation.type)
+                || OutboxEntity.TYPE_NOTIFICATION_READ_ALL.equals(operation.type)) {
+            NotificationInbox.getInstance(appContext).invalidate();
+        }
+    }
+
+    private void notifyRejected(OutboxEntity operation, String message) {
+        for (Listener listener : listeners) {
+            listener.onRejected(operation, message);
+        }
+    }
+
+    private static String messageOf(BatchResponse.Result result) {
+        JsonElement body = result != null ? result.getBody() : null;
+        if (body != null && body.isJsonObject()) {
+            JsonObject object = body.getAsJsonObject();
+            if (object.has("message") && object.get("message").isJsonPrimitive()) {
+                return object.get("message").getAsString();
+            }
+        }
+        return null;
+    }
+
+    private static JsonElement errorJson(ResponseBody body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return JsonParser.parseString(body.string());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        } finally {
+            body.close();
+        }
+    }
+
+    private static JsonElement toJson(RequestBody body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            Buffer buffer = new Buffer();
+            body.writeTo(buffer);
+            return JsonParser.parseString(buffer.readUtf8());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private String currentUserId() {
+        User user = retrofitClient.isLoggedIn() ? retrofitClient.getCurrentUser() : null;
+        return user != null ? user.getId() : null;
+    }
+
+    private static final class Group {
+        final List<OutboxEntity> operations;
+        final Call<?> call;
+
+        Group(List<OutboxEntity> operations, Call<?> call) {
+            this.operations = operations;
+            this.call = call;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+//dao: truy vấn hàng đợi thao tác ghi (outbox)
+// Mục đích file: File này dùng để thêm thao tác vào hàng đợi và gộp các thao tác thừa trong một transaction, lấy thao tác cần gửi theo thứ tự và xóa/đánh dấu sau khi gửi
+// function:
+// - enqueue(): Thêm thao tác, gộp với thao tác đang chờ cùng đối tượng (trả về false nếu hàng đợi không đổi)
+// - getPending(): Lấy các thao tác đang chờ của một người dùng theo thứ tự tạo
+// - deleteByIds(): Xóa các thao tác đã gửi xong hoặc bị từ chối
+// - incrementAttempts(): Tăng số lần thử của các thao tác gặp lỗi tạm thời
+// - deleteForUser(): Xóa mọi thao tác chưa gửi của một tài khoản (khi đăng xuất)
+// - countPending(): Đếm thao tác đang chờ của một loại (vd: số lần đọc thông báo chưa gửi)
+package com.example.appquanlytimtro.database.outbox;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class OutboxDao {
+
+    @Query("SELECT * FROM outbox WHERE userId = :userId ORDER BY id LIMIT :limit")
+    public abstract List<OutboxEntity> getPending(String userId, int limit);
+
+    @Query("DELETE FROM outbox WHERE id IN (:ids)")
+    public abstract void deleteByIds(List<Long> ids);
+
+    @Query("UPDATE outbox SET attempts = attempts + 1 WHERE id IN (:ids)")
+    public abstract void incrementAttempts(List<Long> ids);
+
+    @Query("DELETE FROM outbox WHERE userId = :userId")
+    public abstract void deleteForUser(String userId);
+
+    @Query("SELECT COUNT(*) FROM outbox WHERE userId = :userId AND type = :type")
+    public abstract int countPending(String userId, String type);
+
+    // Thao tác đang gửi dở (excludedIds) không được gộp vì server có thể đã nhận
+    @Query("SELECT * FROM outbox WHERE userId = :userId AND type = :type AND targetId = :targetId"
+            + " AND id NOT IN (:excludedIds) ORDER BY id")
+    abstract List<OutboxEntity> findPending(String userId, String type, String targetId, List<Long> excludedIds);
+
+    @Query("SELECT * FROM outbox WHERE userId = :userId AND type = :type AND id NOT IN (:excludedIds) ORDER BY id")
+    abstract List<OutboxEntity> findPendingOfType(String userId, String type, List<Long> excludedIds);
+
+    @Insert
+    abstract long insert(OutboxEntity operation);
+
+    @Query("DELETE FROM outbox WHERE id = :id")
+    abstract void deleteById(long id);
+
+    @Query("UPDATE outbox SET value = :value WHERE id = :id")
+    abstract void updateValue(long id, String value);
+
+    @Transaction
+    public boolean enqueue(OutboxEntity operation, List<Long> inFlightIds) {
+        List<OutboxEntity> pending = findPending(operation.userId, operation.type, operation.targetId, inFlightIds);
+        switch (operation.type) {
+            case OutboxEntity.TYPE_ROOM_LIKE: {
+                // Trạng thái thích mới nhất thay cho trạng thái đang chờ
+                OutboxEntity last = pending.isEmpty() ? null : pending.get(pending.size() - 1);
+                if (last != null) {
+                    if (operation.value != null && operation.value.equals(last.value)) {
+                        return false;
+                    }
+                    updateValue(last.id, operation.value);
+                    return true;
+                }
+                break;
+            }
+            case OutboxEntity.TYPE_BOOKING_STATUS: {
+                // Chỉ bỏ lần đổi trùng trạng thái với lần gần nhất; các bước chuyển khác phải giữ đủ để server kiểm tra
+                OutboxEntity last = pending.isEmpty() ? null : pending.get(pending.size() - 1);
+                if (last != null && operation.value != null && operation.value.equals(last.value)) {
+                    return false;
+                }
+                break;
+            }
+            case OutboxEntity.TYPE_DELETE_ROOM:
+                if (!pending.isEmpty()) {
+                    return false;
+                }
+                // Phòng sắp bị xóa thì không cần gửi thao tác thích
+                for (OutboxEntity like : findPending(operation.userId, OutboxEntity.TYPE_ROOM_LIKE,
+                        operation.targetId, inFlightIds)) {
+                    deleteById(like.id);
+                }
+                break;
+            case OutboxEntity.TYPE_NOTIFICATION_READ_ALL: {
+                // Các lần đọc từng thông báo đang chờ đã nằm trong lần đọc tất cả
+                List<OutboxEntity> reads = findPendingOfType(operation.userId,
+                        OutboxEntity.TYPE_NOTIFICATION_READ, inFlightIds);
+                for (OutboxEntity read : reads) {
+                    deleteById(read.id);
+                }
+                if (!pending.isEmpty()) {
+                    return !reads.isEmpty();
+                }
+                break;
+            }
+            default:
+                // Đọc thông báo, xác nhận thanh toán: lặp lại không có tác dụng
+                if (!pending.isEmpty()) {
+                    return false;
+                }
+                break;
+        }
+        operation.id = insert(operation);
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+//entity: một thao tác ghi đang chờ gửi lên server
+// Mục đích file: File này dùng để lưu các thao tác (đổi trạng thái booking, xác nhận thanh toán, thích phòng, đọc một/tất cả thông báo, xóa phòng) trên máy để không mất khi mất mạng hoặc tắt ứng dụng
+// function:
+// - OutboxEntity(): Constructor mặc định (Room dùng)
+// - OutboxEntity(userId, type, targetId, value): Tạo thao tác mới
+package com.example.appquanlytimtro.database.outbox;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "outbox",
+        indices = {@Index(value = {"userId", "type", "targetId"})})
+public class OutboxEntity {
+    public static final String TYPE_BOOKING_STATUS = "booking_status";
+    public static final String TYPE_CONFIRM_PAYMENT = "confirm_payment";
+    public static final String TYPE_ROOM_LIKE = "room_like";
+    public static final String TYPE_NOTIFICATION_READ = "notification_read";
+    // targetId là ID người dùng
+    public static final String TYPE_NOTIFICATION_READ_ALL = "notification_read_all";
+    public static final String TYPE_DELETE_ROOM = "delete_room";
+
+    // Tăng dần nên cũng là thứ tự gửi
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+
+    // Người tạo thao tác; đăng nhập tài khoản khác thì thao tác cũ không được gửi
+    @NonNull
+    public String userId = "";
+
+    @NonNull
+    public String type = "";
+
+    // ID booking/thanh toán/phòng/thông báo
+    @NonNull
+    public String targetId = "";
+
+    // Giá trị kèm theo (vd: trạng thái booking mới), null nếu không cần
+    public String value;
+
+    public long createdAt;
+
+    // Số lần server trả lỗi tạm thời (5xx, 429...)
+    public int attempts;
+
+    public OutboxEntity() {}
+
+    @Ignore
+    public OutboxEntity(@NonNull String userId, @NonNull String type, @NonNull String targetId, String value) {
+        this.userId = userId;
+        this.type = type;
+        this.targetId = targetId;
+        this.value = value;
+        this.createdAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,105 @@
+//entity: một dòng trong sổ thanh toán local (thanh toán hoặc booking chưa thanh toán)
+// Mục đích file: File này dùng để lưu thanh toán và booking chưa thanh toán theo ID với các cột dùng cho lọc và cộng dồn tổng (loại, trạng thái, trạng thái booking, chủ trọ, tháng, số tiền); toàn bộ bản ghi được giữ ở cột payload (JSON) để hiển thị
+// function:
+// - LedgerEntryEntity(): Constructor mặc định (Room dùng)
+// - fromPayment(): Tạo dòng từ Payment
+// - fromBooking(): Tạo dòng từ booking chưa thanh toán (số tiền là tiền cọc)
+// - toPayment(): Đọc lại Payment từ payload
+// - toBooking(): Đọc lại Booking từ payload
+package com.example.appquanlytimtro.database.payment;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.Payment;
+import com.google.gson.Gson;
+
+@Entity(tableName = "ledger_entries",
+        primaryKeys = {"kind", "id"},
+        indices = {
+                @Index(value = {"kind", "createdAt"}),
+                @Index(value = {"landlordId", "kind", "createdAt"})
+        })
+public class LedgerEntryEntity {
+    public static final String KIND_PAYMENT = "payment";
+    public static final String KIND_BOOKING = "booking";
+
+    @NonNull
+    public String kind = KIND_PAYMENT;
+
+    @NonNull
+    public String id = "";
+
+    // Các cột dưới đây là khóa của ledger_totals nên dùng "" thay cho null
+    @NonNull
+    public String status = "";
+
+    @NonNull
+    public String bookingStatus = "";
+
+    @NonNull
+    public String landlordId = "";
+
+    // yyyy-MM theo createdAt (UTC)
+    @NonNull
+    public String month = "";
+
+    public double amount;
+
+    public String createdAt;
+
+    public String updatedAt;
+
+    public String payload;
+
+    public LedgerEntryEntity() {}
+
+    public static LedgerEntryEntity fromPayment(Payment payment, Gson gson) {
+        LedgerEntryEntity entry = new LedgerEntryEntity();
+        entry.kind = KIND_PAYMENT;
+        entry.id = payment.getId();
+        entry.status = orEmpty(payment.getStatus());
+        entry.bookingStatus = payment.getBooking() != null ? orEmpty(payment.getBooking().getStatus()) : "";
+        entry.landlordId = payment.getRecipient() != null ? orEmpty(payment.getRecipient().getId()) : "";
+        entry.month = monthOf(payment.getCreatedAt());
+        entry.amount = payment.getAmount();
+        entry.createdAt = payment.getCreatedAt();
+        entry.updatedAt = payment.getUpdatedAt();
+        entry.payload = gson.toJson(payment);
+        return entry;
+    }
+
+    public static LedgerEntryEntity fromBooking(Booking booking, Gson gson) {
+        LedgerEntryEntity entry = new LedgerEntryEntity();
+        entry.kind = KIND_BOOKING;
+        entry.id = booking.getId();
+        // Giống PaymentItem(Booking): booking chưa thanh toán luôn tính là pending
+        entry.status = "pending";
+        entry.bookingStatus = orEmpty(booking.getStatus());
+        entry.landlordId = booking.getLandlord() != null ? orEmpty(booking.getLandlord().getId()) : "";
+        entry.month = monthOf(booking.getCreatedAt());
+        entry.amount = booking.getPricing() != null ? booking.getPricing().getDeposit() : 0;
+        entry.createdAt = booking.getCreatedAt();
+        entry.updatedAt = booking.getUpdatedAt();
+        entry.payload = gson.toJson(booking);
+        return entry;
+    }
+
+    public Payment toPayment(Gson gson) {
+        return gson.fromJson(payload, Payment.class);
+    }
+
+    public Booking toBooking(Gson gson) {
+        return gson.fromJson(payload, Booking.class);
+    }
+
+    private static String monthOf(String createdAt) {
+        return createdAt != null && createdAt.length() >= 7 ? createdAt.substring(0, 7) : "";
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,9 @@
+//class: số tiền đã thanh toán và đang chờ của thẻ tổng kết
+// Mục đích file: File này dùng để nhận kết quả cộng các dòng ledger_totals (không quét bảng thanh toán)
+package com.example.appquanlytimtro.database.payment;
+
+public class LedgerSummary {
+    public double paid;
+
+    public double pending;
+}
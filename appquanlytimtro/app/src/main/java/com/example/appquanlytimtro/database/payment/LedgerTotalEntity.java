@@ -0,0 +1,48 @@
+//entity: tổng cộng dồn của sổ thanh toán
+// Mục đích file: File này dùng để lưu tổng tiền và số dòng theo (loại, trạng thái, trạng thái booking, chủ trọ, tháng); được cộng/trừ mỗi khi một dòng của ledger_entries thay đổi nên thẻ tổng kết không phải quét lại toàn bộ thanh toán
+// function:
+// - LedgerTotalEntity(): Constructor mặc định (Room dùng)
+// - LedgerTotalEntity(entry): Tạo tổng mới chỉ gồm một dòng
+package com.example.appquanlytimtro.database.payment;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+
+@Entity(tableName = "ledger_totals",
+        primaryKeys = {"kind", "status", "bookingStatus", "landlordId", "month"},
+        indices = {@Index(value = {"landlordId", "month"})})
+public class LedgerTotalEntity {
+    @NonNull
+    public String kind = "";
+
+    @NonNull
+    public String status = "";
+
+    @NonNull
+    public String bookingStatus = "";
+
+    @NonNull
+    public String landlordId = "";
+
+    @NonNull
+    public String month = "";
+
+    public double amount;
+
+    public int count;
+
+    public LedgerTotalEntity() {}
+
+    @Ignore
+    public LedgerTotalEntity(LedgerEntryEntity entry) {
+        this.kind = entry.kind;
+        this.status = entry.status;
+        this.bookingStatus = entry.bookingStatus;
+        this.landlordId = entry.landlordId;
+        this.month = entry.month;
+        this.amount = entry.amount;
+        this.count = 1;
+    }
+}
@@ -0,0 +1,344 @@
+//class: sổ thanh toán local đồng bộ với API
+// Mục đích file: File này dùng để các màn hình quản lý thanh toán đọc danh sách và thẻ tổng kết từ bảng local; tổng được cộng dồn theo từng thay đổi nên luôn đúng cho toàn bộ thanh toán chứ không chỉ trang đầu
+// function:
+// - getInstance(): Lấy instance dùng chung
+// - observeItems(): Theo dõi danh sách PaymentItem (thanh toán và booking chưa thanh toán) của admin
+// - observePayments(): Theo dõi thanh toán của chủ trọ (chỉ booking đã xác nhận/đang thuê/đã cọc hoặc không có booking)
+// - observeSummary(): Theo dõi tổng đã thanh toán và đang chờ
+// - sync(): Đồng bộ với API (lần đầu tải lần lượt mọi trang, sau đó chỉ tải phần thay đổi)
+// - applyLocalStatus(): Đổi trạng thái thanh toán trong sổ local trước khi server xác nhận (Outbox), tổng được điều chỉnh theo
+// - invalidate(): Bỏ watermark để lần đồng bộ sau tải lại toàn bộ (khi server từ chối thay đổi local)
+// - Scope: Danh sách đồng bộ (admin: toàn hệ thống, chủ trọ: thanh toán nhận được)
+// - SyncSource: Tạo request API cho từng trang và cho lần tải thay đổi
+// - SyncCallback: Nhận kết quả đồng bộ (main thread)
+package com.example.appquanlytimtro.database.payment;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.example.appquanlytimtro.cache.CacheManager;
+import com.example.appquanlytimtro.cache.EntityCache;
+import com.example.appquanlytimtro.database.AppDatabase;
+import com.example.appquanlytimtro.database.SyncStateDao;
+import com.example.appquanlytimtro.database.SyncStateEntity;
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.Payment;
+import com.example.appquanlytimtro.models.PaymentDelta;
+import com.example.appquanlytimtro.models.PaymentItem;
+import com.example.appquanlytimtro.models.PaymentPage;
+import com.example.appquanlytimtro.network.json.GsonProvider;
+import com.example.appquanlytimtro.utils.AppExecutors;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public final class PaymentLedger {
+
+    // Lần tải đầy đủ đi qua từng trang cỡ này; giới hạn số trang để không tải vô hạn khi phân trang lỗi
+    public static final int FULL_LOAD_PAGE_SIZE = 100;
+    public static final int FULL_LOAD_MAX_PAGES = 50;
+
+    private static final String STATE_PREFIX = "payments:";
+
+    public static final class Scope {
+        final String key;
+        final String landlordId;
+        // Trạng thái thanh toán tính vào "đang chờ" (giữ nguyên cách tính cũ của từng màn hình)
+        final List<String> pendingStatuses;
+        // Trạng thái booking được hiển thị cho chủ trọ, "" là thanh toán không có booking
+        final List<String> bookingStatuses;
+
+        private Scope(String key, String landlordId, List<String> pendingStatuses, List<String> bookingStatuses) {
+            this.key = key;
+            this.landlordId = landlordId;
+            this.pendingStatuses = pendingStatuses;
+            this.bookingStatuses = bookingStatuses;
+        }
+
+        public static Scope admin() {
+            return new Scope(STATE_PREFIX + "admin", null,
+                    Collections.singletonList("pending"), null);
+        }
+
+        public static Scope landlord(String landlordId) {
+            return new Scope(STATE_PREFIX + "landlord:" + landlordId, landlordId,
+                    Arrays.asList("pending", "processing"),
+                    Arrays.asList("", "confirmed", "active", "deposit_paid"));
+        }
+    }
+
+    public interface SyncSource {
+        Call<ApiResponse<PaymentPage>> loadPage(Map<String, String> params);
+
+        Call<ApiResponse<PaymentDelta>> loadChanges(String updatedSince);
+    }
+
+    public interface SyncCallback {
+        void onSynced();
+
+        void onError(String message);
+    }
+
+    private static volatile PaymentLedger instance;
+
+    private final PaymentLedgerDao dao;
+    private final SyncStateDao syncState;
+    private final Gson gson = GsonProvider.storage();
+    // Bản ghi đã đọc từ payload (theo kind:id), tránh parse lại JSON mỗi lần bảng thay đổi; giới hạn theo byte và TTL
+    private final EntityCache<Object> decoded = CacheManager.getInstance().payments();
+
+    private PaymentLedger(AppDatabase database) {
+        this.dao = database.paymentLedgerDao();
+        this.syncState = database.syncStateDao();
+    }
+
+    public static PaymentLedger getInstance(Context context) {
+        if (instance == null) {
+            synchronized (PaymentLedger.class) {
+                if (instance == null) {
+                    instance = new PaymentLedger(AppDatabase.getInstance(context));
+                }
+            }
+        }
+        return instance;
+    }
+
+    public LiveData<List<PaymentItem>> observeItems() {
+        return decode(dao.observeAll(), entry -> LedgerEntryEntity.KIND_BOOKING.equals(entry.kind)
+                ? new PaymentItem((Booking) model(entry))
+                : new PaymentItem((Payment) model(entry)));
+    }
+
+    public LiveData<List<Payment>> observePayments(Scope scope) {
+        return decode(dao.observeLandlordPayments(scope.landlordId, scope.bookingStatuses),
+                entry -> (Payment) model(entry));
+    }
+
+    public LiveData<LedgerSummary> observeSummary(Scope scope) {
+        return scope.landlordId == null
+                ? dao.observeSummary(scope.pendingStatuses)
+                : dao.observeLandlordSummary(scope.landlordId, scope.pendingStatuses, scope.bookingStatuses);
+    }
+
+    public void sync(Scope scope, SyncSource source, SyncCallback callback) {
+        AppExecutors.diskIO().execute(() -> {
+            String since = syncState.getWatermark(scope.key);
+            AppExecutors.postToMain(() -> {
+                if (since == null) {
+                    loadAll(scope, source, callback);
+                } else {
+                    loadChanges(scope, source, since, callback);
+                }
+            });
+        });
+    }
+
+    public void applyLocalStatus(String paymentId, String status) {
+        AppExecutors.diskIO().execute(() -> {
+            LedgerEntryEntity entry = dao.find(LedgerEntryEntity.KIND_PAYMENT, paymentId);
+            if (entry == null) {
+                return;
+            }
+            // updatedAt giữ nguyên để lần đồng bộ sau ghi đè bằng bản của server
+            Payment payment = entry.toPayment(gson);
+            payment.setStatus(status);
+            LedgerEntryEntity updated = LedgerEntryEntity.fromPayment(payment, gson);
+            dao.applyChanges(Collections.singletonList(updated), Collections.<String>emptyList(),
+                    Collections.<String>emptyList());
+            remember(updated, payment);
+        });
+    }
+
+    public void invalidate() {
+        AppExecutors.diskIO().execute(() -> syncState.deleteByPrefix(STATE_PREFIX));
+    }
+
+    private void loadAll(Scope scope, SyncSource source, SyncCallback callback) {
+        loadPage(scope, source, 1, new ArrayList<>(), new ArrayList<>(), callback);
+    }
+
+    // Tải lần lượt từng trang (cũ trước để bản ghi mới tạo trong lúc tải rơi vào trang sau), ghi một lần khi xong
+    private void loadPage(Scope scope, SyncSource source, int page, List<Payment> payments,
+                          List<Booking> unpaidBookings, SyncCallback callback) {
+        Map<String, String> params = new HashMap<>();
+        params.put("limit", String.valueOf(FULL_LOAD_PAGE_SIZE));
+        params.put("page", String.valueOf(page));
+        params.put("sortBy", "createdAt");
+        params.put("sortOrder", "asc");
+        source.loadPage(params).enqueue(new Callback<ApiResponse<PaymentPage>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<PaymentPage>> call, Response<ApiResponse<PaymentPage>> response) {
+                ApiResponse<PaymentPage> apiResponse = response.body();
+                if (!response.isSuccessful() || apiResponse == null || !apiResponse.isSuccess()) {
+                    callback.onError(apiResponse != null ? apiResponse.getMessage() : null);
+                    return;
+                }
+                PaymentPage data = apiResponse.getData();
+                if (data != null) {
+                    payments.addAll(data.getItems());
+                    unpaidBookings.addAll(data.getUnpaidBookings());
+                }
+                if (data != null && data.hasNext() && page < FULL_LOAD_MAX_PAGES) {
+                    loadPage(scope, source, page + 1, payments, unpaidBookings, callback);
+                    return;
+                }
+                AppExecutors.diskIO().execute(() -> {
+                    List<LedgerEntryEntity> entries = toEntries(payments, unpaidBookings);
+                    if (scope.landlordId == null) {
+                        dao.replaceAll(entries);
+                        // Bảng đã bị thay toàn bộ, watermark của các danh sách khác không còn đúng
+                        syncState.deleteByPrefix(STATE_PREFIX);
+                    } else {
+                        dao.replaceLandlordPayments(scope.landlordId, entries);
+                    }
+                    saveWatermark(scope, null, entries);
+                    AppExecutors.postToMain(callback::onSynced);
+                });
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<PaymentPage>> call, Throwable t) {
+                callback.onError("Lỗi kết nối. Vui lòng thử lại.");
+            }
+        });
+    }
+
+    private void loadChanges(Scope scope, SyncSource source, String since, SyncCallback callback) {
+        source.loadChanges(since).enqueue(new Callback<ApiResponse<PaymentDelta>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<PaymentDelta>> call, Response<ApiResponse<PaymentDelta>> response) {
+                ApiResponse<PaymentDelta> apiResponse = response.body();
+                if (!response.isSuccessful() || apiResponse == null || !apiResponse.isSuccess()
+                        || apiResponse.getData() == null) {
+                    callback.onError(apiResponse != null ? apiResponse.getMessage() : null);
+                    return;
+                }
+                PaymentDelta delta = apiResponse.getData();
+                if (delta.isResync()) {
+                    // Quá nhiều thay đổi hoặc watermark quá cũ: tải lại toàn bộ
+                    loadAll(scope, source, callback);
+                    return;
+                }
+                AppExecutors.diskIO().execute(() -> {
+                    List<LedgerEntryEntity> entries = toEntries(delta.getItems(), delta.getUnpaidBookings());
+                    for (String id : delta.getDeleted()) {
+                        decoded.remove(key(LedgerEntryEntity.KIND_PAYMENT, id));
+                    }
+                    for (String id : delta.getRemovedUnpaidBookings()) {
+                        decoded.remove(key(LedgerEntryEntity.KIND_BOOKING, id));
+                    }
+                    dao.applyChanges(entries, delta.getDeleted(), delta.getRemovedUnpaidBookings());
+                    saveWatermark(scope, since, entries);
+                    AppExecutors.postToMain(callback::onSynced);
+                });
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<PaymentDelta>> call, Throwable t) {
+                callback.onError("Lỗi kết nối. Vui lòng thử lại.");
+            }
+        });
+    }
+
+    // Thời gian ISO-8601 UTC từ backend nên so sánh chuỗi là đủ
+    private void saveWatermark(Scope scope, String since, List<LedgerEntryEntity> entries) {
+        String watermark = since;
+        for (LedgerEntryEntity entry : entries) {
+            if (entry.updatedAt != null && (watermark == null || entry.updatedAt.compareTo(watermark) > 0)) {
+                watermark = entry.updatedAt;
+            }
+        }
+        if (watermark != null) {
+            syncState.save(new SyncStateEntity(scope.key, watermark));
+        }
+    }
+
+    private List<LedgerEntryEntity> toEntries(List<Payment> payments, List<Booking> unpaidBookings) {
+        List<LedgerEntryEntity> entries = new ArrayList<>(payments.size() + unpaidBookings.size());
+        for (Payment payment : payments) {
+            if (payment == null || payment.getId() == null) {
+                continue;
+            }
+            LedgerEntryEntity entry = LedgerEntryEntity.fromPayment(payment, gson);
+            entries.add(entry);
+            remember(entry, payment);
+        }
+        for (Booking booking : unpaidBookings) {
+            if (booking == null || booking.getId() == null) {
+                continue;
+            }
+            LedgerEntryEntity entry = LedgerEntryEntity.fromBooking(booking, gson);
+            entries.add(entry);
+            remember(entry, booking);
+        }
+        return entries;
+    }
+
+    private interface Mapper<T> {
+        T map(LedgerEntryEntity entry);
+    }
+
+    // Đọc payload trên thread nền; kết quả cũ về muộn bị bỏ qua
+    private <T> LiveData<List<T>> decode(LiveData<List<LedgerEntryEntity>> source, Mapper<T> mapper) {
+        MediatorLiveData<List<T>> result = new MediatorLiveData<>();
+        AtomicInteger version = new AtomicInteger();
+        result.addSource(source, entries -> {
+            int current = version.incrementAndGet();
+            AppExecutors.diskIO().execute(() -> {
+                List<T> items = new ArrayList<>(entries.size());
+                for (LedgerEntryEntity entry : entries) {
+                    items.add(mapper.map(entry));
+                }
+                if (current == version.get()) {
+                    result.postValue(items);
+                }
+            });
+        });
+        return result;
+    }
+
+    private Object model(LedgerEntryEntity entry) {
+        String key = key(entry.kind, entry.id);
+        Decoded cached = (Decoded) decoded.get(key);
+        if (cached != null && (cached.updatedAt == null ? entry.updatedAt == null
+                : cached.updatedAt.equals(entry.updatedAt))) {
+            return cached.model;
+        }
+        Object model = LedgerEntryEntity.KIND_BOOKING.equals(entry.kind)
+                ? entry.toBooking(gson) : entry.toPayment(gson);
+        remember(entry, model);
+        return model;
+    }
+
+    private void remember(LedgerEntryEntity entry, Object model) {
+        decoded.put(key(entry.kind, entry.id), new Decoded(entry.updatedAt, model),
+                EntityCache.estimateBytes(entry.payload));
+    }
+
+    private static String key(String kind, String id) {
+        return kind + ":" + id;
+    }
+
+    private static final class Decoded {
+        final String updatedAt;
+        final Object model;
+
+        Decoded(String updatedAt, Object model) {
+            this.updatedAt = updatedAt;
+            this.model = model;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+//dao: truy vấn sổ thanh toán local và bảng tổng cộng dồn
+// Mục đích file: File này dùng để đọc danh sách thanh toán và thẻ tổng kết; mỗi lần ghi/xóa một dòng sẽ trừ đóng góp cũ và cộng đóng góp mới vào đúng một dòng ledger_totals trong cùng transaction
+// function:
+// - observeAll(): Theo dõi toàn bộ sổ (admin): thanh toán trước, booking chưa thanh toán sau, mới tạo trước
+// - observeLandlordPayments(): Theo dõi thanh toán của một chủ trọ theo trạng thái booking
+// - observeSummary()/observeLandlordSummary(): Theo dõi tổng đã thanh toán/đang chờ từ ledger_totals
+// - replaceAll()/replaceLandlordPayments(): Thay toàn bộ dòng sau lần tải đầy đủ và tính lại tổng một lần
+// - applyChanges(): Ghi dòng thay đổi, xóa dòng đã bị xóa và điều chỉnh tổng theo từng dòng
+package com.example.appquanlytimtro.database.payment;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class PaymentLedgerDao {
+
+    @Query("SELECT * FROM ledger_entries ORDER BY kind DESC, createdAt DESC")
+    public abstract LiveData<List<LedgerEntryEntity>> observeAll();
+
+    @Query("SELECT * FROM ledger_entries WHERE landlordId = :landlordId AND kind = 'payment'"
+            + " AND bookingStatus IN (:bookingStatuses) ORDER BY createdAt DESC")
+    public abstract LiveData<List<LedgerEntryEntity>> observeLandlordPayments(String landlordId, List<String> bookingStatuses);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN kind = 'payment' AND status = 'completed' THEN amount ELSE 0 END), 0) AS paid,"
+            + " COALESCE(SUM(CASE WHEN kind = 'booking' OR status IN (:pendingStatuses) THEN amount ELSE 0 END), 0) AS pending"
+            + " FROM ledger_totals")
+    public abstract LiveData<LedgerSummary> observeSummary(List<String> pendingStatuses);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN status = 'completed' THEN amount ELSE 0 END), 0) AS paid,"
+            + " COALESCE(SUM(CASE WHEN status IN (:pendingStatuses) THEN amount ELSE 0 END), 0) AS pending"
+            + " FROM ledger_totals WHERE landlordId = :landlordId AND kind = 'payment'"
+            + " AND bookingStatus IN (:bookingStatuses)")
+    public abstract LiveData<LedgerSummary> observeLandlordSummary(String landlordId, List<String> pendingStatuses,
+                                                                  List<String> bookingStatuses);
+
+    @Query("SELECT * FROM ledger_entries WHERE kind = :kind AND id = :id")
+    abstract LedgerEntryEntity find(String kind, String id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertEntry(LedgerEntryEntity entry);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertEntries(List<LedgerEntryEntity> entries);
+
+    @Query("DELETE FROM ledger_entries WHERE kind = :kind AND id = :id")
+    abstract void deleteEntry(String kind, String id);
+
+    @Query("DELETE FROM ledger_entries")
+    abstract void deleteAllEntries();
+
+    @Query("DELETE FROM ledger_entries WHERE landlordId = :landlordId AND kind = 'payment'")
+    abstract void deleteLandlordPayments(String landlordId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertTotal(LedgerTotalEntity total);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertTotals(List<LedgerTotalEntity> totals);
+
+    @Query("UPDATE ledger_totals SET amount = amount + :amount, count = count + :count"
+            + " WHERE kind = :kind AND status = :status AND bookingStatus = :bookingStatus"
+            + " AND landlordId = :landlordId AND month = :month")
+    abstract int addToTotal(String kind, String status, String bookingStatus, String landlordId, String month,
+                            double amount, int count);
+
+    @Query("DELETE FROM ledger_totals WHERE kind = :kind AND status = :status AND bookingStatus = :bookingStatus"
+            + " AND landlordId = :landlordId AND month = :month AND count <= 0")
+    abstract void deleteEmptyTotal(String kind, String status, String bookingStatus, String landlordId, String month);
+
+    @Query("DELETE FROM ledger_totals")
+    abstract void deleteAllTotals();
+
+    @Query("DELETE FROM ledger_totals WHERE landlordId = :landlordId AND kind = 'payment'")
+    abstract void deleteLandlordPaymentTotals(String landlordId);
+
+    @Query("SELECT kind, status, bookingStatus, landlordId, month, SUM(amount) AS amount, COUNT(*) AS count"
+            + " FROM ledger_entries GROUP BY kind, status, bookingStatus, landlordId, month")
+    abstract List<LedgerTotalEntity> sumEntries();
+
+    @Query("SELECT kind, status, bookingStatus, landlordId, month, SUM(amount) AS amount, COUNT(*) AS count"
+            + " FROM ledger_entries WHERE landlordId = :landlordId AND kind = 'payment'"
+            + " GROUP BY kind, status, bookingStatus, landlordId, month")
+    abstract List<LedgerTotalEntity> sumLandlordPayments(String landlordId);
+
+    @Transaction
+    public void replaceAll(List<LedgerEntryEntity> entries) {
+        deleteAllEntries();
+        deleteAllTotals();
+        insertEntries(entries);
+        insertTotals(sumEntries());
+    }
+
+    @Transaction
+    public void replaceLandlordPayments(String landlordId, List<LedgerEntryEntity> entries) {
+        deleteLandlordPayments(landlordId);
+        deleteLandlordPaymentTotals(landlordId);
+        insertEntries(entries);
+        insertTotals(sumLandlordPayments(landlordId));
+    }
+
+    @Transaction
+    public void applyChanges(List<LedgerEntryEntity> changed, List<String> deletedPaymentIds,
+                             List<String> removedBookingIds) {
+        for (String id : deletedPaymentIds) {
+            remove(LedgerEntryEntity.KIND_PAYMENT, id);
+        }
+        for (String id : removedBookingIds) {
+            remove(LedgerEntryEntity.KIND_BOOKING, id);
+        }
+        for (LedgerEntryEntity entry : changed) {
+            LedgerEntryEntity old = find(entry.kind, entry.id);
+            if (old != null) {
+                adjust(old, -1);
+            }
+            insertEntry(entry);
+            adjust(entry, 1);
+        }
+    }
+
+    private void remove(String kind, String id) {
+        LedgerEntryEntity old = find(kind, id);
+        if (old != null) {
+            adjust(old, -1);
+            deleteEntry(kind, id);
+        }
+    }
+
+    // Cộng (sign = 1) hoặc trừ (sign = -1) đóng góp của một dòng vào tổng tương ứng
+    private void adjust(LedgerEntryEntity entry, int sign) {
+        int updated = addToTotal(entry.kind, entry.status, entry.bookingStatus, entry.landlordId, entry.month,
+                sign * entry.amount, sign);
+        if (sign > 0 && updated == 0) {
+            insertTotal(new LedgerTotalEntity(entry));
+        } else if (sign < 0) {
+            // Xóa tổng không còn dòng nào để không giữ sai số cộng trừ số thực
+            deleteEmptyTotal(entry.kind, entry.status, entry.bookingStatus, entry.landlordId, entry.month);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+//activity: màn hình debug số liệu mạng
+// Mục đích file: File này dùng để xem số liệu mạng theo endpoint (độ trễ, byte, mã trạng thái, cache), số liệu hit/miss của cache trong bộ nhớ và xuất số liệu mạng ra file CSV
+// function:
+// - onCreate(): Khởi tạo activity và các nút thao tác
+// - showReport(): Hiển thị báo cáo hàng đợi theo nhóm ưu tiên, số liệu mạng và số liệu cache bộ nhớ hiện tại
+// - exportReport(): Xuất số liệu ra file CSV trong thư mục của app
+// - onOptionsItemSelected(): Xử lý nút quay lại
+package com.example.appquanlytimtro.debug;
+
+import android.os.Bundle;
+import android.view.MenuItem;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.cache.CacheManager;
+import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.metrics.NetworkMetrics;
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+import java.io.File;
+
+public class NetworkMetricsActivity extends AppCompatActivity {
+
+    private TextView tvReport;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_network_metrics);
+
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setTitle("Số liệu mạng");
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+
+        tvReport = findViewById(R.id.tvReport);
+        findViewById(R.id.btnRefresh).setOnClickListener(v -> showReport());
+        findViewById(R.id.btnExport).setOnClickListener(v -> exportReport());
+        findViewById(R.id.btnReset).setOnClickListener(v -> {
+            NetworkMetrics.getInstance().reset();
+            CacheManager.getInstance().resetStats();
+            showReport();
+        });
+
+        showReport();
+    }
+
+    private void showReport() {
+        String queues = RetrofitClient.getInstance(this).getRequestScheduler().formatQueueReport();
+        tvReport.setText(queues + NetworkMetrics.getInstance().formatReport()
+                + "\n" + CacheManager.getInstance().formatReport());
+    }
+
+    private void exportReport() {
+        File directory = getExternalFilesDir("metrics");
+        if (directory == null) {
+            directory = new File(getFilesDir(), "metrics");
+        }
+        final File target = directory;
+        AppExecutors.background().execute(() -> {
+            try {
+                File file = NetworkMetrics.getInstance().exportCsv(target);
+                AppExecutors.postToMain(() ->
+                        Toast.makeText(this, "Đã xuất: " + file.getAbsolutePath(), Toast.LENGTH_LONG).show());
+            } catch (Exception e) {
+                AppExecutors.postToMain(() ->
+                        Toast.makeText(this, "Xuất file thất bại: " + e.getMessage(), Toast.LENGTH_LONG).show());
+            }
+        });
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            finish();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+}
@@ -46,6 +46,7 @@ import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Room;
 import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.json.GsonProvider;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 
@@ -449,14 +450,9 @@ public class AddRoomActivity extends AppCompatActivity {
         
         room.setStatus("active");
         
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            try {
-                com.google.gson.Gson gson = new com.google.gson.Gson();
-                User currentUser = gson.fromJson(userJson, User.class);
-                room.setLandlord(currentUser);
-            } catch (Exception e) {
-            }
+        User currentUser = retrofitClient.getCurrentUser();
+        if (currentUser != null) {
+            room.setLandlord(currentUser);
         }
         
         Room.ContactInfo contactInfo = new Room.ContactInfo();
@@ -482,7 +478,7 @@ public class AddRoomActivity extends AppCompatActivity {
                             Room createdRoom = null;
                             
                             if (responseData != null && responseData.containsKey("room")) {
-                                com.google.gson.Gson gson = new com.google.gson.Gson();
+                                com.google.gson.Gson gson = GsonProvider.get();
                                 Object roomData = responseData.get("room");
                                 
                                 String roomJson = gson.toJson(roomData);
@@ -14,7 +14,7 @@
 // - populateForm(): Điền dữ liệu vào form
 // - selectImages(): Chọn ảnh mới
 // - onImageRemove(): Xử lý xóa ảnh
-// - updateRoom(): Cập nhật thông tin phòng
+// - updateRoom(): Cập nhật thông tin phòng và bỏ bản cũ khỏi cache bộ nhớ
 // - createRoomFromForm(): Tạo object Room từ form
 // - validateForm(): Kiểm tra tính hợp lệ của form
 // - uploadImages(): Upload ảnh lên server
@@ -51,10 +51,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.SelectedImageAdapter;
+import com.example.appquanlytimtro.cache.CacheManager;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Room;
 import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.json.GsonProvider;
 import com.google.gson.Gson;
 
 import java.io.ByteArrayOutputStream;
@@ -262,17 +265,13 @@ public class EditRoomActivity extends AppCompatActivity implements SelectedImage
     }
     
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            Gson gson = new Gson();
-            currentUser = gson.fromJson(userJson, User.class);
-        }
+        currentUser = retrofitClient.getCurrentUser();
     }
     
     private void loadRoomDetails() {
         showLoading(true);
         
-        retrofitClient.getApiService().getRoom(roomId).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getRoom(roomId), new Callback<ApiResponse<Map<String, Object>>>() {
             @Override
             public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
                 showLoading(false);
@@ -285,7 +284,7 @@ public class EditRoomActivity extends AppCompatActivity implements SelectedImage
                         Map<String, Object> data = apiResponse.getData();
                         if (data.containsKey("room")) {
                             // Parse room from data.room
-                            Gson gson = new Gson();
+                            Gson gson = GsonProvider.get();
                             String roomJson = gson.toJson(data.get("room"));
                             
                             room = gson.fromJson(roomJson, Room.class);
@@ -401,6 +400,7 @@ public class EditRoomActivity extends AppCompatActivity implements SelectedImage
                     ApiResponse<Room> apiResponse = response.body();
                     
                     if (apiResponse.isSuccess()) {
+                        CacheManager.getInstance().rooms().remove(roomId);
                         Toast.makeText(EditRoomActivity.this, "Cập nhật phòng trọ thành công", Toast.LENGTH_SHORT).show();
                         
                         // Upload new images if any
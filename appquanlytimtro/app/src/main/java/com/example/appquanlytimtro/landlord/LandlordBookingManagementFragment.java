@@ -7,8 +7,14 @@
 // - setupRecyclerView(): Thiết lập RecyclerView và adapter
 // - setupSwipeRefresh(): Thiết lập chức năng pull-to-refresh
 // - setupFilterChips(): Thiết lập các chip lọc theo trạng thái
-// - filterBookings(): Lọc booking theo trạng thái
-// - loadBookings(): Tải danh sách booking từ API
+// - onViewCreated(): Theo dõi bảng booking local và kết quả gửi của outbox
+// - onDestroyView(): Bỏ theo dõi outbox
+// - filterBookings(): Lọc booking theo trạng thái (truy vấn có index trên bảng local)
+// - observeBookings(): Theo dõi danh sách booking local theo bộ lọc hiện tại
+// - observeStatusCounts(): Hiển thị số booking theo trạng thái trên chip
+// - setChipCount(): Gắn số đếm vào nhãn chip
+// - showBookings(): Hiển thị danh sách booking đã lọc
+// - loadBookings(): Đồng bộ booking với API ở nền (lần đầu tải toàn bộ, sau đó chỉ tải phần thay đổi)
 // - updateEmptyView(): Cập nhật trạng thái empty view
 // - showLoading(): Hiển thị/ẩn loading indicator
 // - showError(): Hiển thị thông báo lỗi
@@ -18,7 +24,7 @@
 // - onAcceptBooking(): Xử lý chấp nhận booking
 // - onRejectBooking(): Xử lý từ chối booking
 // - checkBookingStatus(): Kiểm tra trạng thái booking trước khi thực hiện hành động
-// - updateBookingStatus(): Cập nhật trạng thái booking
+// - updateBookingStatus(): Cập nhật trạng thái booking qua outbox (hiển thị ngay, gửi ở nền)
 package com.example.appquanlytimtro.landlord;
 
 import android.content.Context;
@@ -34,16 +40,23 @@ import com.google.android.material.chip.ChipGroup;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.LandlordBookingAdapter;
+import com.example.appquanlytimtro.database.booking.BookingStore;
+import com.example.appquanlytimtro.database.outbox.Outbox;
+import com.example.appquanlytimtro.database.outbox.OutboxEntity;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.BookingDelta;
+import com.example.appquanlytimtro.models.BookingPage;
+import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
-import com.google.gson.Gson;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -57,9 +70,18 @@ public class LandlordBookingManagementFragment extends Fragment implements Landl
 
     private RetrofitClient retrofitClient;
     private List<Booking> bookings;
-    private List<Booking> allBookings; 
     private LandlordBookingAdapter bookingAdapter;
     private String currentFilter = null; 
+    // Bảng booking local: lọc/đếm bằng truy vấn, API chỉ đồng bộ ở nền
+    private BookingStore bookingStore;
+    private BookingStore.Scope bookingScope;
+    private LiveData<List<Booking>> visibleBookings;
+    // Server từ chối thao tác thì bảng local đã bị xóa, tải lại từ API
+    private final Outbox.Listener outboxListener = (operation, message) -> {
+        if (OutboxEntity.TYPE_BOOKING_STATUS.equals(operation.type) && getView() != null) {
+            loadBookings();
+        }
+    };
     
     private RecyclerView recyclerView;
     private SwipeRefreshLayout swipeRefreshLayout;
@@ -80,17 +102,33 @@ public class LandlordBookingManagementFragment extends Fragment implements Landl
         if (retrofitClient == null) {
             retrofitClient = RetrofitClient.getInstance(requireContext());
         }
+        bookingStore = BookingStore.getInstance(requireContext());
+        User currentUser = retrofitClient.getCurrentUser();
+        bookingScope = BookingStore.Scope.landlord(currentUser != null ? currentUser.getId() : "");
         
         initViews(view);
         setupRecyclerView();
         setupSwipeRefresh();
         setupFilterChips();
         
-        loadBookings();
-        
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        observeBookings();
+        observeStatusCounts();
+        Outbox.getInstance(requireContext()).addListener(outboxListener);
+        loadBookings();
+    }
+
+    @Override
+    public void onDestroyView() {
+        Outbox.getInstance(requireContext()).removeListener(outboxListener);
+        super.onDestroyView();
+    }
+
     private void initViews(View view) {
         recyclerView = view.findViewById(R.id.recyclerViewBookings);
         swipeRefreshLayout = view.findViewById(R.id.swipeRefreshLayout);
@@ -108,11 +146,8 @@ public class LandlordBookingManagementFragment extends Fragment implements Landl
         if (bookings == null) {
         bookings = new ArrayList<>();
         }
-        if (allBookings == null) {
-        allBookings = new ArrayList<>();
-        }
         if (recyclerView != null && getContext() != null) {
-        bookingAdapter = new LandlordBookingAdapter(bookings, this);
+        bookingAdapter = new LandlordBookingAdapter(this);
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         recyclerView.setAdapter(bookingAdapter);
         }
@@ -167,32 +202,52 @@ public class LandlordBookingManagementFragment extends Fragment implements Landl
         chipCancelled.setChecked("cancelled".equals(status));
         }
         
+        observeBookings();
+    }
+
+    // Mỗi bộ lọc là một truy vấn có index, không phụ thuộc số lượng booking
+    private void observeBookings() {
+        if (visibleBookings != null) {
+            visibleBookings.removeObservers(getViewLifecycleOwner());
+        }
+        visibleBookings = bookingStore.observe(bookingScope, currentFilter);
+        visibleBookings.observe(getViewLifecycleOwner(), this::showBookings);
+    }
+
+    private void observeStatusCounts() {
+        bookingStore.observeStatusCounts(bookingScope).observe(getViewLifecycleOwner(), counts -> {
+            int total = 0;
+            for (Integer count : counts.values()) {
+                total += count;
+            }
+            setChipCount(chipAll, total);
+            setChipCount(chipPending, counts.get("pending"));
+            setChipCount(chipConfirmed, counts.get("confirmed"));
+            setChipCount(chipPaid, counts.get("deposit_paid"));
+            setChipCount(chipCancelled, counts.get("cancelled"));
+        });
+    }
+
+    private static void setChipCount(Chip chip, Integer count) {
+        if (chip == null) {
+            return;
+        }
+        // Giữ nhãn gốc trong tag để không nối số nhiều lần
+        if (chip.getTag() == null) {
+            chip.setTag(chip.getText().toString());
+        }
+        chip.setText(chip.getTag() + " (" + (count != null ? count : 0) + ")");
+    }
+
+    private void showBookings(List<Booking> filtered) {
         if (bookings == null) {
             bookings = new ArrayList<>();
         }
         bookings.clear();
-        
-        if (allBookings == null) {
-            allBookings = new ArrayList<>();
-        }
-        
-        if (status == null) {
-            // Hiển thị tất cả bookings
-            bookings.addAll(allBookings);
-        } else {
-            // Filter theo status
-            for (Booking booking : allBookings) {
-                if (booking != null && booking.getStatus() != null) {
-                    String bookingStatus = booking.getStatus().trim();
-                    if (status.equals(bookingStatus)) {
-                    bookings.add(booking);
-                    }
-                }
-            }
-        }
+        bookings.addAll(filtered);
         
         if (bookingAdapter != null) {
-        bookingAdapter.notifyDataSetChanged();
+        bookingAdapter.submitBookings(bookings);
         }
         updateEmptyView();
     }
@@ -202,18 +257,23 @@ public class LandlordBookingManagementFragment extends Fragment implements Landl
             return;
         }
         
-        showLoading(true);
+        // Đã có dữ liệu local thì hiển thị ngay, chỉ đồng bộ ở nền
+        showLoading(bookings == null || bookings.isEmpty());
         
         String token = "Bearer " + retrofitClient.getToken();
-        java.util.Map<String, String> params = new java.util.HashMap<>();
-        // Tăng limit để lấy tất cả bookings
-        params.put("limit", "100");
-        params.put("page", "1");
-        params.put("sortBy", "createdAt");
-        params.put("sortOrder", "desc");
-        retrofitClient.getApiService().getBookings(token, params).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        bookingStore.sync(bookingScope, new BookingStore.SyncSource() {
             @Override
-            public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
+            public Call<ApiResponse<BookingPage>> loadAll(Map<String, String> params) {
+                return retrofitClient.getApiService().getBookings(token, params);
+            }
+
+            @Override
+            public Call<ApiResponse<BookingDelta>> loadChanges(String updatedSince) {
+                return retrofitClient.getApiService().getBookingChanges(token, updatedSince);
+            }
+        }, new BookingStore.SyncCallback() {
+            @Override
+            public void onSynced() {
                 if (getContext() == null || getActivity() == null) {
                     return;
                 }
@@ -221,54 +281,11 @@ public class LandlordBookingManagementFragment extends Fragment implements Landl
                 if (swipeRefreshLayout != null) {
                 swipeRefreshLayout.setRefreshing(false);
                 }
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<Map<String, Object>> apiResponse = response.body();
-                    
-                    if (apiResponse.isSuccess() && apiResponse.getData() != null) {
-                        Map<String, Object> data = apiResponse.getData();
-                        List<?> bookingsData = (List<?>) data.get("bookings");
-                        
-                        if (bookingsData != null) {
-                            if (allBookings == null) {
-                                allBookings = new ArrayList<>();
-                            }
-                            allBookings.clear();
-                            Gson gson = new Gson();
-                            for (Object bookingObj : bookingsData) {
-                                if (bookingObj instanceof Map) {
-                                    try {
-                                    Booking booking = gson.fromJson(gson.toJson(bookingObj), Booking.class);
-                                        // Đảm bảo booking có status hợp lệ
-                                        if (booking != null && booking.getStatus() != null) {
-                                    allBookings.add(booking);
-                                }
-                                    } catch (Exception e) {
-                                        // Bỏ qua booking không parse được
-                                        e.printStackTrace();
-                                    }
-                                }
-                            }
-                            
-                            // Áp dụng filter hiện tại
-                            filterBookings(currentFilter);
-                        } else {
-                            if (allBookings == null) {
-                                allBookings = new ArrayList<>();
-                            }
-                            allBookings.clear();
-                            filterBookings(currentFilter);
-                        }
-                    } else {
-                        showError(apiResponse.getMessage());
-                    }
-                } else {
-                    showError("Không thể tải danh sách đặt phòng");
-                }
+                updateEmptyView();
             }
             
             @Override
-            public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
+            public void onError(String message) {
                 if (getContext() == null || getActivity() == null) {
                     return;
                 }
@@ -276,7 +293,8 @@ public class LandlordBookingManagementFragment extends Fragment implements Landl
                 if (swipeRefreshLayout != null) {
                 swipeRefreshLayout.setRefreshing(false);
                 }
-                showError("Lỗi kết nối. Vui lòng thử lại.");
+                updateEmptyView();
+                showError(message != null ? message : "Không thể tải danh sách đặt phòng");
             }
         });
     }
@@ -354,7 +372,7 @@ public class LandlordBookingManagementFragment extends Fragment implements Landl
         showLoading(true);
         
         String token = "Bearer " + retrofitClient.getToken();
-        retrofitClient.getApiService().getBookingStatus(token, bookingId).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getBookingStatus(token, bookingId), new Callback<ApiResponse<Map<String, Object>>>() {
             @Override
             public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
                 if (getContext() == null || getActivity() == null) {
@@ -424,59 +442,26 @@ public class LandlordBookingManagementFragment extends Fragment implements Landl
     }
 
     private void updateBookingStatus(String bookingId, String newStatus) {
-        if (retrofitClient == null || getContext() == null) {
+        if (getContext() == null) {
             return;
         }
         
-        showLoading(true);
-        
-        String token = "Bearer " + retrofitClient.getToken();
-        java.util.Map<String, String> statusUpdate = new java.util.HashMap<>();
-        statusUpdate.put("status", newStatus);
-        
-        retrofitClient.getApiService().updateBookingStatus(token, bookingId, statusUpdate).enqueue(new Callback<ApiResponse<Booking>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<Booking>> call, Response<ApiResponse<Booking>> response) {
-                if (getContext() == null || getActivity() == null) {
-                    return;
-                }
-                showLoading(false);
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<Booking> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        String message;
-                        switch (newStatus) {
-                            case "confirmed":
-                                message = "Chấp nhận đặt phòng thành công";
-                                break;
-                            case "cancelled":
-                                message = "Từ chối đặt phòng thành công";
-                                break;
-                            case "deposit_paid":
-                                message = "Đánh dấu đã thanh toán thành công";
-                                break;
-                            default:
-                                message = "Cập nhật trạng thái thành công";
-                        }
-                        showError(message);
-                        loadBookings(); 
-                    } else {
-                        showError(apiResponse.getMessage());
-                    }
-                } else {
-                    showError("Không thể cập nhật trạng thái đặt phòng");
-                }
-            }
-            
-            @Override
-            public void onFailure(Call<ApiResponse<Booking>> call, Throwable t) {
-                if (getContext() == null || getActivity() == null) {
-                    return;
-                }
-                showLoading(false);
-                showError("Lỗi kết nối: " + (t != null ? t.getMessage() : "Unknown error"));
-            }
-        });
+        // Ghi vào outbox: danh sách local đổi ngay, request được gửi ở nền
+        Outbox.getInstance(requireContext()).updateBookingStatus(bookingId, newStatus);
+        String message;
+        switch (newStatus) {
+            case "confirmed":
+                message = "Chấp nhận đặt phòng thành công";
+                break;
+            case "cancelled":
+                message = "Từ chối đặt phòng thành công";
+                break;
+            case "deposit_paid":
+                message = "Đánh dấu đã thanh toán thành công";
+                break;
+            default:
+                message = "Cập nhật trạng thái thành công";
+        }
+        showError(message);
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,10 @@
 // - initViews(): Khởi tạo các view components
 // - setupClickListeners(): Thiết lập các sự kiện click
 // - loadUserData(): Tải thông tin user hiện tại
-// - loadDashboardData(): Tải dữ liệu thống kê dashboard từ API
-// - updateDashboardData(): Cập nhật dữ liệu dashboard lên UI
+// - loadDashboardData(): Hiển thị bản chụp đã lưu rồi tải dữ liệu thống kê mới từ API (lưu lại làm bản chụp)
+// - showSnapshot(): Hiển thị số liệu của lần tải thành công gần nhất kèm thời điểm cập nhật
+// - onRefreshFailed(): Giữ bản chụp nếu có, nếu không thì hiển thị 0
+// - bindStats(): Cập nhật dữ liệu dashboard lên UI
 // - onManageRoomsClick(): Xử lý click quản lý phòng
 // - onManageBookingsClick(): Xử lý click quản lý đặt phòng
 // - onManagePaymentsClick(): Xử lý click quản lý thanh toán
@@ -30,9 +32,12 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.database.dashboard.DashboardSnapshots;
+import com.example.appquanlytimtro.models.DashboardStats;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.example.appquanlytimtro.models.User;
-import com.google.gson.Gson;
+import com.example.appquanlytimtro.utils.StartupTrace;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -44,11 +49,14 @@ public class LandlordDashboardFragment extends Fragment {
     private TextView tvOccupiedRooms;
     private TextView tvTotalRevenue;
     private TextView tvPendingBookings;
+    private TextView tvLastUpdated;
     private MaterialCardView cardLogout;
     private MaterialButton btnAddRoom, btnManageRooms, btnViewBookings;
     
     private RetrofitClient retrofitClient;
     private User currentUser;
+    private boolean refreshed;
+    private long snapshotSavedAt;
 
     @Nullable
     @Override
@@ -70,6 +78,7 @@ public class LandlordDashboardFragment extends Fragment {
         tvOccupiedRooms = view.findViewById(R.id.tvOccupiedRooms);
         tvTotalRevenue = view.findViewById(R.id.tvTotalRevenue);
         tvPendingBookings = view.findViewById(R.id.tvPendingBookings);
+        tvLastUpdated = view.findViewById(R.id.tvLastUpdated);
         cardLogout = view.findViewById(R.id.cardLogout);
         btnAddRoom = view.findViewById(R.id.btnAddRoom);
         btnManageRooms = view.findViewById(R.id.btnManageRooms);
@@ -115,11 +124,7 @@ public class LandlordDashboardFragment extends Fragment {
     }
 
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            Gson gson = new Gson();
-            currentUser = gson.fromJson(userJson, User.class);
-        }
+        currentUser = retrofitClient.getCurrentUser();
     }
 
     private void loadDashboardData() {
@@ -127,48 +132,65 @@ public class LandlordDashboardFragment extends Fragment {
             loadDefaultData();
             return;
         }
+        // View có thể được tạo lại khi quay về tab này
+        refreshed = false;
+        snapshotSavedAt = 0;
+        showSnapshot();
         String token = "Bearer " + retrofitClient.getToken();
-        retrofitClient.getApiService().getStatisticsOverview(token).enqueue(new Callback<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getStatisticsOverview(token), new Callback<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>>() {
             @Override
             public void onResponse(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Response<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
                     java.util.Map<String, Object> data = response.body().getData();
-                    if (data != null && data.containsKey("stats")) {
-                        bindStats((java.util.Map<String, Object>) data.get("stats"));
+                    if (data != null && data.get("stats") instanceof java.util.Map) {
+                        DashboardStats stats = DashboardStats.fromStats((java.util.Map<String, Object>) data.get("stats"));
+                        refreshed = true;
+                        bindStats(stats);
+                        tvLastUpdated.setText(DashboardSnapshots.lastUpdatedText(System.currentTimeMillis()));
+                        DashboardSnapshots.getInstance(requireContext()).save(DashboardSnapshots.ROLE_LANDLORD, currentUser.getId(), stats);
                     } else {
-                        loadDefaultData();
+                        onRefreshFailed();
                     }
                 } else {
-                    loadDefaultData();
+                    onRefreshFailed();
                 }
+                StartupTrace.reportFirstContent(getActivity(), "LandlordDashboard");
             }
 
             @Override
             public void onFailure(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Throwable t) {
-                loadDefaultData();
+                onRefreshFailed();
+                StartupTrace.reportFirstContent(getActivity(), "LandlordDashboard");
             }
         });
     }
 
-    private void bindStats(java.util.Map<String, Object> stats) {
-        if (stats == null) {
+    private void showSnapshot() {
+        DashboardSnapshots.getInstance(requireContext()).load(DashboardSnapshots.ROLE_LANDLORD, currentUser.getId(), (stats, savedAt) -> {
+            // API đã trả về trước khi đọc xong bản chụp thì giữ số liệu mới
+            if (!isAdded() || refreshed) return;
+            snapshotSavedAt = savedAt;
+            bindStats(stats);
+            tvLastUpdated.setText(DashboardSnapshots.lastUpdatedText(savedAt) + " · đang làm mới...");
+            StartupTrace.reportFirstContent(getActivity(), "LandlordDashboard");
+        });
+    }
+
+    private void onRefreshFailed() {
+        if (snapshotSavedAt > 0) {
+            // Giữ số liệu cũ thay vì về 0
+            tvLastUpdated.setText(DashboardSnapshots.lastUpdatedText(snapshotSavedAt) + " · không thể làm mới");
+        } else {
             loadDefaultData();
-            return;
+            tvLastUpdated.setText("Không thể tải số liệu");
         }
-        java.util.Map<String, Object> rooms = stats.containsKey("rooms") && stats.get("rooms") instanceof java.util.Map ? (java.util.Map<String, Object>) stats.get("rooms") : null;
-        java.util.Map<String, Object> bookings = stats.containsKey("bookings") && stats.get("bookings") instanceof java.util.Map ? (java.util.Map<String, Object>) stats.get("bookings") : null;
-        java.util.Map<String, Object> payments = stats.containsKey("payments") && stats.get("payments") instanceof java.util.Map ? (java.util.Map<String, Object>) stats.get("payments") : null;
-
-        int totalRooms = rooms != null && rooms.get("totalRooms") instanceof Number ? ((Number) rooms.get("totalRooms")).intValue() : 0;
-        int activeRooms = rooms != null && rooms.get("activeRooms") instanceof Number ? ((Number) rooms.get("activeRooms")).intValue() : 0;
-        int pendingBookings = bookings != null && bookings.get("pendingBookings") instanceof Number ? ((Number) bookings.get("pendingBookings")).intValue() : 0;
-        Number revenueNumber = payments != null && payments.get("totalAmount") instanceof Number ? (Number) payments.get("totalAmount") : null;
-        String revenueText = revenueNumber != null ? String.format(java.util.Locale.getDefault(), "%.0f VNĐ", revenueNumber.doubleValue()) : "0 VNĐ";
+    }
 
-        tvTotalRooms.setText(String.valueOf(totalRooms));
-        tvOccupiedRooms.setText(String.valueOf(activeRooms));
-        tvPendingBookings.setText(String.valueOf(pendingBookings));
-        tvTotalRevenue.setText(revenueText);
+    private void bindStats(DashboardStats stats) {
+        tvTotalRooms.setText(String.valueOf(stats.getTotalRooms()));
+        tvOccupiedRooms.setText(String.valueOf(stats.getActiveRooms()));
+        tvPendingBookings.setText(String.valueOf(stats.getPendingBookings()));
+        tvTotalRevenue.setText(String.format(java.util.Locale.getDefault(), "%.0f VNĐ", stats.getTotalPaid()));
     }
     
     private void loadDefaultData() {
@@ -2,10 +2,13 @@
 // Mục đích file: File này dùng để quản lý các thanh toán của chủ trọ
 // function: 
 // - onCreateView(): Khởi tạo view và setup các component
+// - onViewCreated(): Theo dõi sổ thanh toán local
 // - initViews(): Khởi tạo các view components
 // - setupRecyclerView(): Thiết lập RecyclerView và adapter
 // - setupSwipeRefresh(): Thiết lập chức năng pull-to-refresh
-// - loadPayments(): Tải danh sách thanh toán từ API
+// - observeLedger(): Theo dõi thanh toán hợp lệ và tổng kết (tổng cộng dồn, đúng cho toàn bộ thanh toán) từ sổ local
+// - loadPayments(): Đồng bộ sổ thanh toán với API ở nền (lần đầu tải mọi trang, sau đó chỉ tải phần thay đổi)
+// - showPayments(): Hiển thị danh sách thanh toán
 // - updateEmptyView(): Cập nhật trạng thái empty view
 // - onPaymentClick(): Xử lý click vào thanh toán
 // - showLoading(): Hiển thị/ẩn loading indicator
@@ -30,17 +33,19 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.PaymentAdapter;
+import com.example.appquanlytimtro.database.payment.PaymentLedger;
+import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Payment;
+import com.example.appquanlytimtro.models.PaymentDelta;
+import com.example.appquanlytimtro.models.PaymentPage;
 import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.network.RetrofitClient;
-import com.google.gson.Gson;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class LandlordPaymentManagementFragment extends Fragment {
 
@@ -54,6 +59,8 @@ public class LandlordPaymentManagementFragment extends Fragment {
     private List<Payment> payments;
     private RetrofitClient retrofitClient;
     private User currentUser;
+    private PaymentLedger paymentLedger;
+    private PaymentLedger.Scope ledgerScope;
 
     @Nullable
     @Override
@@ -61,21 +68,31 @@ public class LandlordPaymentManagementFragment extends Fragment {
         View view = inflater.inflate(R.layout.activity_payment_list, container, false);
         
         retrofitClient = RetrofitClient.getInstance(getContext());
+        paymentLedger = PaymentLedger.getInstance(requireContext());
         loadUserData();
         
         initViews(view);
         setupRecyclerView();
         setupSwipeRefresh();
-        loadPayments();
         
         return view;
     }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        if (ledgerScope == null) {
+            showEmptyState(true);
+            return;
+        }
+        observeLedger();
+        loadPayments();
+    }
     
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            Gson gson = new Gson();
-            currentUser = gson.fromJson(userJson, User.class);
+        currentUser = retrofitClient.getCurrentUser();
+        if (currentUser != null && currentUser.getId() != null) {
+            ledgerScope = PaymentLedger.Scope.landlord(currentUser.getId());
         }
     }
     
@@ -96,7 +113,7 @@ public class LandlordPaymentManagementFragment extends Fragment {
             userRole = currentUser.getRole();
         }
         
-        paymentAdapter = new PaymentAdapter(payments, new PaymentAdapter.OnPaymentClickListener() {
+        paymentAdapter = new PaymentAdapter(new PaymentAdapter.OnPaymentClickListener() {
             @Override
             public void onPaymentClick(Payment payment) {
                 Toast.makeText(getContext(), "Payment: " + payment.getId(), Toast.LENGTH_SHORT).show();
@@ -116,132 +133,60 @@ public class LandlordPaymentManagementFragment extends Fragment {
         swipeRefreshLayout.setOnRefreshListener(this::loadPayments);
     }
     
+    // Chỉ thanh toán của booking đã xác nhận/đang thuê/đã cọc (hoặc không có booking);
+    // tổng kết dùng cùng điều kiện nên số tiền hiển thị khớp với danh sách
+    private void observeLedger() {
+        paymentLedger.observePayments(ledgerScope).observe(getViewLifecycleOwner(), this::showPayments);
+        paymentLedger.observeSummary(ledgerScope).observe(getViewLifecycleOwner(), summary -> {
+            tvTotalPaid.setText(String.format("%.0f VNĐ", summary.paid));
+            tvPendingAmount.setText(String.format("%.0f VNĐ", summary.pending));
+        });
+    }
+    
     private void loadPayments() {
-        showLoading(true);
+        if (ledgerScope == null) {
+            swipeRefreshLayout.setRefreshing(false);
+            return;
+        }
+        // Đã có dữ liệu local thì hiển thị ngay, chỉ đồng bộ ở nền
+        showLoading(payments.isEmpty());
         
         String token = "Bearer " + retrofitClient.getToken();
-        
-        // Tải danh sách payments với limit lớn hơn để hiển thị đầy đủ
-        java.util.Map<String, String> params = new java.util.HashMap<>();
-        params.put("limit", "100"); // Lấy tối đa 100 payments
-        params.put("page", "1");
-        params.put("sortBy", "createdAt");
-        params.put("sortOrder", "desc");
-        
-        retrofitClient.getApiService().getPayments(token, params).enqueue(new Callback<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>>() {
+        paymentLedger.sync(ledgerScope, new PaymentLedger.SyncSource() {
+            @Override
+            public Call<ApiResponse<PaymentPage>> loadPage(Map<String, String> params) {
+                return retrofitClient.getApiService().getPayments(token, params);
+            }
+
+            @Override
+            public Call<ApiResponse<PaymentDelta>> loadChanges(String updatedSince) {
+                return retrofitClient.getApiService().getPaymentChanges(token, updatedSince);
+            }
+        }, new PaymentLedger.SyncCallback() {
             @Override
-            public void onResponse(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Response<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> response) {
+            public void onSynced() {
+                if (getContext() == null) return;
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
-                
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    java.util.Map<String, Object> data = response.body().getData();
-                    
-                    if (data != null && data.containsKey("payments")) {
-                        try {
-                            com.google.gson.Gson gson = new com.google.gson.Gson();
-                            String paymentsJson = gson.toJson(data.get("payments"));
-                            List<Payment> paymentList = gson.fromJson(paymentsJson, new com.google.gson.reflect.TypeToken<List<Payment>>(){}.getType());
-                            
-                            if (paymentList != null) {
-                                List<Payment> filteredPayments = filterValidPayments(paymentList);
-                                
-                                payments.clear();
-                                payments.addAll(filteredPayments);
-                                paymentAdapter.notifyDataSetChanged();
-                                
-                                // Tính toán số tiền từ danh sách payments đã được filter
-                                // để đảm bảo số tiền hiển thị khớp với danh sách
-                                calculateSummaryFromList(filteredPayments);
-                                
-                                if (payments.isEmpty()) {
-                                    showEmptyState(true);
-                                } else {
-                                    showEmptyState(false);
-                                }
-                            } else {
-                                showEmptyState(true);
-                                // Reset số tiền về 0 nếu không có payments
-                                tvTotalPaid.setText("0 VNĐ");
-                                tvPendingAmount.setText("0 VNĐ");
-                            }
-                        } catch (Exception e) {
-                            Toast.makeText(getContext(), "Lỗi xử lý dữ liệu thanh toán", Toast.LENGTH_SHORT).show();
-                            showEmptyState(true);
-                            // Reset số tiền về 0 nếu có lỗi
-                            tvTotalPaid.setText("0 VNĐ");
-                            tvPendingAmount.setText("0 VNĐ");
-                        }
-                    } else {
-                        showEmptyState(true);
-                        // Reset số tiền về 0 nếu không có dữ liệu
-                        tvTotalPaid.setText("0 VNĐ");
-                        tvPendingAmount.setText("0 VNĐ");
-                    }
-                } else {
-                    Toast.makeText(getContext(), "Lỗi tải dữ liệu thanh toán", Toast.LENGTH_SHORT).show();
-                    showEmptyState(true);
-                    // Reset số tiền về 0 nếu có lỗi
-                    tvTotalPaid.setText("0 VNĐ");
-                    tvPendingAmount.setText("0 VNĐ");
-                }
+                showEmptyState(payments.isEmpty());
             }
             
             @Override
-            public void onFailure(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Throwable t) {
+            public void onError(String message) {
+                if (getContext() == null) return;
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
-                Toast.makeText(getContext(), "Lỗi kết nối mạng", Toast.LENGTH_SHORT).show();
-                showEmptyState(true);
+                Toast.makeText(getContext(), message != null ? message : "Lỗi tải dữ liệu thanh toán", Toast.LENGTH_SHORT).show();
+                showEmptyState(payments.isEmpty());
             }
         });
     }
     
-    
-    private List<Payment> filterValidPayments(List<Payment> paymentList) {
-        List<Payment> validPayments = new ArrayList<>();
-        
-        for (Payment payment : paymentList) {
-            if (payment != null) {
-                // Nếu booking có status, chỉ lấy confirmed hoặc active
-                // Nếu booking không có status (null), vẫn hiển thị payment
-            if (payment.getBooking() != null) {
-                String bookingStatus = payment.getBooking().getStatus();
-                    if (bookingStatus == null || 
-                        "confirmed".equals(bookingStatus) || 
-                        "active".equals(bookingStatus) ||
-                        "deposit_paid".equals(bookingStatus)) {
-                        validPayments.add(payment);
-                    }
-                } else {
-                    // Nếu không có booking, vẫn hiển thị payment
-                    validPayments.add(payment);
-                }
-            }
-        }
-        
-        return validPayments;
-    }
-    
-    private void calculateSummaryFromList(List<Payment> paymentList) {
-        double paidAmount = 0;
-        double pendingAmount = 0;
-        
-        if (paymentList != null) {
-        for (Payment payment : paymentList) {
-                if (payment != null) {
-                    String status = payment.getStatus();
-                    if ("completed".equals(status)) {
-                paidAmount += payment.getAmount();
-                    } else if ("pending".equals(status) || "processing".equals(status)) {
-                pendingAmount += payment.getAmount();
-                    }
-                }
-            }
-        }
-        
-        tvTotalPaid.setText(String.format("%.0f VNĐ", paidAmount));
-        tvPendingAmount.setText(String.format("%.0f VNĐ", pendingAmount));
+    private void showPayments(List<Payment> items) {
+        payments.clear();
+        payments.addAll(items);
+        paymentAdapter.submitList(new ArrayList<>(payments));
+        showEmptyState(payments.isEmpty());
     }
     
     private void showLoading(boolean show) {
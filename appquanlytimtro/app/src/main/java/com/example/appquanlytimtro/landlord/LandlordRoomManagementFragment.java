@@ -1,17 +1,20 @@
 //fragment: màn hình quản lý phòng cho chủ trọ
 // Mục đích file: File này dùng để quản lý các phòng trọ của chủ trọ
 // function: 
-// - onCreateView(): Khởi tạo view và setup các component
+// - onCreateView(): Khởi tạo view, setup các component và theo dõi kết quả gửi của outbox
+// - onDestroyView(): Bỏ theo dõi outbox
 // - initViews(): Khởi tạo các view components
 // - setupRecyclerView(): Thiết lập RecyclerView và adapter
 // - setupSwipeRefresh(): Thiết lập chức năng pull-to-refresh
 // - setupClickListeners(): Thiết lập các sự kiện click
-// - loadRooms(): Tải danh sách phòng từ API
+// - loadRooms(): Tải danh sách phòng từ API và ghim các phòng này trong cache bộ nhớ
+// - pinOwnRooms(): Ghim phòng của chính chủ trọ để chi tiết phòng không bị bỏ khỏi cache khi đầy
 // - updateEmptyView(): Cập nhật trạng thái empty view
 // - onAddRoomClick(): Xử lý click thêm phòng
 // - onRoomClick(): Xử lý click vào phòng
 // - onEditRoomClick(): Xử lý click chỉnh sửa phòng
 // - onDeleteRoomClick(): Xử lý click xóa phòng
+// - deleteRoom(): Xóa phòng qua outbox (bỏ khỏi danh sách ngay, gửi ở nền)
 // - onToggleStatusClick(): Xử lý click thay đổi trạng thái phòng
 // - showLoading(): Hiển thị/ẩn loading indicator
 // - showError(): Hiển thị thông báo lỗi
@@ -32,17 +35,21 @@ import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.cache.CacheManager;
 import com.example.appquanlytimtro.rooms.RoomListActivity;
 import com.example.appquanlytimtro.landlord.AddRoomActivity;
 import com.example.appquanlytimtro.landlord.EditRoomActivity;
 import com.example.appquanlytimtro.rooms.PostRoomFragment;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.example.appquanlytimtro.models.User;
-import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.RoomSummaryPage;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.adapters.LandlordRoomAdapter;
+import com.example.appquanlytimtro.database.outbox.Outbox;
+import com.example.appquanlytimtro.database.outbox.OutboxEntity;
 import com.google.android.material.button.MaterialButton;
-import com.google.gson.Gson;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -57,7 +64,13 @@ public class LandlordRoomManagementFragment extends Fragment implements Landlord
     private RetrofitClient retrofitClient;
     private User currentUser;
     private LandlordRoomAdapter roomAdapter;
-    private java.util.List<Room> roomList;
+    private java.util.List<RoomSummary> roomList;
+    // Server từ chối xóa thì tải lại để phòng hiện lại trong danh sách
+    private final Outbox.Listener outboxListener = (operation, message) -> {
+        if (OutboxEntity.TYPE_DELETE_ROOM.equals(operation.type) && getView() != null) {
+            loadRooms();
+        }
+    };
 
     @Nullable
     @Override
@@ -69,17 +82,20 @@ public class LandlordRoomManagementFragment extends Fragment implements Landlord
         
         initViews(view);
         setupClickListeners();
+        Outbox.getInstance(requireContext()).addListener(outboxListener);
         loadRooms();
         
         return view;
     }
+
+    @Override
+    public void onDestroyView() {
+        Outbox.getInstance(requireContext()).removeListener(outboxListener);
+        super.onDestroyView();
+    }
     
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            Gson gson = new Gson();
-            currentUser = gson.fromJson(userJson, User.class);
-        }
+        currentUser = retrofitClient.getCurrentUser();
     }
     
     private void initViews(View view) {
@@ -88,7 +104,7 @@ public class LandlordRoomManagementFragment extends Fragment implements Landlord
         btnAddRoom = view.findViewById(R.id.btnAddRoom);
         
         roomList = new java.util.ArrayList<>();
-        roomAdapter = new LandlordRoomAdapter(roomList, this);
+        roomAdapter = new LandlordRoomAdapter(this);
         
         if (recyclerViewRooms != null) {
             recyclerViewRooms.setLayoutManager(new LinearLayoutManager(getContext()));
@@ -121,46 +137,22 @@ public class LandlordRoomManagementFragment extends Fragment implements Landlord
         
         java.util.Map<String, String> queryParams = new java.util.HashMap<>();
         
-        retrofitClient.getApiService().getUserRooms(token, currentUser.getId(), queryParams).enqueue(new Callback<ApiResponse<java.util.Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getUserRoomSummaries(token, currentUser.getId(), queryParams), new Callback<ApiResponse<RoomSummaryPage>>() {
             @Override
-            public void onResponse(Call<ApiResponse<java.util.Map<String, Object>>> call, Response<ApiResponse<java.util.Map<String, Object>>> response) {
+            public void onResponse(Call<ApiResponse<RoomSummaryPage>> call, Response<ApiResponse<RoomSummaryPage>> response) {
                 
                 if (swipeRefreshLayout != null) {
                     swipeRefreshLayout.setRefreshing(false);
                 }
                 
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    java.util.Map<String, Object> data = response.body().getData();
+                    RoomSummaryPage data = response.body().getData();
                     
-                    if (data != null && data.containsKey("rooms")) {
-                        try {
-                            Gson gson = new Gson();
-                            java.util.List<?> roomsData = (java.util.List<?>) data.get("rooms");
-                            
-                            roomList.clear();
-                            
-                            int successCount = 0;
-                            int errorCount = 0;
-                            
-                            for (int i = 0; i < roomsData.size(); i++) {
-                                Object roomObj = roomsData.get(i);
-                                try {
-                                    String roomJson = gson.toJson(roomObj);
-                                    
-                                    Room room = gson.fromJson(roomJson, Room.class);
-                                    if (room != null) {
-                                        roomList.add(room);
-                                        successCount++;
-                                    } else {
-                                        errorCount++;
-                                    }
-                                } catch (Exception e) {
-                                    errorCount++;
-                                }
-                            }               
-                            roomAdapter.notifyDataSetChanged();
-                        } catch (Exception e) {
-                        }
+                    if (data != null) {
+                        roomList.clear();
+                        roomList.addAll(data.getItems());
+                        roomAdapter.submitList(new java.util.ArrayList<>(roomList));
+                        pinOwnRooms(data.getItems());
                     } else {
                         if (getContext() != null) {
                             Toast.makeText(getContext(), "Không có phòng nào", Toast.LENGTH_SHORT).show();
@@ -174,7 +166,7 @@ public class LandlordRoomManagementFragment extends Fragment implements Landlord
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<java.util.Map<String, Object>>> call, Throwable t) {
+            public void onFailure(Call<ApiResponse<RoomSummaryPage>> call, Throwable t) {
                 if (swipeRefreshLayout != null) {
                     swipeRefreshLayout.setRefreshing(false);
                 }
@@ -185,16 +177,24 @@ public class LandlordRoomManagementFragment extends Fragment implements Landlord
         });
     }
     
+    private void pinOwnRooms(java.util.List<RoomSummary> rooms) {
+        java.util.List<String> ids = new java.util.ArrayList<>(rooms.size());
+        for (RoomSummary room : rooms) {
+            ids.add(room.getId());
+        }
+        CacheManager.getInstance().rooms().setPinned(ids);
+    }
+    
     
     @Override
-    public void onEditRoom(Room room) {
+    public void onEditRoom(RoomSummary room) {
         Intent intent = new Intent(getActivity(), EditRoomActivity.class);
         intent.putExtra("room_id", room.getId());
         startActivity(intent);
     }
     
     @Override
-    public void onDeleteRoom(Room room) {
+    public void onDeleteRoom(RoomSummary room) {
         new androidx.appcompat.app.AlertDialog.Builder(getContext())
                 .setTitle("Xóa phòng")
                 .setMessage("Bạn có chắc chắn muốn xóa phòng \"" + room.getTitle() + "\"?")
@@ -203,31 +203,18 @@ public class LandlordRoomManagementFragment extends Fragment implements Landlord
                 .show();
     }
     
-    private void deleteRoom(Room room) {
-        String token = "Bearer " + retrofitClient.getToken();
-        
-        retrofitClient.getApiService().deleteRoom(token, room.getId()).enqueue(new Callback<ApiResponse<Void>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<Void>> call, Response<ApiResponse<Void>> response) {
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    if (getContext() != null) {
-                        Toast.makeText(getContext(), "Đã xóa phòng", Toast.LENGTH_SHORT).show();
-                    }
-                    loadRooms(); // Reload the list
-                } else {
-                    if (getContext() != null) {
-                        Toast.makeText(getContext(), "Không thể xóa phòng", Toast.LENGTH_SHORT).show();
-                    }
-                }
-            }
-            
-            @Override
-            public void onFailure(Call<ApiResponse<Void>> call, Throwable t) {
-                if (getContext() != null) {
-                    Toast.makeText(getContext(), "Lỗi kết nối: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-                }
-            }
-        });
+    private void deleteRoom(RoomSummary room) {
+        if (getContext() == null) {
+            return;
+        }
+        // Ghi vào outbox và bỏ phòng khỏi danh sách ngay, request được gửi ở nền
+        Outbox.getInstance(requireContext()).deleteRoom(room.getId());
+        int position = roomList.indexOf(room);
+        if (position >= 0) {
+            roomList.remove(position);
+            roomAdapter.submitList(new java.util.ArrayList<>(roomList));
+        }
+        Toast.makeText(getContext(), "Đã xóa phòng", Toast.LENGTH_SHORT).show();
     }
     
 }
@@ -0,0 +1,32 @@
+//model: class đại diện cho phần thay đổi của danh sách đặt phòng
+// Mục đích file: File này dùng để nhận kết quả GET bookings?updatedSince= (booking thay đổi và ID đã xóa)
+// function: 
+// - BookingDelta(): Constructor mặc định
+// - getItems(): Lấy danh sách booking đã thay đổi
+// - getBookings(): Lấy danh sách booking đã thay đổi
+// - setBookings(): Thiết lập danh sách booking đã thay đổi
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class BookingDelta extends DeltaData<Booking> {
+    @SerializedName("bookings")
+    private List<Booking> bookings;
+
+    public BookingDelta() {}
+
+    @Override
+    public List<Booking> getItems() {
+        return orEmpty(bookings);
+    }
+
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(List<Booking> bookings) {
+        this.bookings = bookings;
+    }
+}
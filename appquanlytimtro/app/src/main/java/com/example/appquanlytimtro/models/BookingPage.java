@@ -0,0 +1,32 @@
+//model: class đại diện cho một trang đặt phòng
+// Mục đích file: File này dùng để nhận trực tiếp danh sách đặt phòng kèm phân trang từ API
+// function: 
+// - BookingPage(): Constructor mặc định
+// - getItems(): Lấy danh sách đặt phòng
+// - getBookings(): Lấy danh sách đặt phòng
+// - setBookings(): Thiết lập danh sách đặt phòng
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class BookingPage extends PagedData<Booking> {
+    @SerializedName("bookings")
+    private List<Booking> bookings;
+
+    public BookingPage() {}
+
+    @Override
+    public List<Booking> getItems() {
+        return orEmpty(bookings);
+    }
+
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(List<Booking> bookings) {
+        this.bookings = bookings;
+    }
+}
@@ -0,0 +1,112 @@
+//model: class đại diện cho số liệu thống kê của dashboard
+// Mục đích file: File này dùng để đọc phần "stats" của GET statistics/overview thành các con số có kiểu (dùng chung cho dashboard admin, chủ trọ, người thuê) và lưu lại làm bản chụp dashboard trên máy
+// function: 
+// - DashboardStats(): Constructor mặc định
+// - fromStats(): Đọc số liệu từ map "stats" của API (thiếu trường nào thì là 0)
+// - getTotalUsers(): Lấy tổng số người dùng (admin)
+// - getTotalLandlords(): Lấy số chủ trọ (admin)
+// - getTotalRooms(): Lấy tổng số phòng
+// - getActiveRooms(): Lấy số phòng đang hoạt động
+// - getTotalBookings(): Lấy tổng số đặt phòng
+// - getPendingBookings(): Lấy số đặt phòng chờ xử lý
+// - getTotalDeposit(): Lấy tổng tiền cọc
+// - getTotalPaid(): Lấy tổng tiền đã thanh toán
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+import java.util.Map;
+
+public class DashboardStats {
+    @SerializedName("totalUsers")
+    private int totalUsers;
+
+    @SerializedName("totalLandlords")
+    private int totalLandlords;
+
+    @SerializedName("totalRooms")
+    private int totalRooms;
+
+    @SerializedName("activeRooms")
+    private int activeRooms;
+
+    @SerializedName("totalBookings")
+    private int totalBookings;
+
+    @SerializedName("pendingBookings")
+    private int pendingBookings;
+
+    @SerializedName("totalDeposit")
+    private double totalDeposit;
+
+    @SerializedName("totalPaid")
+    private double totalPaid;
+
+    public DashboardStats() {}
+
+    public static DashboardStats fromStats(Map<String, Object> stats) {
+        DashboardStats result = new DashboardStats();
+        if (stats == null) {
+            return result;
+        }
+        // users: [{ _id: role, count }] theo vai trò
+        if (stats.get("users") instanceof List) {
+            for (Object item : (List<?>) stats.get("users")) {
+                if (item instanceof Map && ((Map<?, ?>) item).get("count") instanceof Number) {
+                    int count = ((Number) ((Map<?, ?>) item).get("count")).intValue();
+                    result.totalUsers += count;
+                    if ("landlord".equals(((Map<?, ?>) item).get("_id"))) {
+                        result.totalLandlords = count;
+                    }
+                }
+            }
+        }
+        Map<?, ?> rooms = stats.get("rooms") instanceof Map ? (Map<?, ?>) stats.get("rooms") : null;
+        Map<?, ?> bookings = stats.get("bookings") instanceof Map ? (Map<?, ?>) stats.get("bookings") : null;
+        Map<?, ?> payments = stats.get("payments") instanceof Map ? (Map<?, ?>) stats.get("payments") : null;
+        result.totalRooms = (int) Math.round(number(rooms, "totalRooms"));
+        result.activeRooms = (int) Math.round(number(rooms, "activeRooms"));
+        result.totalBookings = (int) Math.round(number(bookings, "totalBookings"));
+        result.pendingBookings = (int) Math.round(number(bookings, "pendingBookings"));
+        result.totalDeposit = number(bookings, "totalDeposit");
+        result.totalPaid = number(payments, "totalAmount");
+        return result;
+    }
+
+    private static double number(Map<?, ?> map, String key) {
+        return map != null && map.get(key) instanceof Number ? ((Number) map.get(key)).doubleValue() : 0;
+    }
+
+    public int getTotalUsers() {
+        return totalUsers;
+    }
+
+    public int getTotalLandlords() {
+        return totalLandlords;
+    }
+
+    public int getTotalRooms() {
+        return totalRooms;
+    }
+
+    public int getActiveRooms() {
+        return activeRooms;
+    }
+
+    public int getTotalBookings() {
+        return totalBookings;
+    }
+
+    public int getPendingBookings() {
+        return pendingBookings;
+    }
+
+    public double getTotalDeposit() {
+        return totalDeposit;
+    }
+
+    public double getTotalPaid() {
+        return totalPaid;
+    }
+}
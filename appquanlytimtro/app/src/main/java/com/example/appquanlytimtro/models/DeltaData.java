@@ -0,0 +1,44 @@
+//model: class cơ sở cho dữ liệu đồng bộ delta
+// Mục đích file: File này dùng để định nghĩa hợp đồng chung cho các phản hồi updatedSince (bản ghi thay đổi, ID đã xóa, cờ tải lại)
+// function: 
+// - getItems(): Lấy danh sách bản ghi đã thay đổi (không bao giờ null)
+// - getDeleted(): Lấy danh sách ID đã xóa (không bao giờ null)
+// - setDeleted(): Thiết lập danh sách ID đã xóa
+// - isResync(): Kiểm tra server có yêu cầu tải lại toàn bộ không
+// - setResync(): Thiết lập cờ tải lại toàn bộ
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collections;
+import java.util.List;
+
+public abstract class DeltaData<T> {
+    @SerializedName("deleted")
+    private List<String> deleted;
+
+    @SerializedName("resync")
+    private boolean resync;
+
+    public abstract List<T> getItems();
+
+    public List<String> getDeleted() {
+        return orEmpty(deleted);
+    }
+
+    public void setDeleted(List<String> deleted) {
+        this.deleted = deleted;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+
+    public void setResync(boolean resync) {
+        this.resync = resync;
+    }
+
+    protected static <E> List<E> orEmpty(List<E> list) {
+        return list != null ? list : Collections.<E>emptyList();
+    }
+}
@@ -12,6 +12,8 @@
 // - setTitle(): Thiết lập tiêu đề thông báo
 // - getMessage(): Lấy nội dung thông báo
 // - setMessage(): Thiết lập nội dung thông báo
+// - getStatus(): Lấy trạng thái (unread/read/archived)
+// - setStatus(): Thiết lập trạng thái
 // - isRead(): Kiểm tra đã đọc chưa
 // - setRead(): Thiết lập trạng thái đã đọc
 // - getCreatedAt(): Lấy thời gian tạo
@@ -21,6 +23,9 @@ package com.example.appquanlytimtro.models;
 import com.google.gson.annotations.SerializedName;
 
 public class Notification {
+    public static final String STATUS_UNREAD = "unread";
+    public static final String STATUS_READ = "read";
+
     @SerializedName("_id")
     private String id;
     
@@ -39,8 +44,8 @@ public class Notification {
     @SerializedName("data")
     private NotificationData data;
     
-    @SerializedName("isRead")
-    private boolean isRead;
+    @SerializedName("status")
+    private String status;
     
     @SerializedName("readAt")
     private String readAt;
@@ -51,8 +56,8 @@ public class Notification {
     @SerializedName("updatedAt")
     private String updatedAt;
     
-    @SerializedName("recipient")
-    private User recipient;
+    // Backend chỉ trả về ID người nhận trong "recipient", object User được gán thủ công
+    private transient User recipient;
 
     public Notification() {}
 
@@ -104,12 +109,21 @@ public class Notification {
         this.data = data;
     }
 
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    // Backend chỉ có trường status; thông báo đã lưu trữ cũng coi là đã đọc
     public boolean isRead() {
-        return isRead;
+        return status != null && !STATUS_UNREAD.equals(status);
     }
 
     public void setRead(boolean read) {
-        isRead = read;
+        status = read ? STATUS_READ : STATUS_UNREAD;
     }
 
     public String getReadAt() {
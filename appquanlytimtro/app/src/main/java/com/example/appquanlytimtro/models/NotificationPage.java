@@ -0,0 +1,45 @@
+//model: class đại diện cho một trang thông báo
+// Mục đích file: File này dùng để nhận trực tiếp danh sách thông báo kèm phân trang từ API
+// function: 
+// - NotificationPage(): Constructor mặc định
+// - getItems(): Lấy danh sách thông báo
+// - getNotifications(): Lấy danh sách thông báo
+// - setNotifications(): Thiết lập danh sách thông báo
+// - getUnreadCount(): Lấy tổng số thông báo chưa đọc trên server (null nếu server không trả về)
+// - setUnreadCount(): Thiết lập tổng số chưa đọc
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class NotificationPage extends PagedData<Notification> {
+    @SerializedName("notifications")
+    private List<Notification> notifications;
+
+    @SerializedName("unreadCount")
+    private Integer unreadCount;
+
+    public NotificationPage() {}
+
+    @Override
+    public List<Notification> getItems() {
+        return orEmpty(notifications);
+    }
+
+    public List<Notification> getNotifications() {
+        return notifications;
+    }
+
+    public void setNotifications(List<Notification> notifications) {
+        this.notifications = notifications;
+    }
+
+    public Integer getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(Integer unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
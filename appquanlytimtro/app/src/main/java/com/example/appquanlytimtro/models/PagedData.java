@@ -0,0 +1,36 @@
+//model: class cơ sở cho dữ liệu phân trang
+// Mục đích file: File này dùng để định nghĩa hợp đồng chung cho các phản hồi danh sách có phân trang
+// function: 
+// - getItems(): Lấy danh sách phần tử của trang (không bao giờ null)
+// - getPagination(): Lấy thông tin phân trang
+// - setPagination(): Thiết lập thông tin phân trang
+// - hasNext(): Kiểm tra còn trang sau không
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collections;
+import java.util.List;
+
+public abstract class PagedData<T> {
+    @SerializedName("pagination")
+    private Pagination pagination;
+
+    public abstract List<T> getItems();
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public void setPagination(Pagination pagination) {
+        this.pagination = pagination;
+    }
+
+    public boolean hasNext() {
+        return pagination != null && pagination.isHasNext();
+    }
+
+    protected static <E> List<E> orEmpty(List<E> list) {
+        return list != null ? list : Collections.<E>emptyList();
+    }
+}
@@ -0,0 +1,95 @@
+//model: class đại diện cho thông tin phân trang
+// Mục đích file: File này dùng để định nghĩa cấu trúc phân trang chung của các API danh sách
+// function: 
+// - Pagination(): Constructor mặc định
+// - getCurrentPage(): Lấy trang hiện tại
+// - getTotalPages(): Lấy tổng số trang
+// - getTotal(): Lấy tổng số phần tử (totalRooms/totalBookings/totalUsers/totalItems)
+// - getTotalPayments(): Lấy tổng số thanh toán (chỉ có ở API payments)
+// - getTotalUnpaidBookings(): Lấy tổng số booking chưa thanh toán (chỉ có ở API payments)
+// - isHasNext(): Kiểm tra còn trang sau không
+// - isHasPrev(): Kiểm tra có trang trước không
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+public class Pagination {
+    @SerializedName("currentPage")
+    private int currentPage;
+    
+    @SerializedName("totalPages")
+    private int totalPages;
+    
+    @SerializedName(value = "totalItems", alternate = {"totalRooms", "totalBookings", "totalUsers"})
+    private int total;
+    
+    @SerializedName("totalPayments")
+    private int totalPayments;
+    
+    @SerializedName("totalUnpaidBookings")
+    private int totalUnpaidBookings;
+    
+    @SerializedName("hasNext")
+    private boolean hasNext;
+    
+    @SerializedName("hasPrev")
+    private boolean hasPrev;
+
+    public Pagination() {}
+
+    public int getCurrentPage() {
+        return currentPage;
+    }
+
+    public void setCurrentPage(int currentPage) {
+        this.currentPage = currentPage;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getTotalPayments() {
+        return totalPayments;
+    }
+
+    public void setTotalPayments(int totalPayments) {
+        this.totalPayments = totalPayments;
+    }
+
+    public int getTotalUnpaidBookings() {
+        return totalUnpaidBookings;
+    }
+
+    public void setTotalUnpaidBookings(int totalUnpaidBookings) {
+        this.totalUnpaidBookings = totalUnpaidBookings;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public boolean isHasPrev() {
+        return hasPrev;
+    }
+
+    public void setHasPrev(boolean hasPrev) {
+        this.hasPrev = hasPrev;
+    }
+}
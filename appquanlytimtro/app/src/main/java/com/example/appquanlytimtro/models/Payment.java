@@ -108,6 +108,12 @@ public class Payment {
     
     @SerializedName("recipient")
     private User recipient;
+    
+    @SerializedName("createdAt")
+    private String createdAt;
+    
+    @SerializedName("updatedAt")
+    private String updatedAt;
 
     public Payment() {}
 
@@ -319,6 +325,22 @@ public class Payment {
         this.recipient = recipient;
     }
 
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public static class VNPayInfo {
         @SerializedName("txnRef")
         private String txnRef;
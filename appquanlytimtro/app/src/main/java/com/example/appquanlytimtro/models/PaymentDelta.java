@@ -0,0 +1,58 @@
+//model: class đại diện cho phần thay đổi của danh sách thanh toán
+// Mục đích file: File này dùng để nhận kết quả GET payments?updatedSince= (thanh toán thay đổi, ID đã xóa và thay đổi của booking chưa thanh toán)
+// function: 
+// - PaymentDelta(): Constructor mặc định
+// - getItems(): Lấy danh sách thanh toán đã thay đổi
+// - getPayments(): Lấy danh sách thanh toán đã thay đổi
+// - setPayments(): Thiết lập danh sách thanh toán đã thay đổi
+// - getUnpaidBookings(): Lấy booking chưa thanh toán mới/đã thay đổi (chỉ admin, không bao giờ null)
+// - setUnpaidBookings(): Thiết lập booking chưa thanh toán đã thay đổi
+// - getRemovedUnpaidBookings(): Lấy ID booking không còn trong danh sách chưa thanh toán (không bao giờ null)
+// - setRemovedUnpaidBookings(): Thiết lập ID booking không còn trong danh sách chưa thanh toán
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class PaymentDelta extends DeltaData<Payment> {
+    @SerializedName("payments")
+    private List<Payment> payments;
+
+    @SerializedName("unpaidBookings")
+    private List<Booking> unpaidBookings;
+
+    @SerializedName("removedUnpaidBookings")
+    private List<String> removedUnpaidBookings;
+
+    public PaymentDelta() {}
+
+    @Override
+    public List<Payment> getItems() {
+        return orEmpty(payments);
+    }
+
+    public List<Payment> getPayments() {
+        return payments;
+    }
+
+    public void setPayments(List<Payment> payments) {
+        this.payments = payments;
+    }
+
+    public List<Booking> getUnpaidBookings() {
+        return orEmpty(unpaidBookings);
+    }
+
+    public void setUnpaidBookings(List<Booking> unpaidBookings) {
+        this.unpaidBookings = unpaidBookings;
+    }
+
+    public List<String> getRemovedUnpaidBookings() {
+        return orEmpty(removedUnpaidBookings);
+    }
+
+    public void setRemovedUnpaidBookings(List<String> removedUnpaidBookings) {
+        this.removedUnpaidBookings = removedUnpaidBookings;
+    }
+}
@@ -0,0 +1,45 @@
+//model: class đại diện cho một trang thanh toán
+// Mục đích file: File này dùng để nhận trực tiếp danh sách thanh toán và booking chưa thanh toán kèm phân trang từ API
+// function: 
+// - PaymentPage(): Constructor mặc định
+// - getItems(): Lấy danh sách thanh toán
+// - getPayments(): Lấy danh sách thanh toán
+// - setPayments(): Thiết lập danh sách thanh toán
+// - getUnpaidBookings(): Lấy danh sách booking chưa thanh toán (chỉ admin, không bao giờ null)
+// - setUnpaidBookings(): Thiết lập danh sách booking chưa thanh toán
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class PaymentPage extends PagedData<Payment> {
+    @SerializedName("payments")
+    private List<Payment> payments;
+    
+    @SerializedName("unpaidBookings")
+    private List<Booking> unpaidBookings;
+
+    public PaymentPage() {}
+
+    @Override
+    public List<Payment> getItems() {
+        return orEmpty(payments);
+    }
+
+    public List<Payment> getPayments() {
+        return payments;
+    }
+
+    public void setPayments(List<Payment> payments) {
+        this.payments = payments;
+    }
+
+    public List<Booking> getUnpaidBookings() {
+        return orEmpty(unpaidBookings);
+    }
+
+    public void setUnpaidBookings(List<Booking> unpaidBookings) {
+        this.unpaidBookings = unpaidBookings;
+    }
+}
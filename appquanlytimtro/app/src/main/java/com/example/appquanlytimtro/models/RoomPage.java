@@ -0,0 +1,32 @@
+//model: class đại diện cho một trang phòng trọ
+// Mục đích file: File này dùng để nhận trực tiếp danh sách phòng trọ kèm phân trang từ API
+// function: 
+// - RoomPage(): Constructor mặc định
+// - getItems(): Lấy danh sách phòng trọ
+// - getRooms(): Lấy danh sách phòng trọ
+// - setRooms(): Thiết lập danh sách phòng trọ
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class RoomPage extends PagedData<Room> {
+    @SerializedName("rooms")
+    private List<Room> rooms;
+
+    public RoomPage() {}
+
+    @Override
+    public List<Room> getItems() {
+        return orEmpty(rooms);
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(List<Room> rooms) {
+        this.rooms = rooms;
+    }
+}
@@ -0,0 +1,172 @@
+//model: class đại diện cho thông tin rút gọn của phòng trọ
+// Mục đích file: File này dùng để nhận dữ liệu phòng cho thẻ trong danh sách (fields=summary), không kèm chủ trọ, quy định...; mô tả đã bị cắt ngắn và chỉ dùng để tìm kiếm offline
+// function:
+// - RoomSummary(): Constructor mặc định
+// - getId(): Lấy ID phòng
+// - setId(): Thiết lập ID phòng
+// - getTitle(): Lấy tiêu đề phòng
+// - setTitle(): Thiết lập tiêu đề phòng
+// - getDescription(): Lấy mô tả phòng (tối đa 300 ký tự đầu)
+// - setDescription(): Thiết lập mô tả phòng
+// - getAddress(): Lấy địa chỉ phòng
+// - setAddress(): Thiết lập địa chỉ phòng
+// - getRoomType(): Lấy loại phòng
+// - setRoomType(): Thiết lập loại phòng
+// - getArea(): Lấy diện tích phòng
+// - setArea(): Thiết lập diện tích phòng
+// - getAmenities(): Lấy danh sách tiện ích
+// - setAmenities(): Thiết lập danh sách tiện ích
+// - getPrice(): Lấy giá phòng (chỉ có giá thuê tháng)
+// - setPrice(): Thiết lập giá phòng
+// - getImages(): Lấy danh sách ảnh (chỉ có ảnh đầu tiên)
+// - setImages(): Thiết lập danh sách ảnh
+// - getStatus(): Lấy trạng thái phòng
+// - setStatus(): Thiết lập trạng thái phòng
+// - getViews(): Lấy lượt xem
+// - setViews(): Thiết lập lượt xem
+// - getUpdatedAt(): Lấy thời gian cập nhật
+// - setUpdatedAt(): Thiết lập thời gian cập nhật
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class RoomSummary {
+    // Preset projection phía backend (backend/utils/projection.js)
+    public static final String FIELDS = "summary";
+
+    @SerializedName("_id")
+    private String id;
+
+    @SerializedName("title")
+    private String title;
+
+    @SerializedName("description")
+    private String description;
+
+    @SerializedName("address")
+    private User.Address address;
+
+    @SerializedName("roomType")
+    private String roomType;
+
+    @SerializedName("area")
+    private double area;
+
+    @SerializedName("amenities")
+    private List<String> amenities;
+
+    @SerializedName("price")
+    private Room.Price price;
+
+    @SerializedName("images")
+    private List<Room.RoomImage> images;
+
+    @SerializedName("status")
+    private String status;
+
+    @SerializedName("views")
+    private int views;
+
+    @SerializedName("updatedAt")
+    private String updatedAt;
+
+    public RoomSummary() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public User.Address getAddress() {
+        return address;
+    }
+
+    public void setAddress(User.Address address) {
+        this.address = address;
+    }
+
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(String roomType) {
+        this.roomType = roomType;
+    }
+
+    public double getArea() {
+        return area;
+    }
+
+    public void setArea(double area) {
+        this.area = area;
+    }
+
+    public List<String> getAmenities() {
+        return amenities;
+    }
+
+    public void setAmenities(List<String> amenities) {
+        this.amenities = amenities;
+    }
+
+    public Room.Price getPrice() {
+        return price;
+    }
+
+    public void setPrice(Room.Price price) {
+        this.price = price;
+    }
+
+    public List<Room.RoomImage> getImages() {
+        return images;
+    }
+
+    public void setImages(List<Room.RoomImage> images) {
+        this.images = images;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getViews() {
+        return views;
+    }
+
+    public void setViews(int views) {
+        this.views = views;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,22 @@
+//model: class đại diện cho một trang phòng trọ rút gọn
+// Mục đích file: File này dùng để nhận danh sách phòng dạng rút gọn (fields=summary) kèm phân trang từ API
+// function:
+// - RoomSummaryPage(): Constructor mặc định
+// - getItems(): Lấy danh sách phòng rút gọn
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class RoomSummaryPage extends PagedData<RoomSummary> {
+    @SerializedName("rooms")
+    private List<RoomSummary> rooms;
+
+    public RoomSummaryPage() {}
+
+    @Override
+    public List<RoomSummary> getItems() {
+        return orEmpty(rooms);
+    }
+}
@@ -0,0 +1,32 @@
+//model: class đại diện cho một trang người dùng
+// Mục đích file: File này dùng để nhận trực tiếp danh sách người dùng kèm phân trang từ API
+// function: 
+// - UserPage(): Constructor mặc định
+// - getItems(): Lấy danh sách người dùng
+// - getUsers(): Lấy danh sách người dùng
+// - setUsers(): Thiết lập danh sách người dùng
+package com.example.appquanlytimtro.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class UserPage extends PagedData<User> {
+    @SerializedName("users")
+    private List<User> users;
+
+    public UserPage() {}
+
+    @Override
+    public List<User> getItems() {
+        return orEmpty(users);
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<User> users) {
+        this.users = users;
+    }
+}
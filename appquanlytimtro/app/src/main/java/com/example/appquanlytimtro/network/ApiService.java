@@ -4,19 +4,24 @@
 // - login(): API đăng nhập
 // - register(): API đăng ký
 // - getRooms(): API lấy danh sách phòng
+// - getRoomSummaries(): API lấy danh sách phòng dạng rút gọn cho thẻ phòng (fields=summary)
+// - getUserRoomSummaries(): API lấy danh sách phòng rút gọn của một chủ trọ
 // - getRoom(): API lấy chi tiết phòng
+// - recordRoomView(): API ghi nhận một lượt xem phòng
 // - createRoom(): API tạo phòng mới
 // - updateRoom(): API cập nhật phòng
 // - deleteRoom(): API xóa phòng
 // - uploadRoomImages(): API upload ảnh phòng
-// - getBookings(): API lấy danh sách đặt phòng
+// - getBookings(): API lấy danh sách đặt phòng (ưu tiên MessagePack)
+// - getBookingChanges(): API lấy booking thay đổi/đã xóa từ một thời điểm (đồng bộ delta)
 // - getBooking(): API lấy chi tiết đặt phòng
 // - createBooking(): API tạo đặt phòng mới
 // - updateBooking(): API cập nhật đặt phòng
 // - updateBookingStatus(): API cập nhật trạng thái đặt phòng
 // - getBookingStatus(): API lấy trạng thái đặt phòng
 // - deleteBooking(): API xóa đặt phòng
-// - getPayments(): API lấy danh sách thanh toán
+// - getPayments(): API lấy danh sách thanh toán (ưu tiên MessagePack)
+// - getPaymentChanges(): API lấy thanh toán thay đổi/đã xóa từ một thời điểm (đồng bộ delta)
 // - getPayment(): API lấy chi tiết thanh toán
 // - createPayment(): API tạo thanh toán mới
 // - updatePayment(): API cập nhật thanh toán
@@ -27,17 +32,35 @@
 // - getStatistics(): API lấy thống kê
 // - getNotifications(): API lấy danh sách thông báo
 // - markNotificationAsRead(): API đánh dấu thông báo đã đọc
+// - markNotificationsAsRead(): API đánh dấu nhiều thông báo đã đọc trong một lần gọi (dùng qua Outbox)
+// - markAllNotificationsAsRead(): API đánh dấu tất cả thông báo đã đọc (dùng qua Outbox)
+// - batch(): API gộp nhiều request ghi vào một lần gọi (dùng qua Outbox)
+// - batchRead(): API gộp nhiều request GET vào một lần gọi, không làm mất kết quả dùng lại (dùng qua ApiBatch)
 package com.example.appquanlytimtro.network;
 
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.BookingDelta;
+import com.example.appquanlytimtro.models.BookingPage;
 import com.example.appquanlytimtro.models.LoginRequest;
 import com.example.appquanlytimtro.models.LoginResponse;
+import com.example.appquanlytimtro.models.NotificationPage;
 import com.example.appquanlytimtro.models.Payment;
+import com.example.appquanlytimtro.models.PaymentDelta;
+import com.example.appquanlytimtro.models.PaymentPage;
 import com.example.appquanlytimtro.models.RegisterRequest;
 import com.example.appquanlytimtro.models.RegisterResponse;
 import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.RoomPage;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.RoomSummaryPage;
 import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.models.UserPage;
+import com.example.appquanlytimtro.network.batch.BatchRequest;
+import com.example.appquanlytimtro.network.batch.BatchResponse;
+import com.example.appquanlytimtro.network.json.CompactConverterFactory;
+import com.example.appquanlytimtro.network.scheduler.RequestClass;
+import com.example.appquanlytimtro.network.scheduler.RequestPriority;
 
 import java.util.List;
 import java.util.Map;
@@ -47,6 +70,7 @@ import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
 import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
 import retrofit2.http.Path;
@@ -80,7 +104,7 @@ public interface ApiService {
     
     // User endpoints
     @GET("users")
-    Call<ApiResponse<Map<String, Object>>> getUsers(@Header("Authorization") String token,
+    Call<ApiResponse<UserPage>> getUsers(@Header("Authorization") String token,
                                                    @QueryMap Map<String, String> params);
     
     @POST("users")
@@ -97,30 +121,44 @@ public interface ApiService {
     Call<ApiResponse<Void>> deleteUser(@Header("Authorization") String token, @Path("id") String userId);
     
     @GET("users/{id}/bookings")
-    Call<ApiResponse<Map<String, Object>>> getUserBookings(@Header("Authorization") String token,
+    Call<ApiResponse<BookingPage>> getUserBookings(@Header("Authorization") String token,
                                                           @Path("id") String userId,
                                                           @QueryMap Map<String, String> params);
     
     @GET("users/{id}/rooms")
-    Call<ApiResponse<Map<String, Object>>> getUserRooms(@Header("Authorization") String token,
+    Call<ApiResponse<RoomPage>> getUserRooms(@Header("Authorization") String token,
                                                        @Path("id") String userId,
                                                        @QueryMap Map<String, String> params);
     
+    @GET("users/{id}/rooms?fields=" + RoomSummary.FIELDS)
+    Call<ApiResponse<RoomSummaryPage>> getUserRoomSummaries(@Header("Authorization") String token,
+                                                            @Path("id") String userId,
+                                                            @QueryMap Map<String, String> params);
+    
     @GET("users/{id}/payments")
-    Call<ApiResponse<Map<String, Object>>> getUserPayments(@Header("Authorization") String token,
+    Call<ApiResponse<PaymentPage>> getUserPayments(@Header("Authorization") String token,
                                                           @Path("id") String userId,
                                                           @QueryMap Map<String, String> params);
     
     // Room endpoints
     @GET("rooms")
-    Call<ApiResponse<Map<String, Object>>> getRooms(@QueryMap Map<String, String> params);
+    Call<ApiResponse<RoomPage>> getRooms(@QueryMap Map<String, String> params);
+    
+    @GET("rooms?fields=" + RoomSummary.FIELDS)
+    Call<ApiResponse<RoomSummaryPage>> getRoomSummaries(@QueryMap Map<String, String> params);
     
+    @RequestPriority(RequestClass.PREFETCH)
     @GET("rooms/featured")
     Call<ApiResponse<List<Room>>> getFeaturedRooms(@Query("limit") int limit);
     
     @GET("rooms/{id}")
     Call<ApiResponse<Map<String, Object>>> getRoom(@Path("id") String roomId);
     
+    // Lượt xem tách khỏi GET chi tiết phòng (GET được thử lại/hedging); không đổi dữ liệu app đang giữ nên không xóa kết quả GET dùng lại
+    @ReadOnly
+    @POST("rooms/{id}/view")
+    Call<ApiResponse<Void>> recordRoomView(@Path("id") String roomId);
+    
     @POST("rooms")
     Call<ApiResponse<Map<String, Object>>> createRoom(@Header("Authorization") String token, @Body Room room);
     
@@ -135,6 +173,12 @@ public interface ApiService {
     Call<ApiResponse<Map<String, Object>>> toggleRoomLike(@Header("Authorization") String token, 
                                                          @Path("id") String roomId);
     
+    // Đặt trạng thái thích (liked: true/false), gửi lại nhiều lần vẫn cho cùng kết quả
+    @PUT("rooms/{id}/like")
+    Call<ApiResponse<Map<String, Object>>> setRoomLike(@Header("Authorization") String token, 
+                                                      @Path("id") String roomId, @Body Map<String, Boolean> like);
+    
+    @RequestPriority(RequestClass.PREFETCH)
     @GET("rooms/{id}/similar")
     Call<ApiResponse<List<Room>>> getSimilarRooms(@Path("id") String roomId, @Query("limit") int limit);
     
@@ -142,6 +186,7 @@ public interface ApiService {
     Call<ApiResponse<Map<String, Object>>> getRoomStats();
 
     // Room images upload
+    @RequestPriority(RequestClass.BULK)
     @Multipart
     @POST("rooms/{id}/images")
     Call<ApiResponse<Map<String, Object>>> uploadRoomImages(
@@ -152,9 +197,15 @@ public interface ApiService {
     
     // Booking endpoints
     @GET("bookings")
-    Call<ApiResponse<Map<String, Object>>> getBookings(@Header("Authorization") String token,
+    @Headers(CompactConverterFactory.ACCEPT_COMPACT)
+    Call<ApiResponse<BookingPage>> getBookings(@Header("Authorization") String token,
                                                       @QueryMap Map<String, String> params);
     
+    @GET("bookings")
+    @Headers(CompactConverterFactory.ACCEPT_COMPACT)
+    Call<ApiResponse<BookingDelta>> getBookingChanges(@Header("Authorization") String token,
+                                                      @Query("updatedSince") String updatedSince);
+    
     @GET("bookings/{id}")
     Call<ApiResponse<Booking>> getBooking(@Header("Authorization") String token, @Path("id") String bookingId);
     
@@ -178,9 +229,15 @@ public interface ApiService {
     
     // Payment endpoints
     @GET("payments")
-    Call<ApiResponse<Map<String, Object>>> getPayments(@Header("Authorization") String token,
+    @Headers(CompactConverterFactory.ACCEPT_COMPACT)
+    Call<ApiResponse<PaymentPage>> getPayments(@Header("Authorization") String token,
                                                       @QueryMap Map<String, String> params);
     
+    @GET("payments")
+    @Headers(CompactConverterFactory.ACCEPT_COMPACT)
+    Call<ApiResponse<PaymentDelta>> getPaymentChanges(@Header("Authorization") String token,
+                                                      @Query("updatedSince") String updatedSince);
+    
     @GET("payments/{id}")
     Call<ApiResponse<Payment>> getPayment(@Header("Authorization") String token, @Path("id") String paymentId);
     
@@ -215,13 +272,17 @@ public interface ApiService {
     
     // Notification endpoints
     @GET("notifications")
-    Call<ApiResponse<Map<String, Object>>> getNotifications(@Header("Authorization") String token,
+    Call<ApiResponse<NotificationPage>> getNotifications(@Header("Authorization") String token,
                                                            @QueryMap Map<String, String> params);
     
     @PUT("notifications/{id}/read")
     Call<ApiResponse<Void>> markNotificationAsRead(@Header("Authorization") String token, @Path("id") String notificationId);
     
-    @PUT("notifications/read-all")
+    @PUT("notifications/read")
+    Call<ApiResponse<Map<String, Object>>> markNotificationsAsRead(@Header("Authorization") String token,
+                                                                   @Body Map<String, List<String>> ids);
+    
+    @PUT("notifications/mark-all-read")
     Call<ApiResponse<Void>> markAllNotificationsAsRead(@Header("Authorization") String token);
     
     // Statistics endpoints
@@ -266,4 +327,13 @@ public interface ApiService {
     
     @GET("statistics/users")
     Call<ApiResponse<Map<String, Object>>> getUserStatistics(@Header("Authorization") String token);
+    
+    // Batch endpoint
+    @POST("batch")
+    Call<ApiResponse<BatchResponse>> batch(@Body BatchRequest request);
+    
+    // Cùng endpoint nhưng chỉ chứa request GET nên không thay đổi dữ liệu
+    @ReadOnly
+    @POST("batch")
+    Call<ApiResponse<BatchResponse>> batchRead(@Body BatchRequest request);
 }
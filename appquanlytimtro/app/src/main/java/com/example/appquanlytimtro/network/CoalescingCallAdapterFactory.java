@@ -0,0 +1,537 @@
+//class: gộp các request GET giống nhau đang chạy đồng thời (single-flight)
+// Mục đích file: File này dùng để các request GET cùng path, query và người dùng chỉ gọi mạng một lần; mỗi nơi gọi nhận Response riêng (body thành công là bản sao, body lỗi được đọc sẵn) nên sửa model hoặc đọc errorBody() ở một nơi không ảnh hưởng nơi khác; kết quả thành công được dùng lại trong một khoảng thời gian ngắn
+// function:
+// - get(): Tạo CallAdapter bọc Call của Retrofit (GET được gộp, method @ReadOnly giữ nguyên, request khác làm mất hiệu lực kết quả dùng lại)
+// - bodyCapture(): Converter đặt trước converter thật, giữ byte gốc của body GET để tạo bản sao khi cần
+// - join(): Gắn callback vào request đang chạy hoặc kết quả còn trong thời gian dùng lại
+// - invalidate(): Xóa kết quả dùng lại khi có request thay đổi dữ liệu (POST/PUT/DELETE)
+// - errorFor(): Tạo Response lỗi riêng cho một nơi gọi từ body lỗi đã đọc sẵn
+// - RawBody: Byte gốc của body thành công và converter thật, giải mã lại thành bản sao
+// - CoalescingCall: Call của một nơi gọi, hủy chỉ gỡ callback của nơi đó
+// - InFlight: Request mạng dùng chung cho các nơi gọi
+// - InvalidatingCall: Call thay đổi dữ liệu, xóa kết quả dùng lại khi bắt đầu và khi kết thúc
+package com.example.appquanlytimtro.network;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+public class CoalescingCallAdapterFactory extends CallAdapter.Factory {
+
+    // Định danh người dùng hiện tại để không dùng chung kết quả giữa các tài khoản
+    public interface IdentityProvider {
+        String identity();
+    }
+
+    private final IdentityProvider identityProvider;
+    private final long reuseWindowNanos;
+    // Body vừa giải mã trên thread này: Retrofit giải mã rồi gọi callback trên cùng một thread của OkHttp
+    private final ThreadLocal<Captured> captured = new ThreadLocal<>();
+    private final Converter.Factory bodyCapture = new BodyCaptureFactory();
+
+    private final Object lock = new Object();
+    private final Map<String, InFlight<?>> inFlight = new HashMap<>();
+    private final Map<String, Reusable> recent = new HashMap<>();
+    // Tăng mỗi khi có request thay đổi dữ liệu, kết quả của request bắt đầu trước đó không được dùng lại
+    private long generation = 0;
+
+    public CoalescingCallAdapterFactory(IdentityProvider identityProvider, long reuseWindow, TimeUnit unit) {
+        this.identityProvider = identityProvider;
+        this.reuseWindowNanos = unit.toNanos(reuseWindow);
+    }
+
+    // Phải thêm vào Retrofit trước các converter khác
+    public Converter.Factory bodyCapture() {
+        return bodyCapture;
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class) {
+            return null;
+        }
+        boolean isGet = isGet(annotations);
+        boolean readOnly = false;
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof ReadOnly) {
+                readOnly = true;
+            }
+        }
+        @SuppressWarnings("unchecked")
+        final CallAdapter<Object, Call<Object>> delegate =
+                (CallAdapter<Object, Call<Object>>) retrofit.nextCallAdapter(this, returnType, annotations);
+        final Executor callbackExecutor = retrofit.callbackExecutor() != null
+                ? retrofit.callbackExecutor()
+                : Runnable::run;
+        final boolean coalesce = isGet;
+        final boolean invalidate = !isGet && !readOnly;
+
+        return new CallAdapter<Object, Call<Object>>() {
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @Override
+            public Call<Object> adapt(Call<Object> call) {
+                if (coalesce) {
+                    // Dùng Call gốc để nhận kết quả trên thread đã giải mã body; callback được chuyển sang callbackExecutor tại đây
+                    return new CoalescingCall<>(call, callbackExecutor);
+                }
+                Call<Object> adapted = delegate.adapt(call);
+                return invalidate ? new InvalidatingCall<>(adapted) : adapted;
+            }
+        };
+    }
+
+    public void invalidate() {
+        synchronized (lock) {
+            generation++;
+            recent.clear();
+            // Request đang chạy vẫn trả về cho các nơi đã gắn vào, nhưng nơi gọi mới sẽ tạo request mới
+            inFlight.clear();
+        }
+    }
+
+    private static boolean isGet(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof GET) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Lấy byte gốc của body vừa giải mã trên thread này (null nếu body không qua bodyCapture)
+    private RawBody takeCaptured(Object body) {
+        Captured current = captured.get();
+        captured.remove();
+        return current != null && body != null && current.body == body ? current.raw : null;
+    }
+
+    private String keyFor(Call<?> call) {
+        Request request = call.request();
+        String identity = identityProvider != null ? identityProvider.identity() : null;
+        return request.method() + " " + request.url() + "|" + (identity != null ? identity : "");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void join(CoalescingCall<T> call, Callback<T> callback) {
+        String key = keyFor(call.delegate);
+        InFlight<T> flight;
+        boolean start = false;
+        synchronized (lock) {
+            long now = System.nanoTime();
+            Reusable reusable = recent.get(key);
+            if (reusable != null && now - reusable.createdAt <= reuseWindowNanos) {
+                final Reusable hit = reusable;
+                // Mỗi lần dùng lại nhận một bản sao mới, giải mã ngoài main thread
+                AppExecutors.computation().execute(() -> {
+                    Response<T> response;
+                    try {
+                        response = Response.success(hit.body.decode(), hit.raw);
+                    } catch (IOException | RuntimeException e) {
+                        call.callbackExecutor.execute(() -> {
+                            if (!call.canceled) {
+                                callback.onFailure(call, e);
+                            }
+                        });
+                        return;
+                    }
+                    call.callbackExecutor.execute(() -> {
+                        if (!call.canceled) {
+                            callback.onResponse(call, response);
+                        }
+                    });
+                });
+                return;
+            }
+            flight = (InFlight<T>) inFlight.get(key);
+            if (flight == null) {
+                flight = new InFlight<>(key, call.delegate, generation);
+                inFlight.put(key, flight);
+                start = true;
+            }
+            flight.waiters.add(new Waiter<>(call, callback));
+            call.flight = flight;
+        }
+        if (start) {
+            flight.network.enqueue(flight);
+        }
+    }
+
+    private void pruneExpired(long now) {
+        Iterator<Reusable> iterator = recent.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().createdAt > reuseWindowNanos) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static <T> Response<T> errorFor(Response<T> response, byte[] errorBytes, MediaType contentType) {
+        return Response.error(ResponseBody.create(errorBytes, contentType), response.raw());
+    }
+
+    // Giữ byte gốc thay vì object đã đưa cho nơi gọi (nơi gọi có thể đã sửa object đó)
+    private static class Reusable {
+        final RawBody body;
+        final okhttp3.Response raw;
+        final long createdAt;
+
+        Reusable(RawBody body, okhttp3.Response raw, long createdAt) {
+            this.body = body;
+            this.raw = raw;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static final class RawBody {
+        final byte[] bytes;
+        final MediaType contentType;
+        final Converter<ResponseBody, ?> converter;
+
+        RawBody(byte[] bytes, MediaType contentType, Converter<ResponseBody, ?> converter) {
+            this.bytes = bytes;
+            this.contentType = contentType;
+            this.converter = converter;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T decode() throws IOException {
+            return (T) converter.convert(ResponseBody.create(bytes, contentType));
+        }
+    }
+
+    private static final class Captured {
+        final Object body;
+        final RawBody raw;
+
+        Captured(Object body, RawBody raw) {
+            this.body = body;
+            this.raw = raw;
+        }
+    }
+
+    // Chỉ bọc method @GET; đọc hết body một lần rồi đưa cho converter thật
+    private final class BodyCaptureFactory extends Converter.Factory {
+        @Override
+        public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+            if (!isGet(annotations)) {
+                return null;
+            }
+            Converter<ResponseBody, ?> next = retrofit.nextResponseBodyConverter(this, type, annotations);
+            return value -> {
+                RawBody raw;
+                try {
+                    raw = new RawBody(value.bytes(), value.contentType(), next);
+                } finally {
+                    value.close();
+                }
+                Object body = raw.decode();
+                captured.set(new Captured(body, raw));
+                return body;
+            };
+        }
+    }
+
+    private static class Waiter<T> {
+        final CoalescingCall<T> call;
+        final Callback<T> callback;
+
+        Waiter(CoalescingCall<T> call, Callback<T> callback) {
+            this.call = call;
+            this.callback = callback;
+        }
+    }
+
+    private class InFlight<T> implements Callback<T> {
+        final String key;
+        final Call<T> network;
+        final long startGeneration;
+        final List<Waiter<T>> waiters = new ArrayList<>();
+
+        InFlight(String key, Call<T> network, long startGeneration) {
+            this.key = key;
+            this.network = network;
+            this.startGeneration = startGeneration;
+        }
+
+        // Chạy trên thread của OkHttp, ngay sau khi Retrofit giải mã body
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            RawBody raw = response.isSuccessful() ? takeCaptured(response.body()) : null;
+            List<Waiter<T>> targets;
+            synchronized (lock) {
+                if (inFlight.get(key) == this) {
+                    inFlight.remove(key);
+                }
+                // Chỉ giữ tham chiếu tới byte đã đọc, việc giải mã bản sao để tới khi có nơi dùng lại
+                if (raw != null && reuseWindowNanos > 0 && startGeneration == generation) {
+                    long now = System.nanoTime();
+                    pruneExpired(now);
+                    recent.put(key, new Reusable(raw, response.raw(), now));
+                }
+                targets = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+            if (!response.isSuccessful()) {
+                deliverError(targets, response);
+            } else if (targets.size() <= 1 || raw == null) {
+                // Một nơi chờ thì không có object nào bị dùng chung; không có byte gốc thì các nơi nhận chung object như trước
+                for (Waiter<T> waiter : targets) {
+                    deliver(waiter, response);
+                }
+            } else {
+                deliver(targets.get(0), response);
+                List<Waiter<T>> others = targets.subList(1, targets.size());
+                AppExecutors.computation().execute(() -> deliverCopies(others, response, raw));
+            }
+        }
+
+        private void deliver(Waiter<T> waiter, Response<T> response) {
+            waiter.call.callbackExecutor.execute(() -> {
+                if (!waiter.call.canceled) {
+                    waiter.callback.onResponse(waiter.call, response);
+                }
+            });
+        }
+
+        // Body lỗi chỉ đọc được một lần: đọc sẵn (Retrofit đã buffer nên không chặn) rồi tạo body riêng cho từng nơi
+        private void deliverError(List<Waiter<T>> targets, Response<T> response) {
+            byte[] errorBytes;
+            MediaType contentType;
+            try (ResponseBody errorBody = response.errorBody()) {
+                errorBytes = errorBody != null ? errorBody.bytes() : new byte[0];
+                contentType = errorBody != null ? errorBody.contentType() : null;
+            } catch (IOException e) {
+                errorBytes = new byte[0];
+                contentType = null;
+            }
+            for (Waiter<T> waiter : targets) {
+                deliver(waiter, errorFor(response, errorBytes, contentType));
+            }
+        }
+
+        // Chạy trên executor tính toán: mỗi nơi chờ còn lại nhận bản giải mã riêng từ byte gốc
+        private void deliverCopies(List<Waiter<T>> targets, Response<T> response, RawBody raw) {
+            for (Waiter<T> waiter : targets) {
+                if (waiter.call.canceled) {
+                    continue;
+                }
+                Response<T> own;
+                try {
+                    own = Response.success(raw.decode(), response.raw());
+                } catch (IOException | RuntimeException e) {
+                    // Body đã giải mã được một lần nên hiếm khi lỗi; lỗi thì nhận chung object như trước
+                    own = response;
+                }
+                deliver(waiter, own);
+            }
+        }
+
+        @Override
+        public void onFailure(Call<T> call, Throwable t) {
+            captured.remove();
+            List<Waiter<T>> targets;
+            synchronized (lock) {
+                if (inFlight.get(key) == this) {
+                    inFlight.remove(key);
+                }
+                targets = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+            for (Waiter<T> waiter : targets) {
+                waiter.call.callbackExecutor.execute(() -> {
+                    if (!waiter.call.canceled) {
+                        waiter.callback.onFailure(waiter.call, t);
+                    }
+                });
+            }
+        }
+
+        void remove(CoalescingCall<T> call) {
+            boolean cancelNetwork = false;
+            synchronized (lock) {
+                Iterator<Waiter<T>> iterator = waiters.iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().call == call) {
+                        iterator.remove();
+                    }
+                }
+                // Không còn ai chờ thì hủy luôn request mạng
+                if (waiters.isEmpty()) {
+                    if (inFlight.get(key) == this) {
+                        inFlight.remove(key);
+                    }
+                    cancelNetwork = true;
+                }
+            }
+            if (cancelNetwork) {
+                network.cancel();
+            }
+        }
+    }
+
+    private class CoalescingCall<T> implements Call<T> {
+        final Call<T> delegate;
+        final Executor callbackExecutor;
+        volatile boolean executed;
+        volatile boolean canceled;
+        volatile InFlight<T> flight;
+
+        CoalescingCall(Call<T> delegate, Executor callbackExecutor) {
+            this.delegate = delegate;
+            this.callbackExecutor = callbackExecutor;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            markExecuted();
+            try {
+                return delegate.execute();
+            } finally {
+                // Gọi đồng bộ không gộp: bỏ byte vừa giữ trên thread này
+                captured.remove();
+            }
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            markExecuted();
+            join(this, callback);
+        }
+
+        private void markExecuted() {
+            synchronized (this) {
+                if (executed) throw new IllegalStateException("Already executed.");
+                executed = true;
+            }
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            InFlight<T> current = flight;
+            if (current != null) {
+                current.remove(this);
+            } else {
+                delegate.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @SuppressWarnings("CloneDoesntCallSuperClone")
+        @Override
+        public Call<T> clone() {
+            return new CoalescingCall<>(delegate.clone(), callbackExecutor);
+        }
+
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+    }
+
+    private class InvalidatingCall<T> implements Call<T> {
+        final Call<T> delegate;
+
+        InvalidatingCall(Call<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            invalidate();
+            try {
+                return delegate.execute();
+            } finally {
+                invalidate();
+            }
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            invalidate();
+            delegate.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    invalidate();
+                    callback.onResponse(InvalidatingCall.this, response);
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable t) {
+                    invalidate();
+                    callback.onFailure(InvalidatingCall.this, t);
+                }
+            });
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return delegate.isExecuted();
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return delegate.isCanceled();
+        }
+
+        @SuppressWarnings("CloneDoesntCallSuperClone")
+        @Override
+        public Call<T> clone() {
+            return new InvalidatingCall<>(delegate.clone());
+        }
+
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+    }
+}
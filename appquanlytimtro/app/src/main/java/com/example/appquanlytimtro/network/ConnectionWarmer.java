@@ -0,0 +1,85 @@
+//class: làm nóng kết nối tới backend
+// Mục đích file: File này dùng để phân giải DNS và mở sẵn một kết nối trong connection pool của OkHttp khi app/màn hình đăng nhập khởi động, để request thật đầu tiên dùng lại kết nối này
+// function:
+// - warmUp(): Chạy bước làm nóng trên thread nền (bỏ qua nếu đang chạy hoặc pool đã có kết nối rảnh)
+// - runWarmUp(): Phân giải DNS rồi gửi request HEAD nhẹ tới /health
+package com.example.appquanlytimtro.network;
+
+import android.content.Context;
+import android.os.Trace;
+import android.util.Log;
+
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public final class ConnectionWarmer {
+
+    private static final String TAG = "ConnectionWarmer";
+    private static final String HEALTH_PATH = "health";
+    private static final AtomicBoolean running = new AtomicBoolean(false);
+
+    private ConnectionWarmer() {}
+
+    public static void warmUp(Context context) {
+        final Context appContext = context.getApplicationContext();
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            AppExecutors.background().execute(() -> {
+                try {
+                    runWarmUp(appContext);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    private static void runWarmUp(Context context) {
+        // Tạo RetrofitClient (Gson, Retrofit, OkHttp) ngay trên thread nền
+        OkHttpClient shared = RetrofitClient.getInstance(context).getOkHttpClient();
+        if (shared.connectionPool().idleConnectionCount() > 0) {
+            return;
+        }
+        HttpUrl baseUrl = HttpUrl.get(RetrofitClient.getBaseUrl());
+
+        Trace.beginSection("ConnectionWarmer.dns");
+        try {
+            shared.dns().lookup(baseUrl.host());
+        } catch (IOException e) {
+            Log.d(TAG, "DNS lookup failed: " + e.getMessage());
+            return;
+        } finally {
+            Trace.endSection();
+        }
+
+        // Dùng chung connection pool/dispatcher, bỏ auth và retry/circuit breaker cho request làm nóng
+        OkHttpClient.Builder builder = shared.newBuilder();
+        builder.interceptors().clear();
+        OkHttpClient warmClient = builder.build();
+        Request request = new Request.Builder()
+                .url(baseUrl.resolve(HEALTH_PATH))
+                .head()
+                .build();
+
+        Trace.beginSection("ConnectionWarmer.connect");
+        try (Response response = warmClient.newCall(request).execute()) {
+            Log.d(TAG, "Warm-up HEAD " + response.code());
+        } catch (IOException e) {
+            Log.d(TAG, "Warm-up failed: " + e.getMessage());
+        } finally {
+            Trace.endSection();
+        }
+    }
+}
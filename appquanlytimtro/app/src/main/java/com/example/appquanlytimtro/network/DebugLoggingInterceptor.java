@@ -0,0 +1,53 @@
+//class: interceptor ghi log HTTP chỉ dùng cho bản debug
+// Mục đích file: File này dùng để ghi log request/response có giới hạn kích thước; request multipart (upload ảnh) chỉ ghi header
+// function:
+// - intercept(): Chọn mức log theo loại request (body cho JSON, header cho multipart)
+// - truncate(): Cắt bớt nội dung log quá dài
+package com.example.appquanlytimtro.network;
+
+import android.util.Log;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.logging.HttpLoggingInterceptor;
+
+public class DebugLoggingInterceptor implements Interceptor {
+
+    private static final String TAG = "OkHttp";
+    // Logcat cắt dòng khoảng 4KB, giữ log body trong giới hạn này
+    private static final int MAX_LOG_CHARS = 4000;
+
+    private final HttpLoggingInterceptor bodyLogger;
+    private final HttpLoggingInterceptor headersLogger;
+
+    public DebugLoggingInterceptor() {
+        HttpLoggingInterceptor.Logger logger = message -> Log.d(TAG, truncate(message));
+        bodyLogger = new HttpLoggingInterceptor(logger);
+        bodyLogger.setLevel(HttpLoggingInterceptor.Level.BODY);
+        bodyLogger.redactHeader("Authorization");
+        headersLogger = new HttpLoggingInterceptor(logger);
+        headersLogger.setLevel(HttpLoggingInterceptor.Level.HEADERS);
+        headersLogger.redactHeader("Authorization");
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        MediaType contentType = request.body() != null ? request.body().contentType() : null;
+        if (contentType != null && "multipart".equals(contentType.type())) {
+            return headersLogger.intercept(chain);
+        }
+        return bodyLogger.intercept(chain);
+    }
+
+    static String truncate(String message) {
+        if (message.length() <= MAX_LOG_CHARS) {
+            return message;
+        }
+        return message.substring(0, MAX_LOG_CHARS) + "... (" + message.length() + " ký tự)";
+    }
+}
@@ -0,0 +1,81 @@
+//class: chính sách cache HTTP phía client theo từng endpoint
+// Mục đích file: File này dùng để tạo disk cache cho OkHttp và gắn Cache-Control cho các endpoint danh mục phòng công khai
+// function:
+// - createCache(): Tạo disk cache có giới hạn dung lượng trong thư mục cache của app
+// - intercept(): Gắn Cache-Control cho response nếu server không gửi, các endpoint khác không được lưu cache
+// - policyFor(): Tìm chính sách cache theo path của request
+package com.example.appquanlytimtro.network;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class HttpCachePolicy implements Interceptor {
+
+    private static final String CACHE_DIR = "http_cache";
+    private static final long CACHE_SIZE = 20L * 1024 * 1024; // 20 MB
+
+    // Luôn hỏi lại server (gửi If-None-Match / If-Modified-Since), nhận 304 nếu không đổi
+    static final String REVALIDATE = "public, max-age=0, must-revalidate";
+    static final String SHORT = "public, max-age=300";
+    static final String STATS = "public, max-age=600";
+    static final String NO_STORE = "no-store";
+
+    // Path tính từ base URL (api/...), thứ tự khớp từ trên xuống
+    private static final Map<Pattern, String> POLICIES = new LinkedHashMap<>();
+    static {
+        POLICIES.put(Pattern.compile("rooms/featured"), SHORT);
+        POLICIES.put(Pattern.compile("rooms/stats/overview"), STATS);
+        POLICIES.put(Pattern.compile("rooms/[0-9a-fA-F]{24}/similar"), SHORT);
+        POLICIES.put(Pattern.compile("rooms/[0-9a-fA-F]{24}"), REVALIDATE);
+        POLICIES.put(Pattern.compile("rooms/?"), REVALIDATE);
+    }
+
+    public static Cache createCache(Context context) {
+        return new Cache(new File(context.getCacheDir(), CACHE_DIR), CACHE_SIZE);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!"GET".equals(request.method())) {
+            return response;
+        }
+
+        String policy = policyFor(request.url().encodedPath());
+        if (policy == null) {
+            // Dữ liệu riêng của người dùng (booking, thanh toán...) không ghi xuống đĩa
+            return response.newBuilder()
+                    .header("Cache-Control", NO_STORE)
+                    .build();
+        }
+        if (response.header("Cache-Control") == null) {
+            return response.newBuilder()
+                    .header("Cache-Control", policy)
+                    .build();
+        }
+        return response;
+    }
+
+    static String policyFor(String encodedPath) {
+        int apiIndex = encodedPath.indexOf("/api/");
+        String path = apiIndex >= 0 ? encodedPath.substring(apiIndex + 5) : encodedPath;
+        for (Map.Entry<Pattern, String> entry : POLICIES.entrySet()) {
+            if (entry.getKey().matcher(path).matches()) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+//class: gắn Retrofit Call với vòng đời màn hình
+// Mục đích file: File này dùng để tự hủy request khi Activity bị destroy hoặc view của Fragment bị hủy, và bỏ qua kết quả trả về muộn
+// function:
+// - enqueue(): Gửi request gắn với LifecycleOwner (Activity hoặc view của Fragment)
+// - ownerOf(): Lấy LifecycleOwner phù hợp của Fragment (ưu tiên vòng đời view)
+// - isAlive(): Kiểm tra LifecycleOwner còn hoạt động
+package com.example.appquanlytimtro.network;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public final class LifecycleCalls {
+
+    private LifecycleCalls() {}
+
+    public static <T> Call<T> enqueue(Fragment fragment, Call<T> call, Callback<T> callback) {
+        return enqueue(ownerOf(fragment), call, callback);
+    }
+
+    // Gọi trên main thread
+    public static <T> Call<T> enqueue(LifecycleOwner owner, Call<T> call, Callback<T> callback) {
+        final Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            call.cancel();
+            return call;
+        }
+
+        final DefaultLifecycleObserver observer = new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner source) {
+                lifecycle.removeObserver(this);
+                call.cancel();
+            }
+        };
+        lifecycle.addObserver(observer);
+
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> c, Response<T> response) {
+                lifecycle.removeObserver(observer);
+                if (!c.isCanceled() && isAlive(owner)) {
+                    callback.onResponse(c, response);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> c, Throwable t) {
+                lifecycle.removeObserver(observer);
+                if (!c.isCanceled() && isAlive(owner)) {
+                    callback.onFailure(c, t);
+                }
+            }
+        });
+        return call;
+    }
+
+    public static LifecycleOwner ownerOf(Fragment fragment) {
+        try {
+            // Hủy request khi view bị hủy (chuyển tab), không chờ tới khi Fragment bị destroy
+            return fragment.getViewLifecycleOwner();
+        } catch (IllegalStateException e) {
+            // Chưa có view (hoặc view đã bị hủy): dùng vòng đời của Fragment
+            return fragment;
+        }
+    }
+
+    public static boolean isAlive(LifecycleOwner owner) {
+        return owner.getLifecycle().getCurrentState() != Lifecycle.State.DESTROYED;
+    }
+}
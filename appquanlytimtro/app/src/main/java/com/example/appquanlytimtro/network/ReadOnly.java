@@ -0,0 +1,15 @@
+//annotation: đánh dấu method trong ApiService không thay đổi dữ liệu dù không phải GET
+// Mục đích file: File này dùng để CoalescingCallAdapterFactory không xóa kết quả GET dùng lại khi gọi các endpoint chỉ đọc dùng POST (vd: batch gồm toàn GET của ApiBatch)
+package com.example.appquanlytimtro.network;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+}
@@ -0,0 +1,114 @@
+//class: pipeline xử lý response API ngoài main thread
+// Mục đích file: File này dùng để chạy bước map/lọc/tổng hợp dữ liệu trên executor nền và chỉ trả kết quả hoàn chỉnh về main thread
+// function:
+// - enqueue(): Gửi request, biến đổi dữ liệu trên thread nền rồi trả kết quả về main thread (có thể gắn với vòng đời màn hình)
+// - toCallback(): Tạo Callback Retrofit chạy bước biến đổi trên thread nền
+// - Transformer.transform(): Biến đổi dữ liệu API thành kết quả cho giao diện (chạy trên thread nền)
+// - ResultCallback.onResult(): Nhận kết quả đã xử lý (main thread)
+// - ResultCallback.onError(): Nhận lỗi HTTP hoặc lỗi API (main thread)
+// - ResultCallback.onFailure(): Nhận lỗi kết nối hoặc lỗi khi biến đổi dữ liệu (main thread)
+package com.example.appquanlytimtro.network;
+
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public final class ResponsePipeline {
+
+    public interface Transformer<T, R> {
+        // data có thể null khi API trả success nhưng không có data
+        R transform(T data);
+    }
+
+    public interface ResultCallback<R> {
+        void onResult(R result);
+
+        // message = null khi lỗi HTTP (không có body)
+        void onError(int code, String message);
+
+        void onFailure(Throwable t);
+    }
+
+    private ResponsePipeline() {}
+
+    public static <T, R> void enqueue(Call<ApiResponse<T>> call,
+                                      Transformer<T, R> transformer,
+                                      ResultCallback<R> callback) {
+        call.enqueue(toCallback(transformer, callback));
+    }
+
+    // Request bị hủy khi owner bị destroy, kết quả xử lý xong muộn cũng bị bỏ qua
+    public static <T, R> void enqueue(LifecycleOwner owner,
+                                      Call<ApiResponse<T>> call,
+                                      Transformer<T, R> transformer,
+                                      ResultCallback<R> callback) {
+        ResultCallback<R> guarded = new ResultCallback<R>() {
+            @Override
+            public void onResult(R result) {
+                if (LifecycleCalls.isAlive(owner)) callback.onResult(result);
+            }
+
+            @Override
+            public void onError(int code, String message) {
+                if (LifecycleCalls.isAlive(owner)) callback.onError(code, message);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (LifecycleCalls.isAlive(owner)) callback.onFailure(t);
+            }
+        };
+        LifecycleCalls.enqueue(owner, call, toCallback(transformer, guarded));
+    }
+
+    public static <T, R> void enqueue(Fragment fragment,
+                                      Call<ApiResponse<T>> call,
+                                      Transformer<T, R> transformer,
+                                      ResultCallback<R> callback) {
+        enqueue(LifecycleCalls.ownerOf(fragment), call, transformer, callback);
+    }
+
+    private static <T, R> Callback<ApiResponse<T>> toCallback(Transformer<T, R> transformer,
+                                                              ResultCallback<R> callback) {
+        return new Callback<ApiResponse<T>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<T>> call, Response<ApiResponse<T>> response) {
+                ApiResponse<T> body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    callback.onError(response.code(), null);
+                    return;
+                }
+                if (!body.isSuccess()) {
+                    callback.onError(response.code(), body.getMessage());
+                    return;
+                }
+                T data = body.getData();
+                try {
+                    AppExecutors.background().execute(() -> {
+                        try {
+                            R result = transformer.transform(data);
+                            AppExecutors.postToMain(() -> callback.onResult(result));
+                        } catch (RuntimeException e) {
+                            AppExecutors.postToMain(() -> callback.onFailure(e));
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    callback.onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<T>> call, Throwable t) {
+                callback.onFailure(t);
+            }
+        };
+    }
+}
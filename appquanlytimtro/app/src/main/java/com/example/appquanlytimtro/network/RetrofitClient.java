@@ -3,26 +3,38 @@
 // function: 
 // - getInstance(): Lấy instance duy nhất của RetrofitClient
 // - getApiService(): Lấy ApiService interface
-// - getToken(): Lấy token từ SharedPreferences
-// - setToken(): Lưu token vào SharedPreferences
-// - getUserData(): Lấy dữ liệu user từ SharedPreferences
-// - setUserData(): Lưu dữ liệu user vào SharedPreferences
-// - clearUserData(): Xóa dữ liệu user khỏi SharedPreferences
+// - getOkHttpClient(): Lấy OkHttpClient dùng chung (connection pool, cache)
+// - getRequestScheduler(): Lấy bộ điều phối request theo nhóm ưu tiên
+// - getApiBatch(): Lấy bộ gộp request GET vào POST /api/batch
+// - getBaseUrl(): Lấy base URL của API
+// - getToken(): Lấy token từ SessionManager (bộ nhớ)
+// - saveToken(): Lưu token qua SessionManager
+// - getUserData(): Lấy JSON user từ SessionManager
+// - getCurrentUser(): Lấy User hiện tại (đã parse sẵn)
+// - saveSession(): Lưu token và User sau khi đăng nhập/đăng ký
+// - saveUser(): Cập nhật User hiện tại
+// - saveUserData(): Lưu dữ liệu user qua SessionManager
+// - clearUserData(): Xóa dữ liệu user
 // - isLoggedIn(): Kiểm tra trạng thái đăng nhập
 // - logout(): Đăng xuất và xóa dữ liệu
 package com.example.appquanlytimtro.network;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 import com.example.appquanlytimtro.BuildConfig;
-import com.example.appquanlytimtro.utils.Constants;
+import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.network.batch.ApiBatch;
+import com.example.appquanlytimtro.network.json.CompactConverterFactory;
+import com.example.appquanlytimtro.network.json.GsonProvider;
+import com.example.appquanlytimtro.network.metrics.MetricsEventListener;
+import com.example.appquanlytimtro.network.resilience.ResilienceInterceptor;
+import com.example.appquanlytimtro.network.scheduler.RequestScheduler;
+import com.example.appquanlytimtro.utils.SessionManager;
 
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -31,13 +43,20 @@ import java.util.concurrent.TimeUnit;
 
 public class RetrofitClient {
     private static final String BASE_URL = BuildConfig.BASE_URL;
+    // Thời gian dùng lại kết quả GET vừa nhận (tránh gọi lặp khi chuyển màn hình nhanh / kéo làm mới liên tục)
+    private static final long GET_REUSE_WINDOW_MS = 2000;
     
     private static RetrofitClient instance;
     private ApiService apiService;
+    private ApiBatch apiBatch;
+    private OkHttpClient okHttpClient;
+    private RequestScheduler requestScheduler;
     private Context context;
+    private final SessionManager session;
     
     private RetrofitClient(Context context) {
         this.context = context.getApplicationContext();
+        this.session = SessionManager.getInstance(this.context);
         createRetrofitInstance();
     }
     
@@ -49,9 +68,6 @@ public class RetrofitClient {
     }
     
     private void createRetrofitInstance() {
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-        
         Interceptor authInterceptor = new Interceptor() {
             @Override
             public Response intercept(Chain chain) throws IOException {
@@ -69,64 +85,103 @@ public class RetrofitClient {
             }
         };
         
-        OkHttpClient okHttpClient = new OkHttpClient.Builder()
+        OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder()
+                .cache(HttpCachePolicy.createCache(context))
+                .eventListenerFactory(MetricsEventListener.FACTORY)
                 .addInterceptor(authInterceptor)
-                .addInterceptor(loggingInterceptor)
+                // Thử lại GET khi lỗi tạm thời, hedging chi tiết phòng, fail-fast khi backend lỗi liên tục
+                .addInterceptor(new ResilienceInterceptor());
+        // Chỉ ghi log body ở bản debug, bản release không log
+        if (BuildConfig.DEBUG) {
+            clientBuilder.addInterceptor(new DebugLoggingInterceptor());
+        }
+        okHttpClient = clientBuilder
+                .addNetworkInterceptor(new HttpCachePolicy())
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
                 .build();
-        
+        // API tương tác, tải trước và upload ảnh chạy trên các Dispatcher riêng
+        requestScheduler = new RequestScheduler(okHttpClient);
 
+        CoalescingCallAdapterFactory coalescing = new CoalescingCallAdapterFactory(
+                session::getToken, GET_REUSE_WINDOW_MS, TimeUnit.MILLISECONDS);
         Retrofit retrofit = new Retrofit.Builder()
                 .baseUrl(BASE_URL)
-                .client(okHttpClient)
-                .addConverterFactory(GsonConverterFactory.create())
+                .callFactory(requestScheduler)
+                // Giữ byte gốc của body GET để bản sao cho nơi gọi gộp chung được giải mã lại, không serialize lại model
+                .addConverterFactory(coalescing.bodyCapture())
+                // Danh sách đặt phòng/thanh toán nhận MessagePack, backend trả JSON thì tự chuyển sang Gson
+                .addConverterFactory(CompactConverterFactory.create())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .addCallAdapterFactory(coalescing)
                 .build();
         
         apiService = retrofit.create(ApiService.class);
+        apiBatch = new ApiBatch(apiService, GsonProvider.get());
     }
     
     public ApiService getApiService() {
         return apiService;
     }
     
+    public ApiBatch getApiBatch() {
+        return apiBatch;
+    }
+    
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+    
+    public RequestScheduler getRequestScheduler() {
+        return requestScheduler;
+    }
+    
+    public static String getBaseUrl() {
+        return BASE_URL;
+    }
+    
     public void saveToken(String token) {
-        SharedPreferences prefs = context.getSharedPreferences(Constants.PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit().putString(Constants.TOKEN_KEY, token).apply();
+        session.setToken(token);
     }
     
     public String getToken() {
-        SharedPreferences prefs = context.getSharedPreferences(Constants.PREFS_NAME, Context.MODE_PRIVATE);
-        return prefs.getString(Constants.TOKEN_KEY, null);
+        return session.getToken();
     }
     
     public void clearToken() {
-        SharedPreferences prefs = context.getSharedPreferences(Constants.PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit().remove(Constants.TOKEN_KEY).apply();
+        session.clearToken();
     }
     
     public boolean isLoggedIn() {
-        return getToken() != null && !getToken().isEmpty();
+        return session.isLoggedIn();
     }
     
     public void saveUserData(String userJson) {
-        SharedPreferences prefs = context.getSharedPreferences(Constants.PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit().putString(Constants.USER_DATA_KEY, userJson).apply();
+        session.updateUserJson(userJson);
     }
     
     public String getUserData() {
-        SharedPreferences prefs = context.getSharedPreferences(Constants.PREFS_NAME, Context.MODE_PRIVATE);
-        return prefs.getString(Constants.USER_DATA_KEY, null);
+        return session.getUserJson();
+    }
+    
+    public User getCurrentUser() {
+        return session.getCurrentUser();
+    }
+    
+    public void saveSession(String token, User user) {
+        session.startSession(token, user);
+    }
+    
+    public void saveUser(User user) {
+        session.updateUser(user);
     }
     
     public void clearUserData() {
-        SharedPreferences prefs = context.getSharedPreferences(Constants.PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit().remove(Constants.USER_DATA_KEY).apply();
+        session.clearUser();
     }
     
     public void logout() {
-        clearToken();
-        clearUserData();
+        session.clear();
     }
 }
@@ -0,0 +1,337 @@
+//class: gộp các request GET gửi gần nhau thành một lần gọi POST /api/batch
+// Mục đích file: File này dùng để giảm số round trip khi nhiều màn hình (vd: các tab quản trị) cùng tải dữ liệu; kết quả được chuyển lại đúng kiểu cho từng Callback ban đầu
+// function:
+// - add(): Bọc một Call của ApiService, khi enqueue sẽ chờ gộp với các request khác trong WINDOW_MS
+// - submit(): Thêm request vào nhóm đang chờ, gửi ngay khi đủ MAX_REQUESTS
+// - flush(): Gửi nhóm đang chờ (một request thì gửi riêng như bình thường)
+// - sendAlone(): Gửi riêng từng request khi backend không hỗ trợ batch hoặc batch lỗi
+// - relativeUrl(): Đường dẫn kèm query của request con (dùng chung với Outbox)
+// - BatchedCall: Call bọc ngoài, giữ nguyên API của Retrofit (cancel, clone, execute)
+// - Pending: Request đang chờ, chuyển body JSON của request con thành kiểu T của Callback
+package com.example.appquanlytimtro.network.batch;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.network.ApiService;
+import com.example.appquanlytimtro.utils.AppExecutors;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Invocation;
+import retrofit2.Response;
+
+public final class ApiBatch {
+
+    // Thời gian chờ gom request, đủ ngắn để người dùng không nhận ra
+    public static final long WINDOW_MS = 30;
+    // Khớp với MAX_BATCH_SIZE của backend/routes/batch.js
+    public static final int MAX_REQUESTS = 10;
+
+    private static final String API_PREFIX = "/api/";
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final ApiService apiService;
+    private final Gson gson;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushTask = this::flush;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Type, TypeAdapter<?>> adapters = new HashMap<>();
+
+    private List<Pending<?>> pending = new ArrayList<>();
+    private boolean flushScheduled;
+    // Backend cũ chưa có /api/batch: bỏ qua batch cho tới khi mở lại ứng dụng
+    private volatile boolean supported = true;
+
+    public ApiBatch(ApiService apiService, Gson gson) {
+        this.apiService = apiService;
+        this.gson = gson;
+    }
+
+    public <T> Call<T> add(Call<T> call) {
+        return new BatchedCall<>(call);
+    }
+
+    private void submit(Pending<?> request) {
+        List<Pending<?>> full = null;
+        synchronized (this) {
+            pending.add(request);
+            if (pending.size() >= MAX_REQUESTS) {
+                full = pending;
+                pending = new ArrayList<>();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                handler.postDelayed(flushTask, WINDOW_MS);
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+    }
+
+    private void flush() {
+        List<Pending<?>> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        send(batch);
+    }
+
+    private void send(List<Pending<?>> batch) {
+        List<Pending<?>> live = new ArrayList<>(batch.size());
+        for (Pending<?> request : batch) {
+            if (!request.owner.isCanceled()) {
+                live.add(request);
+            }
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+        if (live.size() == 1 || !supported) {
+            sendAlone(live);
+            return;
+        }
+
+        BatchRequest body = new BatchRequest();
+        for (Pending<?> request : live) {
+            body.add(request.id, request.url);
+        }
+        apiService.batchRead(body).enqueue(new Callback<ApiResponse<BatchResponse>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<BatchResponse>> call, Response<ApiResponse<BatchResponse>> response) {
+                if (response.code() == 404 || response.code() == 405) {
+                    supported = false;
+                }
+                ApiResponse<BatchResponse> apiResponse = response.body();
+                if (!response.isSuccessful() || apiResponse == null || apiResponse.getData() == null) {
+                    sendAlone(live);
+                    return;
+                }
+                Map<String, BatchResponse.Result> results = new HashMap<>();
+                for (BatchResponse.Result result : apiResponse.getData().getResponses()) {
+                    results.put(result.getId(), result);
+                }
+                // Chuyển JSON thành model trên executor tính toán (không từ chối tác vụ), không chiếm thread của OkHttp hay database
+                AppExecutors.computation().execute(() -> {
+                    for (Pending<?> request : live) {
+                        BatchResponse.Result result = results.get(request.id);
+                        if (result == null) {
+                            AppExecutors.postToMain(request::sendAlone);
+                        } else {
+                            request.deliver(result);
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<BatchResponse>> call, Throwable t) {
+                for (Pending<?> request : live) {
+                    request.fail(t);
+                }
+            }
+        });
+    }
+
+    private static void sendAlone(List<Pending<?>> requests) {
+        for (Pending<?> request : requests) {
+            request.sendAlone();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> TypeAdapter<T> adapterFor(Type type) {
+        TypeAdapter<?> adapter = adapters.get(type);
+        if (adapter == null) {
+            adapter = gson.getAdapter(TypeToken.get(type));
+            adapters.put(type, adapter);
+        }
+        return (TypeAdapter<T>) adapter;
+    }
+
+    // Kiểu T trong Call<T> của method ApiService tạo ra request
+    private static Type responseType(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            return null;
+        }
+        Type returnType = invocation.method().getGenericReturnType();
+        if (!(returnType instanceof ParameterizedType)) {
+            return null;
+        }
+        return ((ParameterizedType) returnType).getActualTypeArguments()[0];
+    }
+
+    public static String relativeUrl(HttpUrl url) {
+        String query = url.encodedQuery();
+        return query != null ? url.encodedPath() + "?" + query : url.encodedPath();
+    }
+
+    private final class Pending<T> {
+        final BatchedCall<T> owner;
+        final Callback<T> callback;
+        final Type type;
+        final String id;
+        final String url;
+
+        Pending(BatchedCall<T> owner, Callback<T> callback, Type type, String url) {
+            this.owner = owner;
+            this.callback = callback;
+            this.type = type;
+            this.id = Long.toString(nextId.incrementAndGet());
+            this.url = url;
+        }
+
+        void sendAlone() {
+            if (!owner.isCanceled()) {
+                owner.enqueueDirect(callback);
+            }
+        }
+
+        // Chạy trên thread nền, Callback luôn được gọi trên main thread
+        void deliver(BatchResponse.Result result) {
+            Response<T> response;
+            try {
+                response = toResponse(result);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            AppExecutors.postToMain(() -> {
+                if (!owner.isCanceled()) {
+                    callback.onResponse(owner, response);
+                }
+            });
+        }
+
+        void fail(Throwable t) {
+            AppExecutors.postToMain(() -> {
+                if (!owner.isCanceled()) {
+                    callback.onFailure(owner, t);
+                }
+            });
+        }
+
+        private Response<T> toResponse(BatchResponse.Result result) {
+            int status = result.getStatus();
+            okhttp3.Response raw = new okhttp3.Response.Builder()
+                    .code(status)
+                    .message(status >= 200 && status < 300 ? "OK" : "Error")
+                    .protocol(Protocol.HTTP_1_1)
+                    .request(owner.request())
+                    .build();
+            if (raw.isSuccessful()) {
+                TypeAdapter<T> adapter = adapterFor(type);
+                return Response.success(result.getBody() != null ? adapter.fromJsonTree(result.getBody()) : null, raw);
+            }
+            // Body lỗi giữ nguyên JSON để màn hình đọc errorBody() như khi gọi riêng
+            String errorJson = result.getBody() != null ? gson.toJson(result.getBody()) : "";
+            return Response.error(ResponseBody.create(errorJson, JSON), raw);
+        }
+    }
+
+    private final class BatchedCall<T> implements Call<T> {
+        private final Call<T> delegate;
+        private volatile boolean executed;
+        private volatile boolean canceled;
+
+        BatchedCall(Call<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+            Request request;
+            try {
+                request = delegate.request();
+            } catch (RuntimeException e) {
+                enqueueDirect(callback);
+                return;
+            }
+            Type type = responseType(request);
+            String path = request.url().encodedPath();
+            if (!supported || type == null || !"GET".equals(request.method()) || !path.startsWith(API_PREFIX)) {
+                enqueueDirect(callback);
+                return;
+            }
+            submit(new Pending<>(this, callback, type, relativeUrl(request.url())));
+        }
+
+        // Gửi riêng, Callback vẫn nhận Call bọc ngoài để kiểm tra isCanceled() như cũ
+        void enqueueDirect(Callback<T> callback) {
+            delegate.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    callback.onResponse(BatchedCall.this, response);
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable t) {
+                    callback.onFailure(BatchedCall.this, t);
+                }
+            });
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            executed = true;
+            return delegate.execute();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed || delegate.isExecuted();
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            delegate.cancel();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled || delegate.isCanceled();
+        }
+
+        @Override
+        public Call<T> clone() {
+            return new BatchedCall<>(delegate.clone());
+        }
+
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+//model: body gửi lên POST /api/batch
+// Mục đích file: File này dùng để mô tả danh sách request con được gộp vào một lần gọi (GET từ ApiBatch, request ghi từ Outbox)
+// function:
+// - add(id, url): Thêm một request GET con (url tính từ /api/)
+// - add(id, method, url, body): Thêm một request con bất kỳ kèm body JSON (null nếu không có)
+// - size(): Số request con
+// - Item: Thông tin một request con
+package com.example.appquanlytimtro.network.batch;
+
+import com.google.gson.JsonElement;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchRequest {
+    @SerializedName("requests")
+    private final List<Item> requests = new ArrayList<>();
+
+    public void add(String id, String url) {
+        requests.add(new Item(id, "GET", url, null));
+    }
+
+    public void add(String id, String method, String url, JsonElement body) {
+        requests.add(new Item(id, method, url, body));
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    public static class Item {
+        @SerializedName("id")
+        private final String id;
+
+        @SerializedName("method")
+        private final String method;
+
+        @SerializedName("url")
+        private final String url;
+
+        @SerializedName("body")
+        private final JsonElement body;
+
+        Item(String id, String method, String url, JsonElement body) {
+            this.id = id;
+            this.method = method;
+            this.url = url;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+//model: dữ liệu trả về từ POST /api/batch
+// Mục đích file: File này dùng để nhận kết quả của từng request con (status HTTP và body JSON gốc)
+// function:
+// - getResponses(): Lấy danh sách kết quả theo thứ tự gửi
+// - Result(): Tạo kết quả cho request gửi riêng (Outbox khi backend không hỗ trợ batch)
+// - Result.getId(): Lấy id request con
+// - Result.getStatus(): Lấy mã HTTP của request con
+// - Result.getBody(): Lấy body JSON của request con
+package com.example.appquanlytimtro.network.batch;
+
+import com.google.gson.JsonElement;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collections;
+import java.util.List;
+
+public class BatchResponse {
+    @SerializedName("responses")
+    private List<Result> responses;
+
+    public List<Result> getResponses() {
+        return responses != null ? responses : Collections.emptyList();
+    }
+
+    public static class Result {
+        @SerializedName("id")
+        private String id;
+
+        @SerializedName("status")
+        private int status;
+
+        @SerializedName("body")
+        private JsonElement body;
+
+        public Result() {}
+
+        public Result(String id, int status, JsonElement body) {
+            this.id = id;
+            this.status = status;
+            this.body = body;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public JsonElement getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,435 @@
+//class: đọc JSON đặt phòng bằng JsonReader
+// Mục đích file: File này dùng để parse Booking và các class lồng nhau (BookingDetails, Pricing, PaymentStatus, ...) theo kiểu streaming, không dùng reflection
+// function: 
+// - readBooking(): Đọc Booking từ JsonReader
+// - readBookingDetails(): Đọc BookingDetails từ JsonReader
+// - readPricing(): Đọc Pricing từ JsonReader
+// - readPaymentStatus(): Đọc PaymentStatus từ JsonReader
+// - readDepositPayment(): Đọc DepositPayment từ JsonReader
+// - readMonthlyPayment(): Đọc MonthlyPayment từ JsonReader
+// - readContract(): Đọc Contract từ JsonReader
+// - readContractTerm(): Đọc ContractTerm từ JsonReader
+// - readDocument(): Đọc Document từ JsonReader
+// - readNotes(): Đọc Notes từ JsonReader
+// - readCancellation(): Đọc Cancellation từ JsonReader
+// - readReviews(): Đọc Reviews từ JsonReader
+// - readReview(): Đọc Review từ JsonReader
+package com.example.appquanlytimtro.network.json;
+
+import com.example.appquanlytimtro.models.Booking;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+final class BookingReader {
+
+    private BookingReader() {}
+
+    static Booking readBooking(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        if (in.peek() == JsonToken.STRING) {
+            // Trường tham chiếu chưa được populate, backend chỉ trả về ID
+            Booking booking = new Booking();
+            booking.setId(in.nextString());
+            return booking;
+        }
+        Booking booking = new Booking();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "_id":
+                    booking.setId(JsonReaders.nextString(in));
+                    break;
+                case "room":
+                    booking.setRoom(RoomReader.readRoom(in));
+                    break;
+                case "tenant":
+                    booking.setTenant(UserReader.readUser(in));
+                    break;
+                case "landlord":
+                    booking.setLandlord(UserReader.readUser(in));
+                    break;
+                case "bookingDetails":
+                    booking.setBookingDetails(readBookingDetails(in));
+                    break;
+                case "pricing":
+                    booking.setPricing(readPricing(in));
+                    break;
+                case "status":
+                    booking.setStatus(JsonReaders.nextString(in));
+                    break;
+                case "paymentStatus":
+                    booking.setPaymentStatus(readPaymentStatus(in));
+                    break;
+                case "contract":
+                    booking.setContract(readContract(in));
+                    break;
+                case "documents":
+                    booking.setDocuments(JsonReaders.readList(in, BookingReader::readDocument));
+                    break;
+                case "notes":
+                    booking.setNotes(readNotes(in));
+                    break;
+                case "cancellation":
+                    booking.setCancellation(readCancellation(in));
+                    break;
+                case "reviews":
+                    booking.setReviews(readReviews(in));
+                    break;
+                case "createdAt":
+                    booking.setCreatedAt(JsonReaders.nextString(in));
+                    break;
+                case "updatedAt":
+                    booking.setUpdatedAt(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return booking;
+    }
+
+    static Booking.BookingDetails readBookingDetails(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.BookingDetails bookingDetails = new Booking.BookingDetails();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "checkInDate":
+                    bookingDetails.setCheckInDate(JsonReaders.nextDate(in));
+                    break;
+                case "checkOutDate":
+                    bookingDetails.setCheckOutDate(JsonReaders.nextDate(in));
+                    break;
+                case "duration":
+                    bookingDetails.setDuration(JsonReaders.nextInt(in));
+                    break;
+                case "numberOfOccupants":
+                    bookingDetails.setNumberOfOccupants(JsonReaders.nextInt(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return bookingDetails;
+    }
+
+    static Booking.Pricing readPricing(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.Pricing pricing = new Booking.Pricing();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "monthlyRent":
+                    pricing.setMonthlyRent(JsonReaders.nextDouble(in));
+                    break;
+                case "deposit":
+                    pricing.setDeposit(JsonReaders.nextDouble(in));
+                    break;
+                case "utilities":
+                    pricing.setUtilities(JsonReaders.nextDouble(in));
+                    break;
+                case "totalAmount":
+                    pricing.setTotalAmount(JsonReaders.nextDouble(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return pricing;
+    }
+
+    static Booking.PaymentStatus readPaymentStatus(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.PaymentStatus paymentStatus = new Booking.PaymentStatus();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "deposit":
+                    paymentStatus.setDeposit(readDepositPayment(in));
+                    break;
+                case "monthly":
+                    paymentStatus.setMonthly(JsonReaders.readList(in, BookingReader::readMonthlyPayment));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return paymentStatus;
+    }
+
+    static Booking.DepositPayment readDepositPayment(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.DepositPayment depositPayment = new Booking.DepositPayment();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "status":
+                    depositPayment.setStatus(JsonReaders.nextString(in));
+                    break;
+                case "amount":
+                    depositPayment.setAmount(JsonReaders.nextDouble(in));
+                    break;
+                case "paidAt":
+                    depositPayment.setPaidAt(JsonReaders.nextString(in));
+                    break;
+                case "paymentMethod":
+                    depositPayment.setPaymentMethod(JsonReaders.nextString(in));
+                    break;
+                case "transactionId":
+                    depositPayment.setTransactionId(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return depositPayment;
+    }
+
+    static Booking.MonthlyPayment readMonthlyPayment(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.MonthlyPayment monthlyPayment = new Booking.MonthlyPayment();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "month":
+                    monthlyPayment.setMonth(JsonReaders.nextString(in));
+                    break;
+                case "amount":
+                    monthlyPayment.setAmount(JsonReaders.nextDouble(in));
+                    break;
+                case "status":
+                    monthlyPayment.setStatus(JsonReaders.nextString(in));
+                    break;
+                case "dueDate":
+                    monthlyPayment.setDueDate(JsonReaders.nextString(in));
+                    break;
+                case "paidAt":
+                    monthlyPayment.setPaidAt(JsonReaders.nextString(in));
+                    break;
+                case "paymentMethod":
+                    monthlyPayment.setPaymentMethod(JsonReaders.nextString(in));
+                    break;
+                case "transactionId":
+                    monthlyPayment.setTransactionId(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return monthlyPayment;
+    }
+
+    static Booking.Contract readContract(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.Contract contract = new Booking.Contract();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "contractNumber":
+                    contract.setContractNumber(JsonReaders.nextString(in));
+                    break;
+                case "signedAt":
+                    contract.setSignedAt(JsonReaders.nextString(in));
+                    break;
+                case "contractFile":
+                    contract.setContractFile(JsonReaders.nextString(in));
+                    break;
+                case "terms":
+                    contract.setTerms(JsonReaders.readList(in, BookingReader::readContractTerm));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return contract;
+    }
+
+    static Booking.ContractTerm readContractTerm(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.ContractTerm contractTerm = new Booking.ContractTerm();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "clause":
+                    contractTerm.setClause(JsonReaders.nextString(in));
+                    break;
+                case "description":
+                    contractTerm.setDescription(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return contractTerm;
+    }
+
+    static Booking.Document readDocument(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.Document document = new Booking.Document();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type":
+                    document.setType(JsonReaders.nextString(in));
+                    break;
+                case "fileName":
+                    document.setFileName(JsonReaders.nextString(in));
+                    break;
+                case "fileUrl":
+                    document.setFileUrl(JsonReaders.nextString(in));
+                    break;
+                case "uploadedAt":
+                    document.setUploadedAt(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return document;
+    }
+
+    static Booking.Notes readNotes(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.Notes notes = new Booking.Notes();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "tenant":
+                    notes.setTenant(JsonReaders.nextString(in));
+                    break;
+                case "landlord":
+                    notes.setLandlord(JsonReaders.nextString(in));
+                    break;
+                case "admin":
+                    notes.setAdmin(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return notes;
+    }
+
+    static Booking.Cancellation readCancellation(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.Cancellation cancellation = new Booking.Cancellation();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "cancelledBy":
+                    cancellation.setCancelledBy(JsonReaders.nextString(in));
+                    break;
+                case "cancelledAt":
+                    cancellation.setCancelledAt(JsonReaders.nextString(in));
+                    break;
+                case "reason":
+                    cancellation.setReason(JsonReaders.nextString(in));
+                    break;
+                case "refundAmount":
+                    cancellation.setRefundAmount(JsonReaders.nextDouble(in));
+                    break;
+                case "refundStatus":
+                    cancellation.setRefundStatus(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return cancellation;
+    }
+
+    static Booking.Reviews readReviews(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.Reviews reviews = new Booking.Reviews();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "tenantReview":
+                    reviews.setTenantReview(readReview(in));
+                    break;
+                case "landlordReview":
+                    reviews.setLandlordReview(readReview(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return reviews;
+    }
+
+    static Booking.Review readReview(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Booking.Review review = new Booking.Review();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "rating":
+                    review.setRating(JsonReaders.nextDouble(in));
+                    break;
+                case "comment":
+                    review.setComment(JsonReaders.nextString(in));
+                    break;
+                case "createdAt":
+                    review.setCreatedAt(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return review;
+    }
+}
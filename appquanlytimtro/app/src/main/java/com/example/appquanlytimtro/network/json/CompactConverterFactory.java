@@ -0,0 +1,91 @@
+//class: Converter.Factory cho response MessagePack
+// Mục đích file: File này dùng để đọc response dạng MessagePack cho các endpoint khai báo ACCEPT_COMPACT; nếu backend trả JSON (chưa hỗ trợ, proxy, lỗi) thì chuyển sang converter JSON kế tiếp
+// function:
+// - create(): Tạo factory dùng Gson chung của ứng dụng
+// - responseBodyConverter(): Trả converter cho method có header ACCEPT_COMPACT, các method khác dùng converter JSON
+// - acceptsCompact(): Kiểm tra annotation @Headers của method
+// - isCompact(): Kiểm tra Content-Type của response
+package com.example.appquanlytimtro.network.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.http.Headers;
+
+public final class CompactConverterFactory extends Converter.Factory {
+
+    public static final String MEDIA_TYPE = "application/x-msgpack";
+    // Dùng trong @Headers của ApiService; JSON vẫn được chấp nhận với độ ưu tiên thấp hơn
+    public static final String ACCEPT_COMPACT = "Accept: " + MEDIA_TYPE + ", application/json;q=0.5";
+
+    private final Gson gson;
+
+    private CompactConverterFactory(Gson gson) {
+        this.gson = gson;
+    }
+
+    public static CompactConverterFactory create() {
+        return new CompactConverterFactory(GsonProvider.get());
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        if (!acceptsCompact(annotations)) {
+            return null;
+        }
+        Converter<ResponseBody, ?> jsonConverter = retrofit.nextResponseBodyConverter(this, type, annotations);
+        return new CompactResponseConverter<>(gson.getAdapter(TypeToken.get(type)), jsonConverter);
+    }
+
+    static boolean acceptsCompact(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Headers) {
+                for (String header : ((Headers) annotation).value()) {
+                    if (ACCEPT_COMPACT.equals(header)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    static boolean isCompact(MediaType contentType) {
+        return contentType != null
+                && "application".equals(contentType.type())
+                && "x-msgpack".equals(contentType.subtype());
+    }
+
+    private static final class CompactResponseConverter<T> implements Converter<ResponseBody, T> {
+        private final TypeAdapter<T> adapter;
+        private final Converter<ResponseBody, ?> jsonConverter;
+
+        CompactResponseConverter(TypeAdapter<T> adapter, Converter<ResponseBody, ?> jsonConverter) {
+            this.adapter = adapter;
+            this.jsonConverter = jsonConverter;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T convert(ResponseBody body) throws IOException {
+            if (!isCompact(body.contentType())) {
+                return (T) jsonConverter.convert(body);
+            }
+            try (MsgPackReader reader = new MsgPackReader(body.source())) {
+                return adapter.read(reader);
+            } finally {
+                body.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+//class: cung cấp instance Gson dùng chung
+// Mục đích file: File này dùng để tạo một Gson duy nhất (đã đăng ký TypeAdapter streaming) cho Retrofit và các màn hình
+// function: 
+// - get(): Lấy instance Gson dùng chung (ghi ngày dạng ISO 8601 UTC để server và reader viết tay đều đọc được)
+// - storage(): Lấy Gson để lưu model xuống cơ sở dữ liệu local (ghi ngày dạng timestamp để đọc lại được)
+// - IsoDateAdapter: Ghi Date thành chuỗi ISO 8601 UTC, đọc cả số lẫn chuỗi ISO 8601
+// - EpochDateAdapter: Ghi Date thành số mili giây, đọc cả số lẫn chuỗi ISO 8601
+package com.example.appquanlytimtro.network.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+public final class GsonProvider {
+
+    // Định dạng Date mặc định của Gson phụ thuộc locale, reader viết tay không đọc lại được
+    // (vd: user lưu trong SessionManager) nên đường ghi của model cũng phải dùng ISO 8601
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new IsoDateAdapter())
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .create();
+
+    // Adapter đăng ký sau được ưu tiên nên Date ở đây ghi dạng timestamp
+    private static final Gson STORAGE_GSON = GSON.newBuilder()
+            .registerTypeAdapter(Date.class, new EpochDateAdapter())
+            .create();
+
+    private GsonProvider() {}
+
+    public static Gson get() {
+        return GSON;
+    }
+
+    public static Gson storage() {
+        return STORAGE_GSON;
+    }
+
+    private static final class IsoDateAdapter extends TypeAdapter<Date> {
+        // SimpleDateFormat không an toàn đa luồng
+        private static final ThreadLocal<SimpleDateFormat> FORMAT = new ThreadLocal<SimpleDateFormat>() {
+            @Override
+            protected SimpleDateFormat initialValue() {
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+                format.setTimeZone(TimeZone.getTimeZone("UTC"));
+                return format;
+            }
+        };
+
+        @Override
+        public void write(JsonWriter out, Date value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.value(FORMAT.get().format(value));
+            }
+        }
+
+        @Override
+        public Date read(JsonReader in) throws IOException {
+            return JsonReaders.nextDate(in);
+        }
+    }
+
+    private static final class EpochDateAdapter extends TypeAdapter<Date> {
+        @Override
+        public void write(JsonWriter out, Date value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.value(value.getTime());
+            }
+        }
+
+        @Override
+        public Date read(JsonReader in) throws IOException {
+            return JsonReaders.nextDate(in);
+        }
+    }
+}
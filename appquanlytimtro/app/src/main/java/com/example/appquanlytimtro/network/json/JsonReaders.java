@@ -0,0 +1,149 @@
+//class: các hàm tiện ích đọc giá trị từ JsonReader
+// Mục đích file: File này dùng để đọc giá trị nguyên thủy một cách "dễ tính" giống Gson mặc định
+// function: 
+// - consumeNull(): Bỏ qua giá trị null nếu có
+// - nextString(): Đọc chuỗi (chấp nhận số, boolean, hoặc object có _id)
+// - nextDouble(): Đọc số thực
+// - nextInt(): Đọc số nguyên
+// - nextBoolean(): Đọc boolean (chấp nhận chuỗi "true"/"false")
+// - nextDate(): Đọc ngày theo định dạng ISO 8601 hoặc timestamp
+// - readList(): Đọc mảng JSON thành danh sách
+package com.example.appquanlytimtro.network.json;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+final class JsonReaders {
+
+    interface ElementReader<T> {
+        T read(JsonReader in) throws IOException;
+    }
+
+    private static final String[] DATE_PATTERNS = {
+            "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'",
+            "yyyy-MM-dd'T'HH:mm:ss'Z'",
+            "yyyy-MM-dd"
+    };
+
+    private static final ThreadLocal<SimpleDateFormat[]> DATE_FORMATS = new ThreadLocal<SimpleDateFormat[]>() {
+        @Override
+        protected SimpleDateFormat[] initialValue() {
+            SimpleDateFormat[] formats = new SimpleDateFormat[DATE_PATTERNS.length];
+            for (int i = 0; i < DATE_PATTERNS.length; i++) {
+                formats[i] = new SimpleDateFormat(DATE_PATTERNS[i], Locale.US);
+                formats[i].setTimeZone(TimeZone.getTimeZone("UTC"));
+            }
+            return formats;
+        }
+    };
+
+    private JsonReaders() {}
+
+    static boolean consumeNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    static String nextString(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case NULL:
+                in.nextNull();
+                return null;
+            case BOOLEAN:
+                return Boolean.toString(in.nextBoolean());
+            case BEGIN_OBJECT:
+                // Tham chiếu đã được populate nhưng model chỉ lưu ID
+                return readObjectId(in);
+            case BEGIN_ARRAY:
+                in.skipValue();
+                return null;
+            default:
+                return in.nextString();
+        }
+    }
+
+    static double nextDouble(JsonReader in) throws IOException {
+        if (consumeNull(in)) {
+            return 0;
+        }
+        return in.nextDouble();
+    }
+
+    static int nextInt(JsonReader in) throws IOException {
+        if (consumeNull(in)) {
+            return 0;
+        }
+        return in.nextInt();
+    }
+
+    static boolean nextBoolean(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case NULL:
+                in.nextNull();
+                return false;
+            case STRING:
+                return Boolean.parseBoolean(in.nextString());
+            default:
+                return in.nextBoolean();
+        }
+    }
+
+    static Date nextDate(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case NULL:
+                in.nextNull();
+                return null;
+            case NUMBER:
+                return new Date(in.nextLong());
+            default:
+                String value = in.nextString();
+                for (SimpleDateFormat format : DATE_FORMATS.get()) {
+                    try {
+                        return format.parse(value);
+                    } catch (ParseException ignored) {
+                    }
+                }
+                throw new JsonSyntaxException("Không thể parse ngày: " + value + " tại " + in.getPath());
+        }
+    }
+
+    static <T> List<T> readList(JsonReader in, ElementReader<T> reader) throws IOException {
+        if (consumeNull(in)) {
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(reader.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    private static String readObjectId(JsonReader in) throws IOException {
+        String id = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("_id".equals(in.nextName())) {
+                id = nextString(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return id;
+    }
+}
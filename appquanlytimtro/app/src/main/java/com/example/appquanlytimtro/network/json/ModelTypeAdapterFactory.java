@@ -0,0 +1,104 @@
+//class: TypeAdapterFactory cho các model chính
+// Mục đích file: File này dùng để đăng ký các TypeAdapter streaming cho Room, RoomSummary, Booking, Payment, User, Notification
+// function: 
+// - create(): Trả về TypeAdapter cho các model được hỗ trợ
+// - StreamingAdapter: Đọc bằng reader viết tay, ghi bằng adapter mặc định của Gson
+package com.example.appquanlytimtro.network.json;
+
+import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.Notification;
+import com.example.appquanlytimtro.models.Payment;
+import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.User;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+final class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    private final Map<Class<?>, JsonReaders.ElementReader<?>> readers = new HashMap<>();
+
+    ModelTypeAdapterFactory() {
+        readers.put(Room.class, RoomReader::readRoom);
+        readers.put(RoomSummary.class, RoomReader::readRoomSummary);
+        readers.put(Room.Price.class, RoomReader::readPrice);
+        readers.put(Room.Utilities.class, RoomReader::readUtilities);
+        readers.put(Room.RoomImage.class, RoomReader::readRoomImage);
+        readers.put(Room.Availability.class, RoomReader::readAvailability);
+        readers.put(Room.ContactInfo.class, RoomReader::readContactInfo);
+        readers.put(Room.NearbyPlace.class, RoomReader::readNearbyPlace);
+        readers.put(Room.Rating.class, RoomReader::readRating);
+
+        readers.put(User.class, UserReader::readUser);
+        readers.put(User.Address.class, UserReader::readAddress);
+        readers.put(User.Coordinates.class, UserReader::readCoordinates);
+        readers.put(User.LandlordInfo.class, UserReader::readLandlordInfo);
+        readers.put(User.BankAccount.class, UserReader::readBankAccount);
+        readers.put(User.TenantInfo.class, UserReader::readTenantInfo);
+        readers.put(User.EmergencyContact.class, UserReader::readEmergencyContact);
+
+        readers.put(Booking.class, BookingReader::readBooking);
+        readers.put(Booking.BookingDetails.class, BookingReader::readBookingDetails);
+        readers.put(Booking.Pricing.class, BookingReader::readPricing);
+        readers.put(Booking.PaymentStatus.class, BookingReader::readPaymentStatus);
+        readers.put(Booking.DepositPayment.class, BookingReader::readDepositPayment);
+        readers.put(Booking.MonthlyPayment.class, BookingReader::readMonthlyPayment);
+        readers.put(Booking.Contract.class, BookingReader::readContract);
+        readers.put(Booking.ContractTerm.class, BookingReader::readContractTerm);
+        readers.put(Booking.Document.class, BookingReader::readDocument);
+        readers.put(Booking.Notes.class, BookingReader::readNotes);
+        readers.put(Booking.Cancellation.class, BookingReader::readCancellation);
+        readers.put(Booking.Reviews.class, BookingReader::readReviews);
+        readers.put(Booking.Review.class, BookingReader::readReview);
+
+        readers.put(Payment.class, PaymentReader::readPayment);
+        readers.put(Payment.VNPayInfo.class, PaymentReader::readVNPayInfo);
+        readers.put(Payment.BankTransferInfo.class, PaymentReader::readBankTransferInfo);
+        readers.put(Payment.RefundInfo.class, PaymentReader::readRefundInfo);
+        readers.put(Payment.Fees.class, PaymentReader::readFees);
+        readers.put(Payment.Metadata.class, PaymentReader::readMetadata);
+
+        readers.put(Notification.class, NotificationReader::readNotification);
+        readers.put(Notification.NotificationData.class, NotificationReader::readNotificationData);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        JsonReaders.ElementReader<T> reader = (JsonReaders.ElementReader<T>) readers.get(type.getRawType());
+        if (reader == null) {
+            return null;
+        }
+        return new StreamingAdapter<>(reader, gson.getDelegateAdapter(this, type));
+    }
+
+    // Chỉ đường đọc (phản hồi danh sách lớn) được viết tay; đường ghi (request body,
+    // lưu user vào SharedPreferences) hiếm khi chạy nên vẫn dùng adapter mặc định
+    private static final class StreamingAdapter<T> extends TypeAdapter<T> {
+        private final JsonReaders.ElementReader<T> reader;
+        private final TypeAdapter<T> writeDelegate;
+
+        StreamingAdapter(JsonReaders.ElementReader<T> reader, TypeAdapter<T> writeDelegate) {
+            this.reader = reader;
+            this.writeDelegate = writeDelegate;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            writeDelegate.write(out, value);
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            return reader.read(in);
+        }
+    }
+}
@@ -0,0 +1,510 @@
+//class: JsonReader đọc dữ liệu MessagePack
+// Mục đích file: File này dùng để đọc response MessagePack qua cùng API với JsonReader, nhờ đó các reader viết tay (RoomReader, BookingReader...) và adapter của Gson dùng lại được mà không cần parse text
+// function:
+// - peek(): Xác định token kế tiếp từ byte đầu của giá trị MessagePack
+// - beginArray() / endArray(): Đọc mảng
+// - beginObject() / endObject(): Đọc map
+// - hasNext(): Kiểm tra còn phần tử trong mảng/map hiện tại
+// - nextName(): Đọc tên thuộc tính
+// - nextString() / nextBoolean() / nextNull() / nextDouble() / nextLong() / nextInt(): Đọc giá trị nguyên thủy
+// - skipValue(): Bỏ qua giá trị (kể cả mảng/map lồng nhau) mà không tạo object
+// - getPath() / getPreviousPath(): Đường dẫn hiện tại để báo lỗi
+package com.example.appquanlytimtro.network.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import okio.BufferedSource;
+
+public final class MsgPackReader extends JsonReader {
+
+    // JsonReader bắt buộc có Reader, dữ liệu thật được đọc từ source
+    private static final Reader UNREADABLE_READER = new Reader() {
+        @Override
+        public int read(char[] buffer, int offset, int count) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private static final int NONE = -1;
+    private static final int KIND_ARRAY = 1;
+    private static final int KIND_OBJECT = 2;
+
+    private final BufferedSource source;
+    // Byte đầu của giá trị kế tiếp đã đọc trước (NONE nếu chưa đọc)
+    private int head = NONE;
+    private boolean documentDone;
+
+    private int depth;
+    private int[] kinds = new int[32];
+    // Số phần tử (mảng) hoặc số cặp key/value (map) còn lại ở mỗi tầng
+    private long[] remaining = new long[32];
+    private boolean[] expectName = new boolean[32];
+    private String[] pathNames = new String[32];
+    private int[] pathIndices = new int[32];
+
+    public MsgPackReader(BufferedSource source) {
+        super(UNREADABLE_READER);
+        this.source = source;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        if (depth == 0) {
+            if (documentDone) {
+                return JsonToken.END_DOCUMENT;
+            }
+        } else if (remaining[depth] == 0) {
+            return kinds[depth] == KIND_ARRAY ? JsonToken.END_ARRAY : JsonToken.END_OBJECT;
+        } else if (expectName[depth]) {
+            return JsonToken.NAME;
+        }
+        int b = head();
+        if (b <= 0x7f || b >= 0xe0) {
+            return JsonToken.NUMBER;
+        }
+        if (b <= 0x8f) {
+            return JsonToken.BEGIN_OBJECT;
+        }
+        if (b <= 0x9f) {
+            return JsonToken.BEGIN_ARRAY;
+        }
+        if (b <= 0xbf) {
+            return JsonToken.STRING;
+        }
+        switch (b) {
+            case 0xc0:
+                return JsonToken.NULL;
+            case 0xc2:
+            case 0xc3:
+                return JsonToken.BOOLEAN;
+            case 0xca: case 0xcb:
+            case 0xcc: case 0xcd: case 0xce: case 0xcf:
+            case 0xd0: case 0xd1: case 0xd2: case 0xd3:
+                return JsonToken.NUMBER;
+            case 0xd9: case 0xda: case 0xdb:
+            case 0xc4: case 0xc5: case 0xc6:
+                return JsonToken.STRING;
+            case 0xdc: case 0xdd:
+                return JsonToken.BEGIN_ARRAY;
+            case 0xde: case 0xdf:
+                return JsonToken.BEGIN_OBJECT;
+            default:
+                throw syntaxError("Kiểu MessagePack không hỗ trợ 0x" + Integer.toHexString(b));
+        }
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expectValue();
+        int b = take();
+        long size;
+        if (b >= 0x90 && b <= 0x9f) {
+            size = b & 0x0f;
+        } else if (b == 0xdc) {
+            size = source.readShort() & 0xffff;
+        } else if (b == 0xdd) {
+            size = source.readInt() & 0xffffffffL;
+        } else {
+            throw unexpected("BEGIN_ARRAY", b);
+        }
+        push(KIND_ARRAY, size);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        pop(KIND_ARRAY);
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expectValue();
+        int b = take();
+        long size;
+        if (b >= 0x80 && b <= 0x8f) {
+            size = b & 0x0f;
+        } else if (b == 0xde) {
+            size = source.readShort() & 0xffff;
+        } else if (b == 0xdf) {
+            size = source.readInt() & 0xffffffffL;
+        } else {
+            throw unexpected("BEGIN_OBJECT", b);
+        }
+        push(KIND_OBJECT, size);
+        expectName[depth] = true;
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        pop(KIND_OBJECT);
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        return depth == 0 ? !documentDone : remaining[depth] > 0;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        if (depth == 0 || kinds[depth] != KIND_OBJECT || !expectName[depth] || remaining[depth] == 0) {
+            throw syntaxError("Không phải vị trí tên thuộc tính");
+        }
+        String name = readString(take());
+        expectName[depth] = false;
+        pathNames[depth] = name;
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        expectValue();
+        int b = take();
+        String value;
+        if (isString(b)) {
+            value = readString(b);
+        } else if (isInteger(b)) {
+            value = Long.toString(readLong(b));
+        } else if (b == 0xca || b == 0xcb) {
+            double d = readDouble(b);
+            // JSON ghi số nguyên dưới dạng không có phần thập phân
+            value = d == Math.rint(d) && !Double.isInfinite(d) && Math.abs(d) < 1e15
+                    ? Long.toString((long) d) : Double.toString(d);
+        } else {
+            throw unexpected("STRING", b);
+        }
+        afterValue();
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        expectValue();
+        int b = take();
+        if (b != 0xc2 && b != 0xc3) {
+            throw unexpected("BOOLEAN", b);
+        }
+        afterValue();
+        return b == 0xc3;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expectValue();
+        int b = take();
+        if (b != 0xc0) {
+            throw unexpected("NULL", b);
+        }
+        afterValue();
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        expectValue();
+        int b = take();
+        double value;
+        if (isInteger(b)) {
+            value = readLong(b);
+        } else if (b == 0xca || b == 0xcb) {
+            value = readDouble(b);
+        } else if (isString(b)) {
+            value = parseDouble(readString(b));
+        } else {
+            throw unexpected("NUMBER", b);
+        }
+        if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+            throw new NumberFormatException("JSON forbids NaN and infinities: " + value + locationString());
+        }
+        afterValue();
+        return value;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        expectValue();
+        int b = take();
+        long value;
+        if (isInteger(b)) {
+            value = readLong(b);
+        } else if (b == 0xca || b == 0xcb) {
+            value = toExactLong(readDouble(b));
+        } else if (isString(b)) {
+            String text = readString(b);
+            try {
+                value = Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                value = toExactLong(parseDouble(text));
+            }
+        } else {
+            throw unexpected("NUMBER", b);
+        }
+        afterValue();
+        return value;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        // nextLong đã gọi afterValue, kiểm tra tràn sau khi đọc giống JsonReader
+        long value = nextLong();
+        int result = (int) value;
+        if (result != value) {
+            throw new NumberFormatException("Expected an int but was " + value + locationString());
+        }
+        return result;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        if (depth > 0 && remaining[depth] > 0 && expectName[depth]) {
+            // Bỏ qua cả tên lẫn giá trị giống JsonReader
+            pathNames[depth] = "<skipped>";
+            skipBytes(take());
+            expectName[depth] = false;
+        }
+        expectValue();
+        long pending = 1;
+        while (pending > 0) {
+            pending += skipBytes(take()) - 1;
+        }
+        afterValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        head = NONE;
+        depth = 0;
+        documentDone = true;
+        source.close();
+    }
+
+    @Override
+    public String getPath() {
+        StringBuilder path = new StringBuilder("$");
+        for (int i = 1; i <= depth; i++) {
+            if (kinds[i] == KIND_ARRAY) {
+                path.append('[').append(pathIndices[i]).append(']');
+            } else if (pathNames[i] != null) {
+                path.append('.').append(pathNames[i]);
+            }
+        }
+        return path.toString();
+    }
+
+    @Override
+    public String getPreviousPath() {
+        return getPath();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + locationString();
+    }
+
+    private int head() throws IOException {
+        if (head == NONE) {
+            head = source.readByte() & 0xff;
+        }
+        return head;
+    }
+
+    private int take() throws IOException {
+        int b = head();
+        head = NONE;
+        return b;
+    }
+
+    private void expectValue() throws IOException {
+        if (depth == 0) {
+            if (documentDone) {
+                throw syntaxError("Đã đọc hết dữ liệu");
+            }
+        } else if (remaining[depth] == 0 || expectName[depth]) {
+            throw syntaxError("Không phải vị trí giá trị");
+        }
+    }
+
+    private void afterValue() {
+        if (depth == 0) {
+            documentDone = true;
+        } else if (kinds[depth] == KIND_ARRAY) {
+            remaining[depth]--;
+            pathIndices[depth]++;
+        } else {
+            remaining[depth]--;
+            expectName[depth] = true;
+        }
+    }
+
+    private void push(int kind, long size) {
+        depth++;
+        if (depth == kinds.length) {
+            int length = depth * 2;
+            kinds = Arrays.copyOf(kinds, length);
+            remaining = Arrays.copyOf(remaining, length);
+            expectName = Arrays.copyOf(expectName, length);
+            pathNames = Arrays.copyOf(pathNames, length);
+            pathIndices = Arrays.copyOf(pathIndices, length);
+        }
+        kinds[depth] = kind;
+        remaining[depth] = size;
+        expectName[depth] = false;
+        pathNames[depth] = null;
+        pathIndices[depth] = 0;
+    }
+
+    private void pop(int kind) throws IOException {
+        if (depth == 0 || kinds[depth] != kind || remaining[depth] != 0) {
+            throw syntaxError(kind == KIND_ARRAY ? "Mảng chưa đọc hết" : "Map chưa đọc hết");
+        }
+        depth--;
+        afterValue();
+    }
+
+    // Bỏ qua phần dữ liệu của giá trị có byte đầu b, trả về số giá trị con cần bỏ qua tiếp
+    private long skipBytes(int b) throws IOException {
+        if (b <= 0x7f || b >= 0xe0 || b == 0xc0 || b == 0xc2 || b == 0xc3) {
+            return 0;
+        }
+        if (b <= 0x8f) {
+            return (b & 0x0f) * 2L;
+        }
+        if (b <= 0x9f) {
+            return b & 0x0f;
+        }
+        if (b <= 0xbf) {
+            source.skip(b & 0x1f);
+            return 0;
+        }
+        switch (b) {
+            case 0xcc: case 0xd0:
+                source.skip(1);
+                return 0;
+            case 0xcd: case 0xd1:
+                source.skip(2);
+                return 0;
+            case 0xca: case 0xce: case 0xd2:
+                source.skip(4);
+                return 0;
+            case 0xcb: case 0xcf: case 0xd3:
+                source.skip(8);
+                return 0;
+            case 0xc4: case 0xd9:
+                source.skip(source.readByte() & 0xff);
+                return 0;
+            case 0xc5: case 0xda:
+                source.skip(source.readShort() & 0xffff);
+                return 0;
+            case 0xc6: case 0xdb:
+                source.skip(source.readInt() & 0xffffffffL);
+                return 0;
+            case 0xdc:
+                return source.readShort() & 0xffff;
+            case 0xdd:
+                return source.readInt() & 0xffffffffL;
+            case 0xde:
+                return (source.readShort() & 0xffff) * 2L;
+            case 0xdf:
+                return (source.readInt() & 0xffffffffL) * 2L;
+            default:
+                throw syntaxError("Kiểu MessagePack không hỗ trợ 0x" + Integer.toHexString(b));
+        }
+    }
+
+    private static boolean isString(int b) {
+        return (b >= 0xa0 && b <= 0xbf) || b == 0xd9 || b == 0xda || b == 0xdb
+                || b == 0xc4 || b == 0xc5 || b == 0xc6;
+    }
+
+    private static boolean isInteger(int b) {
+        return b <= 0x7f || b >= 0xe0 || (b >= 0xcc && b <= 0xcf) || (b >= 0xd0 && b <= 0xd3);
+    }
+
+    private String readString(int b) throws IOException {
+        long length;
+        if (b >= 0xa0 && b <= 0xbf) {
+            length = b & 0x1f;
+        } else if (b == 0xd9 || b == 0xc4) {
+            length = source.readByte() & 0xff;
+        } else if (b == 0xda || b == 0xc5) {
+            length = source.readShort() & 0xffff;
+        } else if (b == 0xdb || b == 0xc6) {
+            length = source.readInt() & 0xffffffffL;
+        } else {
+            throw unexpected("STRING", b);
+        }
+        return source.readUtf8(length);
+    }
+
+    private long readLong(int b) throws IOException {
+        if (b <= 0x7f) {
+            return b;
+        }
+        if (b >= 0xe0) {
+            return (byte) b;
+        }
+        switch (b) {
+            case 0xcc:
+                return source.readByte() & 0xff;
+            case 0xcd:
+                return source.readShort() & 0xffff;
+            case 0xce:
+                return source.readInt() & 0xffffffffL;
+            case 0xcf:
+                long value = source.readLong();
+                if (value < 0) {
+                    throw new NumberFormatException("Số vượt quá kiểu long" + locationString());
+                }
+                return value;
+            case 0xd0:
+                return source.readByte();
+            case 0xd1:
+                return source.readShort();
+            case 0xd2:
+                return source.readInt();
+            default:
+                return source.readLong();
+        }
+    }
+
+    private double readDouble(int b) throws IOException {
+        return b == 0xca
+                ? Float.intBitsToFloat(source.readInt())
+                : Double.longBitsToDouble(source.readLong());
+    }
+
+    private double parseDouble(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Expected a double but was " + text + locationString());
+        }
+    }
+
+    private long toExactLong(double value) {
+        long result = (long) value;
+        if (result != value) {
+            throw new NumberFormatException("Expected a long but was " + value + locationString());
+        }
+        return result;
+    }
+
+    private IOException unexpected(String expected, int b) {
+        return syntaxError("Expected " + expected + " but was 0x" + Integer.toHexString(b));
+    }
+
+    private IOException syntaxError(String message) {
+        return new MalformedJsonException(message + locationString());
+    }
+
+    private String locationString() {
+        return " at path " + getPath();
+    }
+}
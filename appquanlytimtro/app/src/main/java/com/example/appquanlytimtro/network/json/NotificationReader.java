@@ -0,0 +1,98 @@
+//class: đọc JSON thông báo bằng JsonReader
+// Mục đích file: File này dùng để parse Notification và NotificationData theo kiểu streaming, không dùng reflection
+// function: 
+// - readNotification(): Đọc Notification từ JsonReader
+// - readNotificationData(): Đọc NotificationData từ JsonReader
+package com.example.appquanlytimtro.network.json;
+
+import com.example.appquanlytimtro.models.Notification;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+final class NotificationReader {
+
+    private NotificationReader() {}
+
+    static Notification readNotification(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Notification notification = new Notification();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "_id":
+                    notification.setId(JsonReaders.nextString(in));
+                    break;
+                case "recipient":
+                    notification.setRecipientId(JsonReaders.nextString(in));
+                    break;
+                case "type":
+                    notification.setType(JsonReaders.nextString(in));
+                    break;
+                case "title":
+                    notification.setTitle(JsonReaders.nextString(in));
+                    break;
+                case "message":
+                    notification.setMessage(JsonReaders.nextString(in));
+                    break;
+                case "data":
+                    notification.setData(readNotificationData(in));
+                    break;
+                case "status":
+                    notification.setStatus(JsonReaders.nextString(in));
+                    break;
+                case "readAt":
+                    notification.setReadAt(JsonReaders.nextString(in));
+                    break;
+                case "createdAt":
+                    notification.setCreatedAt(JsonReaders.nextString(in));
+                    break;
+                case "updatedAt":
+                    notification.setUpdatedAt(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return notification;
+    }
+
+    static Notification.NotificationData readNotificationData(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Notification.NotificationData notificationData = new Notification.NotificationData();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "bookingId":
+                    notificationData.setBookingId(JsonReaders.nextString(in));
+                    break;
+                case "roomId":
+                    notificationData.setRoomId(JsonReaders.nextString(in));
+                    break;
+                case "paymentId":
+                    notificationData.setPaymentId(JsonReaders.nextString(in));
+                    break;
+                case "amount":
+                    notificationData.setAmount(JsonReaders.nextDouble(in));
+                    break;
+                case "tenantId":
+                    notificationData.setTenantId(JsonReaders.nextString(in));
+                    break;
+                case "landlordId":
+                    notificationData.setLandlordId(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return notificationData;
+    }
+}
@@ -0,0 +1,327 @@
+//class: đọc JSON thanh toán bằng JsonReader
+// Mục đích file: File này dùng để parse Payment và các class lồng nhau (VNPayInfo, BankTransferInfo, RefundInfo, ...) theo kiểu streaming, không dùng reflection
+// function: 
+// - readPayment(): Đọc Payment từ JsonReader
+// - readVNPayInfo(): Đọc VNPayInfo từ JsonReader
+// - readBankTransferInfo(): Đọc BankTransferInfo từ JsonReader
+// - readRefundInfo(): Đọc RefundInfo từ JsonReader
+// - readFees(): Đọc Fees từ JsonReader
+// - readMetadata(): Đọc Metadata từ JsonReader
+package com.example.appquanlytimtro.network.json;
+
+import com.example.appquanlytimtro.models.Payment;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+final class PaymentReader {
+
+    private PaymentReader() {}
+
+    static Payment readPayment(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        if (in.peek() == JsonToken.STRING) {
+            // Trường tham chiếu chưa được populate, backend chỉ trả về ID
+            Payment payment = new Payment();
+            payment.setId(in.nextString());
+            return payment;
+        }
+        Payment payment = new Payment();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "_id":
+                    payment.setId(JsonReaders.nextString(in));
+                    break;
+                case "bookingId":
+                    payment.setBookingId(JsonReaders.nextString(in));
+                    break;
+                case "payerId":
+                    payment.setPayerId(JsonReaders.nextString(in));
+                    break;
+                case "recipientId":
+                    payment.setRecipientId(JsonReaders.nextString(in));
+                    break;
+                case "type":
+                    payment.setType(JsonReaders.nextString(in));
+                    break;
+                case "amount":
+                    payment.setAmount(JsonReaders.nextDouble(in));
+                    break;
+                case "currency":
+                    payment.setCurrency(JsonReaders.nextString(in));
+                    break;
+                case "status":
+                    payment.setStatus(JsonReaders.nextString(in));
+                    break;
+                case "paymentMethod":
+                    payment.setPaymentMethod(JsonReaders.nextString(in));
+                    break;
+                case "vnpay":
+                    payment.setVnpay(readVNPayInfo(in));
+                    break;
+                case "bankTransfer":
+                    payment.setBankTransfer(readBankTransferInfo(in));
+                    break;
+                case "transactionId":
+                    payment.setTransactionId(JsonReaders.nextString(in));
+                    break;
+                case "externalTransactionId":
+                    payment.setExternalTransactionId(JsonReaders.nextString(in));
+                    break;
+                case "description":
+                    payment.setDescription(JsonReaders.nextString(in));
+                    break;
+                case "notes":
+                    payment.setNotes(JsonReaders.nextString(in));
+                    break;
+                case "initiatedAt":
+                    payment.setInitiatedAt(JsonReaders.nextString(in));
+                    break;
+                case "processedAt":
+                    payment.setProcessedAt(JsonReaders.nextString(in));
+                    break;
+                case "completedAt":
+                    payment.setCompletedAt(JsonReaders.nextString(in));
+                    break;
+                case "failedAt":
+                    payment.setFailedAt(JsonReaders.nextString(in));
+                    break;
+                case "failureReason":
+                    payment.setFailureReason(JsonReaders.nextString(in));
+                    break;
+                case "refund":
+                    payment.setRefund(readRefundInfo(in));
+                    break;
+                case "fees":
+                    payment.setFees(readFees(in));
+                    break;
+                case "metadata":
+                    payment.setMetadata(readMetadata(in));
+                    break;
+                case "booking":
+                    payment.setBooking(BookingReader.readBooking(in));
+                    break;
+                case "payer":
+                    payment.setPayer(UserReader.readUser(in));
+                    break;
+                case "recipient":
+                    payment.setRecipient(UserReader.readUser(in));
+                    break;
+                case "createdAt":
+                    payment.setCreatedAt(JsonReaders.nextString(in));
+                    break;
+                case "updatedAt":
+                    payment.setUpdatedAt(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return payment;
+    }
+
+    static Payment.VNPayInfo readVNPayInfo(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Payment.VNPayInfo vNPayInfo = new Payment.VNPayInfo();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "txnRef":
+                    vNPayInfo.setTxnRef(JsonReaders.nextString(in));
+                    break;
+                case "orderInfo":
+                    vNPayInfo.setOrderInfo(JsonReaders.nextString(in));
+                    break;
+                case "orderType":
+                    vNPayInfo.setOrderType(JsonReaders.nextString(in));
+                    break;
+                case "amount":
+                    vNPayInfo.setAmount(JsonReaders.nextDouble(in));
+                    break;
+                case "locale":
+                    vNPayInfo.setLocale(JsonReaders.nextString(in));
+                    break;
+                case "currCode":
+                    vNPayInfo.setCurrCode(JsonReaders.nextString(in));
+                    break;
+                case "returnUrl":
+                    vNPayInfo.setReturnUrl(JsonReaders.nextString(in));
+                    break;
+                case "ipAddr":
+                    vNPayInfo.setIpAddr(JsonReaders.nextString(in));
+                    break;
+                case "createDate":
+                    vNPayInfo.setCreateDate(JsonReaders.nextString(in));
+                    break;
+                case "expireDate":
+                    vNPayInfo.setExpireDate(JsonReaders.nextString(in));
+                    break;
+                case "vnpTxnRef":
+                    vNPayInfo.setVnpTxnRef(JsonReaders.nextString(in));
+                    break;
+                case "vnpAmount":
+                    vNPayInfo.setVnpAmount(JsonReaders.nextDouble(in));
+                    break;
+                case "vnpOrderInfo":
+                    vNPayInfo.setVnpOrderInfo(JsonReaders.nextString(in));
+                    break;
+                case "vnpResponseCode":
+                    vNPayInfo.setVnpResponseCode(JsonReaders.nextString(in));
+                    break;
+                case "vnpTransactionNo":
+                    vNPayInfo.setVnpTransactionNo(JsonReaders.nextString(in));
+                    break;
+                case "vnpTransactionStatus":
+                    vNPayInfo.setVnpTransactionStatus(JsonReaders.nextString(in));
+                    break;
+                case "vnpSecureHash":
+                    vNPayInfo.setVnpSecureHash(JsonReaders.nextString(in));
+                    break;
+                case "vnpSecureHashType":
+                    vNPayInfo.setVnpSecureHashType(JsonReaders.nextString(in));
+                    break;
+                case "vnpBankCode":
+                    vNPayInfo.setVnpBankCode(JsonReaders.nextString(in));
+                    break;
+                case "vnpCardType":
+                    vNPayInfo.setVnpCardType(JsonReaders.nextString(in));
+                    break;
+                case "vnpPayDate":
+                    vNPayInfo.setVnpPayDate(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return vNPayInfo;
+    }
+
+    static Payment.BankTransferInfo readBankTransferInfo(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Payment.BankTransferInfo bankTransferInfo = new Payment.BankTransferInfo();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "bankName":
+                    bankTransferInfo.setBankName(JsonReaders.nextString(in));
+                    break;
+                case "accountNumber":
+                    bankTransferInfo.setAccountNumber(JsonReaders.nextString(in));
+                    break;
+                case "accountHolder":
+                    bankTransferInfo.setAccountHolder(JsonReaders.nextString(in));
+                    break;
+                case "transferNote":
+                    bankTransferInfo.setTransferNote(JsonReaders.nextString(in));
+                    break;
+                case "transferDate":
+                    bankTransferInfo.setTransferDate(JsonReaders.nextString(in));
+                    break;
+                case "receiptImage":
+                    bankTransferInfo.setReceiptImage(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return bankTransferInfo;
+    }
+
+    static Payment.RefundInfo readRefundInfo(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Payment.RefundInfo refundInfo = new Payment.RefundInfo();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "refundAmount":
+                    refundInfo.setAmount(JsonReaders.nextDouble(in));
+                    break;
+                case "reason":
+                    refundInfo.setReason(JsonReaders.nextString(in));
+                    break;
+                case "processedAt":
+                    refundInfo.setProcessedAt(JsonReaders.nextString(in));
+                    break;
+                case "refundTransactionId":
+                    refundInfo.setRefundTransactionId(JsonReaders.nextString(in));
+                    break;
+                case "refundStatus":
+                    refundInfo.setStatus(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return refundInfo;
+    }
+
+    static Payment.Fees readFees(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Payment.Fees fees = new Payment.Fees();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "platformFee":
+                    fees.setPlatformFee(JsonReaders.nextDouble(in));
+                    break;
+                case "processingFee":
+                    fees.setProcessingFee(JsonReaders.nextDouble(in));
+                    break;
+                case "totalFees":
+                    fees.setTotalFees(JsonReaders.nextDouble(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return fees;
+    }
+
+    static Payment.Metadata readMetadata(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Payment.Metadata metadata = new Payment.Metadata();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "userAgent":
+                    metadata.setUserAgent(JsonReaders.nextString(in));
+                    break;
+                case "ipAddress":
+                    metadata.setIpAddress(JsonReaders.nextString(in));
+                    break;
+                case "deviceInfo":
+                    metadata.setDeviceInfo(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return metadata;
+    }
+}
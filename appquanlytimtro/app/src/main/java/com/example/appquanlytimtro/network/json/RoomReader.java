@@ -0,0 +1,360 @@
+//class: đọc JSON phòng trọ bằng JsonReader
+// Mục đích file: File này dùng để parse Room và các class lồng nhau (Price, RoomImage, Availability, ...) theo kiểu streaming, không dùng reflection
+// function: 
+// - readRoom(): Đọc Room từ JsonReader
+// - readRoomSummary(): Đọc RoomSummary (phòng rút gọn cho danh sách) từ JsonReader
+// - readPrice(): Đọc Price từ JsonReader
+// - readUtilities(): Đọc Utilities từ JsonReader
+// - readRoomImage(): Đọc RoomImage từ JsonReader
+// - readAvailability(): Đọc Availability từ JsonReader
+// - readContactInfo(): Đọc ContactInfo từ JsonReader
+// - readNearbyPlace(): Đọc NearbyPlace từ JsonReader
+// - readRating(): Đọc Rating từ JsonReader
+// - readUtilitiesValue(): Đọc tiện ích dạng object hoặc tổng tiền dạng số
+package com.example.appquanlytimtro.network.json;
+
+import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+final class RoomReader {
+
+    private RoomReader() {}
+
+    static Room readRoom(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        if (in.peek() == JsonToken.STRING) {
+            // Trường tham chiếu chưa được populate, backend chỉ trả về ID
+            Room room = new Room();
+            room.setId(in.nextString());
+            return room;
+        }
+        Room room = new Room();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "_id":
+                    room.setId(JsonReaders.nextString(in));
+                    break;
+                case "title":
+                    room.setTitle(JsonReaders.nextString(in));
+                    break;
+                case "description":
+                    room.setDescription(JsonReaders.nextString(in));
+                    break;
+                case "address":
+                    room.setAddress(UserReader.readAddress(in));
+                    break;
+                case "roomType":
+                    room.setRoomType(JsonReaders.nextString(in));
+                    break;
+                case "area":
+                    room.setArea(JsonReaders.nextDouble(in));
+                    break;
+                case "price":
+                    room.setPrice(readPrice(in));
+                    break;
+                case "amenities":
+                    room.setAmenities(JsonReaders.readList(in, JsonReaders::nextString));
+                    break;
+                case "rules":
+                    room.setRules(JsonReaders.readList(in, JsonReaders::nextString));
+                    break;
+                case "images":
+                    room.setImages(JsonReaders.readList(in, RoomReader::readRoomImage));
+                    break;
+                case "landlord":
+                    room.setLandlord(UserReader.readUser(in));
+                    break;
+                case "availability":
+                    room.setAvailability(readAvailability(in));
+                    break;
+                case "status":
+                    room.setStatus(JsonReaders.nextString(in));
+                    break;
+                case "contactInfo":
+                    room.setContactInfo(readContactInfo(in));
+                    break;
+                case "nearbyPlaces":
+                    room.setNearbyPlaces(JsonReaders.readList(in, RoomReader::readNearbyPlace));
+                    break;
+                case "rating":
+                    room.setRating(readRating(in));
+                    break;
+                case "views":
+                    room.setViews(JsonReaders.nextInt(in));
+                    break;
+                case "likes":
+                    room.setLikes(JsonReaders.readList(in, JsonReaders::nextString));
+                    break;
+                case "createdAt":
+                    room.setCreatedAt(JsonReaders.nextString(in));
+                    break;
+                case "updatedAt":
+                    room.setUpdatedAt(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return room;
+    }
+
+    static RoomSummary readRoomSummary(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        RoomSummary summary = new RoomSummary();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "_id":
+                    summary.setId(JsonReaders.nextString(in));
+                    break;
+                case "title":
+                    summary.setTitle(JsonReaders.nextString(in));
+                    break;
+                case "description":
+                    summary.setDescription(JsonReaders.nextString(in));
+                    break;
+                case "address":
+                    summary.setAddress(UserReader.readAddress(in));
+                    break;
+                case "roomType":
+                    summary.setRoomType(JsonReaders.nextString(in));
+                    break;
+                case "area":
+                    summary.setArea(JsonReaders.nextDouble(in));
+                    break;
+                case "amenities":
+                    summary.setAmenities(JsonReaders.readList(in, JsonReaders::nextString));
+                    break;
+                case "price":
+                    summary.setPrice(readPrice(in));
+                    break;
+                case "images":
+                    summary.setImages(JsonReaders.readList(in, RoomReader::readRoomImage));
+                    break;
+                case "status":
+                    summary.setStatus(JsonReaders.nextString(in));
+                    break;
+                case "views":
+                    summary.setViews(JsonReaders.nextInt(in));
+                    break;
+                case "updatedAt":
+                    summary.setUpdatedAt(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return summary;
+    }
+
+    static Room.Price readPrice(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Room.Price price = new Room.Price();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "monthly":
+                    price.setMonthly(JsonReaders.nextDouble(in));
+                    break;
+                case "deposit":
+                    price.setDeposit(JsonReaders.nextDouble(in));
+                    break;
+                case "utilities":
+                    price.setUtilities(readUtilitiesValue(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return price;
+    }
+
+    static Room.Utilities readUtilities(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Room.Utilities utilities = new Room.Utilities();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "electricity":
+                    utilities.setElectricity(JsonReaders.nextDouble(in));
+                    break;
+                case "water":
+                    utilities.setWater(JsonReaders.nextDouble(in));
+                    break;
+                case "internet":
+                    utilities.setInternet(JsonReaders.nextDouble(in));
+                    break;
+                case "other":
+                    utilities.setOther(JsonReaders.nextDouble(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return utilities;
+    }
+
+    static Room.RoomImage readRoomImage(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Room.RoomImage roomImage = new Room.RoomImage();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "_id":
+                    roomImage.setId(JsonReaders.nextString(in));
+                    break;
+                case "url":
+                    roomImage.setUrl(JsonReaders.nextString(in));
+                    break;
+                case "caption":
+                    roomImage.setCaption(JsonReaders.nextString(in));
+                    break;
+                case "isPrimary":
+                    roomImage.setPrimary(JsonReaders.nextBoolean(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return roomImage;
+    }
+
+    static Room.Availability readAvailability(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Room.Availability availability = new Room.Availability();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "isAvailable":
+                    availability.setAvailable(JsonReaders.nextBoolean(in));
+                    break;
+                case "availableFrom":
+                    availability.setAvailableFrom(JsonReaders.nextString(in));
+                    break;
+                case "availableTo":
+                    availability.setAvailableTo(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return availability;
+    }
+
+    static Room.ContactInfo readContactInfo(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Room.ContactInfo contactInfo = new Room.ContactInfo();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "phone":
+                    contactInfo.setPhone(JsonReaders.nextString(in));
+                    break;
+                case "email":
+                    contactInfo.setEmail(JsonReaders.nextString(in));
+                    break;
+                case "preferredContact":
+                    contactInfo.setPreferredContact(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return contactInfo;
+    }
+
+    static Room.NearbyPlace readNearbyPlace(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Room.NearbyPlace nearbyPlace = new Room.NearbyPlace();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    nearbyPlace.setName(JsonReaders.nextString(in));
+                    break;
+                case "type":
+                    nearbyPlace.setType(JsonReaders.nextString(in));
+                    break;
+                case "distance":
+                    nearbyPlace.setDistance(JsonReaders.nextDouble(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return nearbyPlace;
+    }
+
+    static Room.Rating readRating(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        Room.Rating rating = new Room.Rating();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "average":
+                    rating.setAverage(JsonReaders.nextDouble(in));
+                    break;
+                case "count":
+                    rating.setCount(JsonReaders.nextInt(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return rating;
+    }
+
+    private static Object readUtilitiesValue(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case NUMBER:
+            case STRING:
+                return JsonReaders.nextDouble(in);
+            case BEGIN_OBJECT:
+                return readUtilities(in);
+            default:
+                in.skipValue();
+                return null;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+//class: đọc JSON người dùng bằng JsonReader
+// Mục đích file: File này dùng để parse User và các class lồng nhau (Address, LandlordInfo, TenantInfo, ...) theo kiểu streaming, không dùng reflection
+// function: 
+// - readUser(): Đọc User từ JsonReader
+// - readAddress(): Đọc Address từ JsonReader
+// - readCoordinates(): Đọc Coordinates từ JsonReader
+// - readLandlordInfo(): Đọc LandlordInfo từ JsonReader
+// - readBankAccount(): Đọc BankAccount từ JsonReader
+// - readTenantInfo(): Đọc TenantInfo từ JsonReader
+// - readEmergencyContact(): Đọc EmergencyContact từ JsonReader
+package com.example.appquanlytimtro.network.json;
+
+import com.example.appquanlytimtro.models.User;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+final class UserReader {
+
+    private UserReader() {}
+
+    static User readUser(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        if (in.peek() == JsonToken.STRING) {
+            // Trường tham chiếu chưa được populate, backend chỉ trả về ID
+            User user = new User();
+            user.setId(in.nextString());
+            return user;
+        }
+        User user = new User();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "_id":
+                    user.setId(JsonReaders.nextString(in));
+                    break;
+                case "fullName":
+                    user.setFullName(JsonReaders.nextString(in));
+                    break;
+                case "email":
+                    user.setEmail(JsonReaders.nextString(in));
+                    break;
+                case "phone":
+                    user.setPhone(JsonReaders.nextString(in));
+                    break;
+                case "role":
+                    user.setRole(JsonReaders.nextString(in));
+                    break;
+                case "avatar":
+                    user.setAvatar(JsonReaders.nextString(in));
+                    break;
+                case "address":
+                    user.setAddress(readAddress(in));
+                    break;
+                case "isActive":
+                    user.setActive(JsonReaders.nextBoolean(in));
+                    break;
+                case "isVerified":
+                    user.setVerified(JsonReaders.nextBoolean(in));
+                    break;
+                case "landlordInfo":
+                    user.setLandlordInfo(readLandlordInfo(in));
+                    break;
+                case "tenantInfo":
+                    user.setTenantInfo(readTenantInfo(in));
+                    break;
+                case "lastLogin":
+                    user.setLastLogin(JsonReaders.nextString(in));
+                    break;
+                case "loginCount":
+                    user.setLoginCount(JsonReaders.nextInt(in));
+                    break;
+                case "createdAt":
+                    user.setCreatedAt(JsonReaders.nextString(in));
+                    break;
+                case "updatedAt":
+                    user.setUpdatedAt(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return user;
+    }
+
+    static User.Address readAddress(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        User.Address address = new User.Address();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "street":
+                    address.setStreet(JsonReaders.nextString(in));
+                    break;
+                case "ward":
+                    address.setWard(JsonReaders.nextString(in));
+                    break;
+                case "district":
+                    address.setDistrict(JsonReaders.nextString(in));
+                    break;
+                case "city":
+                    address.setCity(JsonReaders.nextString(in));
+                    break;
+                case "coordinates":
+                    address.setCoordinates(readCoordinates(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return address;
+    }
+
+    static User.Coordinates readCoordinates(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        User.Coordinates coordinates = new User.Coordinates();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "lat":
+                    coordinates.setLat(JsonReaders.nextDouble(in));
+                    break;
+                case "lng":
+                    coordinates.setLng(JsonReaders.nextDouble(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return coordinates;
+    }
+
+    static User.LandlordInfo readLandlordInfo(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        User.LandlordInfo landlordInfo = new User.LandlordInfo();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "businessLicense":
+                    landlordInfo.setBusinessLicense(JsonReaders.nextString(in));
+                    break;
+                case "taxCode":
+                    landlordInfo.setTaxCode(JsonReaders.nextString(in));
+                    break;
+                case "bankAccount":
+                    landlordInfo.setBankAccount(readBankAccount(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return landlordInfo;
+    }
+
+    static User.BankAccount readBankAccount(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        User.BankAccount bankAccount = new User.BankAccount();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "bankName":
+                    bankAccount.setBankName(JsonReaders.nextString(in));
+                    break;
+                case "accountNumber":
+                    bankAccount.setAccountNumber(JsonReaders.nextString(in));
+                    break;
+                case "accountHolder":
+                    bankAccount.setAccountHolder(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return bankAccount;
+    }
+
+    static User.TenantInfo readTenantInfo(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        User.TenantInfo tenantInfo = new User.TenantInfo();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "idCard":
+                    tenantInfo.setIdCard(JsonReaders.nextString(in));
+                    break;
+                case "dateOfBirth":
+                    tenantInfo.setDateOfBirth(JsonReaders.nextString(in));
+                    break;
+                case "occupation":
+                    tenantInfo.setOccupation(JsonReaders.nextString(in));
+                    break;
+                case "emergencyContact":
+                    tenantInfo.setEmergencyContact(readEmergencyContact(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return tenantInfo;
+    }
+
+    static User.EmergencyContact readEmergencyContact(JsonReader in) throws IOException {
+        if (JsonReaders.consumeNull(in)) {
+            return null;
+        }
+        User.EmergencyContact emergencyContact = new User.EmergencyContact();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    emergencyContact.setName(JsonReaders.nextString(in));
+                    break;
+                case "phone":
+                    emergencyContact.setPhone(JsonReaders.nextString(in));
+                    break;
+                case "relationship":
+                    emergencyContact.setRelationship(JsonReaders.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return emergencyContact;
+    }
+}
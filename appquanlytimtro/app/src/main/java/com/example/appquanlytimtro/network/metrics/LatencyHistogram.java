@@ -0,0 +1,57 @@
+//class: histogram độ trễ với các bucket cố định
+// Mục đích file: File này dùng để ghi nhận độ trễ (ms) vào các bucket cố định và ước lượng percentile mà không lưu từng mẫu
+// function:
+// - record(): Ghi nhận một mẫu độ trễ (ms)
+// - count(): Số mẫu đã ghi nhận
+// - mean(): Độ trễ trung bình
+// - max(): Độ trễ lớn nhất
+// - percentile(): Ước lượng percentile theo cận trên của bucket
+package com.example.appquanlytimtro.network.metrics;
+
+public class LatencyHistogram {
+
+    // Cận trên của các bucket (ms), bucket cuối cùng chứa phần còn lại
+    private static final long[] BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private final long[] buckets = new long[BOUNDS_MS.length + 1];
+    private long count;
+    private long sum;
+    private long max;
+
+    public synchronized void record(long millis) {
+        if (millis < 0) return;
+        int index = 0;
+        while (index < BOUNDS_MS.length && millis > BOUNDS_MS[index]) {
+            index++;
+        }
+        buckets[index]++;
+        count++;
+        sum += millis;
+        if (millis > max) max = millis;
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized long mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    public synchronized long max() {
+        return max;
+    }
+
+    public synchronized long percentile(double p) {
+        if (count == 0) return 0;
+        long target = (long) Math.ceil(p * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return i < BOUNDS_MS.length ? Math.min(BOUNDS_MS[i], max) : max;
+            }
+        }
+        return max;
+    }
+}
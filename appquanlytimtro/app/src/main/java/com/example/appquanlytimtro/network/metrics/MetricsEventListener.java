@@ -0,0 +1,144 @@
+//class: EventListener của OkHttp ghi số liệu cho từng request
+// Mục đích file: File này dùng để đo thời gian DNS, connect, TTFB, tổng thời gian, số byte, mã trạng thái và kết quả cache của mỗi call rồi ghi vào NetworkMetrics
+// function:
+// - FACTORY: Factory tạo listener mới cho mỗi call
+// - callStart(): Bắt đầu đo (call con của hedging được ghi vào khóa riêng, không tính là request của người dùng)
+// - dnsStart()/dnsEnd(): Đo thời gian phân giải DNS
+// - connectStart()/connectEnd(): Đo thời gian kết nối
+// - requestHeadersStart()/responseHeadersStart(): Đo thời gian chờ byte đầu tiên (TTFB)
+// - cacheHit()/cacheConditionalHit()/cacheMiss(): Ghi nhận kết quả cache
+// - callEnd()/callFailed(): Kết thúc đo và ghi số liệu
+package com.example.appquanlytimtro.network.metrics;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import com.example.appquanlytimtro.network.resilience.ResilienceInterceptor;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+public class MetricsEventListener extends EventListener {
+
+    public enum CacheResult { NONE, HIT, CONDITIONAL_HIT, MISS }
+
+    public static final EventListener.Factory FACTORY = call -> new MetricsEventListener();
+    // Hậu tố khóa endpoint cho call con của hedging
+    public static final String HEDGE_SUFFIX = " [hedge]";
+
+    private long callStartNs;
+    private long dnsStartNs;
+    private long dnsMs = -1;
+    private long connectStartNs;
+    private long connectMs = -1;
+    private long requestStartNs;
+    private long ttfbMs = -1;
+    private long sentBytes;
+    private long receivedBytes;
+    private int statusCode;
+    private CacheResult cacheResult = CacheResult.NONE;
+    private boolean hedgeLeg;
+
+    private static long elapsedMs(long startNs) {
+        return (System.nanoTime() - startNs) / 1_000_000L;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStartNs = System.nanoTime();
+        // Call con được clone từ call chính nên request giống hệt, chỉ phân biệt được qua interceptor
+        hedgeLeg = ResilienceInterceptor.isHedgeLeg(call);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsMs = elapsedMs(dnsStartNs);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectMs = elapsedMs(connectStartNs);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                              Protocol protocol, IOException ioe) {
+        connectMs = elapsedMs(connectStartNs);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        sentBytes += byteCount;
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (requestStartNs > 0) {
+            ttfbMs = elapsedMs(requestStartNs);
+        }
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        statusCode = response.code();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        receivedBytes += byteCount;
+    }
+
+    @Override
+    public void cacheHit(Call call, Response response) {
+        cacheResult = CacheResult.HIT;
+        statusCode = response.code();
+    }
+
+    @Override
+    public void cacheConditionalHit(Call call, Response cachedResponse) {
+        cacheResult = CacheResult.CONDITIONAL_HIT;
+    }
+
+    @Override
+    public void cacheMiss(Call call) {
+        cacheResult = CacheResult.MISS;
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        record(call, false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        record(call, true);
+    }
+
+    private void record(Call call, boolean failed) {
+        String key = NetworkMetrics.endpointKey(call.request());
+        NetworkMetrics.getInstance()
+                .statsFor(hedgeLeg ? key + HEDGE_SUFFIX : key)
+                .recordCall(dnsMs, connectMs, ttfbMs, elapsedMs(callStartNs),
+                        sentBytes, receivedBytes, statusCode, cacheResult, failed);
+    }
+}
@@ -0,0 +1,162 @@
+//class: lưu số liệu mạng theo từng endpoint
+// Mục đích file: File này dùng để tổng hợp độ trễ (DNS, connect, TTFB, tổng), số byte, mã trạng thái và cache hit theo endpoint; hiển thị ở màn hình debug và xuất ra file CSV
+// function:
+// - getInstance(): Lấy instance dùng chung
+// - endpointKey(): Chuẩn hóa method + path thành khóa endpoint (id được thay bằng {id})
+// - statsFor(): Lấy số liệu của một endpoint
+// - reset(): Xóa toàn bộ số liệu
+// - formatReport(): Tạo báo cáo dạng text cho màn hình debug
+// - exportCsv(): Ghi số liệu ra file CSV
+// - EndpointStats: Số liệu của một endpoint
+package com.example.appquanlytimtro.network.metrics;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import okhttp3.Request;
+
+public class NetworkMetrics {
+
+    private static final NetworkMetrics INSTANCE = new NetworkMetrics();
+    private static final Pattern ID_SEGMENT = Pattern.compile("^([0-9a-fA-F]{24}|\\d+)$");
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public static NetworkMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public static String endpointKey(Request request) {
+        String path = request.url().encodedPath();
+        int apiIndex = path.indexOf("/api/");
+        if (apiIndex >= 0) {
+            path = path.substring(apiIndex + 4);
+        }
+        StringBuilder key = new StringBuilder(request.method()).append(' ');
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) continue;
+            key.append('/').append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+        }
+        return key.toString();
+    }
+
+    public EndpointStats statsFor(String key) {
+        EndpointStats stats = endpoints.get(key);
+        if (stats == null) {
+            EndpointStats created = new EndpointStats();
+            stats = endpoints.putIfAbsent(key, created);
+            if (stats == null) stats = created;
+        }
+        return stats;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    public String formatReport() {
+        Map<String, EndpointStats> sorted = new TreeMap<>(endpoints);
+        if (sorted.isEmpty()) {
+            return "Chưa có request nào";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, EndpointStats> entry : sorted.entrySet()) {
+            EndpointStats s = entry.getValue();
+            sb.append(entry.getKey()).append('\n');
+            sb.append(String.format(Locale.US, "  calls=%d failed=%d status=%s%n",
+                    s.calls(), s.failures(), s.statusCounts()));
+            sb.append(String.format(Locale.US, "  total  p50=%dms p95=%dms max=%dms%n",
+                    s.total.percentile(0.5), s.total.percentile(0.95), s.total.max()));
+            sb.append(String.format(Locale.US, "  ttfb   p50=%dms p95=%dms%n",
+                    s.ttfb.percentile(0.5), s.ttfb.percentile(0.95)));
+            sb.append(String.format(Locale.US, "  dns    p50=%dms (n=%d)  connect p50=%dms (n=%d)%n",
+                    s.dns.percentile(0.5), s.dns.count(), s.connect.percentile(0.5), s.connect.count()));
+            sb.append(String.format(Locale.US, "  bytes  sent=%d received=%d%n",
+                    s.requestBytes(), s.responseBytes()));
+            sb.append(String.format(Locale.US, "  cache  hit=%d conditional=%d miss=%d%n%n",
+                    s.cacheHits(), s.conditionalHits(), s.cacheMisses()));
+        }
+        return sb.toString();
+    }
+
+    public File exportCsv(File directory) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Không tạo được thư mục " + directory);
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        File file = new File(directory, "network-metrics-" + stamp + ".csv");
+        List<String> keys = new ArrayList<>(new TreeMap<>(endpoints).keySet());
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("endpoint,calls,failures,total_p50_ms,total_p95_ms,total_max_ms,ttfb_p50_ms,ttfb_p95_ms,"
+                    + "dns_p50_ms,connect_p50_ms,request_bytes,response_bytes,cache_hits,conditional_hits,cache_misses,status_codes\n");
+            for (String key : keys) {
+                EndpointStats s = endpoints.get(key);
+                if (s == null) continue;
+                writer.write(String.format(Locale.US, "\"%s\",%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,\"%s\"\n",
+                        key, s.calls(), s.failures(),
+                        s.total.percentile(0.5), s.total.percentile(0.95), s.total.max(),
+                        s.ttfb.percentile(0.5), s.ttfb.percentile(0.95),
+                        s.dns.percentile(0.5), s.connect.percentile(0.5),
+                        s.requestBytes(), s.responseBytes(),
+                        s.cacheHits(), s.conditionalHits(), s.cacheMisses(), s.statusCounts()));
+            }
+        }
+        return file;
+    }
+
+    public static class EndpointStats {
+        final LatencyHistogram dns = new LatencyHistogram();
+        final LatencyHistogram connect = new LatencyHistogram();
+        final LatencyHistogram ttfb = new LatencyHistogram();
+        final LatencyHistogram total = new LatencyHistogram();
+
+        private long calls;
+        private long failures;
+        private long requestBytes;
+        private long responseBytes;
+        private long cacheHits;
+        private long conditionalHits;
+        private long cacheMisses;
+        private final Map<Integer, Long> statusCounts = new TreeMap<>();
+
+        synchronized void recordCall(long dnsMs, long connectMs, long ttfbMs, long totalMs,
+                                     long sentBytes, long receivedBytes, int statusCode,
+                                     MetricsEventListener.CacheResult cacheResult, boolean failed) {
+            calls++;
+            if (failed) failures++;
+            if (dnsMs >= 0) dns.record(dnsMs);
+            if (connectMs >= 0) connect.record(connectMs);
+            if (ttfbMs >= 0) ttfb.record(ttfbMs);
+            total.record(totalMs);
+            requestBytes += Math.max(0, sentBytes);
+            responseBytes += Math.max(0, receivedBytes);
+            if (statusCode > 0) {
+                Long current = statusCounts.get(statusCode);
+                statusCounts.put(statusCode, current == null ? 1 : current + 1);
+            }
+            if (cacheResult == MetricsEventListener.CacheResult.HIT) cacheHits++;
+            else if (cacheResult == MetricsEventListener.CacheResult.CONDITIONAL_HIT) conditionalHits++;
+            else if (cacheResult == MetricsEventListener.CacheResult.MISS) cacheMisses++;
+        }
+
+        public synchronized long calls() { return calls; }
+        public synchronized long failures() { return failures; }
+        public synchronized long requestBytes() { return requestBytes; }
+        public synchronized long responseBytes() { return responseBytes; }
+        public synchronized long cacheHits() { return cacheHits; }
+        public synchronized long conditionalHits() { return conditionalHits; }
+        public synchronized long cacheMisses() { return cacheMisses; }
+        public synchronized String statusCounts() { return statusCounts.toString(); }
+    }
+}
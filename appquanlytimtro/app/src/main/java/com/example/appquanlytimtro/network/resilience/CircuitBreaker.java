@@ -0,0 +1,70 @@
+//class: circuit breaker cho một host
+// Mục đích file: File này dùng để ngừng gửi request tới backend sau nhiều lỗi liên tiếp, chờ một khoảng thời gian rồi cho một request thử lại
+// function:
+// - allowRequest(): Kiểm tra có được gửi request không (tự chuyển OPEN -> HALF_OPEN khi hết thời gian chờ)
+// - recordSuccess(): Ghi nhận request thành công, đóng mạch
+// - recordFailure(): Ghi nhận lỗi, mở mạch khi vượt ngưỡng
+// - getState(): Lấy trạng thái hiện tại
+package com.example.appquanlytimtro.network.resilience;
+
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMs;
+    private boolean probeInFlight;
+    private long probeStartedAtMs;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = openDurationMs;
+    }
+
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && now() - openedAtMs >= openDurationMs) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                // Chỉ cho một request thăm dò, các request khác vẫn fail-fast.
+                // Request thăm dò bị hủy giữa chừng sẽ không báo kết quả, nên hết thời gian chờ thì cho thăm dò lại
+                if (probeInFlight && now() - probeStartedAtMs < openDurationMs) return false;
+                probeInFlight = true;
+                probeStartedAtMs = now();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtMs = now();
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
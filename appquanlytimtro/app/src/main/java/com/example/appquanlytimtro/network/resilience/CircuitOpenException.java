@@ -0,0 +1,12 @@
+//class: lỗi khi circuit breaker đang mở
+// Mục đích file: File này dùng để báo request bị chặn ngay (fail-fast) vì backend đang lỗi và không có dữ liệu cache để trả về
+package com.example.appquanlytimtro.network.resilience;
+
+import java.io.IOException;
+
+public class CircuitOpenException extends IOException {
+
+    public CircuitOpenException(String host) {
+        super("Máy chủ " + host + " đang tạm thời gián đoạn, vui lòng thử lại sau");
+    }
+}
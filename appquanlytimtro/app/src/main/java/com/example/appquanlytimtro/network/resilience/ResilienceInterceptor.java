@@ -0,0 +1,357 @@
+//class: interceptor thử lại, hedging và circuit breaker cho OkHttp
+// Mục đích file: File này dùng để tự thử lại request idempotent khi lỗi tạm thời (backoff có jitter), gửi request dự phòng cho endpoint cần nhanh, và chặn request theo host khi backend đang lỗi (trả dữ liệu cache nếu có)
+// function:
+// - intercept(): Kiểm tra circuit breaker, chọn hedging hoặc thử lại theo cấu hình endpoint
+// - proceedWithRetry(): Gửi request, thử lại khi lỗi kết nối hoặc mã lỗi tạm thời
+// - proceedHedged(): Gửi request chính và request dự phòng, lấy kết quả về trước (hết thread dự phòng thì gửi như thường)
+// - startLeg(): Chạy một call con trên thread pool hedging có giới hạn (false nếu pool đã đầy)
+// - fromCacheOrFail(): Trả response trong cache khi mạch đang mở, không có thì fail-fast
+// - cachedResponse(): Đọc response trong cache (không gọi mạng)
+// - breakerFor(): Lấy circuit breaker của host
+// - isHedgeLeg(): Kiểm tra call có phải call con do hedging tạo ra (số liệu mạng không tính là request của người dùng)
+package com.example.appquanlytimtro.network.resilience;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class ResilienceInterceptor implements Interceptor {
+
+    public interface PolicyResolver {
+        ResiliencePolicy policyFor(Request request);
+    }
+
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_OPEN_DURATION_MS = 30_000;
+    // Chu kỳ kiểm tra call đã bị hủy trong lúc chờ
+    private static final long POLL_MS = 100;
+    private static final long MAX_ERROR_BODY_BYTES = 64 * 1024;
+    // Mỗi request hedging dùng tối đa 2 thread; pool đầy thì request mới gửi như thường, không hedging
+    private static final int MAX_HEDGE_THREADS = 8;
+    private static final long HEDGE_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    private final PolicyResolver resolver;
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    // Các call con do hedging tạo ra, đi qua interceptor này nhưng không hedging lại
+    private static final Set<Call> HEDGE_LEGS = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // Không xếp hàng (SynchronousQueue) và thread rảnh tự kết thúc nên không cần shutdown
+    private final ThreadPoolExecutor hedgeExecutor = new ThreadPoolExecutor(
+            0, MAX_HEDGE_THREADS,
+            HEDGE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new HedgeThreadFactory());
+
+    public ResilienceInterceptor() {
+        this(ResiliencePolicy::forRequest, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MS);
+    }
+
+    public ResilienceInterceptor(PolicyResolver resolver, int failureThreshold, long openDurationMs) {
+        this.resolver = resolver;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    // Đúng từ lúc call con bắt đầu (callStart) tới khi execute() trả về
+    public static boolean isHedgeLeg(Call call) {
+        return HEDGE_LEGS.contains(call);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        ResiliencePolicy policy = resolver.policyFor(request);
+        CircuitBreaker breaker = breakerFor(request);
+        boolean idempotent = isIdempotent(request.method());
+
+        if (HEDGE_LEGS.contains(chain.call())) {
+            // Call chính đã qua circuit breaker, call con chỉ thử lại và ghi nhận kết quả
+            return proceedWithRetry(chain, policy, breaker, idempotent);
+        }
+        if (!breaker.allowRequest()) {
+            return fromCacheOrFail(chain, request);
+        }
+        if (idempotent && policy.getHedgeDelayMs() > 0) {
+            return proceedHedged(chain, policy, breaker);
+        }
+        Response response;
+        try {
+            response = proceedWithRetry(chain, policy, breaker, idempotent);
+        } catch (IOException e) {
+            // Lần lỗi này vừa làm mạch mở: vẫn trả dữ liệu cache cho GET nếu có
+            if (breaker.getState() == CircuitBreaker.State.OPEN && "GET".equals(request.method())
+                    && !chain.call().isCanceled()) {
+                return fromCacheOrFail(chain, request);
+            }
+            throw e;
+        }
+        if (response.code() >= 500 && breaker.getState() == CircuitBreaker.State.OPEN
+                && "GET".equals(request.method())) {
+            // Giữ lại body lỗi (nhỏ) để trả về nếu cache không có
+            Response error = response.newBuilder().body(response.peekBody(MAX_ERROR_BODY_BYTES)).build();
+            response.close();
+            Response cached = cachedResponse(chain, request);
+            return cached != null ? cached : error;
+        }
+        return response;
+    }
+
+    private Response proceedWithRetry(Chain chain, ResiliencePolicy policy, CircuitBreaker breaker,
+                                      boolean idempotent) throws IOException {
+        Request request = chain.request();
+        int maxAttempts = idempotent ? policy.getMaxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    throw e;
+                }
+                breaker.recordFailure();
+                if (attempt >= maxAttempts || breaker.getState() == CircuitBreaker.State.OPEN) {
+                    throw e;
+                }
+                sleep(chain, policy.backoffMs(attempt, -1));
+                continue;
+            }
+
+            int code = response.code();
+            if (!isRetryableStatus(code)) {
+                breaker.recordSuccess();
+                return response;
+            }
+            // 408/429: server vẫn hoạt động, chỉ 5xx mới tính là lỗi của backend
+            if (code >= 500) {
+                breaker.recordFailure();
+            } else {
+                breaker.recordSuccess();
+            }
+            if (attempt >= maxAttempts || breaker.getState() == CircuitBreaker.State.OPEN) {
+                return response;
+            }
+            long delay = policy.backoffMs(attempt, retryAfterMs(response));
+            response.close();
+            sleep(chain, delay);
+        }
+    }
+
+    private Response proceedHedged(Chain chain, ResiliencePolicy policy, CircuitBreaker breaker) throws IOException {
+        final Object lock = new Object();
+        final boolean[] settled = {false};
+        final BlockingQueue<LegResult> results = new LinkedBlockingQueue<>();
+        final List<Call> legs = new ArrayList<>(2);
+
+        long hedgeAtMs = nowMs() + policy.getHedgeDelayMs();
+        boolean hedgeStarted = false;
+        int outstanding = 0;
+        IOException lastError = null;
+        LegResult winner = null;
+        if (!startLeg(chain.call().clone(), lock, settled, results, legs)) {
+            // Pool hedging đã đầy: gửi trên thread hiện tại như request thường
+            return proceedWithRetry(chain, policy, breaker, true);
+        }
+        try {
+            outstanding++;
+            while (outstanding > 0) {
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                long waitMs = hedgeStarted ? POLL_MS : Math.max(0, Math.min(POLL_MS, hedgeAtMs - nowMs()));
+                LegResult result = results.poll(waitMs, TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    if (!hedgeStarted && nowMs() >= hedgeAtMs) {
+                        // Request chính chậm: gửi thêm một request giống hệt (pool đầy thì chỉ chờ request chính)
+                        if (startLeg(chain.call().clone(), lock, settled, results, legs)) {
+                            outstanding++;
+                        }
+                        hedgeStarted = true;
+                    }
+                    continue;
+                }
+                outstanding--;
+                if (result.response != null) {
+                    winner = result;
+                    return result.response;
+                }
+                lastError = result.error;
+            }
+            throw lastError;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted");
+        } finally {
+            synchronized (lock) {
+                settled[0] = true;
+                for (Call leg : legs) {
+                    if (winner == null || leg != winner.call) {
+                        leg.cancel();
+                    }
+                }
+                // Response của call chậm hơn về sau sẽ bị đóng trong runLeg, đóng nốt các response đã về
+                LegResult pending;
+                while ((pending = results.poll()) != null) {
+                    if (pending.response != null) {
+                        pending.response.close();
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean startLeg(Call leg, Object lock, boolean[] settled, BlockingQueue<LegResult> results,
+                             List<Call> legs) {
+        synchronized (lock) {
+            legs.add(leg);
+        }
+        HEDGE_LEGS.add(leg);
+        try {
+            hedgeExecutor.execute(() -> runLeg(leg, lock, settled, results));
+            return true;
+        } catch (RejectedExecutionException e) {
+            HEDGE_LEGS.remove(leg);
+            synchronized (lock) {
+                legs.remove(leg);
+            }
+            return false;
+        }
+    }
+
+    private void runLeg(Call leg, Object lock, boolean[] settled, BlockingQueue<LegResult> results) {
+        LegResult result;
+        try {
+            result = new LegResult(leg, leg.execute(), null);
+        } catch (IOException e) {
+            result = new LegResult(leg, null, e);
+        } finally {
+            HEDGE_LEGS.remove(leg);
+        }
+        synchronized (lock) {
+            if (settled[0]) {
+                if (result.response != null) {
+                    result.response.close();
+                }
+                return;
+            }
+            results.add(result);
+        }
+    }
+
+    private Response fromCacheOrFail(Chain chain, Request request) throws IOException {
+        Response cached = "GET".equals(request.method()) ? cachedResponse(chain, request) : null;
+        if (cached == null) {
+            throw new CircuitOpenException(request.url().host());
+        }
+        return cached;
+    }
+
+    private static Response cachedResponse(Chain chain, Request request) throws IOException {
+        // Chỉ request dựng lại ở đây mới được đọc bản cũ (max-stale); bản cache có must-revalidate
+        // vẫn không được dùng khi hết hạn và OkHttp trả 504 như khi không có cache
+        Response cached = chain.proceed(request.newBuilder()
+                .cacheControl(CacheControl.FORCE_CACHE)
+                .build());
+        // OkHttp trả 504 khi request only-if-cached không có trong cache
+        if (cached.code() == 504 && cached.cacheResponse() == null) {
+            cached.close();
+            return null;
+        }
+        return cached;
+    }
+
+    public CircuitBreaker breakerFor(Request request) {
+        String key = request.url().host() + ":" + request.url().port();
+        CircuitBreaker breaker = breakers.get(key);
+        if (breaker == null) {
+            CircuitBreaker created = new CircuitBreaker(failureThreshold, openDurationMs);
+            breaker = breakers.putIfAbsent(key, created);
+            if (breaker == null) breaker = created;
+        }
+        return breaker;
+    }
+
+    private static void sleep(Chain chain, long delayMs) throws IOException {
+        long deadline = nowMs() + delayMs;
+        try {
+            long remaining;
+            while ((remaining = deadline - nowMs()) > 0) {
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                Thread.sleep(Math.min(POLL_MS, remaining));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted");
+        }
+        if (chain.call().isCanceled()) {
+            throw new IOException("Canceled");
+        }
+    }
+
+    private static long retryAfterMs(Response response) {
+        String value = response.header("Retry-After");
+        if (value == null) return -1;
+        try {
+            return Long.parseLong(value.trim()) * 1000L;
+        } catch (NumberFormatException e) {
+            // Dạng ngày giờ HTTP không được hỗ trợ, dùng backoff mặc định
+            return -1;
+        }
+    }
+
+    private static boolean isIdempotent(String method) {
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    private static boolean isRetryableStatus(int code) {
+        return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    private static final class LegResult {
+        final Call call;
+        final Response response;
+        final IOException error;
+
+        LegResult(Call call, Response response, IOException error) {
+            this.call = call;
+            this.response = response;
+            this.error = error;
+        }
+    }
+
+    private static class HedgeThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "http-hedge-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static long nowMs() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
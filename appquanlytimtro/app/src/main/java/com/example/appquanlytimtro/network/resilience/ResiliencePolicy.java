@@ -0,0 +1,76 @@
+//class: cấu hình retry/hedging cho từng endpoint
+// Mục đích file: File này dùng để khai báo số lần thử lại, thời gian chờ (backoff có jitter) và độ trễ gửi request dự phòng (hedging) theo path của request
+// function:
+// - forRequest(): Tìm cấu hình theo path của request
+// - backoffMs(): Tính thời gian chờ trước lần thử tiếp theo (exponential backoff + jitter)
+// - getMaxAttempts()/getHedgeDelayMs(): Lấy thông số cấu hình
+package com.example.appquanlytimtro.network.resilience;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import okhttp3.Request;
+
+public class ResiliencePolicy {
+
+    // Mặc định cho GET: thử tối đa 3 lần, chờ 300ms -> 600ms (có jitter), không hedging
+    public static final ResiliencePolicy DEFAULT = new ResiliencePolicy(3, 300, 3000, 0);
+    // Chi tiết phòng: cần phản hồi nhanh, gửi thêm 1 request dự phòng nếu sau 800ms chưa có kết quả
+    // (chỉ dùng cho GET không có tác dụng phụ; lượt xem phòng được ghi riêng qua POST rooms/{id}/view)
+    public static final ResiliencePolicy LATENCY_CRITICAL = new ResiliencePolicy(2, 200, 1000, 800);
+    // Thống kê: ít quan trọng, không thử lại
+    public static final ResiliencePolicy NO_RETRY = new ResiliencePolicy(1, 0, 0, 0);
+
+    // Path tính từ base URL (api/...), thứ tự khớp từ trên xuống
+    private static final Map<Pattern, ResiliencePolicy> POLICIES = new LinkedHashMap<>();
+    static {
+        POLICIES.put(Pattern.compile("rooms/stats/overview"), NO_RETRY);
+        POLICIES.put(Pattern.compile("rooms/[0-9a-fA-F]{24}"), LATENCY_CRITICAL);
+    }
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long hedgeDelayMs;
+
+    public ResiliencePolicy(int maxAttempts, long baseDelayMs, long maxDelayMs, long hedgeDelayMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = Math.max(0, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+        this.hedgeDelayMs = hedgeDelayMs;
+    }
+
+    public static ResiliencePolicy forRequest(Request request) {
+        String encodedPath = request.url().encodedPath();
+        int apiIndex = encodedPath.indexOf("/api/");
+        String path = apiIndex >= 0 ? encodedPath.substring(apiIndex + 5) : encodedPath;
+        for (Map.Entry<Pattern, ResiliencePolicy> entry : POLICIES.entrySet()) {
+            if (entry.getKey().matcher(path).matches()) {
+                return entry.getValue();
+            }
+        }
+        return DEFAULT;
+    }
+
+    // attempt bắt đầu từ 1; retryAfterMs < 0 nếu server không gửi Retry-After
+    public long backoffMs(int attempt, long retryAfterMs) {
+        if (retryAfterMs >= 0) {
+            return Math.min(retryAfterMs, maxDelayMs);
+        }
+        long exponential = baseDelayMs << Math.min(attempt - 1, 16);
+        long capped = Math.min(maxDelayMs, exponential);
+        // Giữ một nửa, nửa còn lại ngẫu nhiên để các client không thử lại cùng lúc
+        long half = capped / 2;
+        return half + (half > 0 ? ThreadLocalRandom.current().nextLong(half + 1) : 0);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getHedgeDelayMs() {
+        return hedgeDelayMs;
+    }
+}
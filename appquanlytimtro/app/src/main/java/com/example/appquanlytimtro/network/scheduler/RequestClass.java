@@ -0,0 +1,20 @@
+//enum: nhóm ưu tiên của request
+// Mục đích file: File này dùng để chia request thành các nhóm (tương tác trên màn hình, tải trước, upload lớn) với giới hạn số request chạy song song riêng
+package com.example.appquanlytimtro.network.scheduler;
+
+public enum RequestClass {
+    // Request của màn hình đang hiển thị, luôn được ưu tiên
+    INTERACTIVE(16, 6),
+    // Tải trước dữ liệu chưa cần hiển thị ngay
+    PREFETCH(2, 2),
+    // Upload ảnh nhiều MB, chạy lần lượt từng request
+    BULK(1, 1);
+
+    final int maxRequests;
+    final int maxRequestsPerHost;
+
+    RequestClass(int maxRequests, int maxRequestsPerHost) {
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+}
@@ -0,0 +1,16 @@
+//annotation: khai báo nhóm ưu tiên cho method trong ApiService
+// Mục đích file: File này dùng để đánh dấu endpoint chạy ở nhóm PREFETCH hoặc BULK; method không có annotation thuộc nhóm INTERACTIVE
+package com.example.appquanlytimtro.network.scheduler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestPriority {
+    RequestClass value();
+}
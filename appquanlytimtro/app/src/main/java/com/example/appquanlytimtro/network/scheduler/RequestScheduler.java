@@ -0,0 +1,304 @@
+//class: điều phối request theo nhóm ưu tiên
+// Mục đích file: File này dùng để chạy mỗi nhóm request (INTERACTIVE, PREFETCH, BULK) trên Dispatcher riêng với giới hạn song song riêng, dùng chung connection pool/cache; request nền phải nhường khi màn hình đang chờ dữ liệu
+// function:
+// - newCall(): Chọn nhóm cho request và tạo call trên Dispatcher của nhóm đó
+// - classify(): Xác định nhóm từ tag RequestClass hoặc annotation @RequestPriority của method ApiService
+// - formatQueueReport(): Báo cáo số request đang chạy/đang chờ và thời gian chờ theo nhóm
+// - waitWhileInteractiveBusy(): Tạm hoãn request nền khi có request tương tác đang chạy, trả về số ms đã chờ
+// - YieldingRequestBody: Body upload ghi theo từng đoạn, nhường băng thông cho request tương tác (tổng thời gian nhường có giới hạn)
+// - ScheduledCall: Call bọc ngoài để ghi nhận thời điểm vào hàng đợi
+package com.example.appquanlytimtro.network.scheduler;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Timeout;
+import retrofit2.Invocation;
+
+public class RequestScheduler implements Call.Factory {
+
+    // Request nền chờ tối đa chừng này trước khi bắt đầu, tránh bị treo khi màn hình gọi API liên tục
+    private static final long MAX_START_DELAY_MS = 2000;
+    // Upload nhường tối đa chừng này cho mỗi đoạn dữ liệu, và tổng cộng không quá MAX_UPLOAD_PAUSE_MS cho cả body
+    private static final long MAX_CHUNK_PAUSE_MS = 200;
+    private static final long MAX_UPLOAD_PAUSE_MS = 1000;
+    private static final long PAUSE_SLICE_MS = 20;
+    private static final long UPLOAD_CHUNK_BYTES = 64 * 1024;
+
+    private final Map<RequestClass, OkHttpClient> clients = new EnumMap<>(RequestClass.class);
+    private final Map<RequestClass, ClassStats> stats = new EnumMap<>(RequestClass.class);
+    private final Map<Method, RequestClass> methodClasses = new ConcurrentHashMap<>();
+    private final AtomicInteger interactiveInFlight = new AtomicInteger();
+
+    public RequestScheduler(OkHttpClient base) {
+        for (RequestClass requestClass : RequestClass.values()) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(requestClass.maxRequests);
+            dispatcher.setMaxRequestsPerHost(requestClass.maxRequestsPerHost);
+            ClassStats classStats = new ClassStats();
+            stats.put(requestClass, classStats);
+
+            OkHttpClient.Builder builder = base.newBuilder().dispatcher(dispatcher);
+            // Đứng đầu chuỗi interceptor để đo thời gian chờ trước khi auth/retry chạy
+            builder.interceptors().add(0, requestClass == RequestClass.INTERACTIVE
+                    ? interactiveInterceptor(classStats)
+                    : backgroundInterceptor(requestClass, classStats));
+            clients.put(requestClass, builder.build());
+        }
+    }
+
+    @Override
+    public Call newCall(Request request) {
+        RequestClass requestClass = classify(request);
+        QueueTicket ticket = new QueueTicket();
+        Request tagged = request.newBuilder().tag(QueueTicket.class, ticket).build();
+        OkHttpClient client = clients.get(requestClass);
+        return new ScheduledCall(request, client.newCall(tagged), ticket, client.dispatcher(),
+                stats.get(requestClass));
+    }
+
+    RequestClass classify(Request request) {
+        RequestClass explicit = request.tag(RequestClass.class);
+        if (explicit != null) {
+            return explicit;
+        }
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            return RequestClass.INTERACTIVE;
+        }
+        Method method = invocation.method();
+        RequestClass cached = methodClasses.get(method);
+        if (cached == null) {
+            RequestPriority priority = method.getAnnotation(RequestPriority.class);
+            cached = priority != null ? priority.value() : RequestClass.INTERACTIVE;
+            methodClasses.put(method, cached);
+        }
+        return cached;
+    }
+
+    public String formatQueueReport() {
+        StringBuilder sb = new StringBuilder("Hàng đợi theo nhóm ưu tiên\n");
+        for (RequestClass requestClass : RequestClass.values()) {
+            Dispatcher dispatcher = clients.get(requestClass).dispatcher();
+            ClassStats s = stats.get(requestClass);
+            long started = s.started.get();
+            sb.append(String.format(Locale.US,
+                    "  %-11s running=%d queued=%d peakQueued=%d started=%d wait avg=%dms max=%dms yielded=%dms%n",
+                    requestClass.name(), dispatcher.runningCallsCount(), dispatcher.queuedCallsCount(),
+                    s.peakQueued.get(), started, started > 0 ? s.totalWaitMs.get() / started : 0,
+                    s.maxWaitMs.get(), s.yieldedMs.get()));
+        }
+        return sb.append('\n').toString();
+    }
+
+    private Interceptor interactiveInterceptor(ClassStats classStats) {
+        return chain -> {
+            classStats.recordStart(chain.request().tag(QueueTicket.class));
+            interactiveInFlight.incrementAndGet();
+            try {
+                return chain.proceed(chain.request());
+            } finally {
+                interactiveInFlight.decrementAndGet();
+            }
+        };
+    }
+
+    private Interceptor backgroundInterceptor(RequestClass requestClass, ClassStats classStats) {
+        return chain -> {
+            classStats.recordStart(chain.request().tag(QueueTicket.class));
+            waitWhileInteractiveBusy(chain.call(), MAX_START_DELAY_MS, classStats);
+            Request request = chain.request();
+            if (requestClass == RequestClass.BULK && request.body() != null) {
+                request = request.newBuilder()
+                        .method(request.method(), new YieldingRequestBody(request.body(), chain.call(), classStats))
+                        .build();
+            }
+            return chain.proceed(request);
+        };
+    }
+
+    long waitWhileInteractiveBusy(Call call, long maxWaitMs, ClassStats classStats) throws IOException {
+        long start = System.nanoTime();
+        long waitedMs = 0;
+        try {
+            while (interactiveInFlight.get() > 0 && waitedMs < maxWaitMs) {
+                if (call.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                Thread.sleep(PAUSE_SLICE_MS);
+                waitedMs = (System.nanoTime() - start) / 1_000_000L;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted");
+        } finally {
+            classStats.yieldedMs.addAndGet(waitedMs);
+        }
+        return waitedMs;
+    }
+
+    static final class QueueTicket {
+        volatile long enqueuedAtNs;
+    }
+
+    static final class ClassStats {
+        final AtomicLong started = new AtomicLong();
+        final AtomicLong totalWaitMs = new AtomicLong();
+        final AtomicLong maxWaitMs = new AtomicLong();
+        final AtomicLong peakQueued = new AtomicLong();
+        final AtomicLong yieldedMs = new AtomicLong();
+
+        void recordStart(QueueTicket ticket) {
+            started.incrementAndGet();
+            // Call chạy đồng bộ (execute) không qua hàng đợi
+            if (ticket == null || ticket.enqueuedAtNs == 0) return;
+            long waitMs = (System.nanoTime() - ticket.enqueuedAtNs) / 1_000_000L;
+            ticket.enqueuedAtNs = 0;
+            totalWaitMs.addAndGet(waitMs);
+            updateMax(maxWaitMs, waitMs);
+        }
+
+        static void updateMax(AtomicLong target, long value) {
+            long current;
+            while (value > (current = target.get()) && !target.compareAndSet(current, value)) {
+                // thử lại khi có thread khác vừa cập nhật
+            }
+        }
+    }
+
+    private final class YieldingRequestBody extends RequestBody {
+        private final RequestBody delegate;
+        private final Call call;
+        private final ClassStats classStats;
+        // Tính cả các lần ghi lại body (retry) để upload không bị kéo dài quá MAX_UPLOAD_PAUSE_MS
+        private long pausedMs;
+
+        YieldingRequestBody(RequestBody delegate, Call call, ClassStats classStats) {
+            this.delegate = delegate;
+            this.call = call;
+            this.classStats = classStats;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return delegate.isOneShot();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            BufferedSink yielding = Okio.buffer(new ForwardingSink(sink) {
+                @Override
+                public void write(Buffer source, long byteCount) throws IOException {
+                    long remaining = byteCount;
+                    while (remaining > 0) {
+                        // Có request tương tác đang chạy: tạm dừng ghi một chút để nhường băng thông
+                        long budgetMs = Math.min(MAX_CHUNK_PAUSE_MS, MAX_UPLOAD_PAUSE_MS - pausedMs);
+                        if (budgetMs > 0) {
+                            pausedMs += waitWhileInteractiveBusy(call, budgetMs, classStats);
+                        }
+                        long chunk = Math.min(remaining, UPLOAD_CHUNK_BYTES);
+                        super.write(source, chunk);
+                        remaining -= chunk;
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    // Sink gốc do OkHttp quản lý, không đóng ở đây
+                    flush();
+                }
+            });
+            delegate.writeTo(yielding);
+            yielding.flush();
+        }
+    }
+
+    private final class ScheduledCall implements Call {
+        private final Request originalRequest;
+        private final Call delegate;
+        private final QueueTicket ticket;
+        private final Dispatcher dispatcher;
+        private final ClassStats classStats;
+
+        ScheduledCall(Request originalRequest, Call delegate, QueueTicket ticket, Dispatcher dispatcher,
+                      ClassStats classStats) {
+            this.originalRequest = originalRequest;
+            this.delegate = delegate;
+            this.ticket = ticket;
+            this.dispatcher = dispatcher;
+            this.classStats = classStats;
+        }
+
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @Override
+        public Response execute() throws IOException {
+            return delegate.execute();
+        }
+
+        @Override
+        public void enqueue(Callback responseCallback) {
+            ticket.enqueuedAtNs = System.nanoTime();
+            delegate.enqueue(responseCallback);
+            ClassStats.updateMax(classStats.peakQueued, dispatcher.queuedCallsCount());
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return delegate.isExecuted();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return delegate.isCanceled();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+
+        @Override
+        public Call clone() {
+            return newCall(originalRequest);
+        }
+    }
+}
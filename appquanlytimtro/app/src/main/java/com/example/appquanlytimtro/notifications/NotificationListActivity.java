@@ -0,0 +1,229 @@
+//activity: màn hình hộp thư thông báo
+// Mục đích file: File này dùng để hiển thị thông báo từ hộp thư local (mở ra là có dữ liệu, không chờ API), chỉ tải thêm thông báo mới khi đồng bộ và tải trang cũ hơn khi cuộn đến cuối
+// function:
+// - onCreate(): Khởi tạo activity và setup các component
+// - initViews(): Khởi tạo các view components
+// - setupToolbar(): Thiết lập toolbar
+// - setupRecyclerView(): Thiết lập RecyclerView, adapter và tải thêm khi cuộn
+// - observeNotifications(): Theo dõi limit thông báo mới nhất trong hộp thư local
+// - syncNotifications(): Đồng bộ thông báo mới với server
+// - loadMore(): Hiển thị thêm một trang, tải trang cũ hơn từ server khi local đã hết
+// - onNotificationClick(): Đánh dấu đã đọc và mở booking/phòng liên quan
+// - updateEmptyView(): Cập nhật trạng thái empty view
+// - onCreateOptionsMenu(): Tạo menu options
+// - onOptionsItemSelected(): Xử lý click vào menu item
+package com.example.appquanlytimtro.notifications;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+import androidx.lifecycle.LiveData;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
+
+import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.adapters.NotificationAdapter;
+import com.example.appquanlytimtro.bookings.BookingDetailActivity;
+import com.example.appquanlytimtro.database.notification.NotificationInbox;
+import com.example.appquanlytimtro.database.outbox.Outbox;
+import com.example.appquanlytimtro.models.Notification;
+import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.rooms.RoomDetailActivity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NotificationListActivity extends AppCompatActivity {
+
+    // Còn chừng này dòng nữa là đến cuối danh sách thì tải thêm
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
+    private RecyclerView recyclerView;
+    private SwipeRefreshLayout swipeRefreshLayout;
+    private LinearLayout emptyState;
+
+    private NotificationAdapter notificationAdapter;
+    private List<Notification> notifications = new ArrayList<>();
+    private NotificationInbox inbox;
+    private String userId;
+
+    private LiveData<List<Notification>> source;
+    private int limit = NotificationInbox.PAGE_SIZE;
+    private boolean synced;
+    private boolean loadingOlder;
+    private boolean hasOlder = true;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_notification_list);
+
+        User currentUser = RetrofitClient.getInstance(this).getCurrentUser();
+        if (currentUser == null || currentUser.getId() == null) {
+            Toast.makeText(this, "Không thể lấy thông tin người dùng", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
+        userId = currentUser.getId();
+        inbox = NotificationInbox.getInstance(this);
+
+        initViews();
+        setupToolbar();
+        setupRecyclerView();
+        swipeRefreshLayout.setOnRefreshListener(this::syncNotifications);
+
+        observeNotifications();
+        swipeRefreshLayout.setRefreshing(true);
+        syncNotifications();
+    }
+
+    private void initViews() {
+        recyclerView = findViewById(R.id.recyclerView);
+        swipeRefreshLayout = findViewById(R.id.swipeRefreshLayout);
+        emptyState = findViewById(R.id.emptyState);
+    }
+
+    private void setupToolbar() {
+        Toolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setTitle("Thông báo");
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+    }
+
+    private void setupRecyclerView() {
+        notificationAdapter = new NotificationAdapter(this::onNotificationClick);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(notificationAdapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= notifications.size() - LOAD_MORE_THRESHOLD) {
+                    loadMore();
+                }
+            }
+        });
+    }
+
+    private void observeNotifications() {
+        if (source != null) {
+            source.removeObservers(this);
+        }
+        source = inbox.observeNotifications(userId, limit);
+        source.observe(this, items -> {
+            notifications.clear();
+            notifications.addAll(items);
+            notificationAdapter.submitList(new ArrayList<>(items));
+            updateEmptyView();
+            // Local chưa đủ một trang của limit hiện tại: lấy tiếp từ server
+            if (synced && items.size() < limit) {
+                loadOlder();
+            }
+        });
+    }
+
+    private void syncNotifications() {
+        inbox.sync(userId, new NotificationInbox.SyncCallback() {
+            @Override
+            public void onSynced() {
+                synced = true;
+                swipeRefreshLayout.setRefreshing(false);
+            }
+
+            @Override
+            public void onError(String message) {
+                swipeRefreshLayout.setRefreshing(false);
+                Toast.makeText(NotificationListActivity.this,
+                        message != null ? message : "Lỗi tải thông báo", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void loadMore() {
+        // Danh sách chưa hiển thị hết limit hiện tại thì không cần tăng
+        if (notifications.size() < limit) {
+            return;
+        }
+        limit += NotificationInbox.PAGE_SIZE;
+        observeNotifications();
+    }
+
+    private void loadOlder() {
+        if (loadingOlder || !hasOlder) {
+            return;
+        }
+        loadingOlder = true;
+        inbox.loadOlder(userId, new NotificationInbox.LoadCallback() {
+            @Override
+            public void onLoaded(boolean hasMore) {
+                loadingOlder = false;
+                hasOlder = hasMore;
+            }
+
+            @Override
+            public void onError(String message) {
+                loadingOlder = false;
+                // Thử lại khi người dùng kéo để làm mới
+                hasOlder = false;
+            }
+        });
+    }
+
+    private void onNotificationClick(Notification notification) {
+        if (!notification.isRead()) {
+            Outbox.getInstance(this).markNotificationRead(notification.getId());
+        }
+        Notification.NotificationData data = notification.getData();
+        if (data == null) {
+            return;
+        }
+        if (data.getBookingId() != null) {
+            Intent intent = new Intent(this, BookingDetailActivity.class);
+            intent.putExtra("booking_id", data.getBookingId());
+            startActivity(intent);
+        } else if (data.getRoomId() != null) {
+            Intent intent = new Intent(this, RoomDetailActivity.class);
+            intent.putExtra("room_id", data.getRoomId());
+            startActivity(intent);
+        }
+    }
+
+    private void updateEmptyView() {
+        boolean empty = notifications.isEmpty();
+        emptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+        recyclerView.setVisibility(empty ? View.GONE : View.VISIBLE);
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.notification_list_menu, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        int id = item.getItemId();
+        if (id == android.R.id.home) {
+            onBackPressed();
+            return true;
+        }
+        if (id == R.id.action_mark_all_read) {
+            Outbox.getInstance(this).markAllNotificationsRead();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+}
@@ -38,6 +38,7 @@ import com.example.appquanlytimtro.models.Booking;
 import com.example.appquanlytimtro.models.Room;
 import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.json.GsonProvider;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 
@@ -171,7 +172,7 @@ public class PaymentActivity extends AppCompatActivity {
                         java.util.Map<String, Object> data = apiResponse.getData();
                         if (data.containsKey("room")) {
                             try {
-                                com.google.gson.Gson gson = new com.google.gson.Gson();
+                                com.google.gson.Gson gson = GsonProvider.get();
                                 String roomJson = gson.toJson(data.get("room"));
                                 room = gson.fromJson(roomJson, Room.class);
                                 
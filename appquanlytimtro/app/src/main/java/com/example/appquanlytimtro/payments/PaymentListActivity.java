@@ -32,6 +32,8 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.PaymentAdapter;
 import com.example.appquanlytimtro.models.Payment;
+import com.example.appquanlytimtro.models.PaymentPage;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 
 import java.util.ArrayList;
@@ -87,19 +89,13 @@ public class PaymentListActivity extends AppCompatActivity {
     
     private void setupRecyclerView() {
         // Get current user role
-        String userJson = retrofitClient.getUserData();
         String userRole = "tenant"; // default
-        if (userJson != null) {
-            try {
-                com.example.appquanlytimtro.models.User currentUser = new com.google.gson.Gson().fromJson(userJson, com.example.appquanlytimtro.models.User.class);
-                if (currentUser != null && currentUser.getRole() != null) {
-                    userRole = currentUser.getRole();
-                }
-            } catch (Exception e) {
-            }
+        com.example.appquanlytimtro.models.User sessionUser = retrofitClient.getCurrentUser();
+        if (sessionUser != null && sessionUser.getRole() != null) {
+            userRole = sessionUser.getRole();
         }
         
-        paymentAdapter = new PaymentAdapter(payments, new PaymentAdapter.OnPaymentClickListener() {
+        paymentAdapter = new PaymentAdapter(new PaymentAdapter.OnPaymentClickListener() {
             @Override
             public void onPaymentClick(Payment payment) {
                 PaymentListActivity.this.onPaymentClick(payment);
@@ -126,61 +122,46 @@ public class PaymentListActivity extends AppCompatActivity {
         String token = "Bearer " + retrofitClient.getToken();
         
         // Get current user ID
-        String userJson = retrofitClient.getUserData();
-        if (userJson == null) {
+        com.example.appquanlytimtro.models.User currentUser = retrofitClient.getCurrentUser();
+        if (currentUser == null) {
             showLoading(false);
             Toast.makeText(this, "Không thể lấy thông tin người dùng", Toast.LENGTH_SHORT).show();
             return;
         }
         
-        com.example.appquanlytimtro.models.User currentUser = new com.google.gson.Gson().fromJson(userJson, com.example.appquanlytimtro.models.User.class);
-        if (currentUser == null || currentUser.getId() == null) {
+        if (currentUser.getId() == null) {
             showLoading(false);
             Toast.makeText(this, "Thông tin người dùng không hợp lệ", Toast.LENGTH_SHORT).show();
             return;
         }
         
         // Use the general payments endpoint instead of user-specific endpoint
-        retrofitClient.getApiService().getPayments(token, new java.util.HashMap<>()).enqueue(new Callback<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getPayments(token, new java.util.HashMap<>()), new Callback<com.example.appquanlytimtro.models.ApiResponse<PaymentPage>>() {
             @Override
-            public void onResponse(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Response<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> response) {
+            public void onResponse(Call<com.example.appquanlytimtro.models.ApiResponse<PaymentPage>> call, Response<com.example.appquanlytimtro.models.ApiResponse<PaymentPage>> response) {
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
                 
                 
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    java.util.Map<String, Object> data = response.body().getData();
+                    PaymentPage data = response.body().getData();
                     
-                    if (data != null && data.containsKey("payments")) {
-                        try {
-                            com.google.gson.Gson gson = new com.google.gson.Gson();
-                            String paymentsJson = gson.toJson(data.get("payments"));
-                            List<Payment> paymentList = gson.fromJson(paymentsJson, new com.google.gson.reflect.TypeToken<List<Payment>>(){}.getType());
-                            
-                            
-                            if (paymentList != null) {
-                                // Filter payments - chỉ hiển thị payments từ booking đã confirmed
-                                List<Payment> filteredPayments = filterValidPayments(paymentList);
-                                
-                                payments.clear();
-                                payments.addAll(filteredPayments);
-                                paymentAdapter.notifyDataSetChanged();
-                                
-                                // Calculate summary
-                                calculateSummary(filteredPayments);
-                                
-                                // Show/hide empty state
-                                if (payments.isEmpty()) {
-                                    showEmptyState(true);
-                                } else {
-                                    showEmptyState(false);
-                                }
-                            } else {
-                                showEmptyState(true);
-                            }
-                        } catch (Exception e) {
-                            Toast.makeText(PaymentListActivity.this, "Lỗi xử lý dữ liệu thanh toán", Toast.LENGTH_SHORT).show();
+                    if (data != null) {
+                        // Filter payments - chỉ hiển thị payments từ booking đã confirmed
+                        List<Payment> filteredPayments = filterValidPayments(data.getItems());
+                        
+                        payments.clear();
+                        payments.addAll(filteredPayments);
+                        paymentAdapter.submitList(new ArrayList<>(payments));
+                        
+                        // Calculate summary
+                        calculateSummary(filteredPayments);
+                        
+                        // Show/hide empty state
+                        if (payments.isEmpty()) {
                             showEmptyState(true);
+                        } else {
+                            showEmptyState(false);
                         }
                     } else {
                         showEmptyState(true);
@@ -192,7 +173,7 @@ public class PaymentListActivity extends AppCompatActivity {
             }
             
             @Override
-            public void onFailure(Call<com.example.appquanlytimtro.models.ApiResponse<java.util.Map<String, Object>>> call, Throwable t) {
+            public void onFailure(Call<com.example.appquanlytimtro.models.ApiResponse<PaymentPage>> call, Throwable t) {
                 showLoading(false);
                 swipeRefreshLayout.setRefreshing(false);
                 Toast.makeText(PaymentListActivity.this, "Lỗi kết nối: " + t.getMessage(), Toast.LENGTH_SHORT).show();
@@ -27,10 +27,12 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.models.Payment;
+import com.example.appquanlytimtro.models.PaymentPage;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.example.appquanlytimtro.models.User;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import com.google.gson.Gson;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -48,7 +50,7 @@ public class PaymentsFragment extends Fragment {
     private TextView tvEmpty;
     private FloatingActionButton fabDeposit;
     private PaymentsListAdapter adapter;
-    private final List<Map<String, Object>> payments = new ArrayList<>();
+    private final List<Payment> payments = new ArrayList<>();
 
     @Nullable
     @Override
@@ -59,7 +61,7 @@ public class PaymentsFragment extends Fragment {
         tvEmpty = v.findViewById(R.id.tvEmpty);
         fabDeposit = v.findViewById(R.id.fabDeposit);
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new PaymentsListAdapter(payments);
+        adapter = new PaymentsListAdapter();
         recyclerView.setAdapter(adapter);
         fabDeposit.setOnClickListener(view -> openDeposit());
         loadPayments();
@@ -72,39 +74,31 @@ public class PaymentsFragment extends Fragment {
         Map<String, String> params = new HashMap<>();
         params.put("page", "1");
         params.put("limit", "50");
-        String userJson = client.getUserData();
         String token = "Bearer " + client.getToken();
-        User user = null;
-        if (userJson != null) user = new Gson().fromJson(userJson, User.class);
-        Call<ApiResponse<Map<String, Object>>> call;
+        User user = client.getCurrentUser();
+        Call<ApiResponse<PaymentPage>> call;
         if (user != null && user.getRole() != null && !user.getRole().equals("admin")) {
             call = client.getApiService().getUserPayments(token, user.getId(), params);
         } else {
             call = client.getApiService().getPayments(token, params);
         }
-        call.enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, call, new Callback<ApiResponse<PaymentPage>>() {
             @Override
-            public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
+            public void onResponse(Call<ApiResponse<PaymentPage>> call, Response<ApiResponse<PaymentPage>> response) {
                 showLoading(false);
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    Object listObj = response.body().getData().get("payments");
-                    if (listObj instanceof List<?>) {
-                        payments.clear();
-                        for (Object o : (List<?>) listObj) {
-                            if (o instanceof Map) {
-                                payments.add((Map<String, Object>) o);
-                            }
-                        }
-                        adapter.notifyDataSetChanged();
-                        toggleEmpty();
-                    }
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                        && response.body().getData() != null) {
+                    payments.clear();
+                    payments.addAll(response.body().getData().getItems());
+                    adapter.submitList(new ArrayList<>(payments));
+                    toggleEmpty();
                 } else {
                     Toast.makeText(getContext(), R.string.load_failed, Toast.LENGTH_LONG).show();
                 }
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
+            public void onFailure(Call<ApiResponse<PaymentPage>> call, Throwable t) {
                 showLoading(false);
                 Toast.makeText(getContext(), R.string.network_error, Toast.LENGTH_LONG).show();
             }
@@ -1,10 +1,10 @@
 //adapter: cầu nối giữa dữ liệu và giao diện hiển thị
 // Mục đích file: File này dùng để hiển thị danh sách thanh toán
 // function: 
-// - PaymentsListAdapter(): Khởi tạo adapter với danh sách thanh toán
+// - PaymentsListAdapter(): Khởi tạo adapter (danh sách được đưa vào qua submitList, so sánh khác biệt ở thread nền)
+// - getItemId(): Lấy ID ổn định từ _id của thanh toán
 // - onCreateViewHolder(): Tạo ViewHolder cho item thanh toán
 // - onBindViewHolder(): Bind dữ liệu thanh toán vào ViewHolder
-// - getItemCount(): Trả về số lượng thanh toán
 // - VH(): ViewHolder chứa các view con
 // - bind(): Hiển thị thông tin thanh toán
 package com.example.appquanlytimtro.payments;
@@ -15,17 +15,22 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.adapters.PaymentAdapter;
+import com.example.appquanlytimtro.adapters.StableIds;
+import com.example.appquanlytimtro.models.Payment;
 
-import java.util.List;
-import java.util.Map;
+public class PaymentsListAdapter extends ListAdapter<Payment, PaymentsListAdapter.VH> {
 
-public class PaymentsListAdapter extends RecyclerView.Adapter<PaymentsListAdapter.VH> {
-    private final List<Map<String, Object>> items;
+    public PaymentsListAdapter() {
+        super(PaymentAdapter.DIFF);
+        setHasStableIds(true);
+    }
 
-    public PaymentsListAdapter(List<Map<String, Object>> items) { this.items = items; }
+    @Override public long getItemId(int position) { return StableIds.of(getItem(position).getId()); }
 
     @NonNull @Override public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_payment, parent, false);
@@ -33,14 +38,12 @@ public class PaymentsListAdapter extends RecyclerView.Adapter<PaymentsListAdapte
     }
 
     @Override public void onBindViewHolder(@NonNull VH h, int pos) {
-        Map<String, Object> p = items.get(pos);
-        h.tvType.setText(String.valueOf(p.get("type")));
-        h.tvAmount.setText(String.valueOf(p.get("amount")));
-        h.tvStatus.setText(String.valueOf(p.get("status")));
+        Payment p = getItem(pos);
+        h.tvType.setText(String.valueOf(p.getType()));
+        h.tvAmount.setText(String.valueOf(p.getAmount()));
+        h.tvStatus.setText(String.valueOf(p.getStatus()));
     }
 
-    @Override public int getItemCount() { return items.size(); }
-
     static class VH extends RecyclerView.ViewHolder {
         TextView tvType, tvAmount, tvStatus;
         VH(@NonNull View itemView) {
@@ -0,0 +1,159 @@
+//model: class đại diện cho dòng booking (màn chủ trọ) đã sẵn sàng hiển thị
+// Mục đích file: File này dùng để giữ các chuỗi/màu đã tính sẵn của một booking (ngày, thời hạn, tổng tiền, trạng thái) và các nút hành động cần hiện theo trạng thái, để LandlordBookingAdapter chỉ gán vào view
+// function:
+// - fromBookings(): Chuyển cả danh sách booking (dùng chung formatter ngày/tiền cho cả lượt)
+// - getBooking(): Lấy booking gốc (dùng cho sự kiện click)
+// - getId()/getRoomTitle()/getTenantName()/getCheckInDate()/getCheckOutDate()/getDuration()/getTotalAmount(): Lấy chuỗi hiển thị
+// - getStatusText()/getStatusColor(): Lấy text và màu chip trạng thái
+// - showAccept()/showReject()/showMarkPaid()/showCancel(): Nút hành động nào được hiện
+// - equals()/hashCode(): So sánh theo các trường hiển thị
+package com.example.appquanlytimtro.presentation;
+
+import androidx.annotation.ColorRes;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.models.Booking;
+
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+public final class BookingRowModel {
+
+    public static final DiffUtil.ItemCallback<BookingRowModel> DIFF = new DiffUtil.ItemCallback<BookingRowModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull BookingRowModel oldItem, @NonNull BookingRowModel newItem) {
+            return Objects.equals(oldItem.id, newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull BookingRowModel oldItem, @NonNull BookingRowModel newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final Booking booking;
+    private final String id;
+    private final String roomTitle;
+    private final String tenantName;
+    private final String checkInDate;
+    private final String checkOutDate;
+    private final String duration;
+    private final String totalAmount;
+    private final String statusText;
+    @ColorRes
+    private final int statusColor;
+    private final boolean showAccept;
+    private final boolean showReject;
+    private final boolean showMarkPaid;
+    private final boolean showCancel;
+
+    private BookingRowModel(Booking booking, SimpleDateFormat dateFormat, NumberFormat formatter) {
+        this.booking = booking;
+        this.id = booking.getId();
+        this.roomTitle = booking.getRoom() != null ? booking.getRoom().getTitle() : "";
+        this.tenantName = booking.getTenant() != null ? "Khách thuê: " + booking.getTenant().getFullName() : "";
+
+        Booking.BookingDetails details = booking.getBookingDetails();
+        this.checkInDate = details != null ? formatDate(dateFormat, details.getCheckInDate()) : "";
+        this.checkOutDate = details != null ? formatDate(dateFormat, details.getCheckOutDate()) : "";
+        this.duration = details != null ? details.getDuration() + " tháng" : "";
+        this.totalAmount = booking.getPricing() != null
+                ? formatter.format(booking.getPricing().getTotalAmount()) + " VNĐ" : "";
+
+        String status = booking.getStatus() != null ? booking.getStatus() : "";
+        this.statusText = statusText(status);
+        this.statusColor = statusColor(status);
+        this.showAccept = "pending".equals(status);
+        this.showReject = "pending".equals(status);
+        this.showMarkPaid = "confirmed".equals(status);
+        this.showCancel = "confirmed".equals(status) || "deposit_paid".equals(status);
+    }
+
+    public static List<BookingRowModel> fromBookings(List<Booking> bookings) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
+        NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
+        List<BookingRowModel> rows = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            rows.add(new BookingRowModel(booking, dateFormat, formatter));
+        }
+        return rows;
+    }
+
+    private static String formatDate(SimpleDateFormat dateFormat, Date date) {
+        return date != null ? dateFormat.format(date) : "";
+    }
+
+    private static String statusText(String status) {
+        switch (status) {
+            case "pending": return "Chờ xác nhận";
+            case "confirmed": return "Đã xác nhận";
+            case "deposit_paid": return "Đã thanh toán";
+            case "active": return "Đang hoạt động";
+            case "completed": return "Đã hoàn thành";
+            case "cancelled": return "Đã hủy";
+            default: return status;
+        }
+    }
+
+    @ColorRes
+    private static int statusColor(String status) {
+        switch (status) {
+            case "pending": return R.color.warning;
+            case "confirmed": return R.color.info;
+            case "deposit_paid": return R.color.success;
+            case "active": return R.color.primary;
+            case "completed": return R.color.success;
+            case "cancelled": return R.color.error;
+            default: return R.color.on_surface_variant;
+        }
+    }
+
+    public Booking getBooking() { return booking; }
+    public String getId() { return id; }
+    public String getRoomTitle() { return roomTitle; }
+    public String getTenantName() { return tenantName; }
+    public String getCheckInDate() { return checkInDate; }
+    public String getCheckOutDate() { return checkOutDate; }
+    public String getDuration() { return duration; }
+    public String getTotalAmount() { return totalAmount; }
+    public String getStatusText() { return statusText; }
+    @ColorRes
+    public int getStatusColor() { return statusColor; }
+    public boolean showAccept() { return showAccept; }
+    public boolean showReject() { return showReject; }
+    public boolean showMarkPaid() { return showMarkPaid; }
+    public boolean showCancel() { return showCancel; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BookingRowModel)) return false;
+        BookingRowModel other = (BookingRowModel) o;
+        return statusColor == other.statusColor
+                && showAccept == other.showAccept
+                && showReject == other.showReject
+                && showMarkPaid == other.showMarkPaid
+                && showCancel == other.showCancel
+                && Objects.equals(id, other.id)
+                && Objects.equals(roomTitle, other.roomTitle)
+                && Objects.equals(tenantName, other.tenantName)
+                && Objects.equals(checkInDate, other.checkInDate)
+                && Objects.equals(checkOutDate, other.checkOutDate)
+                && Objects.equals(duration, other.duration)
+                && Objects.equals(totalAmount, other.totalAmount)
+                && Objects.equals(statusText, other.statusText);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, roomTitle, tenantName, checkInDate, checkOutDate, duration, totalAmount,
+                statusText, statusColor, showAccept, showReject, showMarkPaid, showCancel);
+    }
+}
@@ -0,0 +1,150 @@
+//model: class đại diện cho dòng thanh toán (màn admin) đã sẵn sàng hiển thị
+// Mục đích file: File này dùng để giữ các chuỗi/màu đã tính sẵn của một item thanh toán hoặc booking chưa thanh toán (số tiền, trạng thái, phương thức, ngày, mô tả), để PaymentItemAdapter chỉ gán vào view
+// function:
+// - fromItems(): Chuyển cả danh sách item (dùng chung formatter ngày/tiền cho cả lượt)
+// - getItem(): Lấy item gốc (dùng cho sự kiện click)
+// - getId()/isBooking(): Lấy ID và loại item (dùng để so sánh item)
+// - getAmount()/getStatusText()/getStatusColor()/getPaymentMethod()/getDate()/getType()/getDescription(): Lấy chuỗi/màu hiển thị
+// - equals()/hashCode(): So sánh theo các trường hiển thị
+package com.example.appquanlytimtro.presentation;
+
+import androidx.annotation.ColorRes;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.models.PaymentItem;
+
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+public final class PaymentRowModel {
+
+    // Danh sách gồm cả thanh toán và booking chưa thanh toán nên so sánh cả loại
+    public static final DiffUtil.ItemCallback<PaymentRowModel> DIFF = new DiffUtil.ItemCallback<PaymentRowModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull PaymentRowModel oldItem, @NonNull PaymentRowModel newItem) {
+            return Objects.equals(oldItem.id, newItem.id) && oldItem.booking == newItem.booking;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull PaymentRowModel oldItem, @NonNull PaymentRowModel newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final PaymentItem item;
+    private final String id;
+    private final boolean booking;
+    private final String amount;
+    private final String statusText;
+    @ColorRes
+    private final int statusColor;
+    private final String paymentMethod;
+    private final String date;
+    private final String type;
+    private final String description;
+
+    private PaymentRowModel(PaymentItem item, SimpleDateFormat inputFormat, SimpleDateFormat outputFormat,
+                            NumberFormat formatter) {
+        this.item = item;
+        this.id = item.getId();
+        this.booking = item.isBooking();
+        this.amount = formatter.format(item.getAmount()) + " VNĐ";
+        this.statusText = booking || item.getStatus() != null ? item.getStatusText() : "";
+        this.statusColor = booking ? R.color.warning : statusColor(item.getStatus());
+        this.paymentMethod = booking || item.getPaymentMethod() != null ? item.getPaymentMethodText() : "";
+        this.date = formatDate(inputFormat, outputFormat, item.getInitiatedAt());
+        this.type = booking ? "Đặt phòng" : "Thanh toán";
+
+        StringBuilder text = new StringBuilder();
+        if (booking) {
+            text.append("Đặt phòng chưa thanh toán");
+            if (item.getPayer() != null) {
+                text.append(" - ").append(item.getPayer().getFullName());
+            }
+        } else {
+            text.append("Thanh toán ").append(item.getType());
+            if (item.getPayer() != null && item.getRecipient() != null) {
+                text.append(" - ").append(item.getPayer().getFullName())
+                        .append(" → ").append(item.getRecipient().getFullName());
+            }
+        }
+        this.description = text.toString();
+    }
+
+    public static List<PaymentRowModel> fromItems(List<PaymentItem> items) {
+        SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.getDefault());
+        SimpleDateFormat outputFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
+        NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
+        List<PaymentRowModel> rows = new ArrayList<>(items.size());
+        for (PaymentItem item : items) {
+            rows.add(new PaymentRowModel(item, inputFormat, outputFormat, formatter));
+        }
+        return rows;
+    }
+
+    private static String formatDate(SimpleDateFormat inputFormat, SimpleDateFormat outputFormat, String value) {
+        try {
+            Date date = inputFormat.parse(value);
+            return outputFormat.format(date);
+        } catch (Exception e) {
+            return value;
+        }
+    }
+
+    @ColorRes
+    private static int statusColor(String status) {
+        if (status == null) {
+            return R.color.text_hint;
+        }
+        switch (status) {
+            case "completed":
+                return R.color.success;
+            case "pending":
+                return R.color.warning;
+            case "failed":
+                return R.color.error;
+            default:
+                return R.color.text_hint;
+        }
+    }
+
+    public PaymentItem getItem() { return item; }
+    public String getId() { return id; }
+    public boolean isBooking() { return booking; }
+    public String getAmount() { return amount; }
+    public String getStatusText() { return statusText; }
+    @ColorRes
+    public int getStatusColor() { return statusColor; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public String getDate() { return date; }
+    public String getType() { return type; }
+    public String getDescription() { return description; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PaymentRowModel)) return false;
+        PaymentRowModel other = (PaymentRowModel) o;
+        return booking == other.booking
+                && statusColor == other.statusColor
+                && Objects.equals(id, other.id)
+                && Objects.equals(amount, other.amount)
+                && Objects.equals(statusText, other.statusText)
+                && Objects.equals(paymentMethod, other.paymentMethod)
+                && Objects.equals(date, other.date)
+                && Objects.equals(type, other.type)
+                && Objects.equals(description, other.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, booking, amount, statusText, statusColor, paymentMethod, date, type, description);
+    }
+}
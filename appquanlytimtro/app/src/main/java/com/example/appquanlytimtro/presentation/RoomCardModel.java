@@ -0,0 +1,168 @@
+//model: class đại diện cho thẻ phòng đã sẵn sàng hiển thị
+// Mục đích file: File này dùng để giữ các chuỗi/màu đã tính sẵn của một thẻ phòng (địa chỉ, giá, diện tích, loại phòng, trạng thái, ảnh) để RoomAdapter chỉ gán vào view; object không đổi sau khi tạo nên so sánh bằng equals() là đủ cho DiffUtil
+// function:
+// - fromRooms(): Chuyển cả danh sách phòng (dùng chung một NumberFormat cho cả lượt)
+// - getRoom(): Lấy phòng gốc (dùng cho sự kiện click)
+// - getId()/getTitle()/getAddress()/getPrice()/getArea()/getViews(): Lấy chuỗi hiển thị
+// - getRoomType()/getStatusText()/getStatusColor()/getImageUrl(): Lấy loại phòng, trạng thái, màu chip và URL ảnh đã resolve
+// - equals()/hashCode(): So sánh theo các trường hiển thị
+package com.example.appquanlytimtro.presentation;
+
+import androidx.annotation.ColorRes;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.utils.ImageUtils;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+public final class RoomCardModel {
+
+    public static final DiffUtil.ItemCallback<RoomCardModel> DIFF = new DiffUtil.ItemCallback<RoomCardModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull RoomCardModel oldItem, @NonNull RoomCardModel newItem) {
+            return Objects.equals(oldItem.id, newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull RoomCardModel oldItem, @NonNull RoomCardModel newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final RoomSummary room;
+    private final String id;
+    private final String title;
+    private final String address;
+    private final String price;
+    private final String area;
+    private final String views;
+    private final String roomType;
+    private final String statusText;
+    @ColorRes
+    private final int statusColor;
+    private final String imageUrl;
+
+    private RoomCardModel(RoomSummary room, NumberFormat formatter) {
+        this.room = room;
+        this.id = room.getId();
+        this.title = room.getTitle();
+        this.address = formatAddress(room.getAddress());
+        this.price = room.getPrice() != null
+                ? formatter.format(room.getPrice().getMonthly()) + " VNĐ/tháng" : "";
+        this.area = String.format(Locale.getDefault(), "%.0f m²", room.getArea());
+        this.views = room.getViews() + " lượt xem";
+        this.roomType = room.getRoomType() != null ? roomTypeText(room.getRoomType()) : "";
+
+        String status = room.getStatus() != null ? room.getStatus().toLowerCase(Locale.ROOT) : "active";
+        switch (status) {
+            case "active":
+                statusText = "Còn trống";
+                statusColor = R.color.success;
+                break;
+            case "rented":
+                statusText = "Đã cho thuê";
+                statusColor = R.color.info;
+                break;
+            case "maintenance":
+                statusText = "Bảo trì";
+                statusColor = R.color.warning;
+                break;
+            default:
+                statusText = "Không xác định";
+                statusColor = R.color.surface_variant;
+                break;
+        }
+
+        this.imageUrl = room.getImages() != null && !room.getImages().isEmpty()
+                ? ImageUtils.resolveImageUrl(room.getImages().get(0).getUrl()) : null;
+    }
+
+    public static List<RoomCardModel> fromRooms(List<RoomSummary> rooms) {
+        NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
+        List<RoomCardModel> cards = new ArrayList<>(rooms.size());
+        for (RoomSummary room : rooms) {
+            cards.add(new RoomCardModel(room, formatter));
+        }
+        return cards;
+    }
+
+    private static String formatAddress(User.Address address) {
+        if (address == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        appendPart(builder, address.getStreet());
+        appendPart(builder, address.getWard());
+        appendPart(builder, address.getDistrict());
+        appendPart(builder, address.getCity());
+        return builder.toString();
+    }
+
+    private static void appendPart(StringBuilder builder, String part) {
+        if (part == null || part.isEmpty()) {
+            return;
+        }
+        if (builder.length() > 0) {
+            builder.append(", ");
+        }
+        builder.append(part);
+    }
+
+    private static String roomTypeText(String roomType) {
+        switch (roomType) {
+            case "studio":
+                return "Studio";
+            case "1bedroom":
+                return "1 phòng ngủ";
+            case "2bedroom":
+                return "2 phòng ngủ";
+            case "3bedroom":
+                return "3 phòng ngủ";
+            default:
+                return roomType;
+        }
+    }
+
+    public RoomSummary getRoom() { return room; }
+    public String getId() { return id; }
+    public String getTitle() { return title; }
+    public String getAddress() { return address; }
+    public String getPrice() { return price; }
+    public String getArea() { return area; }
+    public String getViews() { return views; }
+    public String getRoomType() { return roomType; }
+    public String getStatusText() { return statusText; }
+    @ColorRes
+    public int getStatusColor() { return statusColor; }
+    public String getImageUrl() { return imageUrl; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RoomCardModel)) return false;
+        RoomCardModel other = (RoomCardModel) o;
+        return statusColor == other.statusColor
+                && Objects.equals(id, other.id)
+                && Objects.equals(title, other.title)
+                && Objects.equals(address, other.address)
+                && Objects.equals(price, other.price)
+                && Objects.equals(area, other.area)
+                && Objects.equals(views, other.views)
+                && Objects.equals(roomType, other.roomType)
+                && Objects.equals(statusText, other.statusText)
+                && Objects.equals(imageUrl, other.imageUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, address, price, area, views, roomType, statusText, statusColor, imageUrl);
+    }
+}
@@ -0,0 +1,45 @@
+//class: đưa danh sách model vào ListAdapter sau khi chuyển thành row model ở thread nền
+// Mục đích file: File này dùng để dựng các row model (chuỗi hiển thị, màu đã tính sẵn) ngoài main thread rồi mới submitList, để onBindViewHolder chỉ còn gán giá trị
+// function:
+// - RowModelSubmitter(): Khởi tạo với adapter đích và hàm chuyển đổi cả danh sách
+// - submit(): Chuyển danh sách ở thread nền rồi submitList trên main thread (bỏ kết quả cũ nếu đã có lần submit mới hơn)
+package com.example.appquanlytimtro.presentation;
+
+import androidx.recyclerview.widget.ListAdapter;
+
+import com.example.appquanlytimtro.utils.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class RowModelSubmitter<S, M> {
+
+    public interface Mapper<S, M> {
+        List<M> map(List<S> source);
+    }
+
+    private final ListAdapter<M, ?> adapter;
+    private final Mapper<S, M> mapper;
+    // Chỉ đọc/ghi trên main thread
+    private int generation;
+
+    public RowModelSubmitter(ListAdapter<M, ?> adapter, Mapper<S, M> mapper) {
+        this.adapter = adapter;
+        this.mapper = mapper;
+    }
+
+    public void submit(List<S> source) {
+        final int current = ++generation;
+        // Chụp lại danh sách vì màn hình gọi có thể sửa list của nó ngay sau đó
+        final List<S> snapshot = source != null ? new ArrayList<>(source) : new ArrayList<>();
+        // Executor tính toán không từ chối tác vụ nên không bao giờ dựng row trên main thread; kết quả về sai thứ tự thì generation bỏ bản cũ
+        AppExecutors.computation().execute(() -> {
+            List<M> rows = mapper.map(snapshot);
+            AppExecutors.postToMain(() -> {
+                if (current == generation) {
+                    adapter.submitList(rows);
+                }
+            });
+        });
+    }
+}
@@ -37,10 +37,11 @@ import com.bumptech.glide.Glide;
 import com.example.appquanlytimtro.MainActivity;
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.auth.LoginActivity;
+import com.example.appquanlytimtro.database.SessionDataCleaner;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
-import com.google.gson.Gson;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -95,14 +96,9 @@ public class ProfileActivity extends AppCompatActivity {
     }
     
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            Gson gson = new Gson();
-            currentUser = gson.fromJson(userJson, User.class);
-            
-            if (currentUser != null) {
-                displayUserData();
-            }
+        currentUser = retrofitClient.getCurrentUser();
+        if (currentUser != null) {
+            displayUserData();
         } else {
             // Load fresh data from server
             loadUserFromServer();
@@ -112,8 +108,8 @@ public class ProfileActivity extends AppCompatActivity {
     private void loadUserFromServer() {
         showLoading(true);
         
-        retrofitClient.getApiService().getCurrentUser(retrofitClient.getToken())
-                .enqueue(new Callback<ApiResponse<User>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getCurrentUser(retrofitClient.getToken()),
+                new Callback<ApiResponse<User>>() {
                     @Override
                     public void onResponse(Call<ApiResponse<User>> call, Response<ApiResponse<User>> response) {
                         showLoading(false);
@@ -126,8 +122,7 @@ public class ProfileActivity extends AppCompatActivity {
                                 displayUserData();
                                 
                                 // Save updated user data
-                                Gson gson = new Gson();
-                                retrofitClient.saveUserData(gson.toJson(currentUser));
+                                retrofitClient.saveUser(currentUser);
                             } else {
                                 showError(apiResponse.getMessage());
                             }
@@ -234,8 +229,7 @@ public class ProfileActivity extends AppCompatActivity {
                                     displayUserData();
                                     
                                     // Save updated user data
-                                    Gson gson = new Gson();
-                                    retrofitClient.saveUserData(gson.toJson(currentUser));
+                                    retrofitClient.saveUser(currentUser);
                                     
                                     Toast.makeText(ProfileActivity.this, "Cập nhật thông tin thành công!", Toast.LENGTH_SHORT).show();
                                 } else {
@@ -320,6 +314,7 @@ public class ProfileActivity extends AppCompatActivity {
     }
     
     private void logout() {
+        SessionDataCleaner.clear(this);
         retrofitClient.logout();
         Intent intent = new Intent(this, LoginActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -2,6 +2,7 @@
 // Mục đích file: File này dùng để hiển thị thông tin hồ sơ người dùng
 // function: 
 // - onCreateView(): Khởi tạo view và setup các component
+// - onViewCreated(): Theo dõi số thông báo chưa đọc để hiển thị trên nút Thông báo
 // - initViews(): Khởi tạo các view components
 // - setupClickListeners(): Thiết lập các sự kiện click
 // - loadUserData(): Tải thông tin user hiện tại
@@ -13,6 +14,7 @@
 // - showError(): Hiển thị thông báo lỗi
 package com.example.appquanlytimtro.profile;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
@@ -30,11 +32,13 @@ import androidx.fragment.app.Fragment;
 
 import com.bumptech.glide.Glide;
 import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.database.notification.NotificationInbox;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.json.GsonProvider;
+import com.example.appquanlytimtro.notifications.NotificationListActivity;
 import com.google.android.material.button.MaterialButton;
-import com.google.gson.Gson;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -48,7 +52,7 @@ public class ProfileFragment extends Fragment {
     private ImageView ivAvatar;
     private EditText etFullName, etEmail, etPhone;
     private TextView tvRole, tvJoinDate;
-    private MaterialButton btnSave, btnChangePassword, btnLogout;
+    private MaterialButton btnSave, btnNotifications, btnChangePassword, btnLogout;
     private ProgressBar progressBar;
 
     private RetrofitClient retrofitClient;
@@ -66,6 +70,17 @@ public class ProfileFragment extends Fragment {
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        if (currentUser == null || currentUser.getId() == null) {
+            return;
+        }
+        NotificationInbox.getInstance(requireContext()).observeUnreadCount(currentUser.getId())
+                .observe(getViewLifecycleOwner(), unread -> btnNotifications.setText(
+                        unread != null && unread > 0 ? "Thông báo (" + unread + ")" : "Thông báo"));
+    }
+
     private void bindViews(View view) {
         ivAvatar = view.findViewById(R.id.ivAvatar);
         etFullName = view.findViewById(R.id.etFullName);
@@ -74,23 +89,21 @@ public class ProfileFragment extends Fragment {
         tvRole = view.findViewById(R.id.tvRole);
         tvJoinDate = view.findViewById(R.id.tvJoinDate);
         btnSave = view.findViewById(R.id.btnSave);
+        btnNotifications = view.findViewById(R.id.btnNotifications);
         btnChangePassword = view.findViewById(R.id.btnChangePassword);
         btnLogout = view.findViewById(R.id.btnLogout);
         progressBar = view.findViewById(R.id.progressBar);
     }
 
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (!TextUtils.isEmpty(userJson)) {
-            currentUser = new Gson().fromJson(userJson, User.class);
-            if (currentUser != null) {
-                etFullName.setText(currentUser.getFullName());
-                etEmail.setText(currentUser.getEmail());
-                etPhone.setText(currentUser.getPhone());
-                tvRole.setText(currentUser.getRole());
-                if (getContext() != null && currentUser.getAvatar() != null) {
-                    Glide.with(getContext()).load(currentUser.getAvatar()).into(ivAvatar);
-                }
+        currentUser = retrofitClient.getCurrentUser();
+        if (currentUser != null) {
+            etFullName.setText(currentUser.getFullName());
+            etEmail.setText(currentUser.getEmail());
+            etPhone.setText(currentUser.getPhone());
+            tvRole.setText(currentUser.getRole());
+            if (getContext() != null && currentUser.getAvatar() != null) {
+                Glide.with(getContext()).load(currentUser.getAvatar()).into(ivAvatar);
             }
         }
         setEditingMode(false);
@@ -105,6 +118,9 @@ public class ProfileFragment extends Fragment {
             }
         });
 
+        btnNotifications.setOnClickListener(v ->
+                startActivity(new Intent(requireContext(), NotificationListActivity.class)));
+
         btnChangePassword.setOnClickListener(v -> showChangePassword());
         
         btnLogout.setOnClickListener(v -> {
@@ -140,17 +156,19 @@ public class ProfileFragment extends Fragment {
             return;
         }
         showLoading(true);
-        currentUser.setFullName(fullName);
-        currentUser.setPhone(phone);
-        retrofitClient.getApiService().updateUser("Bearer " + retrofitClient.getToken(), currentUser.getId(), currentUser)
+        // Sửa trên bản sao, User trong phiên chỉ đổi khi server xác nhận
+        User edited = GsonProvider.get().fromJson(GsonProvider.get().toJson(currentUser), User.class);
+        edited.setFullName(fullName);
+        edited.setPhone(phone);
+        retrofitClient.getApiService().updateUser("Bearer " + retrofitClient.getToken(), edited.getId(), edited)
                 .enqueue(new Callback<ApiResponse<User>>() {
                     @Override
                     public void onResponse(Call<ApiResponse<User>> call, Response<ApiResponse<User>> response) {
                         showLoading(false);
                         if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
                             User updated = response.body().getData();
-                            currentUser = updated != null ? updated : currentUser;
-                            retrofitClient.saveUserData(new Gson().toJson(currentUser));
+                            currentUser = updated != null ? updated : edited;
+                            retrofitClient.saveUser(currentUser);
                             setEditingMode(false);
                             Toast.makeText(getContext(), R.string.saved_successfully, Toast.LENGTH_SHORT).show();
                         } else {
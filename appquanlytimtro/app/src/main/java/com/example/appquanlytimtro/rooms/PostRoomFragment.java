@@ -36,6 +36,7 @@ import com.example.appquanlytimtro.models.Room;
 import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.json.GsonProvider;
 import com.google.android.material.button.MaterialButton;
 
 import java.io.File;
@@ -144,7 +145,7 @@ public class PostRoomFragment extends Fragment {
                     Room created = null;
                     
                     if (responseData != null && responseData.containsKey("room")) {
-                        com.google.gson.Gson gson = new com.google.gson.Gson();
+                        com.google.gson.Gson gson = GsonProvider.get();
                         String roomJson = gson.toJson(responseData.get("room"));
                         created = gson.fromJson(roomJson, Room.class);
                     }
@@ -1,11 +1,12 @@
 //activity: màn hình chi tiết phòng trọ
 // Mục đích file: File này dùng để hiển thị chi tiết thông tin phòng trọ
 // function: 
-// - onCreate(): Khởi tạo activity và lấy room_id từ intent
+// - onCreate(): Khởi tạo activity, lấy room_id từ intent và hiển thị ngay bản trong cache bộ nhớ nếu có
 // - initViews(): Khởi tạo các view components
 // - setupToolbar(): Thiết lập toolbar với menu
 // - setupViewPager(): Thiết lập ViewPager cho hình ảnh
-// - loadRoomDetails(): Tải thông tin chi tiết phòng từ API
+// - loadRoomDetails(): Tải thông tin chi tiết phòng từ API và lưu vào cache bộ nhớ
+// - recordView(): Ghi nhận một lượt xem (một lần khi mở màn hình, không tính khi xoay màn hình)
 // - displayRoomInfo(): Hiển thị thông tin phòng lên UI
 // - setupClickListeners(): Thiết lập các sự kiện click
 // - onBookRoomClick(): Xử lý click đặt phòng
@@ -36,9 +37,13 @@ import androidx.viewpager2.widget.ViewPager2;
 import com.bumptech.glide.Glide;
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.RoomImageAdapter;
+import com.example.appquanlytimtro.cache.CacheManager;
+import com.example.appquanlytimtro.cache.EntityCache;
 import com.example.appquanlytimtro.models.ApiResponse;
 import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
+import com.example.appquanlytimtro.network.json.GsonProvider;
 import com.google.gson.Gson;
 
 import java.text.NumberFormat;
@@ -88,8 +93,20 @@ public class RoomDetailActivity extends AppCompatActivity {
                 }
             }
             
+            // Phòng vừa xem gần đây: hiển thị ngay, vẫn tải lại để có bản mới nhất
+            if (room == null && roomId != null) {
+                room = CacheManager.getInstance().rooms().get(roomId);
+                if (room != null) {
+                    displayRoomDetails();
+                    setupClickListeners();
+                }
+            }
+            
             if (roomId != null) {
                 loadRoomDetails();
+                if (savedInstanceState == null) {
+                    recordView();
+                }
             } else {
                 showError("Không tìm thấy thông tin phòng trọ");
                 finish();
@@ -126,10 +143,23 @@ public class RoomDetailActivity extends AppCompatActivity {
         }
     }
     
+    private void recordView() {
+        // Không ảnh hưởng màn hình: lỗi thì bỏ qua, không gửi lại
+        retrofitClient.getApiService().recordRoomView(roomId).enqueue(new Callback<ApiResponse<Void>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<Void>> call, Response<ApiResponse<Void>> response) {
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<Void>> call, Throwable t) {
+            }
+        });
+    }
+    
     private void loadRoomDetails() {
         showLoading(true);
         
-        retrofitClient.getApiService().getRoom(roomId).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getRoom(roomId), new Callback<ApiResponse<Map<String, Object>>>() {
             @Override
             public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
                 showLoading(false);
@@ -141,10 +171,11 @@ public class RoomDetailActivity extends AppCompatActivity {
                     if (apiResponse.isSuccess() && apiResponse.getData() != null) {
                         Map<String, Object> data = apiResponse.getData();
                         if (data.containsKey("room")) {
-                            Gson gson = new Gson();
+                            Gson gson = GsonProvider.get();
                             String roomJson = gson.toJson(data.get("room"));
                             
                             room = gson.fromJson(roomJson, Room.class);
+                            CacheManager.getInstance().rooms().put(roomId, room, EntityCache.estimateBytes(roomJson));
                             displayRoomDetails();
                         } else {
                             showError("Không tìm thấy thông tin phòng");
@@ -6,20 +6,34 @@
 // - setupToolbar(): Thiết lập toolbar với menu
 // - setupRecyclerView(): Thiết lập RecyclerView và adapter
 // - setupSwipeRefresh(): Thiết lập chức năng pull-to-refresh
-// - setupSearch(): Thiết lập chức năng tìm kiếm
-// - loadRooms(): Tải danh sách phòng từ API
+// - setupSearch(): Thiết lập chức năng tìm kiếm (tìm local ngay khi gõ)
+// - loadRooms(): Tải danh sách phòng (không tìm kiếm thì đọc từ danh mục offline, có tìm kiếm thì tìm local rồi gọi API)
+// - onSearchTextChanged(): Tìm local theo từng ký tự gõ, gọi API khi ngừng gõ
+// - startSearch(): Bắt đầu lượt tìm mới và tìm trong chỉ mục FTS của danh mục
+// - searchRemote(): Tìm trên server (?search= hoặc khoảng giá nếu từ khóa là số)
+// - showSearchResults(): Hiển thị kết quả local đã gộp với kết quả server
+// - baseParams(): Tham số chung của request danh sách phòng
+// - parsePrice(): Đọc từ khóa dạng số thành giá thuê
+// - showCatalog(): Hiển thị danh mục đã lưu và làm mới ở nền
+// - stopCatalog(): Ngừng hiển thị danh mục đã lưu khi đang tìm kiếm
+// - showCatalogRooms(): Hiển thị danh sách phòng đọc từ danh mục
+// - catalogPage(): Tạo request API cho một trang của danh mục
+// - roomsCall(): Tạo request danh sách phòng theo màn hình đang mở
 // - searchRooms(): Tìm kiếm phòng
 // - filterRooms(): Lọc phòng theo tiêu chí
 // - updateEmptyView(): Cập nhật trạng thái empty view
 // - showLoading(): Hiển thị/ẩn loading indicator
 // - showError(): Hiển thị thông báo lỗi
 // - onRoomClick(): Xử lý click vào phòng
+// - onRoomLike(): Thích/bỏ thích phòng qua outbox (gửi trạng thái đích mà nút đang hiển thị)
 // - onCreateOptionsMenu(): Tạo menu options
 // - onOptionsItemSelected(): Xử lý click vào menu item
 package com.example.appquanlytimtro.rooms;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -32,18 +46,24 @@ import com.google.android.material.textfield.TextInputEditText;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.lifecycle.LiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.RoomAdapter;
+import com.example.appquanlytimtro.database.catalog.RoomCatalogMediator;
+import com.example.appquanlytimtro.database.catalog.RoomCatalogSearch;
+import com.example.appquanlytimtro.database.outbox.Outbox;
 import com.example.appquanlytimtro.models.ApiResponse;
-import com.example.appquanlytimtro.models.Room;
-import com.google.gson.Gson;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.RoomSummaryPage;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,14 +78,32 @@ public class RoomListActivity extends AppCompatActivity implements RoomAdapter.O
     private SwipeRefreshLayout swipeRefreshLayout;
     private ProgressBar progressBar;
     private RoomAdapter roomAdapter;
-    private List<Room> rooms;
+    private List<RoomSummary> rooms;
     private RetrofitClient retrofitClient;
     private boolean showMyRooms = false;
     private boolean showAvailableOnly = false;
 
+    // Danh mục offline: danh sách không tìm kiếm hiển thị từ cơ sở dữ liệu, API chỉ làm mới ở nền
+    private RoomCatalogMediator catalog;
+    private String catalogScope;
+    private LiveData<List<RoomSummary>> catalogRooms;
+    private Map<String, String> catalogParams = new HashMap<>();
+    private boolean showingCatalog = false;
+    private boolean catalogEnd = false;
+
     private TextInputEditText etSearch;
     private MaterialButton btnSearch;
 
+    // Tìm kiếm: kết quả local (FTS trên danh mục) hiện ngay khi gõ, kết quả server về sau được gộp vào
+    private static final long REMOTE_SEARCH_DELAY_MS = 400;
+    private static final double PRICE_SEARCH_RANGE = 200000;
+    private RoomCatalogSearch catalogSearch;
+    private String searchText = "";
+    private int searchGeneration = 0;
+    private List<RoomSummary> localResults = Collections.emptyList();
+    private List<RoomSummary> remoteResults;
+    private final Runnable remoteSearchTask = this::searchRemote;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -93,6 +131,16 @@ public class RoomListActivity extends AppCompatActivity implements RoomAdapter.O
             }
         }
 
+        catalog = RoomCatalogMediator.getInstance(this);
+        catalogSearch = RoomCatalogSearch.getInstance(this);
+        if (showMyRooms) {
+            catalogScope = "landlord:" + getCurrentUserId();
+        } else if (showAvailableOnly) {
+            catalogScope = "available";
+        } else {
+            catalogScope = "all";
+        }
+
         setupRecyclerView();
         setupSwipeRefresh();
         loadRooms("");
@@ -118,9 +166,20 @@ public class RoomListActivity extends AppCompatActivity implements RoomAdapter.O
 
     private void setupRecyclerView() {
         rooms = new ArrayList<>();
-        roomAdapter = new RoomAdapter(rooms, this);
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        roomAdapter = new RoomAdapter(this);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(roomAdapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                // Gần cuối danh sách thì tải thêm trang kế tiếp vào danh mục
+                if (dy > 0 && showingCatalog && !catalogEnd
+                        && layoutManager.findLastVisibleItemPosition() >= roomAdapter.getItemCount() - 5) {
+                    catalog.loadMore(catalogScope, RoomListActivity.this::catalogPage, catalogCallback);
+                }
+            }
+        });
     }
 
     private void setupSwipeRefresh() {
@@ -143,6 +202,19 @@ public class RoomListActivity extends AppCompatActivity implements RoomAdapter.O
             performSearch();
             return true;
         });
+
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                onSearchTextChanged(s.toString().trim());
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {}
+        });
     }
 
     private void performSearch() {
@@ -152,169 +224,256 @@ public class RoomListActivity extends AppCompatActivity implements RoomAdapter.O
 
 
     private void loadRooms(String searchQuery) {
-        showLoading(true);
+        recyclerView.removeCallbacks(remoteSearchTask);
+        String query = searchQuery != null ? searchQuery.trim() : "";
+        if (query.isEmpty()) {
+            searchText = "";
+            searchGeneration++;
+            showCatalog(baseParams());
+            return;
+        }
+        startSearch(query);
+        searchRemote();
+    }
 
-        Map<String, String> params = new HashMap<>();
-        params.put("page", "1");
-        params.put("limit", "20");
+    private void onSearchTextChanged(String text) {
+        if (text.equals(searchText)) {
+            return;
+        }
+        recyclerView.removeCallbacks(remoteSearchTask);
+        if (text.isEmpty()) {
+            loadRooms("");
+            return;
+        }
+        // Kết quả local hiện ngay khi gõ, chỉ gọi API khi người dùng ngừng gõ
+        startSearch(text);
+        recyclerView.postDelayed(remoteSearchTask, REMOTE_SEARCH_DELAY_MS);
+    }
 
-        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
-            String query = searchQuery.trim();
-            Log.d("RoomListActivity", "Search query: " + query);
-
-            if (query.contains("-")) {
-                String[] parts = query.split("-", 2);
-                if (parts.length == 2) {
-                    String city = parts[0].trim();
-                    String district = parts[1].trim();
-                    Log.d("RoomListActivity", "Split - city: " + city + ", district: " + district);
-                    if (!city.isEmpty()) {
-                        params.put("city", city);
-                    }
-                    if (!district.isEmpty()) {
-                        params.put("district", district);
+    private void startSearch(String query) {
+        searchText = query;
+        final int generation = ++searchGeneration;
+        localResults = Collections.emptyList();
+        remoteResults = null;
+        stopCatalog();
+
+        Double price = parsePrice(query);
+        RoomCatalogSearch.Query localQuery = price != null
+                ? new RoomCatalogSearch.Query("").priceBetween(Math.max(0, price - PRICE_SEARCH_RANGE), price + PRICE_SEARCH_RANGE)
+                : new RoomCatalogSearch.Query(query);
+        catalogSearch.search(localQuery.inScope(catalogScope), results -> {
+            if (generation != searchGeneration || isFinishing() || isDestroyed()) {
+                return;
+            }
+            localResults = results;
+            showSearchResults();
+        });
+    }
+
+    private void searchRemote() {
+        Map<String, String> params = baseParams();
+        Double price = parsePrice(searchText);
+        if (price != null) {
+            params.put("minPrice", String.valueOf((int) Math.max(0, price - PRICE_SEARCH_RANGE)));
+            params.put("maxPrice", String.valueOf((int) (price + PRICE_SEARCH_RANGE)));
+        } else {
+            params.put("search", searchText);
+        }
+        Log.d("RoomListActivity", "Request params: " + params.toString());
+
+        Call<ApiResponse<RoomSummaryPage>> call = roomsCall(params);
+        if (call == null) {
+            showError("Không thể lấy thông tin người dùng");
+            swipeRefreshLayout.setRefreshing(false);
+            return;
+        }
+        final int generation = searchGeneration;
+        showLoading(rooms.isEmpty());
+        LifecycleCalls.enqueue(this, call, new Callback<ApiResponse<RoomSummaryPage>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<RoomSummaryPage>> call, Response<ApiResponse<RoomSummaryPage>> response) {
+                if (generation != searchGeneration) {
+                    return;
+                }
+                showLoading(false);
+                swipeRefreshLayout.setRefreshing(false);
+
+                if (response.isSuccessful() && response.body() != null) {
+                    ApiResponse<RoomSummaryPage> apiResponse = response.body();
+
+                    if (apiResponse.isSuccess() && apiResponse.getData() != null) {
+                        remoteResults = apiResponse.getData().getItems();
+                        Log.d("RoomListActivity", "API returned " + remoteResults.size() + " rooms");
+                        showSearchResults();
+                    } else {
+                        showError(apiResponse.getMessage());
                     }
+                } else {
+                    showError("Không thể tải danh sách phòng trọ");
                 }
-            } else {
-                try {
-                    double price = Double.parseDouble(query);
-                    double minPrice = Math.max(0, price - 200000);
-                    double maxPrice = price + 200000;
-                    params.put("minPrice", String.valueOf((int)minPrice));
-                    params.put("maxPrice", String.valueOf((int)maxPrice));
-                    Log.d("RoomListActivity", "Price search - min: " + minPrice + ", max: " + maxPrice);
-                } catch (NumberFormatException e) {
-                    params.put("city", query);
-                    Log.d("RoomListActivity", "City search: " + query);
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<RoomSummaryPage>> call, Throwable t) {
+                if (generation != searchGeneration) {
+                    return;
+                }
+                showLoading(false);
+                swipeRefreshLayout.setRefreshing(false);
+                if (!rooms.isEmpty()) {
+                    showError("Không có kết nối, đang hiển thị dữ liệu đã lưu");
+                } else {
+                    showError("Lỗi kết nối. Vui lòng thử lại.");
                 }
             }
-        }
+        });
+    }
 
-        Log.d("RoomListActivity", "Request params: " + params.toString());
+    private void showSearchResults() {
+        rooms.clear();
+        rooms.addAll(RoomCatalogSearch.merge(localResults, remoteResults));
+        roomAdapter.submitRooms(rooms);
+        if (!rooms.isEmpty()) {
+            showLoading(false);
+        }
+    }
 
+    private Map<String, String> baseParams() {
+        Map<String, String> params = new HashMap<>();
+        params.put("page", "1");
+        params.put("limit", "20");
         if (showAvailableOnly) {
             params.put("status", "active");
             params.put("available", "true");
             params.put("excludeBooked", "true");
         }
+        return params;
+    }
 
-        Call<ApiResponse<Map<String, Object>>> call = null;
+    // Từ khóa chỉ gồm số được hiểu là giá thuê mong muốn
+    private static Double parsePrice(String query) {
+        try {
+            return Double.parseDouble(query);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 
-        if (showMyRooms) {
-            String userId = getCurrentUserId();
-            if (userId != null) {
-                call = retrofitClient.getApiService().getUserRooms(
-                        retrofitClient.getToken(),
-                        userId,
-                        params
-                );
-            } else {
-                showError("Không thể lấy thông tin người dùng");
-                showLoading(false);
+    private void showCatalog(Map<String, String> params) {
+        catalogParams = params;
+        if (catalogRooms == null) {
+            catalogRooms = catalog.observe(catalogScope);
+        }
+        if (!showingCatalog) {
+            showingCatalog = true;
+            catalogRooms.observe(this, this::showCatalogRooms);
+        }
+        // Có dữ liệu đã lưu thì hiển thị luôn, không chờ mạng
+        showLoading(rooms.isEmpty());
+        catalog.refresh(catalogScope, this::catalogPage, catalogCallback);
+    }
+
+    private void stopCatalog() {
+        if (catalogRooms != null) {
+            catalogRooms.removeObservers(this);
+        }
+        showingCatalog = false;
+    }
+
+    private void showCatalogRooms(List<RoomSummary> catalogData) {
+        if (!showingCatalog) {
+            return;
+        }
+        rooms.clear();
+        rooms.addAll(catalogData);
+        roomAdapter.submitRooms(rooms);
+        if (!catalogData.isEmpty()) {
+            showLoading(false);
+        }
+    }
+
+    private Call<ApiResponse<RoomSummaryPage>> catalogPage(int page, int limit) {
+        Map<String, String> params = new HashMap<>(catalogParams);
+        params.put("page", String.valueOf(page));
+        params.put("limit", String.valueOf(limit));
+        return roomsCall(params);
+    }
+
+    private final RoomCatalogMediator.LoadCallback catalogCallback = new RoomCatalogMediator.LoadCallback() {
+        @Override
+        public void onLoaded(boolean endReached) {
+            if (isFinishing() || isDestroyed()) {
                 return;
             }
-        } else {
-            call = retrofitClient.getApiService().getRooms(params);
+            catalogEnd = endReached;
+            showLoading(false);
+            swipeRefreshLayout.setRefreshing(false);
         }
 
-        if (call != null) {
-            call.enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
-                @Override
-                public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
-                    showLoading(false);
-                    swipeRefreshLayout.setRefreshing(false);
-
-                    if (response.isSuccessful() && response.body() != null) {
-                        ApiResponse<Map<String, Object>> apiResponse = response.body();
-
-                        if (apiResponse.isSuccess() && apiResponse.getData() != null) {
-                            Map<String, Object> data = apiResponse.getData();
-                            List<?> roomsData = (List<?>) data.get("rooms");
-
-                            if (roomsData != null) {
-                                Log.d("RoomListActivity", "API returned " + roomsData.size() + " rooms");
-                                rooms.clear();
-                                Gson gson = new Gson();
-                                for (Object roomObj : roomsData) {
-                                    if (roomObj instanceof Map) {
-                                        Room room = gson.fromJson(gson.toJson(roomObj), Room.class);
-                                        rooms.add(room);
-                                        if (room.getAddress() != null) {
-                                            Log.d("RoomListActivity", "Room: " + room.getTitle() +
-                                                    ", City: " + room.getAddress().getCity() +
-                                                    ", District: " + room.getAddress().getDistrict());
-                                        }
-                                    }
-                                }
-                                Log.d("RoomListActivity", "Total rooms after processing: " + rooms.size());
-                                roomAdapter.notifyDataSetChanged();
-                            } else {
-                                Log.d("RoomListActivity", "roomsData is null");
-                            }
-                        } else {
-                            showError(apiResponse.getMessage());
-                        }
-                    } else {
-                        showError("Không thể tải danh sách phòng trọ");
-                    }
-                }
+        @Override
+        public void onError(String message) {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            showLoading(false);
+            swipeRefreshLayout.setRefreshing(false);
+            if (showingCatalog && !rooms.isEmpty()) {
+                showError("Không có kết nối, đang hiển thị dữ liệu đã lưu");
+            } else {
+                showError(message != null ? message : "Không thể tải danh sách phòng trọ");
+            }
+        }
 
-                @Override
-                public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
-                    showLoading(false);
-                    swipeRefreshLayout.setRefreshing(false);
-                    showError("Lỗi kết nối. Vui lòng thử lại.");
-                }
-            });
+        @Override
+        public void onSuperseded() {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            // Giữ catalogEnd: lần làm mới mới hơn sẽ tự báo kết quả
+            showLoading(false);
+            swipeRefreshLayout.setRefreshing(false);
         }
-    }
+    };
 
-    private String getCurrentUserId() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            try {
-                com.google.gson.Gson gson = new com.google.gson.Gson();
-                com.example.appquanlytimtro.models.User user = gson.fromJson(userJson, com.example.appquanlytimtro.models.User.class);
-                return user != null ? user.getId() : null;
-            } catch (Exception e) {
+    // Trả null khi xem phòng của tôi mà chưa có thông tin người dùng
+    private Call<ApiResponse<RoomSummaryPage>> roomsCall(Map<String, String> params) {
+        if (showMyRooms) {
+            String userId = getCurrentUserId();
+            if (userId == null) {
                 return null;
             }
+            return retrofitClient.getApiService().getUserRoomSummaries(
+                    retrofitClient.getToken(),
+                    userId,
+                    params
+            );
         }
-        return null;
+        return retrofitClient.getApiService().getRoomSummaries(params);
+    }
+
+    private String getCurrentUserId() {
+        com.example.appquanlytimtro.models.User user = retrofitClient.getCurrentUser();
+        return user != null ? user.getId() : null;
     }
 
     @Override
-    public void onRoomClick(Room room) {
+    public void onRoomClick(RoomSummary room) {
         Intent intent = new Intent(this, RoomDetailActivity.class);
         intent.putExtra("room_id", room.getId());
-        intent.putExtra("room_object", room);
         startActivity(intent);
     }
 
     @Override
-    public void onRoomDelete(Room room) {
+    public void onRoomDelete(RoomSummary room) {
     }
 
-    public void onRoomLike(Room room) {
-        retrofitClient.getApiService().toggleRoomLike(retrofitClient.getToken(), room.getId())
-                .enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
-                    @Override
-                    public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            ApiResponse<Map<String, Object>> apiResponse = response.body();
-                            if (apiResponse.isSuccess()) {
-                                int position = rooms.indexOf(room);
-                                if (position != -1) {
-                                    roomAdapter.notifyItemChanged(position);
-                                }
-                            }
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
-                    }
-                });
+    public void onRoomLike(RoomSummary room, boolean liked) {
+        // Ghi vào outbox: bấm nhiều lần liên tiếp chỉ gửi trạng thái cuối cùng
+        Outbox.getInstance(this).setRoomLiked(room.getId(), liked);
+        int position = rooms.indexOf(room);
+        if (position != -1) {
+            roomAdapter.notifyItemChanged(position);
+        }
     }
 
     @Override
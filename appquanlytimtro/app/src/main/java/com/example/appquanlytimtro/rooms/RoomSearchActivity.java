@@ -7,7 +7,13 @@
 // - setupRecyclerView(): Thiết lập RecyclerView và adapter
 // - setupSearchFilters(): Thiết lập các bộ lọc tìm kiếm
 // - setupClickListeners(): Thiết lập các sự kiện click
-// - performSearch(): Thực hiện tìm kiếm
+// - performSearch(): Thực hiện tìm kiếm (local rồi server)
+// - searchLocal(): Tìm trong chỉ mục FTS của danh mục offline theo từ khóa và bộ lọc
+// - searchRemote(): Tìm trên server (?search= hoặc khoảng giá nếu từ khóa là số)
+// - showResults(): Hiển thị kết quả local đã gộp với kết quả server
+// - filterValue(): Đọc giá trị bộ lọc (bỏ qua "Tất cả")
+// - roomTypeValue(): Chuyển tên loại phòng thành giá trị của API
+// - parsePrice(): Đọc chuỗi số thành giá thuê
 // - loadRooms(): Tải danh sách phòng từ API
 // - updateEmptyView(): Cập nhật trạng thái empty view
 // - showLoading(): Hiển thị/ẩn loading indicator
@@ -37,23 +43,20 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.appquanlytimtro.R;
 import com.example.appquanlytimtro.adapters.RoomAdapter;
-import com.example.appquanlytimtro.models.ApiResponse;
-import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.database.catalog.RoomCatalogSearch;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.network.ResponsePipeline;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
-import com.google.gson.Gson;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class RoomSearchActivity extends AppCompatActivity implements RoomAdapter.OnRoomClickListener {
 
     private TextInputEditText etSearch;
@@ -64,8 +67,14 @@ public class RoomSearchActivity extends AppCompatActivity implements RoomAdapter
     private ProgressBar progressBar;
 
     private RoomAdapter roomAdapter;
-    private List<Room> roomList;
+    private List<RoomSummary> roomList;
     private RetrofitClient retrofitClient;
+    private int searchGeneration = 0;
+    // Kết quả local (FTS trên danh mục) hiện ngay, kết quả server về sau được gộp vào
+    private static final double PRICE_SEARCH_RANGE = 200000;
+    private RoomCatalogSearch catalogSearch;
+    private List<RoomSummary> localResults = Collections.emptyList();
+    private List<RoomSummary> remoteResults;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -92,6 +101,7 @@ public class RoomSearchActivity extends AppCompatActivity implements RoomAdapter
         progressBar = findViewById(R.id.progressBar);
 
         retrofitClient = RetrofitClient.getInstance(this);
+        catalogSearch = RoomCatalogSearch.getInstance(this);
         roomList = new ArrayList<>();
     }
 
@@ -105,7 +115,7 @@ public class RoomSearchActivity extends AppCompatActivity implements RoomAdapter
     }
 
     private void setupRecyclerView() {
-        roomAdapter = new RoomAdapter(roomList, this);
+        roomAdapter = new RoomAdapter(this);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setAdapter(roomAdapter);
     }
@@ -133,6 +143,8 @@ public class RoomSearchActivity extends AppCompatActivity implements RoomAdapter
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
+                // Kết quả local hiện ngay khi gõ, chỉ gọi API khi người dùng ngừng gõ
+                searchLocal();
                 recyclerView.removeCallbacks(searchRunnable);
                 recyclerView.postDelayed(searchRunnable, 500);
             }
@@ -142,72 +154,83 @@ public class RoomSearchActivity extends AppCompatActivity implements RoomAdapter
         });
     }
 
-    private final Runnable searchRunnable = this::performSearch;
+    private final Runnable searchRunnable = this::searchRemote;
 
     private void performSearch() {
-        showLoading(true);
+        recyclerView.removeCallbacks(searchRunnable);
+        searchLocal();
+        searchRemote();
+    }
+
+    private void searchLocal() {
+        final int generation = ++searchGeneration;
+        localResults = Collections.emptyList();
+        remoteResults = null;
+
+        String searchKeyword = etSearch.getText().toString().trim();
+        Double keywordPrice = parsePrice(searchKeyword);
+        RoomCatalogSearch.Query query = new RoomCatalogSearch.Query(keywordPrice != null ? "" : searchKeyword)
+                .withStatus("active")
+                .withRoomType(roomTypeValue(actvRoomType.getText().toString().trim()));
+
+        StringBuilder area = new StringBuilder();
+        String city = filterValue(actvCity);
+        if (city != null) {
+            area.append(city);
+        }
+        String district = filterValue(actvDistrict);
+        if (district != null) {
+            area.append(' ').append(district);
+        }
+        if (area.length() > 0) {
+            query.inArea(area.toString());
+        }
+
+        double minPrice = keywordPrice != null ? Math.max(0, keywordPrice - PRICE_SEARCH_RANGE) : 0;
+        double maxPrice = keywordPrice != null ? keywordPrice + PRICE_SEARCH_RANGE : Double.MAX_VALUE;
+        Double minField = parsePrice(etMinPrice.getText().toString().trim());
+        Double maxField = parsePrice(etMaxPrice.getText().toString().trim());
+        query.priceBetween(minField != null ? minField : minPrice, maxField != null ? maxField : maxPrice);
 
+        catalogSearch.search(query, results -> {
+            if (generation != searchGeneration || isFinishing()) return;
+            localResults = results;
+            showResults();
+        });
+    }
+
+    private void searchRemote() {
         Map<String, String> queryParams = new HashMap<>();
 
         String searchKeyword = etSearch.getText().toString().trim();
         if (!searchKeyword.isEmpty()) {
             Log.d("RoomSearchActivity", "Search keyword: " + searchKeyword);
-            if (searchKeyword.contains("-")) {
-                String[] parts = searchKeyword.split("-", 2);
-                if (parts.length == 2) {
-                    String city = parts[0].trim();
-                    String district = parts[1].trim();
-                    Log.d("RoomSearchActivity", "Split - city: " + city + ", district: " + district);
-                    if (!city.isEmpty()) {
-                        queryParams.put("city", city);
-                    }
-                    if (!district.isEmpty()) {
-                        queryParams.put("district", district);
-                    }
-                }
+            Double price = parsePrice(searchKeyword);
+            if (price != null) {
+                double minPrice = Math.max(0, price - PRICE_SEARCH_RANGE);
+                double maxPrice = price + PRICE_SEARCH_RANGE;
+                queryParams.put("minPrice", String.valueOf((int)minPrice));
+                queryParams.put("maxPrice", String.valueOf((int)maxPrice));
+                Log.d("RoomSearchActivity", "Price search - min: " + minPrice + ", max: " + maxPrice);
             } else {
-                try {
-                    double price = Double.parseDouble(searchKeyword);
-                    double minPrice = Math.max(0, price - 200000);
-                    double maxPrice = price + 200000;
-                    queryParams.put("minPrice", String.valueOf((int)minPrice));
-                    queryParams.put("maxPrice", String.valueOf((int)maxPrice));
-                    Log.d("RoomSearchActivity", "Price search - min: " + minPrice + ", max: " + maxPrice);
-                } catch (NumberFormatException e) {
-                    queryParams.put("city", searchKeyword);
-                    Log.d("RoomSearchActivity", "City search: " + searchKeyword);
-                }
+                // Server tìm từng từ khóa trên tiêu đề, mô tả và địa chỉ (không phân biệt dấu)
+                queryParams.put("search", searchKeyword);
             }
         }
 
-        Log.d("RoomSearchActivity", "Request params: " + queryParams.toString());
-
-        String city = actvCity.getText().toString().trim();
-        if (!city.isEmpty() && !city.equals("Tất cả")) {
+        String city = filterValue(actvCity);
+        if (city != null) {
             queryParams.put("city", city);
         }
 
-        String district = actvDistrict.getText().toString().trim();
-        if (!district.isEmpty() && !district.equals("Tất cả")) {
+        String district = filterValue(actvDistrict);
+        if (district != null) {
             queryParams.put("district", district);
         }
 
-        String roomType = actvRoomType.getText().toString().trim();
-        if (!roomType.isEmpty() && !roomType.equals("Tất cả")) {
-            switch (roomType) {
-                case "Studio":
-                    queryParams.put("roomType", "studio");
-                    break;
-                case "1 phòng ngủ":
-                    queryParams.put("roomType", "1bedroom");
-                    break;
-                case "2 phòng ngủ":
-                    queryParams.put("roomType", "2bedroom");
-                    break;
-                case "3 phòng ngủ":
-                    queryParams.put("roomType", "3bedroom");
-                    break;
-            }
+        String roomType = roomTypeValue(actvRoomType.getText().toString().trim());
+        if (roomType != null) {
+            queryParams.put("roomType", roomType);
         }
 
         String minPrice = etMinPrice.getText().toString().trim();
@@ -224,70 +247,86 @@ public class RoomSearchActivity extends AppCompatActivity implements RoomAdapter
         queryParams.put("availability", "true");
         queryParams.put("excludeBooked", "true"); // Exclude rooms with pending bookings
 
+        Log.d("RoomSearchActivity", "Request params: " + queryParams.toString());
 
-        retrofitClient.getApiService().getRooms(queryParams).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        // Chỉ hiển thị kết quả của lần tìm kiếm mới nhất
+        final int generation = searchGeneration;
+        showLoading(roomList.isEmpty());
+        ResponsePipeline.enqueue(this, retrofitClient.getApiService().getRoomSummaries(queryParams),
+                data -> data != null
+                        ? Collections.unmodifiableList(new ArrayList<>(data.getItems()))
+                        : Collections.<RoomSummary>emptyList(),
+                new ResponsePipeline.ResultCallback<List<RoomSummary>>() {
             @Override
-            public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
+            public void onResult(List<RoomSummary> roomsData) {
+                if (generation != searchGeneration || isFinishing()) return;
                 showLoading(false);
+                Log.d("RoomSearchActivity", "API returned " + roomsData.size() + " rooms");
+
+                remoteResults = roomsData;
+                showResults();
 
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<Map<String, Object>> apiResponse = response.body();
-
-                    if (apiResponse.isSuccess() && apiResponse.getData() != null) {
-                        Map<String, Object> data = apiResponse.getData();
-                        if (data.containsKey("rooms")) {
-                            try {
-                                Gson gson = new Gson();
-                                List<?> roomsData = (List<?>) data.get("rooms");
-
-                                Log.d("RoomSearchActivity", "API returned " + (roomsData != null ? roomsData.size() : 0) + " rooms");
-
-                                roomList.clear();
-
-                                if (roomsData != null) {
-                                    for (Object roomObj : roomsData) {
-                                        String roomJson = gson.toJson(roomObj);
-                                        Room room = gson.fromJson(roomJson, Room.class);
-                                        if (room != null) {
-                                            roomList.add(room);
-                                            if (room.getAddress() != null) {
-                                                Log.d("RoomSearchActivity", "Room: " + room.getTitle() +
-                                                        ", City: " + room.getAddress().getCity() +
-                                                        ", District: " + room.getAddress().getDistrict());
-                                            }
-                                        }
-                                    }
-                                }
-
-                                Log.d("RoomSearchActivity", "Total rooms after processing: " + roomList.size());
-                                roomAdapter.notifyDataSetChanged();
-
-                                if (roomList.isEmpty()) {
-                                    Toast.makeText(RoomSearchActivity.this, "Không tìm thấy phòng phù hợp", Toast.LENGTH_SHORT).show();
-                                } else {
-                                    Toast.makeText(RoomSearchActivity.this, "Tìm thấy " + roomList.size() + " phòng", Toast.LENGTH_SHORT).show();
-                                }
-
-                            } catch (Exception e) {
-                                Toast.makeText(RoomSearchActivity.this, "Lỗi xử lý dữ liệu", Toast.LENGTH_SHORT).show();
-                            }
-                        }
-                    } else {
-                        Toast.makeText(RoomSearchActivity.this, apiResponse.getMessage(), Toast.LENGTH_SHORT).show();
-                    }
+                if (roomList.isEmpty()) {
+                    Toast.makeText(RoomSearchActivity.this, "Không tìm thấy phòng phù hợp", Toast.LENGTH_SHORT).show();
                 } else {
-                    Toast.makeText(RoomSearchActivity.this, "Không thể tải danh sách phòng", Toast.LENGTH_SHORT).show();
+                    Toast.makeText(RoomSearchActivity.this, "Tìm thấy " + roomList.size() + " phòng", Toast.LENGTH_SHORT).show();
                 }
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
+            public void onError(int code, String message) {
+                if (generation != searchGeneration || isFinishing()) return;
+                showLoading(false);
+                Toast.makeText(RoomSearchActivity.this, message != null ? message : "Không thể tải danh sách phòng", Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (generation != searchGeneration || isFinishing()) return;
                 showLoading(false);
                 Toast.makeText(RoomSearchActivity.this, "Lỗi kết nối: " + t.getMessage(), Toast.LENGTH_SHORT).show();
             }
         });
     }
 
+    private void showResults() {
+        roomList.clear();
+        roomList.addAll(RoomCatalogSearch.merge(localResults, remoteResults));
+        roomAdapter.submitRooms(roomList);
+        if (!roomList.isEmpty()) {
+            showLoading(false);
+        }
+    }
+
+    // Trả null nếu chưa chọn hoặc chọn "Tất cả"
+    private static String filterValue(AutoCompleteTextView view) {
+        String value = view.getText().toString().trim();
+        return value.isEmpty() || value.equals("Tất cả") ? null : value;
+    }
+
+    private static String roomTypeValue(String roomType) {
+        switch (roomType) {
+            case "Studio":
+                return "studio";
+            case "1 phòng ngủ":
+                return "1bedroom";
+            case "2 phòng ngủ":
+                return "2bedroom";
+            case "3 phòng ngủ":
+                return "3bedroom";
+            default:
+                return null;
+        }
+    }
+
+    private static Double parsePrice(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     private void clearFilters() {
         etSearch.setText("");
         actvCity.setText("");
@@ -308,15 +347,14 @@ public class RoomSearchActivity extends AppCompatActivity implements RoomAdapter
     }
 
     @Override
-    public void onRoomClick(Room room) {
+    public void onRoomClick(RoomSummary room) {
         Intent intent = new Intent(this, RoomDetailActivity.class);
         intent.putExtra("room_id", room.getId());
-        intent.putExtra("room_object", room);
         startActivity(intent);
     }
 
     @Override
-    public void onRoomDelete(Room room) {
+    public void onRoomDelete(RoomSummary room) {
     }
 
     @Override
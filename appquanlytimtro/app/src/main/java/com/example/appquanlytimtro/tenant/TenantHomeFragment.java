@@ -2,10 +2,15 @@
 // Mục đích file: File này dùng để hiển thị màn hình chính cho người thuê trọ
 // function: 
 // - onCreateView(): Khởi tạo view và setup các component
+// - onDestroyView(): Hủy lắng nghe thay đổi phiên đăng nhập
 // - initViews(): Khởi tạo các view components
 // - setupRecyclerView(): Thiết lập RecyclerView và adapter
 // - setupClickListeners(): Thiết lập các sự kiện click
 // - loadUserData(): Tải thông tin user hiện tại
+// - loadDashboardStats(): Hiển thị bản chụp thống kê đã lưu rồi tải số liệu mới từ API (lưu lại làm bản chụp)
+// - showSnapshot(): Hiển thị số liệu của lần tải thành công gần nhất kèm thời điểm cập nhật
+// - onRefreshFailed(): Giữ bản chụp nếu có, nếu không thì hiển thị 0
+// - bindStats(): Hiển thị số liệu thống kê lên UI
 // - loadRecentRooms(): Tải danh sách phòng gần đây
 // - loadUserBookings(): Tải danh sách đặt phòng của user
 // - onSearchRoomsClick(): Xử lý click tìm kiếm phòng
@@ -31,16 +36,20 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.appquanlytimtro.R;
+import com.example.appquanlytimtro.database.dashboard.DashboardSnapshots;
+import com.example.appquanlytimtro.models.DashboardStats;
 import com.example.appquanlytimtro.MainActivity;
 import com.example.appquanlytimtro.rooms.RoomListActivity;
 import com.example.appquanlytimtro.bookings.BookingListActivity;
 import com.example.appquanlytimtro.payments.PaymentListActivity;
 import com.example.appquanlytimtro.profile.ProfileActivity;
+import com.example.appquanlytimtro.network.LifecycleCalls;
 import com.example.appquanlytimtro.network.RetrofitClient;
 import com.example.appquanlytimtro.models.User;
 import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.utils.StartupTrace;
+import com.example.appquanlytimtro.utils.SessionManager;
 import com.google.android.material.card.MaterialCardView;
-import com.google.gson.Gson;
 
 import java.text.NumberFormat;
 import java.util.List;
@@ -58,6 +67,7 @@ public class TenantHomeFragment extends Fragment {
     private TextView tvPendingPayments;
     private TextView tvTotalDeposit;
     private TextView tvTotalPaid;
+    private TextView tvLastUpdated;
     private MaterialCardView cardSearchRooms;
     private MaterialCardView cardMyBookings;
     private MaterialCardView cardMyPayments;
@@ -67,6 +77,16 @@ public class TenantHomeFragment extends Fragment {
     
     private RetrofitClient retrofitClient;
     private User currentUser;
+    private boolean refreshed;
+    private long snapshotSavedAt;
+    
+    // Cập nhật lời chào khi thông tin user thay đổi (ví dụ sau khi sửa hồ sơ)
+    private final SessionManager.OnSessionChangeListener sessionListener = user -> {
+        if (user != null) {
+            currentUser = user;
+            updateWelcomeMessage();
+        }
+    };
 
     @Nullable
     @Override
@@ -77,18 +97,28 @@ public class TenantHomeFragment extends Fragment {
         loadUserData();
         
         initViews(view);
+        updateWelcomeMessage();
         setupClickListeners();
         loadDashboardStats();
         
+        SessionManager.getInstance(requireContext()).addListener(sessionListener);
+        
         return view;
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        SessionManager.getInstance(requireContext()).removeListener(sessionListener);
+    }
+
     private void initViews(View view) {
         tvWelcome = view.findViewById(R.id.tvWelcome);
         tvTotalBookings = view.findViewById(R.id.tvTotalBookings);
         tvPendingPayments = view.findViewById(R.id.tvPendingPayments);
         tvTotalDeposit = view.findViewById(R.id.tvTotalDeposit);
         tvTotalPaid = view.findViewById(R.id.tvTotalPaid);
+        tvLastUpdated = view.findViewById(R.id.tvLastUpdated);
         cardSearchRooms = view.findViewById(R.id.cardSearchRooms);
         cardMyBookings = view.findViewById(R.id.cardMyBookings);
         cardMyPayments = view.findViewById(R.id.cardMyPayments);
@@ -100,13 +130,9 @@ public class TenantHomeFragment extends Fragment {
     }
 
     private void loadUserData() {
-        String userJson = retrofitClient.getUserData();
-        if (userJson != null) {
-            Gson gson = new Gson();
-            currentUser = gson.fromJson(userJson, User.class);
-            if (currentUser != null) {
-                updateWelcomeMessage();
-            }
+        currentUser = retrofitClient.getCurrentUser();
+        if (currentUser != null) {
+            updateWelcomeMessage();
         }
     }
     
@@ -158,45 +184,64 @@ public class TenantHomeFragment extends Fragment {
             setDefaultStats();
             return;
         }
+        // View có thể được tạo lại khi quay về tab này
+        refreshed = false;
+        snapshotSavedAt = 0;
+        showSnapshot();
         String token = "Bearer " + retrofitClient.getToken();
-        retrofitClient.getApiService().getStatisticsOverview(token).enqueue(new Callback<ApiResponse<Map<String, Object>>>() {
+        LifecycleCalls.enqueue(this, retrofitClient.getApiService().getStatisticsOverview(token), new Callback<ApiResponse<Map<String, Object>>>() {
             @Override
             public void onResponse(Call<ApiResponse<Map<String, Object>>> call, Response<ApiResponse<Map<String, Object>>> response) {
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    Map<String, Object> data = response.body().getData();
-                    Map<String, Object> stats = data != null && data.containsKey("stats") ? (Map<String, Object>) data.get("stats") : null;
+                Map<String, Object> data = response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                        ? response.body().getData() : null;
+                if (data != null && data.get("stats") instanceof Map) {
+                    DashboardStats stats = DashboardStats.fromStats((Map<String, Object>) data.get("stats"));
+                    refreshed = true;
                     bindStats(stats);
+                    tvLastUpdated.setText(DashboardSnapshots.lastUpdatedText(System.currentTimeMillis()));
+                    DashboardSnapshots.getInstance(requireContext()).save(DashboardSnapshots.ROLE_TENANT, currentUser.getId(), stats);
                 } else {
-                    setDefaultStats();
+                    onRefreshFailed();
                 }
+                StartupTrace.reportFirstContent(getActivity(), "TenantHome");
             }
 
             @Override
             public void onFailure(Call<ApiResponse<Map<String, Object>>> call, Throwable t) {
-                setDefaultStats();
+                onRefreshFailed();
+                StartupTrace.reportFirstContent(getActivity(), "TenantHome");
             }
         });
     }
 
-    private void bindStats(Map<String, Object> stats) {
-        if (stats == null) {
+    private void showSnapshot() {
+        DashboardSnapshots.getInstance(requireContext()).load(DashboardSnapshots.ROLE_TENANT, currentUser.getId(), (stats, savedAt) -> {
+            // API đã trả về trước khi đọc xong bản chụp thì giữ số liệu mới
+            if (!isAdded() || refreshed) return;
+            snapshotSavedAt = savedAt;
+            bindStats(stats);
+            tvLastUpdated.setText(DashboardSnapshots.lastUpdatedText(savedAt) + " · đang làm mới...");
+            StartupTrace.reportFirstContent(getActivity(), "TenantHome");
+        });
+    }
+
+    private void onRefreshFailed() {
+        if (snapshotSavedAt > 0) {
+            // Giữ số liệu cũ thay vì về 0
+            tvLastUpdated.setText(DashboardSnapshots.lastUpdatedText(snapshotSavedAt) + " · không thể làm mới");
+        } else {
             setDefaultStats();
-            return;
+            tvLastUpdated.setText("Không thể tải số liệu");
         }
-        Map<String, Object> bookings = stats.get("bookings") instanceof Map ? (Map<String, Object>) stats.get("bookings") : null;
-        Map<String, Object> payments = stats.get("payments") instanceof Map ? (Map<String, Object>) stats.get("payments") : null;
-
-        int totalBookings = bookings != null && bookings.get("totalBookings") instanceof Number ? ((Number) bookings.get("totalBookings")).intValue() : 0;
-        int pending = bookings != null && bookings.get("pendingBookings") instanceof Number ? ((Number) bookings.get("pendingBookings")).intValue() : 0;
-        double totalDeposit = bookings != null && bookings.get("totalDeposit") instanceof Number ? ((Number) bookings.get("totalDeposit")).doubleValue() : 0;
-        double totalPaid = payments != null && payments.get("totalAmount") instanceof Number ? ((Number) payments.get("totalAmount")).doubleValue() : 0;
+    }
 
+    private void bindStats(DashboardStats stats) {
         NumberFormat formatter = NumberFormat.getNumberInstance(Locale.getDefault());
 
-        tvTotalBookings.setText(String.valueOf(totalBookings));
-        tvPendingPayments.setText(String.valueOf(pending));
-        tvTotalDeposit.setText(formatter.format(totalDeposit) + " VNĐ");
-        tvTotalPaid.setText(formatter.format(totalPaid) + " VNĐ");
+        tvTotalBookings.setText(String.valueOf(stats.getTotalBookings()));
+        tvPendingPayments.setText(String.valueOf(stats.getPendingBookings()));
+        tvTotalDeposit.setText(formatter.format(stats.getTotalDeposit()) + " VNĐ");
+        tvTotalPaid.setText(formatter.format(stats.getTotalPaid()) + " VNĐ");
     }
 
     private void setDefaultStats() {
@@ -0,0 +1,101 @@
+//class: quản lý các executor dùng chung của ứng dụng
+// Mục đích file: File này dùng để cung cấp thread pool nền có giới hạn, executor tính toán, executor tuần tự cho database và executor cho main thread
+// function:
+// - background(): Lấy executor nền (số thread và hàng đợi có giới hạn, có thể từ chối khi đầy)
+// - diskIO(): Lấy executor một thread cho việc đọc/ghi database (hàng đợi không giới hạn, không bao giờ từ chối)
+// - computation(): Lấy executor cho việc tính toán thuần CPU như dựng row model, chuyển JSON thành model (số thread giới hạn, không bao giờ từ chối)
+// - mainThread(): Lấy executor chạy trên main thread
+// - postToMain(): Đẩy một tác vụ về main thread
+package com.example.appquanlytimtro.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class AppExecutors {
+
+    // Giới hạn số thread để không tranh CPU với main thread trên máy yếu
+    private static final int THREAD_COUNT =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static final ThreadPoolExecutor BACKGROUND;
+    // Ghi database phải chạy hết và đúng thứ tự nên dùng một thread, không chạy trên thread gọi khi bận
+    private static final ExecutorService DISK_IO =
+            Executors.newSingleThreadExecutor(new BackgroundThreadFactory("app-db-"));
+    // Việc tính toán không chờ I/O nên số thread theo số nhân CPU; tác vụ ngắn và không được bỏ nên hàng đợi không giới hạn
+    private static final ThreadPoolExecutor COMPUTATION;
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final Executor MAIN_THREAD = command -> {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            command.run();
+        } else {
+            MAIN_HANDLER.post(command);
+        }
+    };
+
+    static {
+        BACKGROUND = new ThreadPoolExecutor(
+                THREAD_COUNT, THREAD_COUNT,
+                30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+                new BackgroundThreadFactory("app-bg-"));
+        BACKGROUND.allowCoreThreadTimeOut(true);
+        COMPUTATION = new ThreadPoolExecutor(
+                THREAD_COUNT, THREAD_COUNT,
+                30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new BackgroundThreadFactory("app-cpu-"));
+        COMPUTATION.allowCoreThreadTimeOut(true);
+    }
+
+    private AppExecutors() {}
+
+    public static Executor background() {
+        return BACKGROUND;
+    }
+
+    public static Executor diskIO() {
+        return DISK_IO;
+    }
+
+    public static Executor computation() {
+        return COMPUTATION;
+    }
+
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+
+    public static void postToMain(Runnable runnable) {
+        MAIN_THREAD.execute(runnable);
+    }
+
+    private static class BackgroundThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        BackgroundThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                r.run();
+            }, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+//class: quản lý phiên đăng nhập trong bộ nhớ
+// Mục đích file: File này dùng để giữ token và User hiện tại trong bộ nhớ (đọc từ SharedPreferences một lần), ghi xuống đĩa bất đồng bộ và thông báo khi phiên thay đổi
+// function:
+// - getInstance(): Lấy instance duy nhất của SessionManager
+// - getToken(): Lấy token hiện tại
+// - getCurrentUser(): Lấy User hiện tại (không sửa trực tiếp, dùng updateUser())
+// - getUserJson(): Lấy JSON của User hiện tại
+// - isLoggedIn(): Kiểm tra trạng thái đăng nhập
+// - startSession(): Lưu token và User sau khi đăng nhập/đăng ký
+// - setToken(): Cập nhật token
+// - updateUser(): Cập nhật User hiện tại
+// - updateUserJson(): Cập nhật User từ chuỗi JSON
+// - clearToken(): Xóa token
+// - clearUser(): Xóa User hiện tại
+// - clear(): Xóa phiên đăng nhập
+// - addListener(): Đăng ký lắng nghe thay đổi phiên
+// - removeListener(): Hủy đăng ký lắng nghe
+package com.example.appquanlytimtro.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.network.json.GsonProvider;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class SessionManager {
+
+    public interface OnSessionChangeListener {
+        // Gọi trên main thread, user = null khi đã đăng xuất
+        void onSessionChanged(User user);
+    }
+
+    private static volatile SessionManager instance;
+
+    private final SharedPreferences prefs;
+    // Một thread duy nhất để các lần ghi xuống đĩa giữ đúng thứ tự
+    private final ExecutorService diskWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "session-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CopyOnWriteArrayList<OnSessionChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile String token;
+    private volatile User currentUser;
+    private volatile String userJson;
+
+    private SessionManager(Context context) {
+        prefs = context.getApplicationContext()
+                .getSharedPreferences(Constants.PREFS_NAME, Context.MODE_PRIVATE);
+        token = prefs.getString(Constants.TOKEN_KEY, null);
+        userJson = prefs.getString(Constants.USER_DATA_KEY, null);
+        currentUser = parseUser(userJson);
+    }
+
+    public static SessionManager getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SessionManager.class) {
+                if (instance == null) {
+                    instance = new SessionManager(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public User getCurrentUser() {
+        return currentUser;
+    }
+
+    public String getUserJson() {
+        return userJson;
+    }
+
+    public boolean isLoggedIn() {
+        String current = token;
+        return current != null && !current.isEmpty();
+    }
+
+    public synchronized void startSession(String newToken, User user) {
+        token = newToken;
+        setUserInternal(user);
+        persist();
+        notifyListeners();
+    }
+
+    public synchronized void setToken(String newToken) {
+        token = newToken;
+        persist();
+    }
+
+    public synchronized void updateUser(User user) {
+        setUserInternal(user);
+        persist();
+        notifyListeners();
+    }
+
+    public synchronized void updateUserJson(String json) {
+        currentUser = parseUser(json);
+        userJson = currentUser != null ? json : null;
+        persist();
+        notifyListeners();
+    }
+
+    public synchronized void clearToken() {
+        token = null;
+        persist();
+    }
+
+    public synchronized void clearUser() {
+        setUserInternal(null);
+        persist();
+        notifyListeners();
+    }
+
+    public synchronized void clear() {
+        token = null;
+        setUserInternal(null);
+        persist();
+        notifyListeners();
+    }
+
+    public void addListener(OnSessionChangeListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(OnSessionChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void setUserInternal(User user) {
+        currentUser = user;
+        userJson = user != null ? GsonProvider.get().toJson(user) : null;
+    }
+
+    private void persist() {
+        final String tokenSnapshot = token;
+        final String userSnapshot = userJson;
+        diskWriter.execute(() -> {
+            SharedPreferences.Editor editor = prefs.edit();
+            if (tokenSnapshot != null) {
+                editor.putString(Constants.TOKEN_KEY, tokenSnapshot);
+            } else {
+                editor.remove(Constants.TOKEN_KEY);
+            }
+            if (userSnapshot != null) {
+                editor.putString(Constants.USER_DATA_KEY, userSnapshot);
+            } else {
+                editor.remove(Constants.USER_DATA_KEY);
+            }
+            editor.commit();
+        });
+    }
+
+    private void notifyListeners() {
+        final User user = currentUser;
+        if (listeners.isEmpty()) return;
+        AppExecutors.postToMain(() -> {
+            for (OnSessionChangeListener listener : listeners) {
+                listener.onSessionChanged(user);
+            }
+        });
+    }
+
+    private static User parseUser(String json) {
+        if (json == null || json.isEmpty()) return null;
+        try {
+            return GsonProvider.get().fromJson(json, User.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+//class: đo thời gian khởi động tới lúc hiển thị nội dung đầu tiên
+// Mục đích file: File này dùng để báo "fully drawn" cho hệ thống và ghi log thời gian từ lúc tiến trình khởi động tới khi dashboard đầu tiên có dữ liệu
+// function:
+// - reportFirstContent(): Ghi nhận lần đầu một màn hình hiển thị nội dung (chỉ lần đầu trong tiến trình)
+package com.example.appquanlytimtro.utils;
+
+import android.app.Activity;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class StartupTrace {
+
+    private static final String TAG = "StartupTrace";
+    private static final AtomicBoolean reported = new AtomicBoolean(false);
+
+    private StartupTrace() {}
+
+    public static void reportFirstContent(Activity activity, String screen) {
+        if (activity == null || !reported.compareAndSet(false, true)) {
+            return;
+        }
+        // Hiện trong logcat ("Fully drawn ...") và trong trace khởi động của hệ thống
+        activity.reportFullyDrawn();
+        long elapsed = SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+        Log.i(TAG, screen + ": nội dung đầu tiên sau " + elapsed + "ms kể từ khi khởi động");
+    }
+}
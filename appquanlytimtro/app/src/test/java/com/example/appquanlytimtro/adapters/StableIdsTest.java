@@ -0,0 +1,54 @@
+package com.example.appquanlytimtro.adapters;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra StableIds.of(): cùng _id luôn ra cùng số, các ObjectId khác nhau (cùng giây tạo) ra số khác nhau.
+ */
+public class StableIdsTest {
+
+    @Test
+    public void sameIdGivesSameStableId() {
+        assertEquals(StableIds.of("65d1a2b3c4d5e6f700000001"), StableIds.of("65d1a2b3c4d5e6f700000001"));
+    }
+
+    @Test
+    public void objectIdsCreatedTogetherAreDistinct() {
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            // Cùng timestamp (8 ký tự đầu), chỉ khác bộ đếm như khi server tạo nhiều document liên tiếp
+            String id = String.format(Locale.US, "65d1a2b3c4d5e6f7%08x", i);
+            long stableId = StableIds.of(id);
+            assertNotEquals(RecyclerView.NO_ID, stableId);
+            assertTrue(id, seen.add(stableId));
+        }
+    }
+
+    @Test
+    public void usesLast16HexDigitsOfObjectId() {
+        assertEquals(0xc4d5e6f700000010L, StableIds.of("65d1a2b3c4d5e6f700000010"));
+    }
+
+    @Test
+    public void missingIdHasNoStableId() {
+        assertEquals(RecyclerView.NO_ID, StableIds.of(null));
+    }
+
+    @Test
+    public void nonObjectIdFallsBackToHash() {
+        assertEquals("local-1".hashCode(), StableIds.of("local-1"));
+        // 24 ký tự nhưng không phải hex
+        String notHex = "zzzzzzzzzzzzzzzzzzzzzzzz";
+        assertEquals(notHex.hashCode(), StableIds.of(notHex));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.appquanlytimtro.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra EntityCache: bỏ bản lâu không dùng nhất (LRU) khi vượt giới hạn byte, bản ghim không tính vào giới hạn
+ * và không bị bỏ, TTL theo đồng hồ giả.
+ */
+public class EntityCacheTest {
+
+    private static final long MAX_BYTES = 100;
+    private static final long TTL_MS = 1000;
+
+    private long nowMs;
+    private EntityCache<String> cache;
+
+    @Before
+    public void setUp() {
+        nowMs = 10_000;
+        cache = new EntityCache<>("test", MAX_BYTES, TTL_MS, () -> nowMs);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedFirst() {
+        cache.put("a", "A", 40);
+        cache.put("b", "B", 40);
+        // Đọc "a" để "b" thành bản lâu không dùng nhất
+        assertEquals("A", cache.get("a"));
+
+        cache.put("c", "C", 40);
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(80, cache.stats().bytes);
+        assertEquals(1, cache.stats().evictions);
+    }
+
+    @Test
+    public void pinnedEntriesAreNeitherEvictedNorCounted() {
+        cache.pin("a");
+        cache.put("a", "A", 60);
+        cache.put("b", "B", 60);
+        cache.put("c", "C", 60);
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+        CacheStats stats = cache.stats();
+        assertEquals(120, stats.bytes);
+        assertEquals(60, stats.pinnedBytes);
+    }
+
+    @Test
+    public void pinBeforePutAndUnpinEvictsOverflow() {
+        cache.pin("a");
+        cache.pin("b");
+        cache.put("a", "A", 70);
+        cache.put("b", "B", 70);
+        cache.put("c", "C", 70);
+        assertEquals(3, cache.stats().entries);
+
+        // Bỏ ghim làm phần không ghim (140 byte) vượt giới hạn: phải bỏ bớt một bản không ghim
+        cache.unpin("a");
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.entries);
+        assertEquals(70, stats.pinnedBytes);
+        assertTrue(stats.bytes - stats.pinnedBytes <= MAX_BYTES);
+        assertEquals("B", cache.get("b"));
+    }
+
+    @Test
+    public void setPinnedReplacesPinnedKeys() {
+        cache.setPinned(Arrays.asList("a", "b"));
+        cache.put("a", "A", 60);
+        cache.put("b", "B", 60);
+        cache.put("c", "C", 60);
+
+        cache.setPinned(Arrays.asList("b"));
+
+        // "a" hết ghim và lâu không dùng hơn "c"
+        assertNull(cache.get("a"));
+        assertEquals("B", cache.get("b"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(60, cache.stats().pinnedBytes);
+    }
+
+    @Test
+    public void oversizedEntryIsOnlyKeptWhenPinned() {
+        cache.put("small", "S", 10);
+        cache.put("big", "B", MAX_BYTES + 1);
+        assertNull(cache.get("big"));
+        assertEquals("S", cache.get("small"));
+
+        cache.pin("big");
+        cache.put("big", "B", MAX_BYTES + 1);
+        assertEquals("B", cache.get("big"));
+        assertEquals("S", cache.get("small"));
+    }
+
+    @Test
+    public void expiredEntriesAreDroppedEvenWhenPinned() {
+        cache.pin("a");
+        cache.put("a", "A", 10);
+        cache.put("b", "B", 10);
+
+        nowMs += TTL_MS - 1;
+        assertEquals("A", cache.get("a"));
+
+        nowMs += 1;
+        assertNull(cache.get("a"));
+        cache.trimTo(1f);
+        CacheStats stats = cache.stats();
+        assertEquals(0, stats.entries);
+        assertEquals(0, stats.bytes);
+        assertEquals(0, stats.pinnedBytes);
+        assertEquals(2, stats.expirations);
+    }
+
+    @Test
+    public void trimToZeroKeepsOnlyPinned() {
+        cache.pin("a");
+        cache.put("a", "A", 30);
+        cache.put("b", "B", 30);
+        cache.put("c", "C", 30);
+
+        cache.trimTo(0f);
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNull(cache.get("c"));
+        assertEquals(30, cache.stats().bytes);
+    }
+
+    @Test
+    public void replacingEntryKeepsByteCountsConsistent() {
+        cache.pin("a");
+        cache.put("a", "A1", 30);
+        cache.put("a", "A2", 50);
+        cache.remove("a");
+        cache.put("b", "B", 20);
+
+        CacheStats stats = cache.stats();
+        assertEquals(20, stats.bytes);
+        assertEquals(0, stats.pinnedBytes);
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        cache.put("a", "A", 10);
+        cache.get("a");
+        cache.get("a");
+        cache.get("missing");
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hits);
+        assertEquals(1, stats.misses);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.appquanlytimtro.database.booking;
+
+import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.User;
+import com.example.appquanlytimtro.network.json.GsonProvider;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Kiểm tra BookingEntity: các cột dùng cho truy vấn (trạng thái, phòng, người thuê, chủ trọ, ngày nhận phòng,
+ * updatedAt làm watermark) lấy đúng từ Booking và payload đọc lại được đầy đủ.
+ */
+public class BookingEntityTest {
+
+    private static final long CHECK_IN_MS = 1_709_251_200_000L; // 2024-03-01T00:00:00Z
+
+    private final Gson gson = GsonProvider.storage();
+
+    @Test
+    public void extractsIndexedColumns() {
+        BookingEntity entity = BookingEntity.from(booking(), gson);
+
+        assertEquals("65d1a2b3c4d5e6f700000001", entity.id);
+        assertEquals("confirmed", entity.status);
+        assertEquals("room-1", entity.roomId);
+        assertEquals("tenant-1", entity.tenantId);
+        assertEquals("landlord-1", entity.landlordId);
+        assertEquals(Long.valueOf(CHECK_IN_MS), entity.checkInDate);
+        assertEquals("2024-02-18T10:22:11.000Z", entity.createdAt);
+        assertEquals("2024-02-20T08:15:30.000Z", entity.updatedAt);
+    }
+
+    @Test
+    public void missingRelationsLeaveColumnsNull() {
+        Booking booking = new Booking();
+        booking.setId("65d1a2b3c4d5e6f700000002");
+        booking.setStatus("pending");
+
+        BookingEntity entity = BookingEntity.from(booking, gson);
+
+        assertNull(entity.roomId);
+        assertNull(entity.tenantId);
+        assertNull(entity.landlordId);
+        assertNull(entity.checkInDate);
+        assertNull(entity.updatedAt);
+    }
+
+    @Test
+    public void payloadRoundTrips() {
+        Booking restored = BookingEntity.from(booking(), gson).toBooking(gson);
+
+        assertEquals("65d1a2b3c4d5e6f700000001", restored.getId());
+        assertEquals("confirmed", restored.getStatus());
+        assertEquals("Phòng trọ số 1", restored.getRoom().getTitle());
+        assertEquals("Nguyễn Văn A", restored.getTenant().getFullName());
+        assertEquals(new Date(CHECK_IN_MS), restored.getBookingDetails().getCheckInDate());
+        assertEquals(12, restored.getBookingDetails().getDuration());
+        assertEquals(42_000_000, restored.getPricing().getTotalAmount(), 0);
+        assertEquals("2024-02-20T08:15:30.000Z", restored.getUpdatedAt());
+    }
+
+    private static Booking booking() {
+        Room room = new Room();
+        room.setId("room-1");
+        room.setTitle("Phòng trọ số 1");
+
+        User tenant = new User("Nguyễn Văn A", "a@example.com", "0900000000", "tenant");
+        tenant.setId("tenant-1");
+        User landlord = new User("Trần Thị B", "b@example.com", "0900000001", "landlord");
+        landlord.setId("landlord-1");
+
+        Booking.BookingDetails details = new Booking.BookingDetails();
+        details.setCheckInDate(new Date(CHECK_IN_MS));
+        details.setDuration(12);
+
+        Booking.Pricing pricing = new Booking.Pricing();
+        pricing.setTotalAmount(42_000_000);
+
+        Booking booking = new Booking();
+        booking.setId("65d1a2b3c4d5e6f700000001");
+        booking.setStatus("confirmed");
+        booking.setRoom(room);
+        booking.setTenant(tenant);
+        booking.setLandlord(landlord);
+        booking.setBookingDetails(details);
+        booking.setPricing(pricing);
+        booking.setCreatedAt("2024-02-18T10:22:11.000Z");
+        booking.setUpdatedAt("2024-02-20T08:15:30.000Z");
+        return booking;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.appquanlytimtro.network.json;
+
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.models.BookingPage;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Đo thời gian decode JSON và MessagePack trên cùng response 100 đặt phòng của CompactFormatTest. Không phải
+ * test JUnit (thời gian phụ thuộc máy nên không assert được): chạy tay bằng main() để so sánh hai định dạng.
+ */
+public final class CompactFormatBenchmark {
+
+    private static final int BOOKINGS = 100;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+
+    private CompactFormatBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        JsonObject response = CompactFormatTest.bookingsResponse(BOOKINGS);
+        byte[] json = response.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] msgpack = CompactFormatTest.toMsgPack(response);
+
+        Gson gson = GsonProvider.get();
+        TypeAdapter<ApiResponse<BookingPage>> adapter =
+                gson.getAdapter(new TypeToken<ApiResponse<BookingPage>>() {});
+
+        // Chạy nóng trước để JIT biên dịch cả hai đường decode
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            CompactFormatTest.decodeJson(gson, adapter, json);
+            CompactFormatTest.decodeMsgPack(adapter, msgpack);
+        }
+
+        long jsonNanos = 0;
+        long msgPackNanos = 0;
+        int sink = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            // Xen kẽ hai định dạng để GC và tần số CPU ảnh hưởng đều nhau
+            long start = System.nanoTime();
+            sink += CompactFormatTest.decodeJson(gson, adapter, json).getData().getItems().size();
+            jsonNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sink += CompactFormatTest.decodeMsgPack(adapter, msgpack).getData().getItems().size();
+            msgPackNanos += System.nanoTime() - start;
+        }
+
+        System.out.println(String.format(Locale.US, "JSON:        %7d bytes, %8.1f us/decode",
+                json.length, jsonNanos / 1000.0 / MEASURED_ROUNDS));
+        System.out.println(String.format(Locale.US, "MessagePack: %7d bytes, %8.1f us/decode",
+                msgpack.length, msgPackNanos / 1000.0 / MEASURED_ROUNDS));
+        System.out.println(String.format(Locale.US, "(%d bookings decoded)", sink));
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.appquanlytimtro.network.json;
+
+import com.example.appquanlytimtro.models.ApiResponse;
+import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.BookingPage;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * So sánh JSON (Gson) và MessagePack (MsgPackReader) trên response 100 đặt phòng có room/tenant/landlord
+ * populate đầy đủ: hai định dạng decode ra cùng dữ liệu và MessagePack ít byte hơn.
+ */
+public class CompactFormatTest {
+
+    private static final int BOOKINGS = 100;
+
+    @Test
+    public void msgPackDecodesSameBookingsWithFewerBytes() throws IOException {
+        JsonObject response = bookingsResponse(BOOKINGS);
+        byte[] json = response.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] msgpack = toMsgPack(response);
+
+        Gson gson = GsonProvider.get();
+        TypeAdapter<ApiResponse<BookingPage>> adapter =
+                gson.getAdapter(new TypeToken<ApiResponse<BookingPage>>() {});
+
+        ApiResponse<BookingPage> fromJson = decodeJson(gson, adapter, json);
+        ApiResponse<BookingPage> fromMsgPack = decodeMsgPack(adapter, msgpack);
+        assertEquals(BOOKINGS, fromJson.getData().getItems().size());
+        assertSameBookings(fromJson.getData().getItems(), fromMsgPack.getData().getItems());
+
+        assertTrue(msgpack.length < json.length);
+    }
+
+    static ApiResponse<BookingPage> decodeJson(Gson gson, TypeAdapter<ApiResponse<BookingPage>> adapter,
+                                               byte[] bytes) throws IOException {
+        // Giống GsonConverterFactory: đọc từ charStream của body
+        return adapter.read(gson.newJsonReader(
+                new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)));
+    }
+
+    static ApiResponse<BookingPage> decodeMsgPack(TypeAdapter<ApiResponse<BookingPage>> adapter,
+                                                  byte[] bytes) throws IOException {
+        return adapter.read(new MsgPackReader(new Buffer().write(bytes)));
+    }
+
+    private static void assertSameBookings(List<Booking> expected, List<Booking> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Booking a = expected.get(i);
+            Booking b = actual.get(i);
+            assertEquals(a.getId(), b.getId());
+            assertEquals(a.getStatus(), b.getStatus());
+            assertEquals(a.getRoom().getTitle(), b.getRoom().getTitle());
+            assertEquals(a.getRoom().getPrice().getMonthly(), b.getRoom().getPrice().getMonthly(), 0);
+            assertEquals(a.getRoom().getArea(), b.getRoom().getArea(), 0);
+            assertEquals(a.getTenant().getFullName(), b.getTenant().getFullName());
+            assertEquals(a.getLandlord().getEmail(), b.getLandlord().getEmail());
+            assertEquals(a.getBookingDetails().getCheckInDate(), b.getBookingDetails().getCheckInDate());
+            assertEquals(a.getPricing().getTotalAmount(), b.getPricing().getTotalAmount(), 0);
+            assertEquals(a.getCreatedAt(), b.getCreatedAt());
+        }
+    }
+
+    // ---- Dữ liệu mẫu giống response GET /bookings ----
+
+    static JsonObject bookingsResponse(int count) {
+        JsonArray bookings = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            bookings.add(booking(i));
+        }
+        JsonObject pagination = new JsonObject();
+        pagination.addProperty("currentPage", 1);
+        pagination.addProperty("totalPages", 3);
+        pagination.addProperty("totalBookings", 250);
+        pagination.addProperty("hasNext", true);
+        pagination.addProperty("hasPrev", false);
+
+        JsonObject data = new JsonObject();
+        data.add("bookings", bookings);
+        data.add("pagination", pagination);
+
+        JsonObject response = new JsonObject();
+        response.addProperty("status", "success");
+        response.add("data", data);
+        return response;
+    }
+
+    private static JsonObject booking(int i) {
+        JsonObject details = new JsonObject();
+        details.addProperty("checkInDate", "2024-03-01T00:00:00.000Z");
+        details.addProperty("checkOutDate", "2025-03-01T00:00:00.000Z");
+        details.addProperty("duration", 12);
+        details.addProperty("numberOfOccupants", 2);
+
+        JsonObject pricing = new JsonObject();
+        pricing.addProperty("monthlyRent", 3500000 + i * 1000);
+        pricing.addProperty("deposit", 7000000);
+        pricing.addProperty("utilities", 450000.5);
+        pricing.addProperty("totalAmount", 49000000 + i);
+
+        JsonObject deposit = new JsonObject();
+        deposit.addProperty("status", "paid");
+        deposit.addProperty("amount", 7000000);
+        deposit.addProperty("paidAt", "2024-02-20T08:15:30.000Z");
+        deposit.addProperty("paymentMethod", "vnpay");
+        deposit.addProperty("transactionId", "VNP" + (14000000 + i));
+        JsonObject paymentStatus = new JsonObject();
+        paymentStatus.add("deposit", deposit);
+        paymentStatus.add("monthly", new JsonArray());
+
+        JsonObject notes = new JsonObject();
+        notes.addProperty("tenant", "Cần chỗ để xe máy, dọn vào buổi sáng");
+        notes.addProperty("landlord", "Đã bàn giao chìa khóa");
+
+        JsonObject booking = new JsonObject();
+        booking.addProperty("_id", objectId(0x10000 + i));
+        booking.add("room", room(i));
+        booking.add("tenant", user(i * 2, "tenant"));
+        booking.add("landlord", user(i * 2 + 1, "landlord"));
+        booking.add("bookingDetails", details);
+        booking.add("pricing", pricing);
+        booking.addProperty("status", i % 3 == 0 ? "pending" : "confirmed");
+        booking.add("paymentStatus", paymentStatus);
+        booking.add("documents", new JsonArray());
+        booking.add("notes", notes);
+        booking.addProperty("createdAt", "2024-02-18T10:22:11.000Z");
+        booking.addProperty("updatedAt", "2024-02-20T08:15:30.000Z");
+        booking.addProperty("__v", 0);
+        return booking;
+    }
+
+    private static JsonObject room(int i) {
+        JsonObject price = new JsonObject();
+        price.addProperty("monthly", 3500000 + i * 1000);
+        price.addProperty("deposit", 7000000);
+        JsonObject utilities = new JsonObject();
+        utilities.addProperty("electricity", 3500);
+        utilities.addProperty("water", 100000);
+        utilities.addProperty("internet", 150000);
+        utilities.addProperty("other", 0);
+        price.add("utilities", utilities);
+
+        JsonArray images = new JsonArray();
+        for (int k = 0; k < 4; k++) {
+            JsonObject image = new JsonObject();
+            image.addProperty("_id", objectId(0x30000 + i * 4 + k));
+            image.addProperty("url", "/uploads/rooms/room-" + i + "-" + k + "-1708250531000.jpg");
+            image.addProperty("caption", "Ảnh phòng " + k);
+            image.addProperty("isPrimary", k == 0);
+            images.add(image);
+        }
+
+        JsonArray amenities = new JsonArray();
+        for (String amenity : new String[]{"wifi", "air_conditioner", "water_heater", "parking", "security"}) {
+            amenities.add(amenity);
+        }
+
+        JsonObject availability = new JsonObject();
+        availability.addProperty("isAvailable", false);
+        availability.addProperty("availableFrom", "2024-03-01T00:00:00.000Z");
+
+        JsonObject rating = new JsonObject();
+        rating.addProperty("average", 4.5);
+        rating.addProperty("count", 12 + i);
+
+        JsonObject room = new JsonObject();
+        room.addProperty("_id", objectId(0x20000 + i));
+        room.addProperty("title", "Phòng trọ khép kín gần Đại học Bách Khoa số " + i);
+        room.addProperty("description", "Phòng rộng rãi, thoáng mát, có ban công, khu vực an ninh, "
+                + "gần chợ và trường học. Giờ giấc tự do, không chung chủ.");
+        room.add("address", address(i));
+        room.addProperty("roomType", "studio");
+        room.addProperty("area", 25.5);
+        room.add("price", price);
+        room.add("amenities", amenities);
+        room.add("images", images);
+        room.addProperty("landlord", objectId(i * 2 + 1));
+        room.add("availability", availability);
+        room.addProperty("status", "rented");
+        room.add("rating", rating);
+        room.addProperty("views", 320 + i);
+        room.add("likes", new JsonArray());
+        room.addProperty("createdAt", "2023-11-05T02:10:00.000Z");
+        room.addProperty("updatedAt", "2024-02-20T08:15:30.000Z");
+        return room;
+    }
+
+    private static JsonObject user(int i, String role) {
+        JsonObject user = new JsonObject();
+        user.addProperty("_id", objectId(i));
+        user.addProperty("fullName", "Nguyễn Văn " + (char) ('A' + i % 26) + " " + i);
+        user.addProperty("email", "user" + i + "@example.com");
+        user.addProperty("phone", "09" + (10000000 + i));
+        user.addProperty("role", role);
+        user.addProperty("avatar", "/uploads/users/avatar-" + i + ".jpg");
+        user.add("address", address(i));
+        user.addProperty("isActive", true);
+        user.addProperty("isVerified", true);
+        user.addProperty("createdAt", "2023-06-01T09:00:00.000Z");
+        return user;
+    }
+
+    private static JsonObject address(int i) {
+        JsonObject coordinates = new JsonObject();
+        coordinates.addProperty("lat", 21.0045 + i / 10000.0);
+        coordinates.addProperty("lng", 105.8431 + i / 10000.0);
+        JsonObject address = new JsonObject();
+        address.addProperty("street", (10 + i) + " Tạ Quang Bửu");
+        address.addProperty("ward", "Bách Khoa");
+        address.addProperty("district", "Hai Bà Trưng");
+        address.addProperty("city", "Hà Nội");
+        address.add("coordinates", coordinates);
+        return address;
+    }
+
+    private static String objectId(int i) {
+        return String.format(Locale.US, "65d1a2b3c4d5e6f7%08x", i);
+    }
+
+    // ---- Mã hóa MessagePack giống backend/utils/msgpack.js ----
+
+    static byte[] toMsgPack(JsonElement element) {
+        Buffer out = new Buffer();
+        writeMsgPack(out, element);
+        return out.readByteArray();
+    }
+
+    private static void writeMsgPack(Buffer out, JsonElement element) {
+        if (element.isJsonNull()) {
+            out.writeByte(0xc0);
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            writeHeader(out, array.size(), 0x90, 0xdc, 0xdd);
+            for (JsonElement item : array) {
+                writeMsgPack(out, item);
+            }
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            writeHeader(out, object.size(), 0x80, 0xde, 0xdf);
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                writeString(out, entry.getKey());
+                writeMsgPack(out, entry.getValue());
+            }
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.writeByte(primitive.getAsBoolean() ? 0xc3 : 0xc2);
+            } else if (primitive.isString()) {
+                writeString(out, primitive.getAsString());
+            } else {
+                writeNumber(out, primitive.getAsDouble());
+            }
+        }
+    }
+
+    private static void writeHeader(Buffer out, int size, int fixBase, int code16, int code32) {
+        if (size <= 15) {
+            out.writeByte(fixBase | size);
+        } else if (size <= 0xffff) {
+            out.writeByte(code16).writeShort(size);
+        } else {
+            out.writeByte(code32).writeInt(size);
+        }
+    }
+
+    private static void writeString(Buffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= 31) {
+            out.writeByte(0xa0 | bytes.length);
+        } else if (bytes.length <= 0xff) {
+            out.writeByte(0xd9).writeByte(bytes.length);
+        } else if (bytes.length <= 0xffff) {
+            out.writeByte(0xda).writeShort(bytes.length);
+        } else {
+            out.writeByte(0xdb).writeInt(bytes.length);
+        }
+        out.write(bytes);
+    }
+
+    private static void writeNumber(Buffer out, double value) {
+        long integral = (long) value;
+        if (integral != value) {
+            out.writeByte(0xcb).writeLong(Double.doubleToLongBits(value));
+        } else if (integral >= 0 && integral < 0x80) {
+            out.writeByte((int) integral);
+        } else if (integral >= 0 && integral <= 0xffffffffL) {
+            out.writeByte(0xce).writeInt((int) integral);
+        } else {
+            out.writeByte(0xd3).writeLong(integral);
+        }
+    }
+}
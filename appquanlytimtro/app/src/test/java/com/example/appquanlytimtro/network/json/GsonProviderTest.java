@@ -0,0 +1,47 @@
+package com.example.appquanlytimtro.network.json;
+
+import com.example.appquanlytimtro.models.Booking;
+import com.google.gson.JsonObject;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Kiểm tra Date ghi bằng GsonProvider.get() (ISO 8601 UTC) và storage() (timestamp) được reader viết tay đọc lại đúng.
+ */
+public class GsonProviderTest {
+
+    // 2024-03-01T08:15:30.250Z
+    private static final Date CHECK_IN = new Date(1709280930250L);
+
+    @Test
+    public void getWritesIsoDatesItCanReadBack() {
+        String json = GsonProvider.get().toJson(booking());
+
+        JsonObject details = GsonProvider.get().fromJson(json, JsonObject.class).getAsJsonObject("bookingDetails");
+        assertEquals("2024-03-01T08:15:30.250Z", details.get("checkInDate").getAsString());
+        Booking read = GsonProvider.get().fromJson(json, Booking.class);
+        assertEquals(CHECK_IN, read.getBookingDetails().getCheckInDate());
+    }
+
+    @Test
+    public void storageWritesEpochDatesItCanReadBack() {
+        String json = GsonProvider.storage().toJson(booking());
+
+        JsonObject details = GsonProvider.get().fromJson(json, JsonObject.class).getAsJsonObject("bookingDetails");
+        assertEquals(CHECK_IN.getTime(), details.get("checkInDate").getAsLong());
+        Booking read = GsonProvider.storage().fromJson(json, Booking.class);
+        assertEquals(CHECK_IN, read.getBookingDetails().getCheckInDate());
+    }
+
+    private static Booking booking() {
+        Booking.BookingDetails details = new Booking.BookingDetails();
+        details.setCheckInDate(CHECK_IN);
+        Booking booking = new Booking();
+        booking.setBookingDetails(details);
+        return booking;
+    }
+}
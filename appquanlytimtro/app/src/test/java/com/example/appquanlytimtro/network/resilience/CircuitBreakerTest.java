@@ -0,0 +1,109 @@
+package com.example.appquanlytimtro.network.resilience;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra các chuyển trạng thái CLOSED -> OPEN -> HALF_OPEN -> CLOSED/OPEN với đồng hồ giả.
+ */
+public class CircuitBreakerTest {
+
+    private static final int THRESHOLD = 3;
+    private static final long OPEN_MS = 30_000;
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        FakeClockBreaker breaker = new FakeClockBreaker();
+        for (int i = 0; i < THRESHOLD - 1; i++) {
+            breaker.recordFailure();
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            assertTrue(breaker.allowRequest());
+        }
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void successResetsFailureCount() {
+        FakeClockBreaker breaker = new FakeClockBreaker();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenLetsOneProbeThroughThenCloses() {
+        FakeClockBreaker breaker = openBreaker();
+
+        breaker.nowMs += OPEN_MS - 1;
+        assertFalse(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        breaker.nowMs += 1;
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // Request thăm dò chưa xong: các request khác vẫn fail-fast
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void failedProbeReopens() {
+        FakeClockBreaker breaker = openBreaker();
+        breaker.nowMs += OPEN_MS;
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        breaker.nowMs += OPEN_MS;
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void abandonedProbeIsRetriedAfterOpenDuration() {
+        FakeClockBreaker breaker = openBreaker();
+        breaker.nowMs += OPEN_MS;
+        assertTrue(breaker.allowRequest());
+
+        // Request thăm dò bị hủy, không báo kết quả
+        breaker.nowMs += OPEN_MS - 1;
+        assertFalse(breaker.allowRequest());
+        breaker.nowMs += 1;
+        assertTrue(breaker.allowRequest());
+    }
+
+    private static FakeClockBreaker openBreaker() {
+        FakeClockBreaker breaker = new FakeClockBreaker();
+        for (int i = 0; i < THRESHOLD; i++) {
+            breaker.recordFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static final class FakeClockBreaker extends CircuitBreaker {
+        long nowMs = 1_000;
+
+        FakeClockBreaker() {
+            super(THRESHOLD, OPEN_MS);
+        }
+
+        @Override
+        long now() {
+            return nowMs;
+        }
+    }
+}
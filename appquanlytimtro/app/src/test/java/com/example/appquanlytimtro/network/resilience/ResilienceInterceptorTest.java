@@ -0,0 +1,163 @@
+package com.example.appquanlytimtro.network.resilience;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Kiểm tra ResilienceInterceptor với MockWebServer: thử lại khi 5xx/429, hedging sau độ trễ cấu hình và
+ * circuit breaker fail-fast khi backend lỗi liên tục.
+ */
+public class ResilienceInterceptorTest {
+
+    private static final long HEDGE_DELAY_MS = 200;
+    private static final long SLOW_RESPONSE_MS = 3000;
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void retriesServerErrorsForGet() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        OkHttpClient client = client(new ResiliencePolicy(3, 0, 0, 0), 10);
+        try (Response response = client.newCall(get("/api/rooms")).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("ok", response.body().string());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void retriesTooManyRequestsHonouringRetryAfter() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        OkHttpClient client = client(new ResiliencePolicy(2, 5000, 5000, 0), 10);
+        long start = System.nanoTime();
+        try (Response response = client.newCall(get("/api/rooms")).execute()) {
+            assertEquals(200, response.code());
+        }
+        // Retry-After: 0 thay cho backoff 2.5-5s
+        assertTrue(elapsedMs(start) < 2000);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void returnsLastErrorWhenAttemptsRunOut() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setResponseCode(502));
+
+        OkHttpClient client = client(new ResiliencePolicy(2, 0, 0, 0), 10);
+        try (Response response = client.newCall(get("/api/rooms")).execute()) {
+            assertEquals(502, response.code());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void doesNotRetryNonIdempotentRequests() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        OkHttpClient client = client(new ResiliencePolicy(3, 0, 0, 0), 10);
+        Request post = new Request.Builder()
+                .url(server.url("/api/bookings"))
+                .post(RequestBody.create("{}", MediaType.get("application/json")))
+                .build();
+        try (Response response = client.newCall(post).execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void sendsHedgeAfterDelayAndReturnsFasterResponse() throws IOException {
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(SLOW_RESPONSE_MS, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("fast"));
+
+        OkHttpClient client = client(new ResiliencePolicy(1, 0, 0, HEDGE_DELAY_MS), 10);
+        long start = System.nanoTime();
+        try (Response response = client.newCall(get("/api/rooms/1")).execute()) {
+            assertEquals("fast", response.body().string());
+        }
+        long elapsed = elapsedMs(start);
+        assertTrue("hedge gửi quá sớm: " + elapsed + "ms", elapsed >= HEDGE_DELAY_MS);
+        assertTrue("không dùng kết quả của hedge: " + elapsed + "ms", elapsed < SLOW_RESPONSE_MS);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void doesNotHedgeFastResponses() throws IOException, InterruptedException {
+        server.enqueue(new MockResponse().setBody("fast"));
+
+        OkHttpClient client = client(new ResiliencePolicy(1, 0, 0, HEDGE_DELAY_MS), 10);
+        try (Response response = client.newCall(get("/api/rooms/1")).execute()) {
+            assertEquals("fast", response.body().string());
+        }
+        Thread.sleep(HEDGE_DELAY_MS * 2);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void openCircuitFailsFastWithoutCache() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+
+        OkHttpClient client = client(new ResiliencePolicy(1, 0, 0, 0), 2);
+        for (int i = 0; i < 2; i++) {
+            try (Response response = client.newCall(get("/api/rooms")).execute()) {
+                assertEquals(500, response.code());
+            }
+        }
+        try {
+            client.newCall(get("/api/rooms")).execute().close();
+            fail("circuit breaker chưa mở");
+        } catch (CircuitOpenException expected) {
+            // Mạch mở và không có cache: không gửi thêm request nào
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private OkHttpClient client(ResiliencePolicy policy, int failureThreshold) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(new ResilienceInterceptor(request -> policy, failureThreshold, 60_000))
+                .build();
+    }
+
+    private Request get(String path) {
+        return new Request.Builder().url(server.url(path)).build();
+    }
+
+    private static long elapsedMs(long startNs) {
+        return (System.nanoTime() - startNs) / 1_000_000L;
+    }
+}
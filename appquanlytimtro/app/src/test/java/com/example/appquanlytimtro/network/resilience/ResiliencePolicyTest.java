@@ -0,0 +1,49 @@
+package com.example.appquanlytimtro.network.resilience;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra thời gian chờ giữa các lần thử lại: exponential backoff có jitter, giới hạn bởi maxDelay và Retry-After.
+ */
+public class ResiliencePolicyTest {
+
+    @Test
+    public void backoffDoublesEachAttemptWithinJitterRange() {
+        ResiliencePolicy policy = new ResiliencePolicy(5, 100, 10_000, 0);
+        for (int i = 0; i < 200; i++) {
+            assertBetween(50, 100, policy.backoffMs(1, -1));
+            assertBetween(100, 200, policy.backoffMs(2, -1));
+            assertBetween(200, 400, policy.backoffMs(3, -1));
+        }
+    }
+
+    @Test
+    public void backoffIsCappedByMaxDelay() {
+        ResiliencePolicy policy = new ResiliencePolicy(5, 300, 1000, 0);
+        for (int i = 0; i < 200; i++) {
+            assertBetween(500, 1000, policy.backoffMs(10, -1));
+            assertBetween(500, 1000, policy.backoffMs(100, -1));
+        }
+    }
+
+    @Test
+    public void retryAfterOverridesBackoffButNotMaxDelay() {
+        ResiliencePolicy policy = new ResiliencePolicy(3, 300, 3000, 0);
+        assertEquals(1200, policy.backoffMs(1, 1200));
+        assertEquals(0, policy.backoffMs(2, 0));
+        assertEquals(3000, policy.backoffMs(1, 60_000));
+    }
+
+    @Test
+    public void noRetryPolicyNeverWaits() {
+        assertEquals(1, ResiliencePolicy.NO_RETRY.getMaxAttempts());
+        assertEquals(0, ResiliencePolicy.NO_RETRY.backoffMs(1, -1));
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual + " không nằm trong [" + min + ", " + max + "]", actual >= min && actual <= max);
+    }
+}
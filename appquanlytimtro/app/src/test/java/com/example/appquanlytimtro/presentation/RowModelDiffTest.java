@@ -0,0 +1,140 @@
+package com.example.appquanlytimtro.presentation;
+
+import com.example.appquanlytimtro.models.Booking;
+import com.example.appquanlytimtro.models.Payment;
+import com.example.appquanlytimtro.models.PaymentItem;
+import com.example.appquanlytimtro.models.Room;
+import com.example.appquanlytimtro.models.RoomSummary;
+import com.example.appquanlytimtro.models.User;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra DIFF của các row model: cùng ID là cùng item, nội dung chỉ bằng nhau khi các trường hiển thị không đổi,
+ * kể cả khi object gốc được tạo lại sau mỗi lần tải.
+ */
+public class RowModelDiffTest {
+
+    private static final String ID_1 = "65d1a2b3c4d5e6f700000001";
+    private static final String ID_2 = "65d1a2b3c4d5e6f700000002";
+
+    @Test
+    public void roomCardsWithSameFieldsHaveSameContents() {
+        RoomCardModel a = room(ID_1, "Phòng A", "active", 100);
+        RoomCardModel b = room(ID_1, "Phòng A", "active", 100);
+
+        assertTrue(RoomCardModel.DIFF.areItemsTheSame(a, b));
+        assertTrue(RoomCardModel.DIFF.areContentsTheSame(a, b));
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    public void roomCardChangesAreDetected() {
+        RoomCardModel base = room(ID_1, "Phòng A", "active", 100);
+
+        assertFalse(RoomCardModel.DIFF.areItemsTheSame(base, room(ID_2, "Phòng A", "active", 100)));
+        assertTrue(RoomCardModel.DIFF.areItemsTheSame(base, room(ID_1, "Phòng A", "rented", 100)));
+        assertFalse(RoomCardModel.DIFF.areContentsTheSame(base, room(ID_1, "Phòng A", "rented", 100)));
+        assertFalse(RoomCardModel.DIFF.areContentsTheSame(base, room(ID_1, "Phòng B", "active", 100)));
+        assertFalse(RoomCardModel.DIFF.areContentsTheSame(base, room(ID_1, "Phòng A", "active", 101)));
+    }
+
+    @Test
+    public void bookingRowsCompareByDisplayedFields() {
+        BookingRowModel pending = booking(ID_1, "pending", 3_000_000);
+        BookingRowModel same = booking(ID_1, "pending", 3_000_000);
+        BookingRowModel confirmed = booking(ID_1, "confirmed", 3_000_000);
+
+        assertTrue(BookingRowModel.DIFF.areItemsTheSame(pending, confirmed));
+        assertTrue(BookingRowModel.DIFF.areContentsTheSame(pending, same));
+        assertFalse(BookingRowModel.DIFF.areContentsTheSame(pending, confirmed));
+        assertFalse(BookingRowModel.DIFF.areContentsTheSame(pending, booking(ID_1, "pending", 3_500_000)));
+        assertFalse(BookingRowModel.DIFF.areItemsTheSame(pending, booking(ID_2, "pending", 3_000_000)));
+
+        // Nút hành động đi theo trạng thái
+        assertTrue(pending.showAccept());
+        assertFalse(pending.showMarkPaid());
+        assertTrue(confirmed.showMarkPaid());
+        assertTrue(confirmed.showCancel());
+    }
+
+    @Test
+    public void paymentAndUnpaidBookingWithSameIdAreDifferentItems() {
+        List<PaymentRowModel> rows = PaymentRowModel.fromItems(Arrays.asList(
+                new PaymentItem(payment(ID_1, "pending", 500_000)),
+                new PaymentItem(unpaidBooking(ID_1, 500_000))));
+
+        assertFalse(PaymentRowModel.DIFF.areItemsTheSame(rows.get(0), rows.get(1)));
+    }
+
+    @Test
+    public void paymentRowsCompareByDisplayedFields() {
+        PaymentRowModel pending = paymentRow(payment(ID_1, "pending", 500_000));
+        PaymentRowModel same = paymentRow(payment(ID_1, "pending", 500_000));
+        PaymentRowModel completed = paymentRow(payment(ID_1, "completed", 500_000));
+
+        assertTrue(PaymentRowModel.DIFF.areItemsTheSame(pending, completed));
+        assertTrue(PaymentRowModel.DIFF.areContentsTheSame(pending, same));
+        assertFalse(PaymentRowModel.DIFF.areContentsTheSame(pending, completed));
+        assertFalse(PaymentRowModel.DIFF.areContentsTheSame(pending, paymentRow(payment(ID_1, "pending", 600_000))));
+    }
+
+    private static RoomCardModel room(String id, String title, String status, double monthly) {
+        RoomSummary room = new RoomSummary();
+        room.setId(id);
+        room.setTitle(title);
+        room.setStatus(status);
+        room.setRoomType("studio");
+        room.setArea(25);
+        room.setViews(10);
+        Room.Price price = new Room.Price();
+        price.setMonthly(monthly);
+        room.setPrice(price);
+        return RoomCardModel.fromRooms(Collections.singletonList(room)).get(0);
+    }
+
+    private static BookingRowModel booking(String id, String status, double totalAmount) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStatus(status);
+        booking.setTenant(new User("Nguyễn Văn A", "a@example.com", "0900000000", "tenant"));
+        Booking.Pricing pricing = new Booking.Pricing();
+        pricing.setTotalAmount(totalAmount);
+        booking.setPricing(pricing);
+        return BookingRowModel.fromBookings(Collections.singletonList(booking)).get(0);
+    }
+
+    private static Payment payment(String id, String status, double amount) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setStatus(status);
+        payment.setAmount(amount);
+        payment.setType("deposit");
+        payment.setPaymentMethod("vnpay");
+        payment.setInitiatedAt("2024-03-01T10:00:00.000Z");
+        return payment;
+    }
+
+    private static Booking unpaidBooking(String id, double deposit) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStatus("confirmed");
+        booking.setCreatedAt("2024-03-01T10:00:00.000Z");
+        Booking.Pricing pricing = new Booking.Pricing();
+        pricing.setDeposit(deposit);
+        booking.setPricing(pricing);
+        return booking;
+    }
+
+    private static PaymentRowModel paymentRow(Payment payment) {
+        return PaymentRowModel.fromItems(Collections.singletonList(new PaymentItem(payment))).get(0);
+    }
+}
@@ -0,0 +1,37 @@
+// Chính sách Cache-Control cho các route công khai (danh mục phòng).
+// ETag cho body JSON do Express tự sinh (weak ETag), req.fresh sẽ trả 304 khi client gửi If-None-Match khớp.
+
+const CACHE_POLICIES = {
+  // Luôn revalidate trước khi dùng lại (danh sách, chi tiết phòng)
+  revalidate: 'public, max-age=0, must-revalidate',
+  // Dữ liệu ít thay đổi, cho phép dùng lại trong thời gian ngắn
+  short: 'public, max-age=300',
+  stats: 'public, max-age=600'
+};
+
+const cacheControl = (policy) => (req, res, next) => {
+  if (req.method === 'GET' || req.method === 'HEAD') {
+    res.set('Cache-Control', CACHE_POLICIES[policy] || policy);
+  }
+  next();
+};
+
+// Đặt validator cho một tài nguyên dựa trên thời điểm cập nhật, trả về true nếu client đã có bản mới nhất
+const setValidators = (req, res, id, updatedAtList) => {
+  const times = updatedAtList
+    .filter(Boolean)
+    .map(date => new Date(date).getTime());
+  const lastModified = times.length ? Math.max(...times) : 0;
+
+  res.set('ETag', `W/"${id}-${times.join('-')}"`);
+  if (lastModified) {
+    res.set('Last-Modified', new Date(lastModified).toUTCString());
+  }
+  return req.fresh;
+};
+
+module.exports = {
+  CACHE_POLICIES,
+  cacheControl,
+  setValidators
+};
@@ -0,0 +1,33 @@
+// Chọn định dạng response theo header Accept: MessagePack cho client yêu cầu, JSON cho các trường hợp còn lại.
+// Chỉ response thành công được mã hóa MessagePack; lỗi vẫn trả JSON để client đọc errorBody như cũ.
+
+const { MEDIA_TYPE, encode } = require('../utils/msgpack');
+
+const negotiateFormat = (req, res, next) => {
+  // Cache HTTP phía client phải phân biệt bản JSON và bản MessagePack
+  res.vary('Accept');
+  if (req.accepts(['application/json', MEDIA_TYPE]) !== MEDIA_TYPE) {
+    return next();
+  }
+
+  const sendJson = res.json.bind(res);
+  res.json = (body) => {
+    if (res.statusCode >= 300) {
+      return sendJson(body);
+    }
+    res.type(MEDIA_TYPE);
+    return res.send(encode(body));
+  };
+  next();
+};
+
+// compression mặc định chỉ nén kiểu nội dung dạng text
+const isCompressible = (res) => {
+  const type = res.getHeader('Content-Type');
+  return typeof type === 'string' && type.startsWith(MEDIA_TYPE);
+};
+
+module.exports = {
+  negotiateFormat,
+  isCompressible
+};
@@ -307,6 +307,16 @@ const validateSearch = [
     .isFloat({ min: 0 })
     .withMessage('Giá tối đa không được âm'),
   
+  query('fields')
+    .optional()
+    .isLength({ max: 300 })
+    .withMessage('Danh sách trường không được vượt quá 300 ký tự'),
+  
+  query('search')
+    .optional()
+    .isLength({ max: 100 })
+    .withMessage('Từ khóa tìm kiếm không được vượt quá 100 ký tự'),
+  
   query('roomType')
     .optional()
     .isIn(['studio', '1bedroom', '2bedroom', '3bedroom', 'shared'])
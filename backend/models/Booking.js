@@ -1,4 +1,5 @@
 const mongoose = require('mongoose');
+const { trackDeletes } = require('../utils/deltaSync');
 
 const bookingSchema = new mongoose.Schema({
   room: {
@@ -169,6 +170,12 @@ bookingSchema.index({ status: 1 });
 bookingSchema.index({ 'bookingDetails.checkInDate': 1 });
 bookingSchema.index({ 'bookingDetails.checkOutDate': 1 });
 bookingSchema.index({ createdAt: -1 });
+// Đồng bộ delta (updatedSince) theo người dùng
+bookingSchema.index({ updatedAt: 1 });
+bookingSchema.index({ tenant: 1, updatedAt: 1 });
+bookingSchema.index({ landlord: 1, updatedAt: 1 });
+
+trackDeletes(bookingSchema, 'Booking', ['tenant', 'landlord']);
 
 bookingSchema.virtual('totalDays').get(function() {
   const diffTime = Math.abs(this.bookingDetails.checkOutDate - this.bookingDetails.checkInDate);
@@ -0,0 +1,28 @@
+const mongoose = require('mongoose');
+
+// Dấu vết bản ghi đã xóa, để client đồng bộ delta (updatedSince) biết cần bỏ ID nào khỏi danh sách local
+const deletedRecordSchema = new mongoose.Schema({
+  collectionName: {
+    type: String,
+    required: true
+  },
+  docId: {
+    type: mongoose.Schema.Types.ObjectId,
+    required: true
+  },
+  // Người dùng được thấy bản ghi (tenant/landlord, payer/recipient)
+  owners: [{
+    type: mongoose.Schema.Types.ObjectId,
+    ref: 'User'
+  }],
+  deletedAt: {
+    type: Date,
+    default: Date.now
+  }
+});
+
+// Tự xóa sau 30 ngày; client có watermark cũ hơn sẽ phải tải lại toàn bộ
+deletedRecordSchema.index({ deletedAt: 1 }, { expireAfterSeconds: 30 * 24 * 60 * 60 });
+deletedRecordSchema.index({ collectionName: 1, owners: 1, deletedAt: 1 });
+
+module.exports = mongoose.model('DeletedRecord', deletedRecordSchema);
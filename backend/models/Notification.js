@@ -139,6 +139,8 @@ notificationSchema.index({ expiresAt: 1 });
 
 notificationSchema.index({ recipient: 1, status: 1, createdAt: -1 });
 notificationSchema.index({ recipient: 1, type: 1, createdAt: -1 });
+// Phân trang theo con trỏ _id (afterId/beforeId) của hộp thư
+notificationSchema.index({ recipient: 1, _id: -1 });
 
 notificationSchema.index(
   { createdAt: 1 },
@@ -188,26 +190,47 @@ notificationSchema.statics.markAllAsRead = async function(userId) {
   );
 };
 
+notificationSchema.statics.buildUserQuery = function(userId, options = {}) {
+  const { status, type, priority } = options;
+  
+  const query = { recipient: userId };
+  
+  if (status) query.status = status;
+  if (type) query.type = type;
+  if (priority) query.priority = priority;
+  
+  return query;
+};
+
+// ObjectId tăng theo thời gian tạo nên sắp xếp theo _id cũng là mới nhất trước và dùng được làm con trỏ
 notificationSchema.statics.getUserNotifications = async function(userId, options = {}) {
   const {
     page = 1,
     limit = 20,
-    status,
-    type,
-    priority
+    afterId,
+    beforeId
   } = options;
   
-  const query = { recipient: userId };
+  const query = this.buildUserQuery(userId, options);
   
-  if (status) query.status = status;
-  if (type) query.type = type;
-  if (priority) query.priority = priority;
+  // Đồng bộ tăng dần: chỉ thông báo mới hơn afterId, cũ trước để client đi tiếp bằng ID cuối
+  if (afterId) {
+    query._id = { $gt: afterId };
+    return await this.find(query)
+      .populate('sender', 'fullName avatar')
+      .sort({ _id: 1 })
+      .limit(limit);
+  }
   
-  const skip = (page - 1) * limit;
+  // Trang cũ hơn theo con trỏ, không phải skip qua các thông báo đã tải
+  if (beforeId) {
+    query._id = { $lt: beforeId };
+  }
+  const skip = beforeId ? 0 : (page - 1) * limit;
   
   return await this.find(query)
     .populate('sender', 'fullName avatar')
-    .sort({ createdAt: -1 })
+    .sort({ _id: -1 })
     .skip(skip)
     .limit(limit);
 };
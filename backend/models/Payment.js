@@ -1,4 +1,5 @@
 const mongoose = require('mongoose');
+const { trackDeletes } = require('../utils/deltaSync');
 
 const paymentSchema = new mongoose.Schema({
   booking: {
@@ -138,6 +139,12 @@ paymentSchema.index({ paymentMethod: 1 });
 paymentSchema.index({ transactionId: 1 });
 paymentSchema.index({ 'vnpay.vnpTxnRef': 1 });
 paymentSchema.index({ createdAt: -1 });
+// Đồng bộ delta (updatedSince) theo người dùng
+paymentSchema.index({ updatedAt: 1 });
+paymentSchema.index({ payer: 1, updatedAt: 1 });
+paymentSchema.index({ recipient: 1, updatedAt: 1 });
+
+trackDeletes(paymentSchema, 'Payment', ['payer', 'recipient']);
 
 paymentSchema.pre('save', async function(next) {
   if (this.isNew && !this.transactionId) {
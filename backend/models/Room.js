@@ -172,7 +172,12 @@ roomSchema.virtual('fullAddress').get(function() {
 
 roomSchema.methods.incrementViews = function() {
   this.views += 1;
-  return this.save();
+  // Không cập nhật updatedAt để lượt xem không làm mất hiệu lực cache của client
+  return this.constructor.updateOne(
+    { _id: this._id },
+    { $inc: { views: 1 } },
+    { timestamps: false }
+  );
 };
 
 roomSchema.methods.toggleLike = function(userId) {
@@ -185,6 +190,16 @@ roomSchema.methods.toggleLike = function(userId) {
   return this.save();
 };
 
+// Đặt trạng thái thích thay vì đảo: gửi lại cùng một yêu cầu không đổi kết quả
+roomSchema.methods.setLike = async function(userId, liked) {
+  const update = liked ? { $addToSet: { likes: userId } } : { $pull: { likes: userId } };
+  const room = await this.constructor.findOneAndUpdate({ _id: this._id }, update, { new: true });
+  if (room) {
+    this.likes = room.likes;
+  }
+  return room;
+};
+
 roomSchema.methods.updateRating = function(newRating) {
   const totalRating = this.rating.average * this.rating.count + newRating;
   this.rating.count += 1;
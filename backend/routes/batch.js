@@ -0,0 +1,124 @@
+const express = require('express');
+const { IncomingMessage, ServerResponse } = require('http');
+
+const router = express.Router();
+
+// Giới hạn số request con trong một batch (client ApiBatch và Outbox cũng gom tối đa chừng này)
+const MAX_BATCH_SIZE = 10;
+// Request ghi (từ outbox của client) phải chạy lần lượt theo đúng thứ tự gửi
+const MUTATION_METHODS = ['POST', 'PUT', 'PATCH', 'DELETE'];
+
+const methodOf = (item) => (item.method ? String(item.method).toUpperCase() : 'GET');
+
+// Chạy một request con qua chính chuỗi middleware/route của app, giữ nguyên header Authorization của request cha
+const dispatch = (req, item) => new Promise((resolve) => {
+  const subReq = new IncomingMessage(req.socket);
+  subReq.method = methodOf(item);
+  subReq.url = item.url;
+  subReq.httpVersion = req.httpVersion;
+  subReq.httpVersionMajor = req.httpVersionMajor;
+  subReq.httpVersionMinor = req.httpVersionMinor;
+  subReq.headers = {
+    host: req.headers.host,
+    accept: 'application/json'
+  };
+  if (req.headers.authorization) {
+    subReq.headers.authorization = req.headers.authorization;
+  }
+  if (item.body !== undefined && item.body !== null) {
+    const json = JSON.stringify(item.body);
+    subReq.headers['content-type'] = 'application/json';
+    subReq.headers['content-length'] = String(Buffer.byteLength(json));
+    subReq.push(json);
+  }
+  subReq.push(null);
+
+  const subRes = new ServerResponse(subReq);
+  const chunks = [];
+  const collect = (chunk, encoding) => {
+    if (chunk) {
+      chunks.push(Buffer.isBuffer(chunk) ? chunk : Buffer.from(chunk, typeof encoding === 'string' ? encoding : 'utf8'));
+    }
+  };
+  subRes.write = (chunk, encoding) => {
+    collect(chunk, encoding);
+    return true;
+  };
+  subRes.end = (chunk, encoding) => {
+    collect(chunk, encoding);
+    const text = Buffer.concat(chunks).toString('utf8');
+    let body = null;
+    try {
+      body = text ? JSON.parse(text) : null;
+    } catch (error) {
+      body = { status: 'error', message: text };
+    }
+    resolve({ id: item.id, status: subRes.statusCode, body });
+    return subRes;
+  };
+
+  req.app.handle(subReq, subRes, (error) => {
+    resolve({
+      id: item.id,
+      status: 500,
+      body: { status: 'error', message: error ? error.message : 'Không xử lý được request' }
+    });
+  });
+});
+
+/**
+ * @swagger
+ * /api/batch:
+ *   post:
+ *     tags: [Batch]
+ *     summary: Gộp nhiều request vào một lần gọi (tối đa 10)
+ *     description: Mỗi phần tử gồm id, method (mặc định GET), url (bắt đầu bằng /api/) và body (JSON, cho request ghi). Batch chỉ có GET được chạy song song; có request ghi thì chạy lần lượt theo thứ tự. Kết quả trả về theo thứ tự với status và body của từng request.
+ *     responses:
+ *       200: { description: Thành công }
+ *       400: { description: Dữ liệu không hợp lệ }
+ */
+router.post('/', async (req, res) => {
+  const requests = req.body && req.body.requests;
+  if (!Array.isArray(requests) || requests.length === 0 || requests.length > MAX_BATCH_SIZE) {
+    return res.status(400).json({
+      status: 'error',
+      message: `requests phải là mảng từ 1 đến ${MAX_BATCH_SIZE} phần tử`
+    });
+  }
+
+  const invalid = requests.find(item => !item
+    || typeof item.url !== 'string'
+    || !item.url.startsWith('/api/')
+    || item.url.startsWith('/api/batch')
+    || (methodOf(item) !== 'GET' && !MUTATION_METHODS.includes(methodOf(item))));
+  if (invalid) {
+    return res.status(400).json({
+      status: 'error',
+      message: 'Chỉ hỗ trợ request GET, POST, PUT, PATCH, DELETE tới /api/'
+    });
+  }
+
+  try {
+    let responses;
+    if (requests.some(item => MUTATION_METHODS.includes(methodOf(item)))) {
+      responses = [];
+      for (const item of requests) {
+        responses.push(await dispatch(req, item));
+      }
+    } else {
+      responses = await Promise.all(requests.map(item => dispatch(req, item)));
+    }
+    res.json({
+      status: 'success',
+      data: { responses }
+    });
+  } catch (error) {
+    console.error('Batch request error:', error);
+    res.status(500).json({
+      status: 'error',
+      message: 'Lỗi server khi xử lý batch'
+    });
+  }
+});
+
+module.exports = router;
@@ -6,9 +6,54 @@ const Notification = require('../models/Notification');
 const { authenticate, authorize, checkBookingAccess } = require('../middleware/auth');
 const { validateBookingCreation, validateObjectId } = require('../middleware/validation');
 const { sendEmail } = require('../utils/emailService');
+const { parseSince, isTooOld, deletedIdsSince, MAX_DELTA_ITEMS } = require('../utils/deltaSync');
 
 const router = express.Router();
 
+// Đồng bộ delta: client gửi updatedAt lớn nhất đang có, chỉ nhận lại phần thay đổi
+const sendBookingChanges = async (req, res) => {
+  const since = parseSince(req.query.updatedSince);
+  if (!since) {
+    return res.status(400).json({
+      status: 'error',
+      message: 'updatedSince không hợp lệ'
+    });
+  }
+  if (isTooOld(since)) {
+    return res.json({ status: 'success', data: { bookings: [], deleted: [], resync: true } });
+  }
+
+  const query = { updatedAt: { $gte: since } };
+  if (req.user.role === 'tenant') {
+    query.tenant = req.user._id;
+  } else if (req.user.role === 'landlord') {
+    query.landlord = req.user._id;
+  }
+
+  const bookings = await Booking.find(query)
+    .populate('room', 'title images address price')
+    .populate('tenant', 'fullName email phone avatar')
+    .populate('landlord', 'fullName email phone avatar')
+    .sort({ updatedAt: 1 })
+    .limit(MAX_DELTA_ITEMS + 1);
+
+  // Quá nhiều thay đổi: tải lại toàn bộ rẻ hơn merge
+  if (bookings.length > MAX_DELTA_ITEMS) {
+    return res.json({ status: 'success', data: { bookings: [], deleted: [], resync: true } });
+  }
+
+  const deleted = await deletedIdsSince('Booking', since, req.user);
+
+  res.json({
+    status: 'success',
+    data: {
+      bookings,
+      deleted,
+      resync: false
+    }
+  });
+};
+
 /**
  * @swagger
  * /api/bookings:
@@ -27,12 +72,21 @@ const router = express.Router();
  *       - in: query
  *         name: status
  *         schema: { type: string, example: pending }
+ *       - in: query
+ *         name: updatedSince
+ *         description: Chỉ trả booking thay đổi và ID đã xóa từ thời điểm này (bỏ qua page/limit/status)
+ *         schema: { type: string, format: date-time }
  *     responses:
  *       200: { description: Thành công }
+ *       400: { description: updatedSince không hợp lệ }
  *       401: { description: Chưa xác thực }
  */
 router.get('/', authenticate, async (req, res) => {
   try {
+    if (req.query.updatedSince !== undefined) {
+      return await sendBookingChanges(req, res);
+    }
+
     const {
       page = 1,
       limit = 10,
@@ -1,10 +1,14 @@
 const express = require('express');
+const mongoose = require('mongoose');
 const Notification = require('../models/Notification');
 const { authenticate, authorize } = require('../middleware/auth');
 const { validateNotification, validateObjectId } = require('../middleware/validation');
 
 const router = express.Router();
 
+// Giới hạn số thông báo trong một trang của GET /
+const MAX_PAGE_SIZE = 100;
+
 /**
  * @swagger
  * /api/notifications:
@@ -20,8 +24,17 @@ const router = express.Router();
  *       - in: query
  *         name: limit
  *         schema: { type: integer, example: 20 }
+ *       - in: query
+ *         name: afterId
+ *         description: Chỉ lấy thông báo mới hơn ID này (cũ trước), dùng để đồng bộ tăng dần
+ *         schema: { type: string }
+ *       - in: query
+ *         name: beforeId
+ *         description: Lấy trang thông báo cũ hơn ID này (mới trước)
+ *         schema: { type: string }
  *     responses:
- *       200: { description: Thành công }
+ *       200: { description: Thành công, kèm unreadCount để client cập nhật số chưa đọc trong cùng lần gọi }
+ *       400: { description: afterId/beforeId không hợp lệ }
  *       401: { description: Chưa xác thực }
  */
 router.get('/', authenticate, async (req, res) => {
@@ -33,31 +46,61 @@ router.get('/', authenticate, async (req, res) => {
       type,
       priority,
       sortBy = 'createdAt',
-      sortOrder = 'desc'
+      sortOrder = 'desc',
+      afterId,
+      beforeId
     } = req.query;
 
+    if ((afterId && !mongoose.Types.ObjectId.isValid(afterId))
+      || (beforeId && !mongoose.Types.ObjectId.isValid(beforeId))) {
+      return res.status(400).json({
+        status: 'error',
+        message: 'afterId/beforeId không hợp lệ'
+      });
+    }
+
+    const currentPage = Math.max(parseInt(page) || 1, 1);
+    const pageSize = Math.min(Math.max(parseInt(limit) || 20, 1), MAX_PAGE_SIZE);
     const options = {
-      page: parseInt(page),
-      limit: parseInt(limit),
+      page: currentPage,
+      limit: pageSize,
       status,
       type,
       priority,
       sortBy,
-      sortOrder
+      sortOrder,
+      afterId,
+      beforeId
     };
 
-    const result = await Notification.getUserNotifications(req.user._id, options);
+    const cursor = afterId || beforeId;
+    const [result, totalItems, unreadCount] = await Promise.all([
+      Notification.getUserNotifications(req.user._id, options),
+      // Theo con trỏ thì chỉ cần biết còn trang sau không, bỏ qua phép đếm
+      cursor ? null : Notification.countDocuments(Notification.buildUserQuery(req.user._id, options)),
+      Notification.getUnreadCount(req.user._id)
+    ]);
+
+    const pagination = cursor
+      ? {
+          currentPage,
+          hasNext: result.length === pageSize,
+          hasPrev: false
+        }
+      : {
+          currentPage,
+          totalPages: Math.ceil(totalItems / pageSize),
+          totalItems,
+          hasNext: currentPage * pageSize < totalItems,
+          hasPrev: currentPage > 1
+        };
 
     res.json({
       status: 'success',
       data: {
         notifications: result,
-        pagination: {
-          currentPage: parseInt(page),
-          totalPages: Math.ceil(result.length / limit),
-          hasNext: page < Math.ceil(result.length / limit),
-          hasPrev: page > 1
-        }
+        pagination,
+        unreadCount
       }
     });
   } catch (error) {
@@ -118,6 +161,58 @@ router.get('/:id', authenticate, validateObjectId('id'), async (req, res) => {
   }
 });
 
+// Giới hạn số thông báo trong một lần đánh dấu đã đọc (client gộp các lần đánh dấu đang chờ)
+const MAX_READ_IDS = 100;
+
+/**
+ * @swagger
+ * /api/notifications/read:
+ *   put:
+ *     tags: [Notifications]
+ *     summary: Đánh dấu nhiều thông báo đã đọc trong một lần gọi
+ *     description: Body gồm ids (tối đa 100). Thông báo không thuộc người dùng hoặc đã đọc được bỏ qua.
+ *     security:
+ *       - bearerAuth: []
+ *     responses:
+ *       200: { description: Thành công }
+ *       400: { description: Dữ liệu không hợp lệ }
+ *       401: { description: Chưa xác thực }
+ */
+router.put('/read', authenticate, async (req, res) => {
+  try {
+    const ids = req.body && req.body.ids;
+    if (!Array.isArray(ids) || ids.length === 0 || ids.length > MAX_READ_IDS
+      || !ids.every(id => typeof id === 'string' && mongoose.Types.ObjectId.isValid(id))) {
+      return res.status(400).json({
+        status: 'error',
+        message: `ids phải là mảng từ 1 đến ${MAX_READ_IDS} ID hợp lệ`
+      });
+    }
+
+    const result = await Notification.updateMany(
+      { _id: { $in: ids }, recipient: req.user._id, status: 'unread' },
+      {
+        status: 'read',
+        'delivery.inApp.readAt': new Date()
+      }
+    );
+
+    res.json({
+      status: 'success',
+      message: 'Đánh dấu thông báo đã đọc thành công',
+      data: {
+        modifiedCount: result.modifiedCount
+      }
+    });
+  } catch (error) {
+    console.error('Mark notifications as read error:', error);
+    res.status(500).json({
+      status: 'error',
+      message: 'Lỗi server khi đánh dấu thông báo'
+    });
+  }
+});
+
 router.put('/:id/read', authenticate, validateObjectId('id'), async (req, res) => {
   try {
     const notification = await Notification.findById(req.params.id);
@@ -6,9 +6,139 @@ const { authenticate, authorize } = require('../middleware/auth');
 const { validatePayment, validateObjectId } = require('../middleware/validation');
 const vnpayService = require('../utils/vnpayService');
 const { sendEmail } = require('../utils/emailService');
+const { parseSince, isTooOld, deletedIdsSince, MAX_DELTA_ITEMS } = require('../utils/deltaSync');
 
 const router = express.Router();
 
+// Payment đặt cọc cho booking đã deposit_paid nhưng chưa có payment (booking xác nhận trước khi có logic tạo payment)
+const buildDepositPayment = (booking) => new Payment({
+  booking: booking._id,
+  payer: booking.tenant._id,
+  recipient: booking.landlord._id,
+  type: 'deposit',
+  amount: booking.pricing ? booking.pricing.deposit : 0,
+  currency: 'VND',
+  status: 'completed',
+  paymentMethod: 'bank_transfer',
+  description: `Đặt cọc phòng: ${booking.room.title} - Xác nhận bởi chủ trọ`,
+  processedAt: booking.paymentStatus?.deposit?.paidAt || booking.updatedAt || new Date(),
+  completedAt: booking.paymentStatus?.deposit?.paidAt || booking.updatedAt || new Date(),
+  initiatedAt: booking.createdAt || new Date()
+});
+
+const populatePayments = (query) => query
+  .populate('booking', 'contractNumber status')
+  .populate('payer', 'fullName email phone')
+  .populate('recipient', 'fullName email phone');
+
+const resyncResponse = { status: 'success', data: { payments: [], deleted: [], unpaidBookings: [], removedUnpaidBookings: [], resync: true } };
+
+// Đồng bộ delta: chỉ trả thanh toán thay đổi từ updatedSince; admin nhận thêm thay đổi của danh sách booking chưa thanh toán
+const sendPaymentChanges = async (req, res) => {
+  const since = parseSince(req.query.updatedSince);
+  if (!since) {
+    return res.status(400).json({
+      status: 'error',
+      message: 'updatedSince không hợp lệ'
+    });
+  }
+  if (isTooOld(since)) {
+    return res.json(resyncResponse);
+  }
+
+  const query = {};
+  const bookingScope = {};
+  if (req.user.role === 'tenant') {
+    query.payer = req.user._id;
+    bookingScope.tenant = req.user._id;
+  } else if (req.user.role === 'landlord') {
+    query.recipient = req.user._id;
+    bookingScope.landlord = req.user._id;
+  }
+
+  const changedBookings = await Booking.find({ ...bookingScope, updatedAt: { $gte: since } })
+    .select('_id status')
+    .limit(MAX_DELTA_ITEMS + 1)
+    .lean();
+  if (changedBookings.length > MAX_DELTA_ITEMS) {
+    return res.json(resyncResponse);
+  }
+  const changedBookingIds = changedBookings.map(booking => booking._id);
+  const paidBookingIds = new Set((await Payment.distinct('booking', { booking: { $in: changedBookingIds } }))
+    .map(id => id.toString()));
+
+  // Cùng logic tự tạo payment như khi tải toàn bộ, nhưng chỉ xét booking vừa chuyển sang deposit_paid
+  try {
+    const depositIds = changedBookings
+      .filter(booking => booking.status === 'deposit_paid' && !paidBookingIds.has(booking._id.toString()))
+      .map(booking => booking._id);
+    if (depositIds.length > 0) {
+      const bookingsWithoutPayment = await Booking.find({ _id: { $in: depositIds } })
+        .populate('tenant', 'fullName email phone')
+        .populate('landlord', 'fullName email phone')
+        .populate('room', 'title');
+      for (const booking of bookingsWithoutPayment) {
+        try {
+          await buildDepositPayment(booking).save();
+          paidBookingIds.add(booking._id.toString());
+        } catch (paymentError) {
+          console.error('Error creating payment for booking:', booking._id, paymentError);
+        }
+      }
+    }
+  } catch (migrationError) {
+    console.error('Error migrating bookings to payments:', migrationError);
+  }
+
+  // Payment của booking vừa đổi trạng thái cũng được gửi lại để client cập nhật booking.status đi kèm
+  query.$or = [
+    { updatedAt: { $gte: since } },
+    { booking: { $in: changedBookingIds } }
+  ];
+  const payments = await populatePayments(Payment.find(query))
+    .sort({ updatedAt: 1 })
+    .limit(MAX_DELTA_ITEMS + 1);
+  if (payments.length > MAX_DELTA_ITEMS) {
+    return res.json(resyncResponse);
+  }
+  const deleted = await deletedIdsSince('Payment', since, req.user);
+
+  let unpaidBookings = [];
+  let removedUnpaidBookings = [];
+  if (req.user.role === 'admin') {
+    const unpaidIds = changedBookings
+      .filter(booking => booking.status === 'pending' && !paidBookingIds.has(booking._id.toString()))
+      .map(booking => booking._id);
+    unpaidBookings = await Booking.find({ _id: { $in: unpaidIds } })
+      .populate('tenant', 'fullName email phone')
+      .populate('landlord', 'fullName email phone')
+      .populate('room', 'title price');
+
+    // Booking không còn thuộc danh sách chưa thanh toán: đổi trạng thái, đã có payment hoặc đã bị xóa
+    const removed = new Set(changedBookings
+      .filter(booking => booking.status !== 'pending' || paidBookingIds.has(booking._id.toString()))
+      .map(booking => booking._id.toString()));
+    payments.forEach(payment => {
+      if (payment.booking?._id) {
+        removed.add(payment.booking._id.toString());
+      }
+    });
+    (await deletedIdsSince('Booking', since, req.user)).forEach(id => removed.add(id));
+    removedUnpaidBookings = [...removed];
+  }
+
+  res.json({
+    status: 'success',
+    data: {
+      payments,
+      deleted,
+      unpaidBookings,
+      removedUnpaidBookings,
+      resync: false
+    }
+  });
+};
+
 /**
  * @swagger
  * /api/payments:
@@ -27,12 +157,21 @@ const router = express.Router();
  *       - in: query
  *         name: status
  *         schema: { type: string, example: completed }
+ *       - in: query
+ *         name: updatedSince
+ *         description: Chỉ trả thanh toán thay đổi và ID đã xóa từ thời điểm này (bỏ qua page/limit/filter)
+ *         schema: { type: string, format: date-time }
  *     responses:
  *       200: { description: Thành công }
+ *       400: { description: updatedSince không hợp lệ }
  *       401: { description: Chưa xác thực }
  */
 router.get('/', authenticate, async (req, res) => {
   try {
+    if (req.query.updatedSince !== undefined) {
+      return await sendPaymentChanges(req, res);
+    }
+
     const {
       page = 1,
       limit = 10,
@@ -96,21 +235,7 @@ router.get('/', authenticate, async (req, res) => {
       const newPayments = [];
       for (const booking of bookingsWithoutPayment) {
         try {
-          const payment = new Payment({
-            booking: booking._id,
-            payer: booking.tenant._id,
-            recipient: booking.landlord._id,
-            type: 'deposit',
-            amount: booking.pricing ? booking.pricing.deposit : 0,
-            currency: 'VND',
-            status: 'completed',
-            paymentMethod: 'bank_transfer',
-            description: `Đặt cọc phòng: ${booking.room.title} - Xác nhận bởi chủ trọ`,
-            processedAt: booking.paymentStatus?.deposit?.paidAt || booking.updatedAt || new Date(),
-            completedAt: booking.paymentStatus?.deposit?.paidAt || booking.updatedAt || new Date(),
-            initiatedAt: booking.createdAt || new Date()
-          });
-          
+          const payment = buildDepositPayment(booking);
           await payment.save();
           newPayments.push(payment);
         } catch (paymentError) {
@@ -152,9 +277,10 @@ router.get('/', authenticate, async (req, res) => {
 
     // Lấy bookings chưa có payment (chỉ cho admin)
     let unpaidBookings = [];
+    let existingPaymentBookings = [];
     if (req.user.role === 'admin') {
-      // Tìm bookings có status 'pending' nhưng chưa có payment
-      const existingPaymentBookings = payments.map(p => p.booking?._id).filter(Boolean);
+      // Tìm bookings có status 'pending' nhưng chưa có payment nào (không chỉ payment của trang này, để tải nhiều trang không bị trùng)
+      existingPaymentBookings = await Payment.distinct('booking', { booking: { $ne: null } });
       
       let bookingQuery = { 
         status: 'pending',
@@ -173,7 +299,7 @@ router.get('/', authenticate, async (req, res) => {
     const totalPayments = await Payment.countDocuments(query);
     const totalUnpaidBookings = req.user.role === 'admin' ? await Booking.countDocuments({ 
       status: 'pending',
-      _id: { $nin: payments.map(p => p.booking?._id).filter(Boolean) }
+      _id: { $nin: existingPaymentBookings }
     }) : 0;
     
     const totalItems = totalPayments + totalUnpaidBookings;
@@ -4,6 +4,9 @@ const path = require('path');
 const Room = require('../models/Room');
 const { authenticate, authorize, checkRoomAccess } = require('../middleware/auth');
 const { validateRoomCreation, validateRoomUpdate, validateObjectId, validateSearch } = require('../middleware/validation');
+const { cacheControl, setValidators } = require('../middleware/cache');
+const { parseFields, includesField, trimSummaries } = require('../utils/projection');
+const { createAccentInsensitiveRegex, buildTextSearch } = require('../utils/search');
 
 const router = express.Router();
 
@@ -61,10 +64,14 @@ const upload = multer({
  *       - in: query
  *         name: maxPrice
  *         schema: { type: number, example: 7000000 }
+ *       - in: query
+ *         name: search
+ *         description: Từ khóa tự do, mỗi từ phải khớp tiêu đề, mô tả hoặc địa chỉ (không phân biệt dấu)
+ *         schema: { type: string, example: "cau giay ban cong" }
  *     responses:
  *       200: { description: Thành công }
  */
-router.get('/', validateSearch, async (req, res) => {
+router.get('/', validateSearch, cacheControl('revalidate'), async (req, res) => {
   try {
     const {
       page = 1,
@@ -85,51 +92,12 @@ router.get('/', validateSearch, async (req, res) => {
       lat,
       lng,
       radius = 5000,
-      excludeBooked = false
+      excludeBooked = false,
+      fields
     } = req.query;
 
     const query = { status };
 
-    const createAccentInsensitiveRegex = (str) => {
-      if (!str) return null;
-      const normalized = str.toLowerCase();
-      let pattern = '';
-      for (let i = 0; i < normalized.length; i++) {
-        const char = normalized[i];
-        switch (char) {
-          case 'a':
-            pattern += '[aàáảãạăằắẳẵặâầấẩẫậ]';
-            break;
-          case 'e':
-            pattern += '[eèéẻẽẹêềếểễệ]';
-            break;
-          case 'i':
-            pattern += '[iìíỉĩị]';
-            break;
-          case 'o':
-            pattern += '[oòóỏõọôồốổỗộơờớởỡợ]';
-            break;
-          case 'u':
-            pattern += '[uùúủũụưừứửữự]';
-            break;
-          case 'y':
-            pattern += '[yỳýỷỹỵ]';
-            break;
-          case 'd':
-            pattern += '[dđ]';
-            break;
-          default:
-            if (/[.*+?^${}()|[\]\\]/.test(char)) {
-              pattern += '\\' + char;
-            } else {
-              pattern += char;
-            }
-            break;
-        }
-      }
-      return new RegExp(pattern, 'i');
-    };
-
     if (city) {
       const cityRegex = createAccentInsensitiveRegex(city.trim());
       if (cityRegex) {
@@ -168,12 +136,9 @@ router.get('/', validateSearch, async (req, res) => {
       query.amenities = { $all: amenityArray };
     }
 
-    if (search) {
-      query.$or = [
-        { title: new RegExp(search, 'i') },
-        { description: new RegExp(search, 'i') },
-        { 'address.street': new RegExp(search, 'i') }
-      ];
+    const textSearch = buildTextSearch(search);
+    if (textSearch) {
+      query.$and = textSearch;
     }
 
     if (lat && lng) {
@@ -206,11 +171,18 @@ router.get('/', validateSearch, async (req, res) => {
       query._id = { $nin: roomsWithActiveOrNonAdminCancelledBookings };
     }
 
-    rooms = await Room.find(query)
-      .populate('landlord', 'fullName phone email avatar')
+    // fields=summary: chỉ trả các trường hiển thị trên thẻ phòng, bỏ populate chủ trọ
+    const projection = parseFields(fields);
+    let roomQuery = Room.find(query, projection);
+    if (includesField(projection, 'landlord')) {
+      roomQuery = roomQuery.populate('landlord', 'fullName phone email avatar');
+    }
+    rooms = await roomQuery
       .sort(sort)
       .skip(skip)
-      .limit(parseInt(limit));
+      .limit(parseInt(limit))
+      .lean(projection !== null);
+    trimSummaries(rooms, fields);
 
     const total = await Room.countDocuments(query);
 
@@ -247,7 +219,7 @@ router.get('/', validateSearch, async (req, res) => {
   }
 });
 
-router.get('/featured', async (req, res) => {
+router.get('/featured', cacheControl('short'), async (req, res) => {
   try {
     const { limit = 8 } = req.query;
 
@@ -287,10 +259,10 @@ router.get('/featured', async (req, res) => {
  *       200: { description: Thành công }
  *       404: { description: Không tìm thấy }
  */
-router.get('/:id', validateObjectId('id'), async (req, res) => {
+router.get('/:id', validateObjectId('id'), cacheControl('revalidate'), async (req, res) => {
   try {
     const room = await Room.findById(req.params.id)
-      .populate('landlord', 'fullName phone email avatar address landlordInfo');
+      .populate('landlord', 'fullName phone email avatar address landlordInfo updatedAt');
 
     if (!room) {
       return res.status(404).json({
@@ -299,7 +271,16 @@ router.get('/:id', validateObjectId('id'), async (req, res) => {
       });
     }
 
-    await room.incrementViews();
+    // Không tăng lượt xem ở đây: client gửi lại/hedging GET nên lượt xem được ghi qua POST /:id/view
+
+    // Validator theo thời điểm cập nhật phòng và chủ trọ (lượt xem không làm đổi ETag)
+    const isFresh = setValidators(req, res, room._id, [
+      room.updatedAt,
+      room.landlord && room.landlord.updatedAt
+    ]);
+    if (isFresh) {
+      return res.status(304).end();
+    }
 
     res.json({
       status: 'success',
@@ -314,6 +295,47 @@ router.get('/:id', validateObjectId('id'), async (req, res) => {
   }
 });
 
+/**
+ * @swagger
+ * /api/rooms/{id}/view:
+ *   post:
+ *     tags: [Rooms]
+ *     summary: Ghi nhận một lượt xem phòng
+ *     parameters:
+ *       - in: path
+ *         name: id
+ *         required: true
+ *         schema: { type: string }
+ *     responses:
+ *       200: { description: Thành công }
+ *       404: { description: Không tìm thấy }
+ */
+router.post('/:id/view', validateObjectId('id'), async (req, res) => {
+  try {
+    const room = await Room.findById(req.params.id).select('_id views');
+
+    if (!room) {
+      return res.status(404).json({
+        status: 'error',
+        message: 'Không tìm thấy phòng'
+      });
+    }
+
+    await room.incrementViews();
+
+    res.json({
+      status: 'success',
+      data: { views: room.views }
+    });
+  } catch (error) {
+    console.error('Record room view error:', error);
+    res.status(500).json({
+      status: 'error',
+      message: 'Lỗi server khi ghi nhận lượt xem'
+    });
+  }
+});
+
 /**
  * @swagger
  * /api/rooms:
@@ -532,6 +554,44 @@ router.post('/:id/like', authenticate, validateObjectId('id'), async (req, res)
   }
 });
 
+// Outbox của ứng dụng gửi lại khi không nhận được kết quả nên dùng route này (đặt trạng thái) thay cho route đảo ở trên
+router.put('/:id/like', authenticate, validateObjectId('id'), async (req, res) => {
+  try {
+    if (typeof req.body.liked !== 'boolean') {
+      return res.status(400).json({
+        status: 'error',
+        message: 'liked phải là true hoặc false'
+      });
+    }
+
+    const room = await Room.findById(req.params.id);
+
+    if (!room) {
+      return res.status(404).json({
+        status: 'error',
+        message: 'Không tìm thấy phòng'
+      });
+    }
+
+    await room.setLike(req.user._id, req.body.liked);
+
+    res.json({
+      status: 'success',
+      message: 'Cập nhật yêu thích thành công',
+      data: {
+        isLiked: room.likes.some(id => id.equals(req.user._id)),
+        likesCount: room.likes.length
+      }
+    });
+  } catch (error) {
+    console.error('Set room like error:', error);
+    res.status(500).json({
+      status: 'error',
+      message: 'Lỗi server khi cập nhật yêu thích'
+    });
+  }
+});
+
 router.delete('/:id', authenticate, checkRoomAccess, validateObjectId('id'), async (req, res) => {
   try {
     const room = await Room.findById(req.params.id);
@@ -571,7 +631,7 @@ router.delete('/:id', authenticate, checkRoomAccess, validateObjectId('id'), asy
   }
 });
 
-router.get('/:id/similar', validateObjectId('id'), async (req, res) => {
+router.get('/:id/similar', validateObjectId('id'), cacheControl('short'), async (req, res) => {
   try {
     const room = await Room.findById(req.params.id);
 
@@ -610,7 +670,7 @@ router.get('/:id/similar', validateObjectId('id'), async (req, res) => {
   }
 });
 
-router.get('/stats/overview', async (req, res) => {
+router.get('/stats/overview', cacheControl('stats'), async (req, res) => {
   try {
     const stats = await Room.aggregate([
       {
@@ -5,6 +5,8 @@ const bcrypt = require('bcryptjs');
 const User = require('../models/User');
 const { authenticate, authorize, checkOwnership } = require('../middleware/auth');
 const { validateUserRegistration, validateUserUpdate, validateObjectId } = require('../middleware/validation');
+const { parseFields, includesField, trimSummaries } = require('../utils/projection');
+const { buildTextSearch } = require('../utils/search');
 
 const router = express.Router();
 
@@ -483,21 +485,31 @@ router.get('/:id/rooms', authenticate, validateObjectId('id'), async (req, res)
       limit = 10,
       status,
       sortBy = 'createdAt',
-      sortOrder = 'desc'
+      sortOrder = 'desc',
+      search,
+      fields
     } = req.query;
 
     const query = { landlord: userId };
     if (status) query.status = status;
+    const textSearch = buildTextSearch(search);
+    if (textSearch) query.$and = textSearch;
 
     const skip = (page - 1) * limit;
     const sort = { [sortBy]: sortOrder === 'desc' ? -1 : 1 };
 
     const Room = require('../models/Room');
-    const rooms = await Room.find(query)
-      .populate('landlord', 'fullName email phone')
+    const projection = parseFields(fields);
+    let roomQuery = Room.find(query, projection);
+    if (includesField(projection, 'landlord')) {
+      roomQuery = roomQuery.populate('landlord', 'fullName email phone');
+    }
+    const rooms = await roomQuery
       .sort(sort)
       .skip(skip)
-      .limit(parseInt(limit));
+      .limit(parseInt(limit))
+      .lean(projection !== null);
+    trimSummaries(rooms, fields);
 
     const total = await Room.countDocuments(query);
 
@@ -16,11 +16,15 @@ const bookingRoutes = require('./routes/bookings');
 const paymentRoutes = require('./routes/payments');
 const notificationRoutes = require('./routes/notifications');
 const statisticsRoutes = require('./routes/statistics');
+const batchRoutes = require('./routes/batch');
+const { negotiateFormat, isCompressible } = require('./middleware/format');
 
 const app = express();
 
 app.use(helmet());
-app.use(compression());
+app.use(compression({
+  filter: (req, res) => isCompressible(res) || compression.filter(req, res)
+}));
 
 const limiter = rateLimit({
   windowMs: 15 * 60 * 1000,
@@ -91,6 +95,9 @@ const swaggerOptions = {
 const swaggerDocs = swaggerJsdoc(swaggerOptions);
 app.use("/api-docs", swaggerUi.serve, swaggerUi.setup(swaggerDocs));
 
+// Response MessagePack cho client gửi Accept: application/x-msgpack
+app.use('/api', negotiateFormat);
+
 app.use('/api/auth', authRoutes);
 app.use('/api/users', userRoutes);
 app.use('/api/rooms', roomRoutes);
@@ -98,6 +105,7 @@ app.use('/api/bookings', bookingRoutes);
 app.use('/api/payments', paymentRoutes);
 app.use('/api/notifications', notificationRoutes);
 app.use('/api/statistics', statisticsRoutes);
+app.use('/api/batch', batchRoutes);
 
 app.get('/api/health', (req, res) => {
   res.status(200).json({
@@ -0,0 +1,135 @@
+// Kiểm tra utils/deltaSync: watermark updatedSince, hết hạn dấu xóa và ghi/đọc tombstone (DeletedRecord được thay bằng bản giả, không cần MongoDB)
+
+const { test, beforeEach } = require('node:test');
+const assert = require('node:assert/strict');
+
+const deletedRecordPath = require.resolve('../models/DeletedRecord');
+const fakeDeletedRecord = {
+  created: [],
+  lastQuery: null,
+  records: [],
+  failCreate: false,
+  async create(doc) {
+    if (this.failCreate) {
+      throw new Error('write failed');
+    }
+    this.created.push(doc);
+    return doc;
+  },
+  find(query) {
+    this.lastQuery = query;
+    const records = this.records;
+    return {
+      select: () => ({ lean: async () => records })
+    };
+  }
+};
+require.cache[deletedRecordPath] = {
+  id: deletedRecordPath,
+  filename: deletedRecordPath,
+  loaded: true,
+  exports: fakeDeletedRecord
+};
+
+const {
+  DELTA_OVERLAP_MS,
+  parseSince,
+  isTooOld,
+  deletedIdsSince,
+  trackDeletes
+} = require('../utils/deltaSync');
+
+const DAY_MS = 24 * 60 * 60 * 1000;
+
+beforeEach(() => {
+  fakeDeletedRecord.created = [];
+  fakeDeletedRecord.lastQuery = null;
+  fakeDeletedRecord.records = [];
+  fakeDeletedRecord.failCreate = false;
+});
+
+test('parseSince lùi watermark một khoảng overlap', () => {
+  const since = parseSince('2024-03-01T10:00:00.000Z');
+  assert.equal(since.getTime(), Date.parse('2024-03-01T10:00:00.000Z') - DELTA_OVERLAP_MS);
+});
+
+test('parseSince trả null khi watermark thiếu hoặc sai định dạng', () => {
+  assert.equal(parseSince(undefined), null);
+  assert.equal(parseSince(''), null);
+  assert.equal(parseSince('not-a-date'), null);
+  assert.equal(parseSince(['2024-03-01T10:00:00.000Z']), null);
+});
+
+test('isTooOld chỉ đúng khi watermark cũ hơn thời gian giữ dấu xóa', () => {
+  assert.equal(isTooOld(new Date(Date.now() - DAY_MS)), false);
+  assert.equal(isTooOld(new Date(Date.now() - 29 * DAY_MS)), false);
+  assert.equal(isTooOld(new Date(Date.now() - 31 * DAY_MS)), true);
+});
+
+test('deletedIdsSince lọc theo người dùng khi không phải admin', async () => {
+  fakeDeletedRecord.records = [{ docId: { toString: () => 'a1' } }, { docId: { toString: () => 'b2' } }];
+  const since = new Date('2024-03-01T00:00:00.000Z');
+
+  const ids = await deletedIdsSince('bookings', since, { _id: 'u1', role: 'tenant' });
+
+  assert.deepEqual(ids, ['a1', 'b2']);
+  assert.deepEqual(fakeDeletedRecord.lastQuery, {
+    collectionName: 'bookings',
+    deletedAt: { $gte: since },
+    owners: 'u1'
+  });
+});
+
+test('deletedIdsSince không lọc owners cho admin', async () => {
+  const since = new Date('2024-03-01T00:00:00.000Z');
+
+  const ids = await deletedIdsSince('payments', since, { _id: 'admin1', role: 'admin' });
+
+  assert.deepEqual(ids, []);
+  assert.deepEqual(fakeDeletedRecord.lastQuery, {
+    collectionName: 'payments',
+    deletedAt: { $gte: since }
+  });
+});
+
+const fakeSchema = () => {
+  const hooks = {};
+  return {
+    hooks,
+    post(name, options, fn) {
+      hooks[name] = typeof options === 'function' ? options : fn;
+    }
+  };
+};
+
+test('trackDeletes ghi tombstone với các owner có giá trị', async () => {
+  const schema = fakeSchema();
+  trackDeletes(schema, 'bookings', ['tenant', 'landlord']);
+
+  await schema.hooks.findOneAndDelete({ _id: 'b1', tenant: 't1', landlord: null });
+  await schema.hooks.deleteOne.call({ _id: 'b2', tenant: 't2', landlord: 'l2' });
+
+  assert.deepEqual(fakeDeletedRecord.created, [
+    { collectionName: 'bookings', docId: 'b1', owners: ['t1'] },
+    { collectionName: 'bookings', docId: 'b2', owners: ['t2', 'l2'] }
+  ]);
+});
+
+test('trackDeletes bỏ qua khi không xóa được document nào', async () => {
+  const schema = fakeSchema();
+  trackDeletes(schema, 'bookings', ['tenant']);
+
+  await schema.hooks.findOneAndDelete(null);
+
+  assert.deepEqual(fakeDeletedRecord.created, []);
+});
+
+test('trackDeletes không làm hỏng lệnh xóa khi ghi tombstone lỗi', async (t) => {
+  const schema = fakeSchema();
+  trackDeletes(schema, 'payments', ['payer']);
+  fakeDeletedRecord.failCreate = true;
+  t.mock.method(console, 'error', () => {});
+
+  await assert.doesNotReject(schema.hooks.findOneAndDelete({ _id: 'p1', payer: 'u1' }));
+  assert.equal(console.error.mock.calls.length, 1);
+});
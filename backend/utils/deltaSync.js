@@ -0,0 +1,68 @@
+// Hỗ trợ đồng bộ delta cho danh sách (GET ...?updatedSince=): chỉ trả bản ghi thay đổi và ID đã xóa từ watermark của client.
+
+const DeletedRecord = require('../models/DeletedRecord');
+
+// Lùi watermark một chút để không bỏ sót bản ghi ghi cùng lúc với lần đồng bộ trước (client merge theo ID nên nhận trùng không sao)
+const DELTA_OVERLAP_MS = 5000;
+// Thay đổi nhiều hơn mức này thì client tải lại toàn bộ sẽ rẻ hơn
+const MAX_DELTA_ITEMS = 200;
+// Khớp với TTL của DeletedRecord
+const TOMBSTONE_RETENTION_MS = 30 * 24 * 60 * 60 * 1000;
+
+// Trả về null nếu updatedSince không hợp lệ
+const parseSince = (value) => {
+  if (!value || typeof value !== 'string') {
+    return null;
+  }
+  const time = Date.parse(value);
+  if (Number.isNaN(time)) {
+    return null;
+  }
+  return new Date(time - DELTA_OVERLAP_MS);
+};
+
+// Watermark cũ hơn thời gian giữ dấu xóa: không thể biết đủ các bản ghi đã xóa
+const isTooOld = (since) => Date.now() - since.getTime() > TOMBSTONE_RETENTION_MS;
+
+const deletedIdsSince = async (collectionName, since, user) => {
+  const query = {
+    collectionName,
+    deletedAt: { $gte: since }
+  };
+  if (user.role !== 'admin') {
+    query.owners = user._id;
+  }
+  const records = await DeletedRecord.find(query).select('docId').lean();
+  return records.map(record => record.docId.toString());
+};
+
+// Gắn vào schema để ghi dấu xóa cho findByIdAndDelete/findOneAndDelete và doc.deleteOne()
+const trackDeletes = (schema, collectionName, ownerFields) => {
+  const record = async (doc) => {
+    if (!doc) {
+      return;
+    }
+    try {
+      await DeletedRecord.create({
+        collectionName,
+        docId: doc._id,
+        owners: ownerFields.map(field => doc[field]).filter(Boolean)
+      });
+    } catch (error) {
+      console.error(`Record ${collectionName} deletion error:`, error);
+    }
+  };
+  schema.post('findOneAndDelete', record);
+  schema.post('deleteOne', { document: true, query: false }, function () {
+    return record(this);
+  });
+};
+
+module.exports = {
+  DELTA_OVERLAP_MS,
+  MAX_DELTA_ITEMS,
+  parseSince,
+  isTooOld,
+  deletedIdsSince,
+  trackDeletes
+};
@@ -0,0 +1,171 @@
+// Mã hóa MessagePack (https://msgpack.org) cho response API, dùng khi client gửi Accept: application/x-msgpack.
+// Ngữ nghĩa giống JSON.stringify: gọi toJSON() (document mongoose, ObjectId, Date), bỏ qua thuộc tính
+// undefined/function, NaN/Infinity thành null; số nguyên được mã hóa dạng int để client đọc lại đúng kiểu.
+
+const MEDIA_TYPE = 'application/x-msgpack';
+
+class Encoder {
+  constructor(initialSize = 8192) {
+    this.buf = Buffer.allocUnsafe(initialSize);
+    this.pos = 0;
+  }
+
+  ensure(size) {
+    if (this.pos + size <= this.buf.length) {
+      return;
+    }
+    let length = this.buf.length * 2;
+    while (length < this.pos + size) {
+      length *= 2;
+    }
+    const next = Buffer.allocUnsafe(length);
+    this.buf.copy(next, 0, 0, this.pos);
+    this.buf = next;
+  }
+
+  byte(value) {
+    this.ensure(1);
+    this.buf[this.pos++] = value;
+  }
+
+  header(length, fixBase, fixMax, code8, code16, code32) {
+    if (length <= fixMax && fixBase !== null) {
+      this.byte(fixBase | length);
+    } else if (length <= 0xff && code8 !== null) {
+      this.ensure(2);
+      this.buf[this.pos++] = code8;
+      this.buf[this.pos++] = length;
+    } else if (length <= 0xffff) {
+      this.ensure(3);
+      this.buf[this.pos++] = code16;
+      this.buf.writeUInt16BE(length, this.pos);
+      this.pos += 2;
+    } else {
+      this.ensure(5);
+      this.buf[this.pos++] = code32;
+      this.buf.writeUInt32BE(length, this.pos);
+      this.pos += 4;
+    }
+  }
+
+  string(value) {
+    const length = Buffer.byteLength(value, 'utf8');
+    this.header(length, 0xa0, 31, 0xd9, 0xda, 0xdb);
+    this.ensure(length);
+    this.pos += this.buf.write(value, this.pos, length, 'utf8');
+  }
+
+  number(value) {
+    if (!Number.isFinite(value)) {
+      this.byte(0xc0);
+      return;
+    }
+    if (!Number.isInteger(value)) {
+      this.ensure(9);
+      this.buf[this.pos++] = 0xcb;
+      this.buf.writeDoubleBE(value, this.pos);
+      this.pos += 8;
+      return;
+    }
+    if (value >= 0) {
+      if (value < 0x80) {
+        this.byte(value);
+      } else if (value <= 0xff) {
+        this.ensure(2);
+        this.buf[this.pos++] = 0xcc;
+        this.buf[this.pos++] = value;
+      } else if (value <= 0xffff) {
+        this.ensure(3);
+        this.buf[this.pos++] = 0xcd;
+        this.buf.writeUInt16BE(value, this.pos);
+        this.pos += 2;
+      } else if (value <= 0xffffffff) {
+        this.ensure(5);
+        this.buf[this.pos++] = 0xce;
+        this.buf.writeUInt32BE(value, this.pos);
+        this.pos += 4;
+      } else {
+        this.ensure(9);
+        this.buf[this.pos++] = 0xcf;
+        this.buf.writeBigUInt64BE(BigInt(value), this.pos);
+        this.pos += 8;
+      }
+    } else if (value >= -32) {
+      this.byte(value & 0xff);
+    } else if (value >= -0x80) {
+      this.ensure(2);
+      this.buf[this.pos++] = 0xd0;
+      this.buf.writeInt8(value, this.pos++);
+    } else if (value >= -0x8000) {
+      this.ensure(3);
+      this.buf[this.pos++] = 0xd1;
+      this.buf.writeInt16BE(value, this.pos);
+      this.pos += 2;
+    } else if (value >= -0x80000000) {
+      this.ensure(5);
+      this.buf[this.pos++] = 0xd2;
+      this.buf.writeInt32BE(value, this.pos);
+      this.pos += 4;
+    } else {
+      this.ensure(9);
+      this.buf[this.pos++] = 0xd3;
+      this.buf.writeBigInt64BE(BigInt(value), this.pos);
+      this.pos += 8;
+    }
+  }
+
+  value(value, key) {
+    if (value !== null && typeof value === 'object' && typeof value.toJSON === 'function') {
+      value = value.toJSON(key);
+    }
+    switch (typeof value) {
+      case 'string':
+        this.string(value);
+        return;
+      case 'number':
+        this.number(value);
+        return;
+      case 'boolean':
+        this.byte(value ? 0xc3 : 0xc2);
+        return;
+      case 'bigint':
+        this.string(value.toString());
+        return;
+      case 'object':
+        break;
+      default:
+        // undefined/function/symbol trong mảng: JSON.stringify ghi null
+        this.byte(0xc0);
+        return;
+    }
+    if (value === null) {
+      this.byte(0xc0);
+    } else if (Array.isArray(value)) {
+      this.header(value.length, 0x90, 15, null, 0xdc, 0xdd);
+      for (let i = 0; i < value.length; i++) {
+        this.value(value[i], String(i));
+      }
+    } else {
+      const keys = Object.keys(value).filter(k => {
+        const type = typeof value[k];
+        return type !== 'undefined' && type !== 'function' && type !== 'symbol';
+      });
+      this.header(keys.length, 0x80, 15, null, 0xde, 0xdf);
+      for (const k of keys) {
+        this.string(k);
+        this.value(value[k], k);
+      }
+    }
+  }
+}
+
+const encode = (value) => {
+  const encoder = new Encoder();
+  encoder.value(value, '');
+  return encoder.buf.subarray(0, encoder.pos);
+};
+
+module.exports = {
+  MEDIA_TYPE,
+  encode
+};
@@ -0,0 +1,73 @@
+// Chuyển tham số ?fields= thành projection của mongoose để danh sách chỉ trả các trường cần hiển thị.
+// fields có thể là tên preset (vd: summary) hoặc danh sách trường cách nhau bởi dấu phẩy.
+
+const ROOM_FIELDS = [
+  'title', 'description', 'landlord', 'address', 'roomType', 'area', 'price',
+  'amenities', 'rules', 'images', 'availability', 'status', 'contactInfo',
+  'nearbyPlaces', 'rating', 'views', 'likes', 'createdAt', 'updatedAt'
+];
+
+const ROOM_PRESETS = {
+  // Dữ liệu cho thẻ phòng trong danh sách: chỉ lấy ảnh đầu tiên.
+  // description (đã cắt ngắn) và amenities để app đánh chỉ mục tìm kiếm offline
+  summary: {
+    title: 1,
+    description: 1,
+    amenities: 1,
+    'address.street': 1,
+    'address.ward': 1,
+    'address.district': 1,
+    'address.city': 1,
+    roomType: 1,
+    area: 1,
+    'price.monthly': 1,
+    status: 1,
+    views: 1,
+    updatedAt: 1,
+    images: { $slice: 1 }
+  }
+};
+
+// Mô tả trong preset summary chỉ dùng để tìm kiếm nên không cần gửi cả đoạn dài
+const SUMMARY_DESCRIPTION_LENGTH = 300;
+
+// Trả về null nếu không có fields hợp lệ (giữ nguyên toàn bộ document)
+const parseFields = (fields, allowed = ROOM_FIELDS, presets = ROOM_PRESETS) => {
+  if (!fields || typeof fields !== 'string') {
+    return null;
+  }
+  if (presets[fields]) {
+    return { ...presets[fields] };
+  }
+  const projection = {};
+  fields.split(',')
+    .map(field => field.trim())
+    .filter(field => allowed.includes(field))
+    .forEach(field => {
+      projection[field] = 1;
+    });
+  return Object.keys(projection).length ? projection : null;
+};
+
+const includesField = (projection, field) => !projection || projection[field] !== undefined;
+
+// Cắt ngắn mô tả của kết quả lean() khi client yêu cầu preset summary
+const trimSummaries = (rooms, fields) => {
+  if (fields !== 'summary') {
+    return rooms;
+  }
+  rooms.forEach(room => {
+    if (typeof room.description === 'string' && room.description.length > SUMMARY_DESCRIPTION_LENGTH) {
+      room.description = room.description.slice(0, SUMMARY_DESCRIPTION_LENGTH);
+    }
+  });
+  return rooms;
+};
+
+module.exports = {
+  ROOM_FIELDS,
+  ROOM_PRESETS,
+  parseFields,
+  includesField,
+  trimSummaries
+};
@@ -0,0 +1,67 @@
+// Tìm kiếm văn bản cho danh sách phòng: regex không phân biệt dấu tiếng Việt và điều kiện ?search= theo từng từ khóa.
+// Dùng chung cho GET /api/rooms và GET /api/users/:id/rooms.
+
+// Tìm kiếm tự do (?search=) trên các trường văn bản của phòng
+const SEARCH_FIELDS = ['title', 'description', 'address.street', 'address.ward', 'address.district', 'address.city'];
+const MAX_SEARCH_TERMS = 8;
+
+const createAccentInsensitiveRegex = (str) => {
+  if (!str) return null;
+  const normalized = str.toLowerCase();
+  let pattern = '';
+  for (let i = 0; i < normalized.length; i++) {
+    const char = normalized[i];
+    switch (char) {
+      case 'a':
+        pattern += '[aàáảãạăằắẳẵặâầấẩẫậ]';
+        break;
+      case 'e':
+        pattern += '[eèéẻẽẹêềếểễệ]';
+        break;
+      case 'i':
+        pattern += '[iìíỉĩị]';
+        break;
+      case 'o':
+        pattern += '[oòóỏõọôồốổỗộơờớởỡợ]';
+        break;
+      case 'u':
+        pattern += '[uùúủũụưừứửữự]';
+        break;
+      case 'y':
+        pattern += '[yỳýỷỹỵ]';
+        break;
+      case 'd':
+      case 'đ':
+        pattern += '[dđ]';
+        break;
+      default:
+        if (/[.*+?^${}()|[\]\\]/.test(char)) {
+          pattern += '\\' + char;
+        } else {
+          pattern += char;
+        }
+        break;
+    }
+  }
+  return new RegExp(pattern, 'i');
+};
+
+// Mỗi từ khóa phải xuất hiện trong ít nhất một trường; trả về null nếu không có từ khóa
+const buildTextSearch = (search) => {
+  if (!search) return null;
+  const terms = String(search)
+    .split(/[\s,.;:\-\/]+/)
+    .filter(Boolean)
+    .slice(0, MAX_SEARCH_TERMS);
+  if (!terms.length) return null;
+  return terms.map(term => {
+    const termRegex = createAccentInsensitiveRegex(term);
+    return { $or: SEARCH_FIELDS.map(field => ({ [field]: termRegex })) };
+  });
+};
+
+module.exports = {
+  SEARCH_FIELDS,
+  createAccentInsensitiveRegex,
+  buildTextSearch
+};